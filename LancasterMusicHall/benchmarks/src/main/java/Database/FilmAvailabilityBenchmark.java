@@ -0,0 +1,88 @@
+package Database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SQLConnection#getFilmEventDetailsWithAvailability} end to end against the embedded database
+ * profile: the venue list and the {@link AvailabilityEngine} bitmaps. The first call reads each venue's events
+ * into the {@link RoomOccupancyIndex} and paints the day; later calls read the painted bitmaps.
+ * <p>
+ * Each fork runs in its own JVM with its own in-memory database, which the set-up fills with the films of one
+ * day, spread like those of {@link FreeTimeBenchmark}, as events of sample booking 1.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FilmAvailabilityBenchmark {
+
+    private static final String[] SCREENS = {"Main_Hall", "Small_Hall", "Rehearsal_Space"};
+    private static final int[] SCREEN_VENUE_IDS = {8, 9, 10};
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 1);
+
+    /** The number of films on the day. */
+    @Param({"10", "100", "1000"})
+    public int films;
+
+    private SQLConnection sqlCon;
+
+    /**
+     * Creates the embedded database and the day's films.
+     *
+     * @throws SQLException if the films cannot be inserted
+     */
+    @Setup
+    public void setUp() throws SQLException {
+        SQLConnection.configure(DatabaseConfig.embedded());
+        sqlCon = new SQLConnection();
+        SplittableRandom random = new SplittableRandom(42);
+        String insert = "INSERT INTO Event (name, start_date, end_date, start_time, end_time, event_type, venue_id, " +
+                "booking_id, location) VALUES (?, ?, ?, ?, ?, 'Film', ?, 1, ?)";
+        try (Connection con = sqlCon.getConnection();
+             PreparedStatement ps = con.prepareStatement(insert)) {
+            for (int i = 0; i < films; i++) {
+                LocalTime start = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(13 * 4 + 1));
+                ps.setString(1, "Film " + i);
+                ps.setDate(2, java.sql.Date.valueOf(DAY));
+                ps.setDate(3, java.sql.Date.valueOf(DAY));
+                ps.setTime(4, java.sql.Time.valueOf(start));
+                ps.setTime(5, java.sql.Time.valueOf(start.plusMinutes(60L + 15L * random.nextInt(9))));
+                int screen = random.nextInt(SCREENS.length);
+                ps.setInt(6, SCREEN_VENUE_IDS[screen]);
+                ps.setString(7, SCREENS[screen]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * @return the free time of each screen
+     */
+    @Benchmark
+    public Map<String, String> filmAvailability() {
+        return sqlCon.getFilmEventDetailsWithAvailability(DAY);
+    }
+}
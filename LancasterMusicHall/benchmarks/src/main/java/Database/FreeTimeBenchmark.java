@@ -0,0 +1,85 @@
+package Database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Database.rows.OccupancyRow;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link AvailabilityEngine} works out the free time shown by
+ * {@link SQLConnection#getFilmEventDetailsWithAvailability}.
+ * <p>
+ * The films of one day are spread over the three screens, each starting on the quarter hour between 08:00
+ * and 21:00 and lasting one to three hours. Each screen's minute bitmap is painted from its films on every call,
+ * as it is when a day is first asked for, and its free slots are then read off and described.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FreeTimeBenchmark {
+
+    private static final String[] SCREENS = {"Main_Hall", "Small_Hall", "Rehearsal_Space"};
+    private static final LocalTime OPEN = LocalTime.of(8, 0);
+    private static final LocalTime CLOSE = LocalTime.of(22, 0);
+
+    /** The number of films on the day. */
+    @Param({"10", "100", "1000"})
+    public int films;
+
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 1);
+
+    private Map<String, List<OccupancyRow>> byScreen;
+
+    /**
+     * Creates the day's films.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        byScreen = new HashMap<>();
+        for (int i = 0; i < films; i++) {
+            int screen = random.nextInt(SCREENS.length);
+            LocalTime start = OPEN.plusMinutes(15L * random.nextInt(13 * 4 + 1));
+            LocalTime end = start.plusMinutes(60L + 15L * random.nextInt(9));
+            byScreen.computeIfAbsent(SCREENS[screen], k -> new ArrayList<>())
+                    .add(new OccupancyRow(i + 1, 8 + screen, "Film " + i, DAY, start, DAY, end));
+        }
+    }
+
+    /**
+     * @return the free time of each screen
+     */
+    @Benchmark
+    public Map<String, String> describeFreeTime() {
+        long dayStart = DAY.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        Map<String, String> freeTime = new HashMap<>();
+        for (Map.Entry<String, List<OccupancyRow>> screen : byScreen.entrySet()) {
+            freeTime.put(screen.getKey(), AvailabilityEngine.describe(AvailabilityEngine.freeSlots(DAY,
+                    AvailabilityEngine.paint(dayStart, screen.getValue()), OPEN, CLOSE, 1)));
+        }
+        return freeTime;
+    }
+}
@@ -0,0 +1,98 @@
+package GUI.MenuPanels.Calendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the column layout of the day and week views for one day of events.
+ * <p>
+ * Each event starts at a random minute between 10:00 and 24:00 and lasts a quarter of an hour to four hours,
+ * so a busy day has many short overlapping meetings. The events are in no particular order, as the layout sorts
+ * them itself.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class EventColumnsBenchmark {
+
+    /** The first minute of the day shown, 10:00. */
+    private static final int FIRST_MINUTE = 10 * 60;
+
+    /** The number of events on the day. */
+    @Param({"10", "100", "1000"})
+    public int events;
+
+    private List<Event> day;
+
+    /**
+     * Creates the day's events.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        day = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            long start = FIRST_MINUTE + random.nextInt(EventColumns.MINUTES_PER_DAY - FIRST_MINUTE);
+            long end = Math.min(EventColumns.MINUTES_PER_DAY, start + 15 + random.nextInt(4 * 60 - 15));
+            day.add(new Event(start, end));
+        }
+    }
+
+    /**
+     * @return the events with their assigned columns
+     */
+    @Benchmark
+    public List<Event> layout() {
+        EventColumns.layout(day);
+        return day;
+    }
+
+    /**
+     * An event reduced to what the layout reads and writes.
+     */
+    static final class Event implements EventColumns.Span {
+        private final long start;
+        private final long end;
+        int column;
+        int columns;
+
+        Event(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public long start() {
+            return start;
+        }
+
+        @Override
+        public long end() {
+            return end;
+        }
+
+        @Override
+        public void place(int column, int columns) {
+            this.column = column;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and reports regressions.
+ * <p>
+ * Results are matched by benchmark name and parameters. A result has regressed if its score is worse than the
+ * baseline by more than the threshold percentage and by more than the two scores' error margins combined, or
+ * if it allocates more than the threshold percentage (and at least 16 bytes) more per operation. Benchmarks
+ * missing from either file are listed but are not regressions.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar benchmark.BaselineComparison baseline.json result.json [threshold]}.
+ * The exit status is 1 if anything regressed.
+ * </p>
+ */
+public final class BaselineComparison {
+
+    /** The default regression threshold, in percent. */
+    public static final double DEFAULT_THRESHOLD = 10;
+
+    /** Allocation changes smaller than this, in bytes per operation, are noise. */
+    private static final double MIN_ALLOCATION_CHANGE = 16;
+
+    private BaselineComparison() {
+    }
+
+    /**
+     * One benchmark result.
+     *
+     * @param mode       the JMH mode, e.g. {@code avgt} or {@code thrpt}
+     * @param score      the primary score
+     * @param error      the primary score's error margin
+     * @param allocation the bytes allocated per operation, or {@code NaN} if the GC profiler did not run
+     */
+    record Score(String mode, double score, double error, double allocation) {
+
+        /**
+         * @return true if a higher score is better, as for throughput
+         */
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+    }
+
+    /**
+     * Compares two result files.
+     *
+     * @param args the baseline file, the result file and optionally the threshold in percent
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        if (compare(Path.of(args[0]), Path.of(args[1]), threshold) > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints a comparison of two result files.
+     *
+     * @param baselineFile the baseline result file
+     * @param resultFile   the new result file
+     * @param threshold    the regression threshold, in percent
+     * @return the number of regressed benchmarks
+     * @throws IOException if a file cannot be read
+     */
+    public static int compare(Path baselineFile, Path resultFile, double threshold) throws IOException {
+        Map<String, Score> baseline = read(baselineFile);
+        Map<String, Score> results = read(resultFile);
+
+        System.out.printf("%nComparison with baseline %s (threshold %.0f%%)%n", baselineFile, threshold);
+        System.out.printf("%-72s %14s %14s %8s %12s %12s  %s%n",
+                "Benchmark", "Baseline", "Current", "Change", "B/op base", "B/op now", "");
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score now = entry.getValue();
+            Score base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-72s %14s %14.3f %8s %12s %12.0f  new%n",
+                        entry.getKey(), "-", now.score(), "", "-", now.allocation());
+                continue;
+            }
+            double change = 100 * (now.score() - base.score()) / base.score();
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean slower = worse > threshold
+                    && Math.abs(now.score() - base.score()) > errorOf(now) + errorOf(base);
+            double allocationChange = now.allocation() - base.allocation();
+            boolean allocates = allocationChange > MIN_ALLOCATION_CHANGE
+                    && allocationChange > base.allocation() * threshold / 100;
+            String verdict = slower && allocates ? "REGRESSION (time, allocation)"
+                    : slower ? "REGRESSION (time)"
+                    : allocates ? "REGRESSION (allocation)"
+                    : worse < -threshold ? "improved" : "";
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.printf("%-72s %14.3f %14.3f %+7.1f%% %12.0f %12.0f  %s%n", entry.getKey(),
+                    base.score(), now.score(), change, base.allocation(), now.allocation(), verdict);
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.printf("%-72s %14.3f %14s %8s %12.0f %12s  not run%n",
+                        key, baseline.get(key).score(), "-", "", baseline.get(key).allocation(), "-");
+            }
+        }
+        System.out.println(regressions == 0 ? "No regressions." : regressions + " regression(s).");
+        return regressions;
+    }
+
+    private static double errorOf(Score score) {
+        return Double.isNaN(score.error()) ? 0 : score.error();
+    }
+
+    /**
+     * Reads a JMH JSON result file.
+     *
+     * @param file the result file
+     * @return the scores keyed by benchmark name and parameters, in file order
+     * @throws IOException if the file cannot be read
+     */
+    static Map<String, Score> read(Path file) throws IOException {
+        JsonArray runs;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            runs = JsonParser.parseReader(reader).getAsJsonArray();
+        }
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonElement element : runs) {
+            JsonObject run = element.getAsJsonObject();
+            String key = run.get("benchmark").getAsString();
+            if (run.has("params")) {
+                Map<String, String> params = new TreeMap<>();
+                for (Map.Entry<String, JsonElement> param : run.getAsJsonObject("params").entrySet()) {
+                    params.put(param.getKey(), param.getValue().getAsString());
+                }
+                key += params;
+            }
+            JsonObject primary = run.getAsJsonObject("primaryMetric");
+            double allocation = Double.NaN;
+            if (run.has("secondaryMetrics")) {
+                for (Map.Entry<String, JsonElement> metric : run.getAsJsonObject("secondaryMetrics").entrySet()) {
+                    // Older JMH versions prefix profiler metrics with a middle dot.
+                    if (metric.getKey().replace("·", "").equals("gc.alloc.rate.norm")) {
+                        allocation = metric.getValue().getAsJsonObject().get("score").getAsDouble();
+                    }
+                }
+            }
+            scores.put(key, new Score(run.get("mode").getAsString(), primary.get("score").getAsDouble(),
+                    number(primary.get("scoreError")), allocation));
+        }
+        return scores;
+    }
+
+    /**
+     * JMH writes {@code "NaN"} as a string when a score has no error margin.
+     */
+    private static double number(JsonElement element) {
+        try {
+            return element.getAsDouble();
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Main class of {@code benchmarks.jar}: runs the benchmarks and compares the results with the stored baseline.
+ * <p>
+ * It takes the usual JMH command line, e.g. {@code java -jar target/benchmarks.jar EventColumns -p events=100},
+ * and adds two defaults: the {@link GCProfiler} always runs, so every result carries its allocation rate per
+ * operation ({@code gc.alloc.rate.norm}), and the results are written as JSON to {@code target/jmh-result.json}
+ * unless {@code -rff} names another file.
+ * </p>
+ * <p>
+ * If the baseline file exists ({@code baseline/baseline.json}, or the file named by
+ * {@code -Dlmh.bench.baseline=path}), the results are then compared with it by {@link BaselineComparison}
+ * and the runner exits with status 1 if any benchmark regressed by more than {@code -Dlmh.bench.threshold}
+ * percent (default 10).
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT = "target/jmh-result.json";
+    private static final String DEFAULT_BASELINE = "baseline/baseline.json";
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks selected by the command line.
+     *
+     * @param args JMH command-line options
+     * @throws Exception if the options are invalid or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+
+        Path result = Path.of(cli.getResult().orElse(DEFAULT_RESULT));
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(cli)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString());
+        boolean gcProfiled = false;
+        for (ProfilerConfig profiler : cli.getProfilers()) {
+            gcProfiled |= profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName());
+        }
+        if (!gcProfiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        Runner runner = new Runner(options.build());
+        if (cli.shouldList()) {
+            runner.list();
+            return;
+        }
+        if (cli.shouldListWithParams()) {
+            runner.listWithParams(cli);
+            return;
+        }
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+        runner.run();
+
+        Path baseline = Path.of(System.getProperty("lmh.bench.baseline", DEFAULT_BASELINE));
+        if (Files.exists(baseline)) {
+            double threshold = Double.parseDouble(System.getProperty("lmh.bench.threshold",
+                    String.valueOf(BaselineComparison.DEFAULT_THRESHOLD)));
+            if (BaselineComparison.compare(baseline, result, threshold) > 0) {
+                System.exit(1);
+            }
+        } else {
+            System.out.println("No baseline at " + baseline + "; copy " + result + " there to create one.");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package operations.interfaces;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the revenue and refund totals of {@link Report}, summed over all the reports of a period.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ReportBenchmark {
+
+    /** The number of reports in the period. */
+    @Param({"100", "10000", "100000"})
+    public int reports;
+
+    private List<Report> period;
+
+    /**
+     * Creates the period's reports.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        period = new ArrayList<>(reports);
+        for (int i = 0; i < reports; i++) {
+            Map<ETicketType, Integer> seats = new EnumMap<>(ETicketType.class);
+            Map<ETicketType, Integer> refunded = new EnumMap<>(ETicketType.class);
+            for (ETicketType type : ETicketType.values()) {
+                seats.put(type, random.nextInt(300));
+                refunded.put(type, random.nextInt(5));
+            }
+            period.add(new Report("Show " + i, new Date(), 1300 + 100 * random.nextInt(8),
+                    500 + random.nextInt(2500), 0.85, seats, refunded, List.of()));
+        }
+    }
+
+    /**
+     * @return the period's total revenue
+     */
+    @Benchmark
+    public double totalRevenue() {
+        double total = 0;
+        for (Report report : period) {
+            total += report.getTotalRevenue();
+        }
+        return total;
+    }
+
+    /**
+     * @return the period's total refunds
+     */
+    @Benchmark
+    public double refundSum() {
+        double total = 0;
+        for (Report report : period) {
+            total += report.getRefundSum();
+        }
+        return total;
+    }
+}
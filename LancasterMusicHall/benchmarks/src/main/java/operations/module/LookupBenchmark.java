@@ -0,0 +1,114 @@
+package operations.module;
+
+import operations.entities.Activity;
+import operations.entities.Booking;
+import operations.entities.FinancialRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the booking lookups of {@link CalendarModule} and the revenue lookup of {@link IncomeTracker}.
+ * <p>
+ * Both hold one booking per activity, spread over three years from 2024, and one financial record per
+ * booking. Each call looks up the next of a fixed sequence of random IDs, so hits are spread over the list.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class LookupBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 3 * 365;
+    private static final int PROBES = 1024;
+
+    /** The number of bookings. */
+    @Param({"1000", "10000", "100000"})
+    public int bookings;
+
+    private CalendarModule calendar;
+    private IncomeTracker income;
+    private int[] ids;
+    private LocalDate[] weeks;
+    private int next;
+
+    /**
+     * Creates the bookings and financial records.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        calendar = new CalendarModule();
+        income = new IncomeTracker();
+        for (int id = 1; id <= bookings; id++) {
+            LocalDate start = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            Booking booking = new Booking(id, start, start.plusDays(random.nextInt(3)), start.plusDays(14),
+                    new Activity(id, "Activity " + id), null, false, null, List.of(), "Staff",
+                    "Main Hall", "Company " + id, null);
+            calendar.addBooking(booking);
+            double revenue = 100 + random.nextInt(5000);
+            income.recordFinancials(new FinancialRecord(id, booking, revenue, revenue / 3, start));
+        }
+        ids = new int[PROBES];
+        weeks = new LocalDate[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            ids[i] = 1 + random.nextInt(bookings);
+            weeks[i] = FIRST_DAY.plusDays(random.nextInt(DAYS));
+        }
+    }
+
+    private int nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return next;
+    }
+
+    /**
+     * @return the booking with the next ID
+     */
+    @Benchmark
+    public Booking bookingById() {
+        return calendar.getBookingById(ids[nextProbe()]);
+    }
+
+    /**
+     * @return the booking of the next activity
+     */
+    @Benchmark
+    public Booking bookingByActivityId() {
+        return calendar.getBookingByActivityId(ids[nextProbe()]);
+    }
+
+    /**
+     * @return the bookings of the next week
+     */
+    @Benchmark
+    public List<Booking> bookingsForWeek() {
+        LocalDate start = weeks[nextProbe()];
+        return calendar.getBookingsForDate(start, start.plusDays(6));
+    }
+
+    /**
+     * @return the revenue summary of the next activity
+     */
+    @Benchmark
+    public String revenueForActivity() {
+        return income.getRevenueForActivity(ids[nextProbe()]);
+    }
+}
@@ -0,0 +1,186 @@
+package Database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@link SQLConnection} operations off the calling thread and returns their results as
+ * {@link CompletableFuture}s.
+ * <p>
+ * Every task runs on its own virtual thread, so a blocked JDBC round trip never ties up a platform thread
+ * (and, for GUI callers, never blocks the Event Dispatch Thread). A semaphore caps the number of tasks that
+ * touch the database at once so the connection pool is not flooded; excess tasks wait for a permit.
+ * </p>
+ * <p>
+ * Cancelling a returned future, or letting it time out, interrupts the task. A task still waiting for a permit
+ * never runs; a task blocked on the network has its socket closed by the interrupt, and the pool discards that
+ * connection when it is returned. Swing callers should hop back to the EDT before touching components, e.g.
+ * {@code future.whenCompleteAsync(callback, SwingUtilities::invokeLater)}.
+ * </p>
+ */
+public class AsyncSQLConnection {
+
+    /**
+     * A unit of database work run against the wrapped {@link SQLConnection}.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    public interface SQLTask<T> {
+        /**
+         * Performs the work.
+         *
+         * @param sqlCon the connection facade to use
+         * @return the result delivered to the future
+         * @throws Exception if the work fails; the future completes exceptionally with it
+         */
+        T run(SQLConnection sqlCon) throws Exception;
+    }
+
+    private final SQLConnection sqlCon;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final long defaultTimeoutMillis;
+
+    /**
+     * Creates a facade over the given connection.
+     *
+     * @param sqlCon               the blocking connection facade the tasks run against
+     * @param maxConcurrent        the maximum number of tasks running at once
+     * @param defaultTimeoutMillis the timeout applied by {@link #submit(SQLTask)}; {@code 0} for none
+     */
+    public AsyncSQLConnection(SQLConnection sqlCon, int maxConcurrent, long defaultTimeoutMillis) {
+        this.sqlCon = sqlCon;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    /**
+     * Runs a task with the default timeout.
+     *
+     * @param task the work to run
+     * @param <T>  the result type
+     * @return a future completed with the task's result or failure
+     */
+    public <T> CompletableFuture<T> submit(SQLTask<T> task) {
+        return submit(task, defaultTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a task, failing the future with a {@link java.util.concurrent.TimeoutException} if it has not
+     * finished within the given time. The time spent waiting for a permit counts towards the timeout.
+     *
+     * @param task    the work to run
+     * @param timeout the timeout; {@code 0} or less for none
+     * @param unit    the unit of {@code timeout}
+     * @param <T>     the result type
+     * @return a future completed with the task's result or failure
+     */
+    public <T> CompletableFuture<T> submit(SQLTask<T> task, long timeout, TimeUnit unit) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> worker;
+        try {
+            worker = executor.submit(() -> execute(task, result));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        // Cancellation and timeouts complete the future from outside; stop the worker as well.
+        result.whenComplete((value, ex) -> {
+            if (ex != null) {
+                worker.cancel(true);
+            }
+        });
+        if (timeout > 0) {
+            result.orTimeout(timeout, unit);
+        }
+        return result;
+    }
+
+    private <T> void execute(SQLTask<T> task, CompletableFuture<T> result) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // Cancelled or timed out while queued; the future is already complete.
+            return;
+        }
+        try {
+            if (!result.isDone()) {
+                result.complete(task.run(sqlCon));
+            }
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Asynchronous form of {@link SQLConnection#queryForList}. Unlike the blocking version, a database error
+     * fails the future instead of producing an empty list.
+     *
+     * @param query  the SQL query with {@code ?} placeholders
+     * @param mapper maps one row to a value
+     * @param params the values bound to the placeholders, in order
+     * @param <T>    the row type
+     * @return a future of the mapped rows
+     */
+    public <T> CompletableFuture<List<T>> queryForList(String query, RowMapper<T> mapper, Object... params) {
+        return submit(sql -> {
+            try (Stream<T> rows = sql.queryForStream(query, mapper, params)) {
+                return rows.toList();
+            } catch (IllegalStateException e) {
+                throw e.getCause() instanceof SQLException ? (SQLException) e.getCause() : e;
+            }
+        });
+    }
+
+    /**
+     * Asynchronous form of {@link SQLConnection#queryForObject}. A database error fails the future.
+     *
+     * @param query  the SQL query with {@code ?} placeholders
+     * @param mapper maps the row to a value
+     * @param params the values bound to the placeholders, in order
+     * @param <T>    the row type
+     * @return a future of the first mapped row, or an empty {@code Optional} if there is none
+     */
+    public <T> CompletableFuture<Optional<T>> queryForObject(String query, RowMapper<T> mapper, Object... params) {
+        return submit(sql -> {
+            try (Stream<T> rows = sql.queryForStream(query, mapper, params)) {
+                return rows.findFirst();
+            } catch (IllegalStateException e) {
+                throw e.getCause() instanceof SQLException ? (SQLException) e.getCause() : e;
+            }
+        });
+    }
+
+    /**
+     * @return the number of tasks that could start now without waiting for a permit
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * @return an estimate of the number of tasks waiting for a permit
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Stops accepting new tasks. Tasks already submitted are left to finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
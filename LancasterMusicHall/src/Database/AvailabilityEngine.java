@@ -0,0 +1,281 @@
+package Database;
+
+import Database.rows.OccupancyRow;
+import Database.rows.VenueRow;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Answers when venues are free, from minute-by-minute occupancy bitmaps.
+ * <p>
+ * Each day of each venue is a {@link BitSet} of {@value #MINUTES_PER_DAY} bits, one per minute after midnight,
+ * set where any event (of any type) holds the venue. The bitmaps are painted by the {@link RoomOccupancyIndex}
+ * from the events it already keeps, and kept up to date as bookings are saved, so queries read no rows: the
+ * free slots of a day are the runs of clear bits found with {@link BitSet#nextSetBit} and
+ * {@link BitSet#nextClearBit}, a venue is free for a window if no bit is set inside it, the venues free for a
+ * window are those whose day bitmaps, masked to the window and OR-ed together, come out empty, and the time
+ * several venues are all free is the clear runs of their bitmaps OR-ed together.
+ * </p>
+ * <p>
+ * Free time is given as {@link Slot}s within opening hours, {@link #OPENING} to {@link #CLOSING} unless the
+ * caller asks for others. This class is thread-safe.
+ * </p>
+ */
+public class AvailabilityEngine {
+
+    /** Bits in a day's bitmap. */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /** When venues open, unless a query gives other hours. */
+    public static final LocalTime OPENING = LocalTime.of(8, 0);
+
+    /** When venues close, unless a query gives other hours. */
+    public static final LocalTime CLOSING = LocalTime.of(22, 0);
+
+    /**
+     * A stretch of time during which a venue is free.
+     *
+     * @param start when the venue becomes free
+     * @param end   when it is next held or closes
+     */
+    public record Slot(LocalDateTime start, LocalDateTime end) {
+        /**
+         * @return the length of the slot in minutes
+         */
+        public long minutes() {
+            return ChronoUnit.MINUTES.between(start, end);
+        }
+
+        /**
+         * @return the slot as {@code "HH:mm to HH:mm"}
+         */
+        @Override
+        public String toString() {
+            return start.toLocalTime() + " to " + end.toLocalTime();
+        }
+    }
+
+    private final RoomOccupancyIndex occupancy;
+    private final ReferenceData referenceData;
+
+    /**
+     * Creates an engine over the shared occupancy index and venue list of a connection.
+     *
+     * @param sqlCon the connection whose {@link SQLConnection#getRoomOccupancy()} and
+     *               {@link SQLConnection#getReferenceData()} are used
+     */
+    public AvailabilityEngine(SQLConnection sqlCon) {
+        this(sqlCon.getRoomOccupancy(), sqlCon.getReferenceData());
+    }
+
+    /**
+     * Creates an engine over an occupancy index and venue list.
+     *
+     * @param occupancy     the index that paints the bitmaps
+     * @param referenceData the venue list
+     */
+    public AvailabilityEngine(RoomOccupancyIndex occupancy, ReferenceData referenceData) {
+        this.occupancy = occupancy;
+        this.referenceData = referenceData;
+    }
+
+    /**
+     * Finds the free slots of a venue on each day of a date range, within the standard opening hours.
+     *
+     * @param venueId the venue ID
+     * @param from    the first day
+     * @param to      the last day, inclusive
+     * @return the free slots in time order
+     */
+    public List<Slot> freeSlots(int venueId, LocalDate from, LocalDate to) {
+        return freeSlots(venueId, from, to, OPENING, CLOSING, 1);
+    }
+
+    /**
+     * Finds the free slots of a venue on each day of a date range.
+     *
+     * @param venueId    the venue ID
+     * @param from       the first day
+     * @param to         the last day, inclusive
+     * @param opening    the start of the hours searched each day
+     * @param closing    the end of the hours searched each day; midnight means the end of the day
+     * @param minMinutes the shortest slot wanted; shorter gaps are left out
+     * @return the free slots in time order
+     */
+    public List<Slot> freeSlots(int venueId, LocalDate from, LocalDate to, LocalTime opening, LocalTime closing,
+                                int minMinutes) {
+        List<Slot> slots = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            slots.addAll(freeSlots(date, occupancy.occupiedMinutes(venueId, date), opening, closing, minMinutes));
+        }
+        return slots;
+    }
+
+    /**
+     * Finds the free slots of every venue on one day, within the standard opening hours.
+     *
+     * @param date the day
+     * @return the free slots of each venue, keyed by venue in venue ID order
+     */
+    public Map<VenueRow, List<Slot>> freeSlotsByVenue(LocalDate date) {
+        Map<VenueRow, List<Slot>> byVenue = new LinkedHashMap<>();
+        for (VenueRow venue : referenceData.getVenues()) {
+            byVenue.put(venue, freeSlots(date, occupancy.occupiedMinutes(venue.venueId(), date),
+                    OPENING, CLOSING, 1));
+        }
+        return byVenue;
+    }
+
+    /**
+     * Finds the slots during which all of several venues are free, for events that need them together.
+     *
+     * @param venueIds the venue IDs
+     * @param from     the first day
+     * @param to       the last day, inclusive
+     * @param opening  the start of the hours searched each day
+     * @param closing  the end of the hours searched each day; midnight means the end of the day
+     * @return the slots in time order
+     */
+    public List<Slot> commonFreeSlots(Collection<Integer> venueIds, LocalDate from, LocalDate to,
+                                      LocalTime opening, LocalTime closing) {
+        List<Slot> slots = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            BitSet held = new BitSet(MINUTES_PER_DAY);
+            for (int venueId : venueIds) {
+                held.or(occupancy.occupiedMinutes(venueId, date));
+            }
+            slots.addAll(freeSlots(date, held, opening, closing, 1));
+        }
+        return slots;
+    }
+
+    /**
+     * Finds the venues that are free for the whole of a window. Each day of the window gets a mask of its minutes
+     * in the window; a venue's day bitmaps are AND-ed with their masks and OR-ed together, and the venue is free
+     * if no bit is left.
+     *
+     * @param start the start of the window
+     * @param end   the end of the window, exclusive; may be on a later day
+     * @return the free venues in venue ID order
+     */
+    public List<VenueRow> freeVenues(LocalDateTime start, LocalDateTime end) {
+        Map<LocalDate, BitSet> masks = new LinkedHashMap<>();
+        for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+            int from = date.equals(start.toLocalDate()) ? minuteOf(start.toLocalTime()) : 0;
+            int to = date.equals(end.toLocalDate()) ? ceilMinuteOf(end.toLocalTime()) : MINUTES_PER_DAY;
+            BitSet mask = new BitSet(MINUTES_PER_DAY);
+            mask.set(from, Math.max(from, to));
+            masks.put(date, mask);
+        }
+        List<VenueRow> free = new ArrayList<>();
+        for (VenueRow venue : referenceData.getVenues()) {
+            BitSet held = new BitSet(MINUTES_PER_DAY);
+            for (Map.Entry<LocalDate, BitSet> day : masks.entrySet()) {
+                BitSet inWindow = (BitSet) day.getValue().clone();
+                inWindow.and(occupancy.occupiedMinutes(venue.venueId(), day.getKey()));
+                held.or(inWindow);
+            }
+            if (held.isEmpty()) {
+                free.add(venue);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * @param venueId the venue ID
+     * @param start   the start of the window
+     * @param end     the end of the window, exclusive; may be on a later day
+     * @return true if no event holds the venue during any minute of the window
+     */
+    public boolean isFree(int venueId, LocalDateTime start, LocalDateTime end) {
+        for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+            int from = date.equals(start.toLocalDate()) ? minuteOf(start.toLocalTime()) : 0;
+            int to = date.equals(end.toLocalDate()) ? ceilMinuteOf(end.toLocalTime()) : MINUTES_PER_DAY;
+            int held = occupancy.occupiedMinutes(venueId, date).nextSetBit(from);
+            if (held >= 0 && held < to) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the minutes of a day held by events.
+     *
+     * @param dayStart the day's midnight, in epoch seconds as {@link OccupancyRow#startSecond()} counts them
+     * @param events   the events overlapping the day
+     * @return the day's bitmap
+     */
+    static BitSet paint(long dayStart, Iterable<OccupancyRow> events) {
+        BitSet minutes = new BitSet(MINUTES_PER_DAY);
+        for (OccupancyRow event : events) {
+            long from = Math.max(event.startSecond() - dayStart, 0);
+            long to = Math.min(event.endSecond() - dayStart, MINUTES_PER_DAY * 60L);
+            if (from < to) {
+                minutes.set((int) (from / 60), (int) ((to + 59) / 60));
+            }
+        }
+        return minutes;
+    }
+
+    /**
+     * Reads the free slots of one day off a bitmap.
+     *
+     * @param date       the day
+     * @param held       the minutes that are not free
+     * @param opening    the start of the hours searched
+     * @param closing    the end of the hours searched; midnight means the end of the day
+     * @param minMinutes the shortest slot wanted
+     * @return the free slots in time order
+     */
+    static List<Slot> freeSlots(LocalDate date, BitSet held, LocalTime opening, LocalTime closing,
+                                int minMinutes) {
+        List<Slot> slots = new ArrayList<>();
+        int close = ceilMinuteOf(closing);
+        int free = held.nextClearBit(minuteOf(opening));
+        while (free < close) {
+            int next = held.nextSetBit(free);
+            int end = next < 0 || next > close ? close : next;
+            if (end - free >= minMinutes) {
+                slots.add(new Slot(at(date, free), at(date, end)));
+            }
+            free = held.nextClearBit(end);
+        }
+        return slots;
+    }
+
+    /**
+     * @param slots free slots
+     * @return the slots as {@code "HH:mm to HH:mm"} joined by commas, as the marketing screens show them
+     */
+    public static String describe(List<Slot> slots) {
+        StringJoiner text = new StringJoiner(", ");
+        for (Slot slot : slots) {
+            text.add(slot.toString());
+        }
+        return text.toString();
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private static int ceilMinuteOf(LocalTime time) {
+        return time.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : (time.toSecondOfDay() + 59) / 60;
+    }
+
+    private static LocalDateTime at(LocalDate date, int minute) {
+        return date.atStartOfDay().plusMinutes(minute);
+    }
+}
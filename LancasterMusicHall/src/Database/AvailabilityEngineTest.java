@@ -0,0 +1,185 @@
+package Database;
+
+import Database.rows.OccupancyRow;
+import Database.rows.VenueRow;
+import operations.entities.Event;
+import operations.entities.Venue;
+import operations.module.RoomConfigurationSystem;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code AvailabilityEngineTest} class is a test driver for {@link AvailabilityEngine}.
+ * <p>
+ * It compares the free slots read off painted bitmaps with a minute-by-minute scan over random days, then books
+ * events into two venues of the embedded database and checks the free slots of one venue over several days,
+ * whether a venue is free for a window, the venues free for a window, the time two venues are both free, and
+ * that the answers follow bookings as they are made and deleted. Run it against the embedded profile
+ * ({@code -Dlmh.db.profile=embedded}); the bookings it makes are deleted again. The process exits with status 1
+ * if a check fails.
+ * </p>
+ */
+public class AvailabilityEngineTest {
+
+    private static final int MAIN_HALL = 8;
+    private static final int SMALL_HALL = 9;
+
+    /**
+     * Constructs a new AvailabilityEngineTest instance.
+     */
+    public AvailabilityEngineTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     */
+    public static void main(String[] args) {
+        checkBitmaps();
+
+        SQLConnection sqlCon = new SQLConnection();
+        AvailabilityEngine engine = sqlCon.getAvailability();
+        LocalDate day = LocalDate.now().plusYears(6);
+        LocalDate next = day.plusDays(1);
+
+        check("empty day is free for all opening hours", engine.freeSlots(MAIN_HALL, day, day)
+                .equals(List.of(slot(day, "08:00", day, "22:00"))));
+
+        int concert = book(sqlCon, event(MAIN_HALL, "Concert", day, "10:00", day, "12:00"));
+        int overnight = book(sqlCon, event(SMALL_HALL, "Overnight", day, "20:00", next, "09:00"));
+        check("test bookings are saved", concert > 0 && overnight > 0);
+
+        check("free slots skip a booking", engine.freeSlots(MAIN_HALL, day, day)
+                .equals(List.of(slot(day, "08:00", day, "10:00"), slot(day, "12:00", day, "22:00"))));
+        check("free slots cover every day of a range", engine.freeSlots(SMALL_HALL, day, next)
+                .equals(List.of(slot(day, "08:00", day, "20:00"), slot(next, "09:00", next, "22:00"))));
+        check("short slots can be left out", engine.freeSlots(MAIN_HALL, day, day, LocalTime.of(9, 0),
+                LocalTime.of(13, 0), 90).equals(List.of()));
+        check("booked venue is not free during its booking",
+                !engine.isFree(MAIN_HALL, day.atTime(11, 0), day.atTime(11, 30))
+                        && engine.isFree(SMALL_HALL, day.atTime(11, 0), day.atTime(11, 30)));
+        check("booked venue is free straight after its booking",
+                engine.isFree(MAIN_HALL, day.atTime(12, 0), day.atTime(13, 0)));
+        check("window across midnight sees the overnight booking",
+                !engine.isFree(SMALL_HALL, day.atTime(23, 0), next.atTime(1, 0))
+                        && engine.isFree(SMALL_HALL, next.atTime(9, 0), next.atTime(10, 0)));
+        check("two venues are free together between their bookings",
+                engine.commonFreeSlots(List.of(MAIN_HALL, SMALL_HALL), day, day, AvailabilityEngine.OPENING,
+                        AvailabilityEngine.CLOSING)
+                        .equals(List.of(slot(day, "08:00", day, "10:00"), slot(day, "12:00", day, "20:00"))));
+
+        List<Integer> during = venueIds(engine.freeVenues(day.atTime(11, 0), day.atTime(11, 30)));
+        check("free venues leave out the booked venue during its booking",
+                !during.contains(MAIN_HALL) && during.contains(SMALL_HALL));
+        List<Integer> after = venueIds(engine.freeVenues(day.atTime(12, 0), day.atTime(13, 0)));
+        check("free venues include the booked venue straight after its booking",
+                after.contains(MAIN_HALL) && after.contains(SMALL_HALL));
+        List<Integer> overnightWindow = venueIds(engine.freeVenues(day.atTime(23, 0), next.atTime(1, 0)));
+        check("free venues see a booking across midnight",
+                !overnightWindow.contains(SMALL_HALL) && overnightWindow.contains(MAIN_HALL));
+        boolean agrees = true;
+        for (LocalDateTime start = day.atTime(8, 0); start.isBefore(next.atTime(12, 0));
+             start = start.plusMinutes(45)) {
+            LocalDateTime end = start.plusMinutes(100);
+            List<Integer> free = venueIds(engine.freeVenues(start, end));
+            for (VenueRow venue : sqlCon.getReferenceData().getVenues()) {
+                agrees &= free.contains(venue.venueId()) == engine.isFree(venue.venueId(), start, end);
+            }
+        }
+        check("free venues agree with each venue's own answer", agrees);
+
+        check("marketing availability describes the free time", "08:00 to 10:00, 12:00 to 22:00"
+                .equals(sqlCon.getFilmEventDetailsWithAvailability(day).get("Main_Hall")));
+        RoomConfigurationSystem rooms = new RoomConfigurationSystem(engine);
+        check("room configuration reports booked and free venues",
+                "Free 08:00 to 10:00, 12:00 to 22:00".equals(rooms.getRoomAvailability(day).get("Main_Hall"))
+                        && "Available".equals(rooms.getRoomAvailability(day).get("Rehearsal_Space")));
+
+        sqlCon.deleteFullBooking(concert);
+        sqlCon.deleteFullBooking(overnight);
+        check("deleted bookings free the venues",
+                engine.freeSlots(MAIN_HALL, day, day).equals(List.of(slot(day, "08:00", day, "22:00")))
+                        && engine.isFree(SMALL_HALL, day.atTime(20, 0), next.atTime(9, 0)));
+
+        TestChecks.finish();
+    }
+
+    /** Compares the slots read off painted bitmaps with a scan of every minute of random days. */
+    private static void checkBitmaps() {
+        Random random = new Random(11);
+        LocalDate day = LocalDate.of(2030, 6, 1);
+        long dayStart = day.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        boolean matches = true;
+        for (int trial = 0; trial < 500 && matches; trial++) {
+            List<OccupancyRow> events = new ArrayList<>();
+            boolean[] held = new boolean[AvailabilityEngine.MINUTES_PER_DAY];
+            for (int i = random.nextInt(12); i > 0; i--) {
+                // Seconds from the previous day to the next, so events that cross midnight are clamped.
+                long start = dayStart - 3_600 + random.nextInt(26 * 3_600);
+                long end = start + 1 + random.nextInt(4 * 3_600);
+                LocalDateTime from = LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC);
+                LocalDateTime to = LocalDateTime.ofEpochSecond(end, 0, ZoneOffset.UTC);
+                events.add(new OccupancyRow(i, MAIN_HALL, "Event " + i, from.toLocalDate(), from.toLocalTime(),
+                        to.toLocalDate(), to.toLocalTime()));
+                for (int minute = 0; minute < held.length; minute++) {
+                    long minuteStart = dayStart + minute * 60L;
+                    held[minute] |= start < minuteStart + 60 && end > minuteStart;
+                }
+            }
+            List<AvailabilityEngine.Slot> expected = new ArrayList<>();
+            int open = 8 * 60;
+            int close = 22 * 60;
+            for (int minute = open; minute < close; minute++) {
+                if (!held[minute]) {
+                    int end = minute;
+                    while (end < close && !held[end]) {
+                        end++;
+                    }
+                    expected.add(new AvailabilityEngine.Slot(day.atStartOfDay().plusMinutes(minute),
+                            day.atStartOfDay().plusMinutes(end)));
+                    minute = end;
+                }
+            }
+            matches = AvailabilityEngine.freeSlots(day, AvailabilityEngine.paint(dayStart, events),
+                    AvailabilityEngine.OPENING, AvailabilityEngine.CLOSING, 1).equals(expected);
+        }
+        check("bitmap free slots match a minute scan", matches);
+    }
+
+    private static AvailabilityEngine.Slot slot(LocalDate startDate, String start, LocalDate endDate, String end) {
+        return new AvailabilityEngine.Slot(LocalDateTime.of(startDate, LocalTime.parse(start)),
+                LocalDateTime.of(endDate, LocalTime.parse(end)));
+    }
+
+    private static List<Integer> venueIds(List<VenueRow> venues) {
+        return venues.stream().map(VenueRow::venueId).toList();
+    }
+
+    private static Event event(int venueId, String name, LocalDate startDate, String start, LocalDate endDate,
+                               String end) {
+        String venueName = venueId == MAIN_HALL ? "Main_Hall" : "Small_Hall";
+        Venue venue = new Venue(venueId, venueName, "Ground floor", 370, "Stalls", false, true, 0.0);
+        return new Event(0, name, "Show", startDate, endDate, LocalTime.parse(start), LocalTime.parse(end), false,
+                "", venue, null, "", venueName, "Availability Test", null, 0.0, "", "");
+    }
+
+    /** Books an event as a new held booking; returns its ID, or 0 if it was refused. */
+    private static int book(SQLConnection sqlCon, Event event) {
+        String company = "Availability Test " + System.nanoTime();
+        LocalDate day = event.getStartDate();
+        boolean saved = sqlCon.insertFullBooking("Availability Test", day, event.getEndDate(), "held", company,
+                "Tester", "0", "test@example.com", new ArrayList<>(List.of(event)), 0, 0, "", "", "", "", "", day,
+                "unpaid", null, null, 0, null);
+        return saved ? sqlCon.queryForObject("SELECT B.booking_id FROM Booking B JOIN Clients C "
+                + "ON B.client_id = C.client_id WHERE C.`Company Name` = ?", rs -> rs.getInt(1), company).orElse(0) : 0;
+    }
+}
@@ -0,0 +1,223 @@
+package Database;
+
+import Database.rows.BookingListRow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The order and filter of the bookings list, and the keyset-paged SQL that reads it.
+ * <p>
+ * A page is fetched by giving the last row of the previous page as the cursor: the query continues after the
+ * cursor's sort value and booking ID instead of skipping rows with {@code OFFSET}. The booking ID breaks ties,
+ * which makes the order total and the pages disjoint.
+ * </p>
+ * <p>
+ * Ordered by ID, start date, end date or status with no filter, the database reads each page along an index of
+ * that column and the booking ID ({@code schema.sql}, {@code mysql-booking-list-indexes.sql}), so every page
+ * costs the same however deep into the list it is. The client name is in another table and has no such index,
+ * and the filter matches text anywhere in a value ({@code LIKE '%text%'}), which no index can find. Ordered by
+ * name, or filtered, a page may read every booking to find its rows, so it costs more as the history grows.
+ * </p>
+ *
+ * @param sort      the column the list is ordered by
+ * @param ascending true for ascending order
+ * @param filter    text matched against the booking ID, client name and status; empty for every booking
+ */
+public record BookingListQuery(Column sort, boolean ascending, String filter) {
+
+    /**
+     * The columns the list can be ordered by, in display order.
+     */
+    public enum Column {
+        /** The booking ID. */
+        ID("ID No.", "B.booking_id"),
+        /** The client company name; bookings without one sort as the empty name. */
+        NAME("Name", "COALESCE(C.`Company Name`, '')"),
+        /** The booking start date. */
+        START("Start Date", "B.booking_DateStart"),
+        /** The booking end date. */
+        END("End Date", "B.booking_DateEnd"),
+        /** The booking status. */
+        STATUS("Status", "B.booking_status");
+
+        private final String title;
+        private final String expression;
+
+        Column(String title, String expression) {
+            this.title = title;
+            this.expression = expression;
+        }
+
+        /**
+         * @return the column heading
+         */
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * @param row a row of the list
+         * @return the row's value in this column, as compared by the query
+         */
+        Object valueOf(BookingListRow row) {
+            return switch (this) {
+                case ID -> row.bookingId();
+                case NAME -> row.clientName() != null ? row.clientName() : "";
+                case START -> row.startDate();
+                case END -> row.endDate();
+                case STATUS -> row.status();
+            };
+        }
+    }
+
+    private static final String SELECT =
+            "SELECT B.booking_id, C.`Company Name` AS client_name, B.booking_DateStart, B.booking_DateEnd, "
+                    + "B.booking_status FROM Booking B JOIN Clients C ON B.client_id = C.client_id";
+
+    /** Every booking, newest start date first. */
+    public static final BookingListQuery DEFAULT = new BookingListQuery(Column.START, false, "");
+
+    /**
+     * Creates a query; a {@code null} filter is treated as empty.
+     */
+    public BookingListQuery {
+        filter = filter != null ? filter.trim() : "";
+    }
+
+    /**
+     * @param column    the column to order by
+     * @param ascending true for ascending order
+     * @return this query ordered by {@code column}
+     */
+    public BookingListQuery sortedBy(Column column, boolean ascending) {
+        return new BookingListQuery(column, ascending, filter);
+    }
+
+    /**
+     * @param text the new filter text
+     * @return this query with the given filter
+     */
+    public BookingListQuery filteredBy(String text) {
+        return new BookingListQuery(sort, ascending, text);
+    }
+
+    /**
+     * Builds the SQL for one page.
+     *
+     * @param after the last row of the previous page, or {@code null} for the first page
+     * @return the query; bind it with {@link #params(BookingListRow, int)}
+     */
+    public String sql(BookingListRow after) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<String> conditions = filterConditions();
+        String op = ascending ? ">" : "<";
+        if (after != null) {
+            // Written out rather than as a row comparison so MySQL can use an index range.
+            conditions.add(sort == Column.ID
+                    ? "B.booking_id " + op + " ?"
+                    : "(" + sort.expression + " " + op + " ? OR (" + sort.expression + " = ? AND B.booking_id "
+                    + op + " ?))");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(sort.expression).append(direction);
+        if (sort != Column.ID) {
+            sql.append(", B.booking_id").append(direction);
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    /**
+     * Returns the values bound to {@link #sql(BookingListRow)}.
+     *
+     * @param after the last row of the previous page, or {@code null} for the first page
+     * @param limit the page size
+     * @return the parameters, in order
+     */
+    public Object[] params(BookingListRow after, int limit) {
+        List<Object> params = filterParams();
+        if (after != null) {
+            Object value = sort.valueOf(after);
+            params.add(value);
+            if (sort != Column.ID) {
+                params.add(value);
+                params.add(after.bookingId());
+            }
+        }
+        params.add(limit);
+        return params.toArray();
+    }
+
+    /**
+     * Builds the SQL that reads given bookings, if they match the filter, e.g. to update rows already shown after
+     * the bookings have changed.
+     *
+     * @param count the number of booking IDs
+     * @return the query; bind it with {@link #paramsForIds(Collection)}
+     */
+    public String sqlForIds(int count) {
+        List<String> conditions = filterConditions();
+        conditions.add("B.booking_id IN (" + String.join(", ", Collections.nCopies(count, "?")) + ")");
+        return SELECT + " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Returns the values bound to {@link #sqlForIds(int)}.
+     *
+     * @param ids the booking IDs
+     * @return the parameters, in order
+     */
+    public Object[] paramsForIds(Collection<Integer> ids) {
+        List<Object> params = filterParams();
+        params.addAll(ids);
+        return params.toArray();
+    }
+
+    /**
+     * @param row a row of the list
+     * @return the row's value in the sort column
+     */
+    public Object sortValue(BookingListRow row) {
+        return sort.valueOf(row);
+    }
+
+    private List<String> filterConditions() {
+        List<String> conditions = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            conditions.add(filterId() != null
+                    ? "(B.booking_id = ? OR C.`Company Name` LIKE ? OR B.booking_status LIKE ?)"
+                    : "(C.`Company Name` LIKE ? OR B.booking_status LIKE ?)");
+        }
+        return conditions;
+    }
+
+    private List<Object> filterParams() {
+        List<Object> params = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            Integer id = filterId();
+            if (id != null) {
+                params.add(id);
+            }
+            String pattern = "%" + filter.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            params.add(pattern);
+            params.add(pattern);
+        }
+        return params;
+    }
+
+    /**
+     * @return the filter as a booking ID, or {@code null} if it is not a number
+     */
+    private Integer filterId() {
+        try {
+            return Integer.valueOf(filter);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package Database;
+
+import Database.rows.BookingListRow;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code BookingListQueryTest} class is a test driver for {@link BookingListQuery}.
+ * <p>
+ * It fills the configured database with synthetic bookings ({@link DataGenerator}), then reads the bookings list
+ * page by page in every order, with and without a filter, and checks that the pages join up into exactly the
+ * list a single sorted query returns: no row missed, none repeated. It also reads given bookings by ID through
+ * the filter, and checks that each indexed order is read along its index. Run it against the embedded profile
+ * ({@code -Dlmh.db.profile=embedded}). The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class BookingListQueryTest {
+
+    private static final int PAGE_SIZE = 37;
+
+    /** The orders the schema has an index for, ending with the booking ID. */
+    private static final List<BookingListQuery.Column> INDEXED = List.of(BookingListQuery.Column.ID,
+            BookingListQuery.Column.START, BookingListQuery.Column.END, BookingListQuery.Column.STATUS);
+
+    /**
+     * Constructs a new BookingListQueryTest instance.
+     */
+    public BookingListQueryTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if the test data cannot be generated
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        new DataGenerator(sqlCon, 7, 2_000, 2, LocalDate.of(2031, 1, 1), 2).run();
+
+        for (BookingListQuery.Column column : BookingListQuery.Column.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                BookingListQuery query = new BookingListQuery(column, ascending, "");
+                checkPages(column + (ascending ? " ascending" : " descending"), sqlCon, query);
+            }
+        }
+        checkPages("filtered by status", sqlCon, BookingListQuery.DEFAULT.filteredBy("held"));
+        checkPages("filtered by name", sqlCon, new BookingListQuery(BookingListQuery.Column.NAME, true, "a"));
+        List<BookingListRow> byId = pages(sqlCon, BookingListQuery.DEFAULT.filteredBy("1"));
+        check("filter by number matches the booking ID", byId.stream().anyMatch(row -> row.bookingId() == 1));
+        check("LIKE wildcards in the filter are literal",
+                pages(sqlCon, BookingListQuery.DEFAULT.filteredBy("%_")).isEmpty());
+
+        List<Integer> ids = pages(sqlCon, BookingListQuery.DEFAULT).stream()
+                .limit(20).map(BookingListRow::bookingId).toList();
+        BookingListQuery held = BookingListQuery.DEFAULT.filteredBy("held");
+        List<BookingListRow> byIds = sqlCon.queryForList(held.sqlForIds(ids.size()), BookingListRow.MAPPER,
+                held.paramsForIds(ids));
+        check("reading by IDs keeps only the given bookings that match the filter", !byIds.isEmpty()
+                && byIds.size() == pages(sqlCon, held).stream().filter(row -> ids.contains(row.bookingId())).count()
+                && byIds.stream().allMatch(row -> ids.contains(row.bookingId())
+                && "held".equalsIgnoreCase(row.status())));
+
+        BookingListRow cursor = pages(sqlCon, BookingListQuery.DEFAULT).get(PAGE_SIZE - 1);
+        for (BookingListQuery.Column column : INDEXED) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                BookingListQuery query = new BookingListQuery(column, ascending, "");
+                String plan = sqlCon.queryForObject("EXPLAIN " + query.sql(cursor), rs -> rs.getString(1),
+                        query.params(cursor, PAGE_SIZE)).orElse("");
+                check(column + (ascending ? " ascending" : " descending") + " pages along an index",
+                        plan.contains("index sorted"));
+            }
+        }
+
+        TestChecks.finish();
+    }
+
+    /**
+     * Checks that the pages of a query join up into the whole list, in the query's order.
+     */
+    private static void checkPages(String name, SQLConnection sqlCon, BookingListQuery query) {
+        List<BookingListRow> paged = pages(sqlCon, query);
+        List<BookingListRow> all = sqlCon.queryForList(query.sql(null), BookingListRow.MAPPER,
+                query.params(null, Integer.MAX_VALUE));
+        Comparator<BookingListRow> order = comparator(query);
+        boolean sorted = true;
+        for (int i = 1; i < paged.size(); i++) {
+            sorted &= order.compare(paged.get(i - 1), paged.get(i)) < 0;
+        }
+        check(name + ": " + paged.size() + " rows in " + (paged.size() / PAGE_SIZE + 1) + " pages",
+                !all.isEmpty() && paged.equals(all) && sorted);
+    }
+
+    private static List<BookingListRow> pages(SQLConnection sqlCon, BookingListQuery query) {
+        List<BookingListRow> rows = new ArrayList<>();
+        BookingListRow after = null;
+        while (true) {
+            List<BookingListRow> page = sqlCon.queryForList(query.sql(after), BookingListRow.MAPPER,
+                    query.params(after, PAGE_SIZE));
+            rows.addAll(page);
+            if (page.size() < PAGE_SIZE) {
+                return rows;
+            }
+            after = page.get(page.size() - 1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<BookingListRow> comparator(BookingListQuery query) {
+        Comparator<BookingListRow> bySort = Comparator.comparing(
+                row -> (Comparable<Object>) query.sort().valueOf(row));
+        Comparator<BookingListRow> order = bySort.thenComparingInt(BookingListRow::bookingId);
+        return query.ascending() ? order : order.reversed();
+    }
+}
@@ -0,0 +1,101 @@
+package Database;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The column values of a booking and its related Invoice, Clients, Event and Contract rows as they were
+ * when the booking was loaded for editing.
+ * <p>
+ * {@code SQLConnection.updateFullBooking(BookingSnapshot, ...)} compares the edited values against this snapshot
+ * and only writes the columns that differ. After a successful update the snapshot is brought up to date, so the
+ * same instance can be reused for the next save.
+ * </p>
+ * <p>
+ * Values are stored as {@code String}, {@code Integer}, {@code Double}, {@code LocalDate} or {@code LocalTime}
+ * keyed by column name.
+ * </p>
+ */
+public class BookingSnapshot {
+
+    private final int bookingId;
+    private final Map<String, Object> booking = new LinkedHashMap<>();
+    private final Map<String, Object> invoice = new LinkedHashMap<>();
+    private final Map<String, Object> client = new LinkedHashMap<>();
+    private final Map<Integer, Map<String, Object>> events = new LinkedHashMap<>();
+    private final Map<String, Object> contract = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty snapshot for the given booking. Populated by {@link SQLConnection#loadBookingSnapshot(int)}.
+     *
+     * @param bookingId the booking ID
+     */
+    BookingSnapshot(int bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    /**
+     * @return the booking ID this snapshot belongs to
+     */
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    Map<String, Object> booking() {
+        return booking;
+    }
+
+    Map<String, Object> invoice() {
+        return invoice;
+    }
+
+    Map<String, Object> client() {
+        return client;
+    }
+
+    Map<String, Object> contract() {
+        return contract;
+    }
+
+    /**
+     * Returns the stored columns of one event, or an empty map if the event was not part of the booking.
+     */
+    Map<String, Object> event(int eventId) {
+        return events.getOrDefault(eventId, Collections.emptyMap());
+    }
+
+    Map<String, Object> putEvent(int eventId) {
+        return events.computeIfAbsent(eventId, id -> new LinkedHashMap<>());
+    }
+
+    /**
+     * Returns the columns of {@code desired} whose value differs from {@code current}.
+     * <p>
+     * A {@code null} desired value means "keep the current value" and is never reported as a change.
+     * Numbers are compared by value, so an {@code Integer} 5 equals a {@code Double} 5.0.
+     * </p>
+     *
+     * @param current the stored column values
+     * @param desired the edited column values
+     * @return the changed columns and their new values, in {@code desired} order
+     */
+    static Map<String, Object> changes(Map<String, Object> current, Map<String, Object> desired) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : desired.entrySet()) {
+            Object value = entry.getValue();
+            if (value != null && !sameValue(current.get(entry.getKey()), value)) {
+                changed.put(entry.getKey(), value);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue()) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
@@ -0,0 +1,262 @@
+package Database;
+
+import Database.rows.CalendarEventRow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the {@code CalendarEntry} table, the calendar's read model, in step with {@code Event}, {@code Booking}
+ * and {@code Venue}.
+ * <p>
+ * {@code CalendarEntry} holds one row per event per day it covers, with everything the calendar, diary and daily
+ * events views show: the event's own columns, its venue name, its booking's status, who booked it and the colour
+ * category of its block. Its primary key starts with the day, so the views' reads ({@link CalendarStore}) are a
+ * single range scan of that key, already in start order, with no joins.
+ * </p>
+ * <p>
+ * The write paths ({@code insertFullBooking}, {@code updateFullBooking}, {@code deleteFullBooking} and
+ * {@code BoxOfficeService.updateEventDetails}) call {@link #refreshBooking}, {@link #refreshEvent} or
+ * {@link #removeBooking} on their own connection before committing, so the entries change in the same
+ * transaction as the rows they are copied from. Anything that writes those tables another way, e.g. by hand,
+ * should be followed by {@link #rebuild}, which the {@link #main} command runs.
+ * </p>
+ */
+public final class CalendarEntries {
+
+    /** Reads entries in the columns of {@link CalendarEventRow#MAPPER}. */
+    static final String SELECT_ENTRIES = "SELECT event_id, booking_id, name, start_date, end_date, start_time, "
+            + "end_time, event_type, description, booked_by, location, venue_id, venue_name, booking_status "
+            + "FROM CalendarEntry ";
+
+    /** Reads events as entries are made from them. */
+    private static final String SELECT_SOURCE = "SELECT e.event_id, e.booking_id, e.name, e.start_date, e.end_date, "
+            + "e.start_time, e.end_time, e.event_type, e.description, e.booked_by, e.location, e.venue_id, "
+            + "v.venue_name, b.booking_status "
+            + "FROM Event e "
+            + "LEFT JOIN Venue v ON e.venue_id = v.venue_id "
+            + "LEFT JOIN Booking b ON e.booking_id = b.booking_id ";
+
+    private static final String INSERT_ENTRY = "INSERT INTO CalendarEntry (entry_date, start_time, event_id, "
+            + "booking_id, name, start_date, end_date, end_time, event_type, description, booked_by, "
+            + "colour_category, location, venue_id, venue_name, booking_status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** The most days entered for one event; an event with a later end date is entered for its first year only. */
+    static final int MAX_DAYS_PER_EVENT = 366;
+
+    /** Events read per query by {@link #rebuild}. */
+    private static final int REBUILD_PAGE_SIZE = 1_000;
+
+    private CalendarEntries() {
+    }
+
+    /**
+     * Regenerates the entries from {@code Event}, {@code Venue} and {@code Booking} in one transaction, e.g. once
+     * after creating the table or after importing events by hand. The database is chosen as described in
+     * {@link DatabaseConfig}.
+     *
+     * @param args command-line arguments (not used)
+     * @throws SQLException if the entries cannot be written
+     */
+    public static void main(String[] args) throws SQLException {
+        SQLConnection sqlCon = new SQLConnection();
+        long started = System.nanoTime();
+        int entries;
+        try (Connection con = sqlCon.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                entries = rebuild(con);
+                con.commit();
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+        System.out.printf("Wrote %d calendar entries in %.1f s%n", entries, (System.nanoTime() - started) / 1e9);
+        System.exit(0);
+    }
+
+    /**
+     * Replaces every entry with ones made from the current events, a page of events at a time. Run it in a
+     * transaction so readers never see the table half built.
+     *
+     * @param con the connection to write through
+     * @return the number of entries written
+     * @throws SQLException if the events cannot be read or the entries written
+     */
+    public static int rebuild(Connection con) throws SQLException {
+        try (Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("DELETE FROM CalendarEntry");
+        }
+        int written = 0;
+        int after = Integer.MIN_VALUE;
+        while (true) {
+            List<CalendarEventRow> events = read(con,
+                    "WHERE e.event_id > ? ORDER BY e.event_id LIMIT " + REBUILD_PAGE_SIZE, after);
+            written += insert(con, events);
+            if (events.size() < REBUILD_PAGE_SIZE) {
+                return written;
+            }
+            after = events.get(events.size() - 1).eventId();
+        }
+    }
+
+    /**
+     * Replaces the entries of a booking's events, e.g. after the booking or its events were saved.
+     *
+     * @param con       the connection of the writing transaction
+     * @param bookingId the booking ID
+     * @throws SQLException if the entries cannot be written
+     */
+    public static void refreshBooking(Connection con, int bookingId) throws SQLException {
+        refreshBookings(con, bookingId, bookingId);
+    }
+
+    /**
+     * Replaces the entries of the events of a range of bookings, e.g. after they were inserted together.
+     *
+     * @param con            the connection of the writing transaction
+     * @param firstBookingId the first booking ID, inclusive
+     * @param lastBookingId  the last booking ID, inclusive
+     * @throws SQLException if the entries cannot be written
+     */
+    public static void refreshBookings(Connection con, long firstBookingId, long lastBookingId)
+            throws SQLException {
+        delete(con, "DELETE FROM CalendarEntry WHERE booking_id BETWEEN ? AND ?", firstBookingId, lastBookingId);
+        insert(con, read(con, "WHERE e.booking_id BETWEEN ? AND ?", firstBookingId, lastBookingId));
+    }
+
+    /**
+     * Replaces the entries of one event, e.g. after its name or times were changed.
+     *
+     * @param con     the connection of the writing transaction
+     * @param eventId the event ID
+     * @throws SQLException if the entries cannot be written
+     */
+    public static void refreshEvent(Connection con, int eventId) throws SQLException {
+        delete(con, "DELETE FROM CalendarEntry WHERE event_id = ?", eventId);
+        insert(con, read(con, "WHERE e.event_id = ?", eventId));
+    }
+
+    /**
+     * Removes the entries of a booking's events, e.g. before the booking is deleted.
+     *
+     * @param con       the connection of the writing transaction
+     * @param bookingId the booking ID
+     * @throws SQLException if the entries cannot be removed
+     */
+    public static void removeBooking(Connection con, int bookingId) throws SQLException {
+        delete(con, "DELETE FROM CalendarEntry WHERE booking_id = ?", bookingId);
+    }
+
+    /**
+     * Names the colour an event's block is drawn in, from the team that booked it.
+     *
+     * @param bookedBy who booked the event, or {@code null}
+     * @return {@code "operations"}, {@code "marketing"} or {@code "other"}
+     */
+    public static String colourCategory(String bookedBy) {
+        if (bookedBy != null) {
+            if (bookedBy.equalsIgnoreCase("operations")) {
+                return "operations";
+            } else if (bookedBy.equalsIgnoreCase("marketing")) {
+                return "marketing";
+            }
+        }
+        return "other";
+    }
+
+    /**
+     * Returns the last day an event is entered for: its end date, or its start date if it ends before it starts,
+     * and no more than {@value #MAX_DAYS_PER_EVENT} days after it starts.
+     *
+     * @param event the event
+     * @return the day of its last entry
+     */
+    public static LocalDate lastDay(CalendarEventRow event) {
+        LocalDate last = event.endDate().isBefore(event.startDate()) ? event.startDate() : event.endDate();
+        LocalDate limit = event.startDate().plusDays(MAX_DAYS_PER_EVENT - 1);
+        return last.isAfter(limit) ? limit : last;
+    }
+
+    private static List<CalendarEventRow> read(Connection con, String clause, Object... params) throws SQLException {
+        List<CalendarEventRow> events = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(SELECT_SOURCE + clause)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    events.add(CalendarEventRow.MAPPER.mapRow(rs));
+                }
+            }
+        }
+        return events;
+    }
+
+    private static void delete(Connection con, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Inserts an entry for every day each event covers, in batches.
+     *
+     * @return the number of entries inserted
+     */
+    private static int insert(Connection con, List<CalendarEventRow> events) throws SQLException {
+        int written = 0;
+        try (PreparedStatement ps = con.prepareStatement(INSERT_ENTRY)) {
+            int pending = 0;
+            for (CalendarEventRow event : events) {
+                LocalDate last = lastDay(event);
+                for (LocalDate day = event.startDate(); !day.isAfter(last); day = day.plusDays(1)) {
+                    ps.setDate(1, java.sql.Date.valueOf(day));
+                    ps.setTime(2, java.sql.Time.valueOf(event.startTime()));
+                    ps.setInt(3, event.eventId());
+                    ps.setInt(4, event.bookingId());
+                    ps.setString(5, event.name());
+                    ps.setDate(6, java.sql.Date.valueOf(event.startDate()));
+                    ps.setDate(7, java.sql.Date.valueOf(event.endDate()));
+                    ps.setTime(8, java.sql.Time.valueOf(event.endTime()));
+                    ps.setString(9, event.eventType());
+                    ps.setString(10, event.description());
+                    ps.setString(11, event.bookedBy());
+                    ps.setString(12, colourCategory(event.bookedBy()));
+                    ps.setString(13, event.location());
+                    if (event.venueId() != null) {
+                        ps.setInt(14, event.venueId());
+                    } else {
+                        ps.setNull(14, Types.INTEGER);
+                    }
+                    ps.setString(15, event.venueName());
+                    ps.setString(16, event.bookingStatus());
+                    ps.addBatch();
+                    written++;
+                    if (++pending == SQLConnection.WRITE_BATCH_SIZE) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+        }
+        return written;
+    }
+}
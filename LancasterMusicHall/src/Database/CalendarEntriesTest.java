@@ -0,0 +1,123 @@
+package Database;
+
+import boxoffice.BoxOfficeService;
+import operations.entities.Event;
+import operations.entities.Venue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code CalendarEntriesTest} class is a test driver for {@link CalendarEntries}.
+ * <p>
+ * It checks that the entries made when the embedded database was filled cover every day of every event, with
+ * the colour category of who booked it; then books a three-day event and checks that saving it, editing it in
+ * the box office and deleting it change its entries in step; and that a rebuild writes the same entries again.
+ * Run it against the embedded profile ({@code -Dlmh.db.profile=embedded}); the booking it makes is deleted
+ * again. The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class CalendarEntriesTest {
+
+    private static final int MAIN_HALL = 8;
+
+    /**
+     * Constructs a new CalendarEntriesTest instance.
+     */
+    public CalendarEntriesTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws SQLException if the entries cannot be rebuilt
+     */
+    public static void main(String[] args) throws SQLException {
+        SQLConnection sqlCon = new SQLConnection();
+        int entries = count(sqlCon, "SELECT COUNT(*) FROM CalendarEntry");
+        check("every day of every event is entered", entries > 0 && entries == expectedEntries(sqlCon));
+        check("every entry has its event's colour category", sqlCon.queryForList(
+                "SELECT booked_by, colour_category FROM CalendarEntry", rs -> new String[] {
+                        rs.getString(1), rs.getString(2)}).stream()
+                .allMatch(row -> CalendarEntries.colourCategory(row[0]).equals(row[1])));
+        check("every entry has its booking's status", count(sqlCon, "SELECT COUNT(*) FROM CalendarEntry c "
+                + "JOIN Booking b ON c.booking_id = b.booking_id "
+                + "WHERE c.booking_status <> b.booking_status") == 0);
+        check("colour categories ignore case", CalendarEntries.colourCategory("MARKETING").equals("marketing")
+                && CalendarEntries.colourCategory("Operations").equals("operations")
+                && CalendarEntries.colourCategory(null).equals("other"));
+
+        LocalDate day = LocalDate.now().plusYears(7);
+        int bookingId = book(sqlCon, event("Festival", day, day.plusDays(2)));
+        check("test booking is saved", bookingId > 0);
+        List<LocalDate> days = sqlCon.queryForList("SELECT entry_date FROM CalendarEntry WHERE booking_id = ? "
+                + "ORDER BY entry_date", rs -> rs.getDate(1).toLocalDate(), bookingId);
+        check("saved booking has an entry per day", days.equals(List.of(day, day.plusDays(1), day.plusDays(2))));
+        check("entries have the venue name", count(sqlCon, "SELECT COUNT(*) FROM CalendarEntry "
+                + "WHERE booking_id = ? AND venue_name = 'Main_Hall'", bookingId) == 3);
+
+        int eventId = sqlCon.queryForObject("SELECT event_id FROM Event WHERE booking_id = ?", rs -> rs.getInt(1),
+                bookingId).orElse(0);
+        boolean edited = new BoxOfficeService(sqlCon).updateEventDetails(eventId,
+                event("Festival (one day)", day, day));
+        check("box office edit is saved", edited);
+        check("box office edit replaces the event's entries", count(sqlCon, "SELECT COUNT(*) FROM CalendarEntry "
+                + "WHERE event_id = ? AND name = 'Festival (one day)'", eventId) == 1
+                && count(sqlCon, "SELECT COUNT(*) FROM CalendarEntry WHERE event_id = ?", eventId) == 1);
+
+        check("test booking is deleted", sqlCon.deleteFullBooking(bookingId));
+        check("deleted booking has no entries",
+                count(sqlCon, "SELECT COUNT(*) FROM CalendarEntry WHERE booking_id = ?", bookingId) == 0);
+
+        int rebuilt;
+        try (Connection con = sqlCon.getConnection()) {
+            rebuilt = CalendarEntries.rebuild(con);
+        }
+        check("rebuild writes the same entries", rebuilt == entries
+                && count(sqlCon, "SELECT COUNT(*) FROM CalendarEntry") == entries);
+
+        System.out.printf("calendar entries %d%n", entries);
+        TestChecks.finish();
+    }
+
+    /**
+     * @return the days covered by every event, counted from the events themselves
+     */
+    private static int expectedEntries(SQLConnection sqlCon) {
+        return sqlCon.queryForList("SELECT start_date, end_date FROM Event", rs -> {
+            LocalDate start = rs.getDate(1).toLocalDate();
+            LocalDate end = rs.getDate(2).toLocalDate();
+            long days = end.isBefore(start) ? 1 : ChronoUnit.DAYS.between(start, end) + 1;
+            return (int) Math.min(days, CalendarEntries.MAX_DAYS_PER_EVENT);
+        }).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static int count(SQLConnection sqlCon, String sql, Object... params) {
+        return sqlCon.queryForObject(sql, rs -> rs.getInt(1), params).orElse(-1);
+    }
+
+    private static Event event(String name, LocalDate startDate, LocalDate endDate) {
+        Venue venue = new Venue(MAIN_HALL, "Main_Hall", "Ground floor", 370, "Stalls", false, true, 0.0);
+        return new Event(0, name, "Show", startDate, endDate, LocalTime.of(19, 0), LocalTime.of(22, 0), false,
+                "", venue, null, "Marketing", "Main_Hall", "Calendar Entries Test", null, 0.0, "", "");
+    }
+
+    /** Books an event as a new held booking; returns its ID, or 0 if it was refused. */
+    private static int book(SQLConnection sqlCon, Event event) {
+        String company = "Calendar Entries Test " + System.nanoTime();
+        LocalDate day = event.getStartDate();
+        boolean saved = sqlCon.insertFullBooking("Calendar Entries Test", day, event.getEndDate(), "held", company,
+                "Tester", "0", "test@example.com", new ArrayList<>(List.of(event)), 0, 0, "", "", "", "", "", day,
+                "unpaid", null, null, 0, null);
+        return saved ? sqlCon.queryForObject("SELECT B.booking_id FROM Booking B JOIN Clients C "
+                + "ON B.client_id = C.client_id WHERE C.`Company Name` = ?", rs -> rs.getInt(1), company).orElse(0) : 0;
+    }
+}
@@ -0,0 +1,211 @@
+package Database;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads the months a calendar view is likely to show next into the {@link CalendarStore} before it asks for them.
+ * <p>
+ * Each view takes a {@link Cursor} for its window size (a day, a week or a month) and tells it every window it
+ * shows. From consecutive windows the cursor works out which way the user is paging and how fast: on opening a
+ * view, or after a jump, it warms the window on either side; when paging, the next window in that direction;
+ * and when paging quickly, the next {@value #FAST_DEPTH}. Only months the store does not already hold are read,
+ * one query each, in the background through {@link AsyncSQLConnection}; the store's own month limit bounds what
+ * is kept.
+ * </p>
+ * <p>
+ * Prefetching gives way to real work: it is skipped while tasks are queued for the pool or fewer than
+ * {@value #RESERVED_PERMITS} connections are free, and at most {@value #MAX_IN_FLIGHT} months are read ahead at
+ * once. Skipped windows are counted and tried again on the next navigation. {@link #getHits()} and
+ * {@link #getMisses()} count the windows that were ready when shown and those that had to wait for the
+ * database. This class is thread-safe.
+ * </p>
+ */
+public class CalendarPrefetcher {
+
+    /** Windows read ahead when paging quickly. */
+    static final int FAST_DEPTH = 3;
+
+    /** Windows shown less than this far apart, in the same direction, count as paging quickly. */
+    static final long FAST_NAVIGATION_MILLIS = 800;
+
+    /** Connections left free for views' own reads; prefetching waits while fewer are free. */
+    static final int RESERVED_PERMITS = 2;
+
+    /** The most months read ahead at once. */
+    static final int MAX_IN_FLIGHT = 2;
+
+    private final CalendarStore store;
+    private final SQLConnection sqlCon;
+    /** Months being read ahead, so two cursors do not read the same month. */
+    private final Set<YearMonth> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder prefetched = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * Creates a prefetcher for a store.
+     *
+     * @param store  the store months are read into
+     * @param sqlCon the connection whose {@link SQLConnection#getAsync() pool} reads them
+     */
+    public CalendarPrefetcher(CalendarStore store, SQLConnection sqlCon) {
+        this.store = store;
+        this.sqlCon = sqlCon;
+    }
+
+    /**
+     * Creates a cursor for one view.
+     *
+     * @param step the view's window size, which is also how far its previous and next buttons move
+     * @return a new cursor with no windows shown
+     */
+    public Cursor cursor(Period step) {
+        return new Cursor(step);
+    }
+
+    /**
+     * Follows the windows one view shows. A cursor is used by one view, on one thread.
+     */
+    public final class Cursor {
+
+        private final Period step;
+        private LocalDate lastFrom;
+        private int lastDirection;
+        private long lastShownAt;
+
+        private Cursor(Period step) {
+            this.step = step;
+        }
+
+        /**
+         * Records a window the view is showing and reads ahead the windows it is likely to show next.
+         *
+         * @param from  the window's first date, inclusive
+         * @param to    the window's last date, inclusive
+         * @param ready {@code true} if the window's events were in memory, {@code false} if the view had to wait
+         *              for the database
+         */
+        public void shown(LocalDate from, LocalDate to, boolean ready) {
+            (ready ? hits : misses).increment();
+            long now = System.nanoTime();
+            int direction = directionFrom(from);
+            boolean fast = direction != 0 && direction == lastDirection
+                    && now - lastShownAt < FAST_NAVIGATION_MILLIS * 1_000_000;
+            lastFrom = from;
+            lastDirection = direction;
+            lastShownAt = now;
+
+            if (direction == 0) {
+                prefetch(from.plus(step), to.plus(step));
+                prefetch(from.minus(step), to.minus(step));
+                return;
+            }
+            int depth = fast ? FAST_DEPTH : 1;
+            for (int k = 1; k <= depth; k++) {
+                Period ahead = step.multipliedBy(k * direction);
+                if (!prefetch(from.plus(ahead), to.plus(ahead))) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return {@code 1} after moving forward by up to two windows, {@code -1} after moving back by up to two
+         *         windows, and {@code 0} on the first window, a refresh or a jump
+         */
+        private int directionFrom(LocalDate from) {
+            if (lastFrom == null) {
+                return 0;
+            }
+            Period twoSteps = step.multipliedBy(2);
+            if (from.isAfter(lastFrom) && !from.isAfter(lastFrom.plus(twoSteps))) {
+                return 1;
+            }
+            if (from.isBefore(lastFrom) && !from.isBefore(lastFrom.minus(twoSteps))) {
+                return -1;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the months of a window the store does not hold, unless the pool is busy.
+     *
+     * @return {@code false} if prefetching backed off, so windows further ahead should not be tried either
+     */
+    private boolean prefetch(LocalDate from, LocalDate to) {
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            if (store.isCached(month.atDay(1), month.atEndOfMonth()) || inFlight.contains(month)) {
+                continue;
+            }
+            AsyncSQLConnection async = sqlCon.getAsync();
+            if (async.getQueueLength() > 0 || async.getAvailablePermits() <= RESERVED_PERMITS
+                    || inFlight.size() >= MAX_IN_FLIGHT || !inFlight.add(month)) {
+                skipped.increment();
+                return false;
+            }
+            YearMonth warming = month;
+            async.submit(sql -> {
+                store.warm(warming);
+                return null;
+            }).whenComplete((ignored, ex) -> {
+                inFlight.remove(warming);
+                if (ex == null) {
+                    prefetched.increment();
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * @return the windows whose events were in memory when a view showed them
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the windows a view had to wait for the database to show
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the share of windows shown without waiting, between 0 and 1; 0 before the first window
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return the months read ahead
+     */
+    public long getPrefetched() {
+        return prefetched.sum();
+    }
+
+    /**
+     * @return the times prefetching backed off because the pool was busy
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return the number of months being read ahead now
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,125 @@
+package Database;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code CalendarPrefetcherTest} class is a test driver for {@link CalendarPrefetcher}.
+ * <p>
+ * It pages a month cursor through the calendar and checks that opening a month reads the months either side,
+ * that paging forward reads the next month and paging quickly reads further ahead, that a day cursor on the last
+ * day of a month reads the next month, and that nothing is read while the pool is busy. It also checks the
+ * window hit and miss counts. Run it against the embedded profile ({@code -Dlmh.db.profile=embedded}). The
+ * process exits with status 1 if a check fails.
+ * </p>
+ */
+public class CalendarPrefetcherTest {
+
+    /**
+     * Constructs a new CalendarPrefetcherTest instance.
+     */
+    public CalendarPrefetcherTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if a wait is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        CalendarStore store = sqlCon.getCalendarStore();
+        CalendarPrefetcher prefetcher = store.getPrefetcher();
+        YearMonth month = YearMonth.from(sqlCon.queryForObject("SELECT MIN(start_date) FROM Event",
+                rs -> rs.getDate(1).toLocalDate()).orElse(LocalDate.now()));
+
+        CalendarPrefetcher.Cursor months = prefetcher.cursor(Period.ofMonths(1));
+        show(store, months, month);
+        drain(prefetcher);
+        check("opening a month reads the months either side",
+                cached(store, month.minusMonths(1)) && cached(store, month.plusMonths(1))
+                        && prefetcher.getPrefetched() == 2);
+
+        show(store, months, month.plusMonths(1));
+        drain(prefetcher);
+        check("paging forward reads the next month",
+                cached(store, month.plusMonths(2)) && !cached(store, month.plusMonths(3)));
+        show(store, months, month.plusMonths(2));
+        drain(prefetcher);
+        check("paging quickly reads further ahead",
+                cached(store, month.plusMonths(3)) && cached(store, month.plusMonths(4)));
+        check("months paged into were ready", prefetcher.getHits() == 2 && prefetcher.getMisses() == 1);
+
+        YearMonth jumped = month.plusYears(2);
+        show(store, months, jumped);
+        drain(prefetcher);
+        check("jumping reads the months either side",
+                cached(store, jumped.minusMonths(1)) && cached(store, jumped.plusMonths(1)));
+
+        CalendarPrefetcher.Cursor days = prefetcher.cursor(Period.ofDays(1));
+        YearMonth dayMonth = month.plusYears(3);
+        LocalDate lastDay = dayMonth.atEndOfMonth();
+        store.getEvents(lastDay, lastDay, null, null);
+        days.shown(lastDay, lastDay, true);
+        drain(prefetcher);
+        check("last day of a month reads the next month", cached(store, dayMonth.plusMonths(1)));
+
+        long skippedBefore = prefetcher.getSkipped();
+        CountDownLatch gate = new CountDownLatch(1);
+        holdConnections(sqlCon, gate);
+        YearMonth busy = month.plusYears(4);
+        show(store, months, busy);
+        gate.countDown();
+        drain(prefetcher);
+        check("nothing is read ahead while the pool is busy",
+                !cached(store, busy.plusMonths(1)) && prefetcher.getSkipped() > skippedBefore);
+
+        System.out.printf("windows %d/%d (hits/misses), months read ahead %d, backed off %d%n",
+                prefetcher.getHits(), prefetcher.getMisses(), prefetcher.getPrefetched(), prefetcher.getSkipped());
+        TestChecks.finish();
+    }
+
+    /**
+     * Shows a month as a view would: reads it, then tells the cursor whether it was ready.
+     */
+    private static void show(CalendarStore store, CalendarPrefetcher.Cursor cursor, YearMonth month) {
+        boolean ready = cached(store, month);
+        store.getEvents(month.atDay(1), month.atEndOfMonth(), null, null);
+        cursor.shown(month.atDay(1), month.atEndOfMonth(), ready);
+    }
+
+    private static boolean cached(CalendarStore store, YearMonth month) {
+        return store.isCached(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Waits for the months being read ahead.
+     */
+    private static void drain(CalendarPrefetcher prefetcher) throws InterruptedException {
+        for (int i = 0; i < 500 && prefetcher.getInFlight() > 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Starts tasks that wait for the gate until one of them has to queue.
+     */
+    private static void holdConnections(SQLConnection sqlCon, CountDownLatch gate) throws Exception {
+        while (true) {
+            CountDownLatch started = new CountDownLatch(1);
+            sqlCon.getAsync().submit(sql -> {
+                started.countDown();
+                return gate.await(10, TimeUnit.SECONDS);
+            });
+            if (!started.await(200, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package Database;
+
+import Database.rows.CalendarEventRow;
+
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * The events shown by the calendar, diary and daily events views, kept in memory a month at a time and shared by
+ * all of them.
+ * <p>
+ * The first view to need a month reads every event on any of its days, whatever its booking status or venue, with a
+ * single range scan of the {@link CalendarEntries calendar entries}, which already carry each event's venue name
+ * and booking status; an event spanning several days is kept in every month it covers. After that, every range,
+ * status and venue asked for within that month is answered from the same immutable list. Switching between the day,
+ * week and month views, or between the calendar (confirmed bookings) and the diary (held bookings), therefore reads
+ * nothing again. At most {@code maxMonths} months are kept, and each is read again after {@code ttlMillis} in case
+ * a change was missed.
+ * </p>
+ * <p>
+ * Changes published on the {@link DatabaseEventBus} are merged into the cached months: the changed events, or
+ * the events of a changed booking, are read again by key and replace the old ones, so a change costs a query
+ * for its own rows rather than for whole months. The {@link ChangeFeed} publishes other clients' changes in the
+ * same way. A change touching more than {@value #MAX_MERGED_ROWS} rows, or any venue change, drops every month
+ * instead. If anything changed, the {@link #addChangeListener(Runnable) change listeners} then run on the Event
+ * Dispatch Thread, so open views can redraw from the merged data. The store's
+ * {@link #getPrefetcher() prefetcher} reads ahead the months views are about to page into. This class is
+ * thread-safe.
+ * </p>
+ */
+public class CalendarStore {
+
+    /** An event's entry for its first day, one row per event. */
+    private static final String FIRST_DAY = "entry_date = start_date";
+
+    /**
+     * A month's range of the {@code CalendarEntry} primary key, one row per event: its first day, or the month's
+     * first day for an event that started before it.
+     */
+    private static final String MONTH_QUERY = CalendarEntries.SELECT_ENTRIES
+            + "WHERE entry_date BETWEEN ? AND ? AND (" + FIRST_DAY + " OR entry_date = ?) "
+            + "ORDER BY start_date, start_time, event_id";
+
+    /** The order of each month's events, as read by {@link #MONTH_QUERY}. */
+    private static final Comparator<CalendarEventRow> START_ORDER = Comparator
+            .comparing(CalendarEventRow::startDate)
+            .thenComparing(CalendarEventRow::startTime)
+            .thenComparingInt(CalendarEventRow::eventId);
+
+    /** Changes touching more rows than this drop every month instead of being merged. */
+    static final int MAX_MERGED_ROWS = 500;
+
+    private final SQLConnection sqlCon;
+    private final ReadThroughCache<YearMonth, List<CalendarEventRow>> months;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final CalendarPrefetcher prefetcher;
+
+    /**
+     * Creates an empty store and subscribes it to database changes.
+     *
+     * @param sqlCon    the connection events are read through
+     * @param maxMonths the most months kept
+     * @param ttlMillis how long a month is kept before it is read again, in milliseconds
+     */
+    public CalendarStore(SQLConnection sqlCon, int maxMonths, long ttlMillis) {
+        this.sqlCon = sqlCon;
+        this.months = new ReadThroughCache<>("calendar month", maxMonths, ttlMillis, month -> {
+            try (Stream<CalendarEventRow> rows = sqlCon.queryForStream(MONTH_QUERY, CalendarEventRow.MAPPER,
+                    month.atDay(1), month.atEndOfMonth(), month.atDay(1))) {
+                return rows.toList();
+            }
+        });
+        this.prefetcher = new CalendarPrefetcher(this, sqlCon);
+        // A dropped change would leave the cached months stale until they expired, so none may be dropped.
+        sqlCon.getEventBus().subscribeLossless(DatabaseEvent.class, this::changed);
+    }
+
+    /**
+     * Brings the cached months up to date with a committed change: changed events, and the events of changed
+     * bookings, are read again by key and merged in; a venue change drops every month.
+     */
+    private void changed(DatabaseEvent event) {
+        if (event instanceof DatabaseEvent.BookingCreated created) {
+            merge("booking_id", Set.of(created.bookingId()), CalendarEventRow::bookingId);
+        } else if (event instanceof DatabaseEvent.BookingUpdated updated) {
+            merge("booking_id", Set.of(updated.bookingId()), CalendarEventRow::bookingId);
+        } else if (event instanceof DatabaseEvent.EventUpdated updated) {
+            merge("event_id", Set.of(updated.eventId()), CalendarEventRow::eventId);
+        } else if (event instanceof DatabaseEvent.RowsChanged rows) {
+            if (rows.table() == ChangeFeed.Table.EVENT) {
+                merge("event_id", rows.ids(), CalendarEventRow::eventId);
+            } else if (rows.table() == ChangeFeed.Table.BOOKING) {
+                merge("booking_id", rows.ids(), CalendarEventRow::bookingId);
+            }
+        } else if (event instanceof DatabaseEvent.VenueUpdated) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Replaces the cached events whose key is one of {@code ids} with their current rows, and runs the change
+     * listeners if any month changed.
+     *
+     * @param column the key column of {@code CalendarEntry}
+     * @param ids    the changed keys; events whose key no longer exists are removed
+     * @param key    reads the same key from a cached event
+     */
+    private void merge(String column, Set<Integer> ids, ToIntFunction<CalendarEventRow> key) {
+        if (months.size() == 0) {
+            // Nothing to merge into, but a month read already running may have missed the change; drop it.
+            months.invalidateAll();
+            return;
+        }
+        if (ids.size() > MAX_MERGED_ROWS) {
+            invalidateAll();
+            return;
+        }
+        String sql = CalendarEntries.SELECT_ENTRIES + "WHERE " + column + " IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ") AND " + FIRST_DAY;
+        List<CalendarEventRow> fresh;
+        try (Stream<CalendarEventRow> rows = sqlCon.queryForStream(sql, CalendarEventRow.MAPPER, ids.toArray())) {
+            fresh = rows.toList();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            invalidateAll();
+            return;
+        }
+        boolean changed = months.updateAll((month, events) -> {
+            boolean touched = events.stream().anyMatch(e -> ids.contains(key.applyAsInt(e)))
+                    || fresh.stream().anyMatch(e -> covers(e, month));
+            if (!touched) {
+                return events;
+            }
+            List<CalendarEventRow> merged = new ArrayList<>(events.size() + fresh.size());
+            for (CalendarEventRow e : events) {
+                if (!ids.contains(key.applyAsInt(e))) {
+                    merged.add(e);
+                }
+            }
+            for (CalendarEventRow e : fresh) {
+                if (covers(e, month)) {
+                    merged.add(e);
+                }
+            }
+            merged.sort(START_ORDER);
+            return merged.equals(events) ? events : List.copyOf(merged);
+        });
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    private static boolean covers(CalendarEventRow event, YearMonth month) {
+        return !event.startDate().isAfter(month.atEndOfMonth())
+                && !CalendarEntries.lastDay(event).isBefore(month.atDay(1));
+    }
+
+    /**
+     * Returns the events on any day between two dates, reading any month not yet cached on the calling thread.
+     *
+     * @param from          the first date, inclusive
+     * @param to            the last date, inclusive
+     * @param bookingStatus only events of bookings with this status (ignoring case), or {@code null} for all
+     * @param venueId       only events in this venue, or {@code null} for all
+     * @return the events in start date and time order, each once; empty if none or a month could not be read
+     */
+    public List<CalendarEventRow> getEvents(LocalDate from, LocalDate to, String bookingStatus, Integer venueId) {
+        List<CalendarEventRow> events = new ArrayList<>();
+        YearMonth first = YearMonth.from(from);
+        for (YearMonth month = first; !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            for (CalendarEventRow event : months.get(month).orElse(List.of())) {
+                // An event that started in an earlier month of the range was taken from that month.
+                boolean taken = !month.equals(first) && event.startDate().isBefore(month.atDay(1));
+                if (!taken && matches(event, from, to, bookingStatus, venueId)) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Asynchronous form of {@link #getEvents}: completes at once if every month is cached, and otherwise reads
+     * the missing months in the background through {@link SQLConnection#getAsync()}.
+     *
+     * @param from          the first date, inclusive
+     * @param to            the last date, inclusive
+     * @param bookingStatus only events of bookings with this status (ignoring case), or {@code null} for all
+     * @param venueId       only events in this venue, or {@code null} for all
+     * @return a future of the events in start date and time order; it completes exceptionally if a month cannot
+     *         be read, where {@link #getEvents} would leave that month's events out
+     */
+    public CompletableFuture<List<CalendarEventRow>> loadEvents(LocalDate from, LocalDate to, String bookingStatus,
+                                                                 Integer venueId) {
+        if (isCached(from, to)) {
+            return CompletableFuture.completedFuture(getEvents(from, to, bookingStatus, venueId));
+        }
+        return sqlCon.getAsync().submit(sql -> {
+            YearMonth last = YearMonth.from(to);
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(last); month = month.plusMonths(1)) {
+                if (months.get(month).isEmpty()) {
+                    throw new SQLException("Could not read the calendar events of " + month);
+                }
+            }
+            return getEvents(from, to, bookingStatus, venueId);
+        });
+    }
+
+    /**
+     * Reads a month into memory if it is not already there.
+     *
+     * @param month the month
+     */
+    void warm(YearMonth month) {
+        months.get(month);
+    }
+
+    /**
+     * Returns the prefetcher views use to have the windows they will show next read ahead into this store.
+     *
+     * @return the store's {@link CalendarPrefetcher}
+     */
+    public CalendarPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /**
+     * @param from the first date, inclusive
+     * @param to   the last date, inclusive
+     * @return true if every month of the range is cached, so reading it will not touch the database
+     */
+    public boolean isCached(LocalDate from, LocalDate to) {
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            if (!months.isCached(month)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(CalendarEventRow event, LocalDate from, LocalDate to, String bookingStatus,
+                                   Integer venueId) {
+        return !event.startDate().isAfter(to) && !CalendarEntries.lastDay(event).isBefore(from)
+                && (bookingStatus == null || bookingStatus.equalsIgnoreCase(event.bookingStatus()))
+                && (venueId == null || venueId.equals(event.venueId()));
+    }
+
+    /**
+     * Registers a callback run on the Event Dispatch Thread after a database change has been merged into, or has
+     * dropped, the cached events.
+     *
+     * @param listener the callback, typically one that redraws a view
+     * @return a handle that unregisters the callback when closed
+     */
+    public AutoCloseable addChangeListener(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Drops every cached month and tells the change listeners.
+     */
+    public void invalidateAll() {
+        months.invalidateAll();
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            SwingUtilities.invokeLater(listener);
+        }
+    }
+
+    /**
+     * @return the month lookups answered from memory
+     */
+    public long getHits() {
+        return months.getHits();
+    }
+
+    /**
+     * @return the month lookups that read the database
+     */
+    public long getMisses() {
+        return months.getMisses();
+    }
+
+    /**
+     * @return the share of month lookups answered from memory, between 0 and 1; 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,264 @@
+package Database;
+
+import Database.rows.CalendarEventRow;
+
+import operations.entities.Event;
+import operations.entities.Venue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code CalendarStoreTest} class is a test driver for {@link CalendarStore}.
+ * <p>
+ * It reads the month with the most events, then the day, week and month ranges the calendar and diary views ask
+ * for within it, and checks, with the statement counts of {@link QueryMetrics}, that only the first read reaches
+ * the database; that the status, venue and date filters agree with the rows themselves; that a changed event or
+ * booking is merged into the cached month, without reading the month again, and runs the change listeners;
+ * that a venue change drops the month; that an event spanning several days is shown on each of them, across
+ * weeks and months; and that a month read still running when a change arrives is not cached. The month is read
+ * from the calendar entries without joins. Run it against the embedded profile
+ * ({@code -Dlmh.db.profile=embedded}). The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class CalendarStoreTest {
+
+    private static final int MAIN_HALL = 8;
+
+    /**
+     * Constructs a new CalendarStoreTest instance.
+     */
+    public CalendarStoreTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if the change listener is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        CalendarStore store = sqlCon.getCalendarStore();
+        QueryMetrics metrics = sqlCon.getQueryMetrics();
+        LocalDate busiest = sqlCon.queryForObject("SELECT start_date FROM Event GROUP BY start_date "
+                + "ORDER BY COUNT(*) DESC, start_date LIMIT 1", rs -> rs.getDate(1).toLocalDate())
+                .orElse(LocalDate.now());
+        YearMonth month = YearMonth.from(busiest);
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+        int expected = sqlCon.queryForObject("SELECT COUNT(*) FROM Event WHERE start_date <= ? "
+                + "AND GREATEST(start_date, end_date) >= ?", rs -> rs.getInt(1), last, first).orElse(-1);
+        metrics.reset();
+
+        check("month not cached before first read", !store.isCached(first, last));
+        List<CalendarEventRow> all = store.getEvents(first, last, null, null);
+        long queries = queryCount(metrics);
+        check("month has every event", all.size() == expected && expected > 0);
+        check("first read takes one query", queries == 1);
+        check("month query reads the entries without joins", metrics.getStatementStats().stream()
+                .filter(s -> s.template().contains("entry_date BETWEEN"))
+                .noneMatch(s -> s.template().contains("JOIN")));
+        check("month cached after first read", store.isCached(first, last));
+
+        List<CalendarEventRow> day = store.loadEvents(busiest, busiest, null, null).get(5, TimeUnit.SECONDS);
+        List<CalendarEventRow> week = store.getEvents(busiest.minusDays(3), busiest.plusDays(3), null, null);
+        List<CalendarEventRow> confirmed = store.getEvents(first, last, "confirmed", null);
+        List<CalendarEventRow> held = store.getEvents(first, last, "HELD", null);
+        check("views within the month take no queries",
+                queryCount(metrics) == queries || crossesMonth(busiest));
+        check("day range only holds the day", !day.isEmpty()
+                && day.stream().allMatch(e -> overlaps(e, busiest, busiest)));
+        check("week range is within the week", week.stream().allMatch(e ->
+                overlaps(e, busiest.minusDays(3), busiest.plusDays(3))));
+        check("status filter ignores case",
+                confirmed.stream().allMatch(e -> "confirmed".equalsIgnoreCase(e.bookingStatus()))
+                && held.stream().allMatch(e -> "held".equalsIgnoreCase(e.bookingStatus())));
+        check("status filter keeps every matching event", confirmed.size() == all.stream()
+                .filter(e -> "confirmed".equalsIgnoreCase(e.bookingStatus())).count());
+        Integer venueId = all.get(0).venueId();
+        List<CalendarEventRow> inVenue = store.getEvents(first, last, null, venueId);
+        check("venue filter", !inVenue.isEmpty() && inVenue.stream().allMatch(e -> venueId.equals(e.venueId())));
+        check("events in start order", isSorted(all));
+        check("hit rate counts cached reads", store.getHits() > 0 && store.getHitRate() > 0.5);
+
+        CalendarEventRow renamed = all.get(0);
+        update("UPDATE Event SET name = ? WHERE event_id = ?", renamed.bookingId(), sqlCon, "Renamed event",
+                renamed.eventId());
+        CountDownLatch changed = new CountDownLatch(1);
+        AutoCloseable listener = store.addChangeListener(changed::countDown);
+        sqlCon.getEventBus().publish(new DatabaseEvent.EventUpdated(renamed.eventId()));
+        check("change listener runs", changed.await(5, TimeUnit.SECONDS));
+        listener.close();
+        check("changed event is merged into the month", store.isCached(first, last)
+                && store.getEvents(first, last, null, null).stream().anyMatch(e ->
+                e.eventId() == renamed.eventId() && e.name().equals("Renamed event")));
+        check("merging reads only the changed rows", queryCount(metrics) == queries);
+
+        CalendarEventRow moved = confirmed.get(0);
+        update("UPDATE Booking SET booking_status = 'held' WHERE booking_id = ?", moved.bookingId(), sqlCon,
+                moved.bookingId());
+        CountDownLatch statusChanged = new CountDownLatch(1);
+        listener = store.addChangeListener(statusChanged::countDown);
+        sqlCon.getEventBus().publish(new DatabaseEvent.BookingUpdated(moved.bookingId()));
+        statusChanged.await(5, TimeUnit.SECONDS);
+        listener.close();
+        check("booking change moves its events between status filters",
+                store.getEvents(first, last, "confirmed", null).stream()
+                        .noneMatch(e -> e.bookingId() == moved.bookingId())
+                        && store.getEvents(first, last, "held", null).stream()
+                        .anyMatch(e -> e.eventId() == moved.eventId()));
+
+        CountDownLatch dropped = new CountDownLatch(1);
+        listener = store.addChangeListener(dropped::countDown);
+        sqlCon.getEventBus().publish(new DatabaseEvent.VenueUpdated(venueId));
+        check("venue change runs the change listeners", dropped.await(5, TimeUnit.SECONDS));
+        check("venue change drops the month", !store.isCached(first, last));
+        listener.close();
+        store.getEvents(first, last, null, null);
+        check("month is read again after a venue change", queryCount(metrics) == queries + 1);
+
+        checkMultiDay(sqlCon, store);
+        checkReadDuringChange(month, all.get(0).eventId());
+
+        System.out.printf("calendar months %d/%d (hits/misses), hit rate %.2f%n",
+                store.getHits(), store.getMisses(), store.getHitRate());
+        TestChecks.finish();
+    }
+
+    /**
+     * Books an event from the last day of a month over the next eight days, and checks that it is shown on its
+     * second day, in the following week and once across both months.
+     */
+    private static void checkMultiDay(SQLConnection sqlCon, CalendarStore store) {
+        LocalDate start = YearMonth.from(LocalDate.now().plusYears(8)).atEndOfMonth();
+        LocalDate end = start.plusDays(8);
+        int bookingId = book(sqlCon, "Residency", start, end);
+        check("multi-day test booking is saved", bookingId > 0);
+        LocalDate second = start.plusDays(1);
+        LocalDate nextWeek = start.with(DayOfWeek.MONDAY).plusWeeks(1);
+        check("multi-day event is shown on its second day", store.getEvents(second, second, null, null).stream()
+                .anyMatch(e -> e.bookingId() == bookingId));
+        check("multi-day event is shown in the following week", store.getEvents(nextWeek, nextWeek.plusDays(6),
+                null, null).stream().anyMatch(e -> e.bookingId() == bookingId));
+        check("multi-day event is shown once across months", store.getEvents(start.minusDays(3), end, null, null)
+                .stream().filter(e -> e.bookingId() == bookingId).count() == 1);
+        check("multi-day event is not shown after its last day", store.getEvents(end.plusDays(1), end.plusDays(7),
+                null, null).stream().noneMatch(e -> e.bookingId() == bookingId));
+        sqlCon.deleteFullBooking(bookingId);
+    }
+
+    /**
+     * Starts reading a month into a store with nothing cached, publishes a change while the read is still running,
+     * and checks that the read is handed over but not cached, as it may have missed the change.
+     */
+    private static void checkReadDuringChange(YearMonth month, int eventId) throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        SQLConnection slow = new SQLConnection() {
+            @Override
+            public <T> Stream<T> queryForStream(String query, RowMapper<T> mapper, Object... params)
+                    throws SQLException {
+                reading.countDown();
+                try {
+                    proceed.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.queryForStream(query, mapper, params);
+            }
+        };
+        CalendarStore store = new CalendarStore(slow, 4, 60_000);
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+        CompletableFuture<List<CalendarEventRow>> read =
+                CompletableFuture.supplyAsync(() -> store.getEvents(first, last, null, null));
+        check("month read is running", reading.await(5, TimeUnit.SECONDS));
+        CountDownLatch heard = new CountDownLatch(1);
+        try (AutoCloseable subscription = slow.getEventBus().subscribeLossless(DatabaseEvent.EventUpdated.class,
+                e -> heard.countDown())) {
+            slow.getEventBus().publish(new DatabaseEvent.EventUpdated(eventId));
+            heard.await(5, TimeUnit.SECONDS);
+            Thread.sleep(200); // the store hears the change on its own thread
+        }
+        proceed.countDown();
+        check("month read during a change is handed over", !read.get(10, TimeUnit.SECONDS).isEmpty());
+        check("month read during a change is not cached", !store.isCached(first, last));
+        store.getEvents(first, last, null, null);
+        check("month is cached when read again", store.isCached(first, last));
+    }
+
+    /** Books an event in the main hall as a new held booking; returns its ID, or 0 if it was refused. */
+    private static int book(SQLConnection sqlCon, String name, LocalDate startDate, LocalDate endDate) {
+        Venue venue = new Venue(MAIN_HALL, "Main_Hall", "Ground floor", 370, "Stalls", false, true, 0.0);
+        Event event = new Event(0, name, "Show", startDate, endDate, LocalTime.of(19, 0), LocalTime.of(22, 0),
+                false, "", venue, null, "", "Main_Hall", "Calendar Store Test", null, 0.0, "", "");
+        String company = "Calendar Store Test " + System.nanoTime();
+        boolean saved = sqlCon.insertFullBooking("Calendar Store Test", startDate, endDate, "held", company,
+                "Tester", "0", "test@example.com", new ArrayList<>(List.of(event)), 0, 0, "", "", "", "", "",
+                startDate, "unpaid", null, null, 0, null);
+        return saved ? sqlCon.queryForObject("SELECT B.booking_id FROM Booking B JOIN Clients C "
+                + "ON B.client_id = C.client_id WHERE C.`Company Name` = ?", rs -> rs.getInt(1), company).orElse(0) : 0;
+    }
+
+    private static boolean overlaps(CalendarEventRow event, LocalDate from, LocalDate to) {
+        return !event.startDate().isAfter(to) && !CalendarEntries.lastDay(event).isBefore(from);
+    }
+
+    private static boolean crossesMonth(LocalDate date) {
+        return !YearMonth.from(date.minusDays(3)).equals(YearMonth.from(date.plusDays(3)));
+    }
+
+    private static boolean isSorted(List<CalendarEventRow> events) {
+        for (int i = 1; i < events.size(); i++) {
+            CalendarEventRow a = events.get(i - 1);
+            CalendarEventRow b = events.get(i);
+            if (a.startDate().isAfter(b.startDate())
+                    || a.startDate().equals(b.startDate()) && a.startTime().isAfter(b.startTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs an update by hand, then refreshes the calendar entries of the booking as the write paths do.
+     */
+    private static void update(String sql, int bookingId, SQLConnection sqlCon, Object... params)
+            throws SQLException {
+        try (Connection con = sqlCon.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            ps.executeUpdate();
+            CalendarEntries.refreshBooking(con, bookingId);
+        }
+    }
+
+    /**
+     * @return the month queries run so far
+     */
+    private static long queryCount(QueryMetrics metrics) {
+        long count = 0;
+        for (QueryMetrics.StatementStats s : metrics.getStatementStats()) {
+            if (s.template().contains("entry_date BETWEEN")) {
+                count += s.executions();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,278 @@
+package Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Finds the rows of the watched tables that any client has changed or deleted, and publishes their keys on the
+ * {@link DatabaseEventBus} as {@link DatabaseEvent.RowsChanged} events.
+ * <p>
+ * {@link Table#EVENT Event}, {@link Table#BOOKING Booking} and {@link Table#REVIEW Review} rows carry an
+ * {@code updated_at} watermark that the database sets on every insert and update, and deletions leave a row in
+ * {@code DeletedRow}. Each poll reads only the keys whose watermark is later than the previous poll, using the
+ * {@code updated_at} index, so its cost follows the number of changes, not the size of the tables. Views subscribe
+ * to the events and read back just those rows. Changes made by this client are published at once by
+ * {@link SQLConnection} as well; seeing them again here does no harm.
+ * </p>
+ * <p>
+ * A transaction may commit a little after the time it stamped on its rows, so every poll looks back
+ * {@value #OVERLAP_MILLIS} ms before the previous one, and keys already published with the same watermark are not
+ * published again. The watermark is not ordered by commit, though: rows of a transaction that commits more than
+ * {@value #OVERLAP_MILLIS} ms after stamping them, such as a long booking save, are missed by the feed for good.
+ * Views that cache what the feed keeps fresh also read it again on their own schedule, e.g. the
+ * {@link CalendarStore} re-reads each month after its time to live, so such a change shows up late rather than
+ * never. A poll reads at most {@value #MAX_ROWS_PER_POLL} rows of a table and continues where it stopped next time.
+ * Polls run one at a time on a daemon thread: every {@code pollMillis} once {@link #start() started}, and whenever
+ * {@link #pollNow()} is called.
+ * </p>
+ */
+public class ChangeFeed {
+
+    /**
+     * The tables whose changes are published.
+     */
+    public enum Table {
+        /** Events, keyed by {@code event_id}. */
+        EVENT("Event", "event_id"),
+        /** Bookings, keyed by {@code booking_id}. */
+        BOOKING("Booking", "booking_id"),
+        /** Reviews, keyed by {@code review_id}. */
+        REVIEW("Review", "review_id");
+
+        private final String tableName;
+        private final String keyColumn;
+
+        Table(String tableName, String keyColumn) {
+            this.tableName = tableName;
+            this.keyColumn = keyColumn;
+        }
+
+        /**
+         * @return the table's name, as stored in {@code DeletedRow.table_name}
+         */
+        public String getTableName() {
+            return tableName;
+        }
+
+        /**
+         * @return the table's primary key column
+         */
+        public String getKeyColumn() {
+            return keyColumn;
+        }
+    }
+
+    /** How far each poll looks back before the previous one, for transactions that committed late. */
+    static final long OVERLAP_MILLIS = 5_000;
+
+    /** Rows read per query; a poll reads on while the pages come back full. */
+    static final int PAGE_SIZE = 1_000;
+
+    /** The most rows of one table read by one poll; the rest are read by the next. */
+    static final int MAX_ROWS_PER_POLL = 20_000;
+
+    /** Deletion records older than this many days are removed when the feed first polls. */
+    static final int DELETED_ROW_DAYS = 7;
+
+    /** A row's key and watermark. */
+    private record Change(int id, LocalDateTime at) {
+    }
+
+    private final SQLConnection sqlCon;
+    private final long pollMillis;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ChangeFeed-poll");
+        t.setDaemon(true);
+        return t;
+    });
+    private boolean started;
+
+    // Read and written only on the poller thread.
+    /** The time of the previous poll, less the overlap; {@code null} before the first poll. */
+    private LocalDateTime since;
+    /** Where each table's last poll stopped if it read {@link #MAX_ROWS_PER_POLL} rows; absent otherwise. */
+    private final Map<Table, Change> resumeAfter = new EnumMap<>(Table.class);
+    /** Changes published with a watermark after {@link #since}, so they are not published twice. */
+    private final Map<Table, Map<Integer, LocalDateTime>> published = new EnumMap<>(Table.class);
+    private final Map<Table, Map<Integer, LocalDateTime>> publishedDeletions = new EnumMap<>(Table.class);
+    private boolean failing;
+
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder rowsPublished = new LongAdder();
+
+    /**
+     * Creates a feed. Nothing is read until it is started or polled.
+     *
+     * @param sqlCon     the connection changes are read through and published on
+     * @param pollMillis the time between polls once started, in milliseconds; {@code 0} or less to poll only when
+     *                   asked
+     */
+    public ChangeFeed(SQLConnection sqlCon, long pollMillis) {
+        this.sqlCon = sqlCon;
+        this.pollMillis = pollMillis;
+        for (Table table : Table.values()) {
+            published.put(table, new HashMap<>());
+            publishedDeletions.put(table, new HashMap<>());
+        }
+    }
+
+    /**
+     * Starts polling every {@code pollMillis}. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        poller.execute(this::poll);
+        if (pollMillis > 0) {
+            poller.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Polls as soon as the poll already running, if any, has finished; e.g. when the user asks for a refresh.
+     *
+     * @return a future completed once the poll and its publishing are done
+     */
+    public Future<?> pollNow() {
+        return poller.submit(this::poll);
+    }
+
+    /**
+     * Reads the changes since the previous poll and publishes them. The first poll only records the time and
+     * removes old deletion records.
+     */
+    private void poll() {
+        try {
+            LocalDateTime now = sqlCon.queryForObject("SELECT CURRENT_TIMESTAMP(3)",
+                    rs -> rs.getTimestamp(1).toLocalDateTime()).orElseThrow();
+            if (since == null) {
+                try (Connection con = sqlCon.getConnection();
+                     PreparedStatement ps = con.prepareStatement("DELETE FROM DeletedRow WHERE deleted_at < ?")) {
+                    ps.setTimestamp(1, Timestamp.valueOf(now.minusDays(DELETED_ROW_DAYS)));
+                    ps.executeUpdate();
+                }
+                since = now.minusNanos(OVERLAP_MILLIS * 1_000_000);
+                return;
+            }
+            Map<Table, List<Integer>> deleted = readDeletions();
+            for (Table table : Table.values()) {
+                List<Integer> changed = readChanges(table);
+                List<Integer> gone = deleted.getOrDefault(table, List.of());
+                if (!changed.isEmpty() || !gone.isEmpty()) {
+                    rowsPublished.add(changed.size() + gone.size());
+                    sqlCon.getEventBus().publish(new DatabaseEvent.RowsChanged(table, changed, gone));
+                }
+            }
+            since = now.minusNanos(OVERLAP_MILLIS * 1_000_000);
+            for (Table table : Table.values()) {
+                published.get(table).values().removeIf(at -> at.isBefore(since));
+                publishedDeletions.get(table).values().removeIf(at -> at.isBefore(since));
+            }
+            polls.increment();
+            failing = false;
+        } catch (Exception e) {
+            if (!failing) {
+                // Reported once until a poll succeeds again, e.g. while the watermark columns are missing.
+                System.err.println("Could not read database changes");
+                e.printStackTrace();
+                failing = true;
+            }
+        }
+    }
+
+    /**
+     * Reads the keys of a table's rows stamped since the previous poll, page by page in watermark order.
+     *
+     * @return the keys not already published with the same watermark
+     */
+    private List<Integer> readChanges(Table table) throws SQLException {
+        String sql = "SELECT " + table.keyColumn + ", updated_at FROM " + table.tableName
+                + " WHERE updated_at > ? OR (updated_at = ? AND " + table.keyColumn + " > ?)"
+                + " ORDER BY updated_at, " + table.keyColumn + " LIMIT ?";
+        Change after = resumeAfter.remove(table);
+        if (after == null) {
+            after = new Change(Integer.MIN_VALUE, since);
+        }
+        Map<Integer, LocalDateTime> seen = published.get(table);
+        List<Integer> changed = new ArrayList<>();
+        int read = 0;
+        while (true) {
+            List<Change> page;
+            Timestamp at = Timestamp.valueOf(after.at());
+            try (Stream<Change> rows = sqlCon.queryForStream(sql,
+                    rs -> new Change(rs.getInt(1), rs.getTimestamp(2).toLocalDateTime()),
+                    at, at, after.id(), PAGE_SIZE)) {
+                page = rows.toList();
+            }
+            for (Change change : page) {
+                if (!change.at().equals(seen.put(change.id(), change.at()))) {
+                    changed.add(change.id());
+                }
+            }
+            read += page.size();
+            if (page.size() < PAGE_SIZE) {
+                return changed;
+            }
+            after = page.get(page.size() - 1);
+            if (read >= MAX_ROWS_PER_POLL) {
+                resumeAfter.put(table, after);
+                return changed;
+            }
+        }
+    }
+
+    /**
+     * Reads the rows deleted since the previous poll.
+     *
+     * @return the deleted keys not already published, by table
+     */
+    private Map<Table, List<Integer>> readDeletions() throws SQLException {
+        Map<Table, List<Integer>> deleted = new EnumMap<>(Table.class);
+        try (Stream<Object[]> rows = sqlCon.queryForStream(
+                "SELECT table_name, row_id, deleted_at FROM DeletedRow WHERE deleted_at >= ?",
+                rs -> new Object[]{rs.getString(1), rs.getInt(2), rs.getTimestamp(3).toLocalDateTime()},
+                Timestamp.valueOf(since))) {
+            rows.forEach(row -> {
+                for (Table table : Table.values()) {
+                    if (table.tableName.equalsIgnoreCase((String) row[0])) {
+                        LocalDateTime at = (LocalDateTime) row[2];
+                        if (!at.equals(publishedDeletions.get(table).put((Integer) row[1], at))) {
+                            deleted.computeIfAbsent(table, t -> new ArrayList<>()).add((Integer) row[1]);
+                        }
+                    }
+                }
+            });
+        }
+        return deleted;
+    }
+
+    /**
+     * @return the polls that have read changes, not counting the first, which only records the time
+     */
+    public long getPolls() {
+        return polls.sum();
+    }
+
+    /**
+     * @return the changed and deleted keys published so far
+     */
+    public long getRowsPublished() {
+        return rowsPublished.sum();
+    }
+}
@@ -0,0 +1,129 @@
+package Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code ChangeFeedTest} class is a test driver for {@link ChangeFeed}.
+ * <p>
+ * It updates an event, a booking and a review, and checks that the next poll publishes their keys, that a
+ * deleted booking and its events are published as deleted, and that the following poll publishes nothing again.
+ * Run it against the embedded profile ({@code -Dlmh.db.profile=embedded}). The process exits with status 1 if
+ * a check fails.
+ * </p>
+ */
+public class ChangeFeedTest {
+
+    /**
+     * Constructs a new ChangeFeedTest instance.
+     */
+    public ChangeFeedTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if a poll fails or a wait is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        ChangeFeed feed = new ChangeFeed(sqlCon, 0);
+        ConcurrentLinkedQueue<DatabaseEvent> received = new ConcurrentLinkedQueue<>();
+        sqlCon.getEventBus().subscribe(DatabaseEvent.class, received::add);
+
+        check("first poll publishes nothing", poll(feed, sqlCon, received).isEmpty());
+        // Rows written when the database was filled are within the overlap; read them once now.
+        poll(feed, sqlCon, received);
+        check("nothing changed, nothing published", poll(feed, sqlCon, received).isEmpty());
+
+        int eventId = sqlCon.queryForObject("SELECT MIN(event_id) FROM Event", rs -> rs.getInt(1)).orElseThrow();
+        int bookingId = sqlCon.queryForObject("SELECT MIN(booking_id) FROM Booking", rs -> rs.getInt(1))
+                .orElseThrow();
+        int reviewId = sqlCon.queryForObject("SELECT MIN(review_id) FROM Review", rs -> rs.getInt(1))
+                .orElseThrow();
+        update("UPDATE Event SET name = CONCAT(name, '!') WHERE event_id = ?", sqlCon, eventId);
+        // An update that leaves every value as it was does not move the watermark.
+        update("UPDATE Booking SET total_cost = COALESCE(total_cost, 0) + 1 WHERE booking_id = ?", sqlCon,
+                bookingId);
+        update("UPDATE Review SET reply_text = 'Thank you' WHERE review_id = ?", sqlCon, reviewId);
+        List<DatabaseEvent.RowsChanged> changes = poll(feed, sqlCon, received);
+        check("updated event is published", changed(changes, ChangeFeed.Table.EVENT).contains(eventId));
+        check("updated booking is published", changed(changes, ChangeFeed.Table.BOOKING).contains(bookingId));
+        check("updated review is published", changed(changes, ChangeFeed.Table.REVIEW).contains(reviewId));
+        check("only the updated rows are published", changes.stream()
+                .mapToInt(rows -> rows.changed().size() + rows.deleted().size()).sum() == 3);
+        check("changes are published once", poll(feed, sqlCon, received).isEmpty());
+
+        int held = sqlCon.queryForObject("SELECT MIN(booking_id) FROM Booking WHERE booking_status = 'held'",
+                rs -> rs.getInt(1)).orElseThrow();
+        List<Integer> heldEvents = sqlCon.queryForList("SELECT event_id FROM Event WHERE booking_id = ?",
+                rs -> rs.getInt(1), held);
+        check("held booking deleted", sqlCon.deleteFullBooking(held));
+        changes = poll(feed, sqlCon, received);
+        check("deleted booking is published as deleted",
+                deleted(changes, ChangeFeed.Table.BOOKING).equals(List.of(held)));
+        check("its events are published as deleted",
+                deleted(changes, ChangeFeed.Table.EVENT).containsAll(heldEvents));
+        check("deletions are published once", poll(feed, sqlCon, received).isEmpty());
+
+        System.out.printf("polls %d, rows published %d%n", feed.getPolls(), feed.getRowsPublished());
+        TestChecks.finish();
+    }
+
+    /**
+     * Polls, then waits until every event published by the poll has been received.
+     *
+     * @return the changes the poll published
+     */
+    private static List<DatabaseEvent.RowsChanged> poll(ChangeFeed feed, SQLConnection sqlCon,
+                                                        ConcurrentLinkedQueue<DatabaseEvent> received)
+            throws Exception {
+        feed.pollNow().get(10, TimeUnit.SECONDS);
+        // Events reach a subscriber in the order they were published, so the marker comes last.
+        DatabaseEvent.PasswordReset marker = new DatabaseEvent.PasswordReset("ChangeFeedTest-" + System.nanoTime());
+        sqlCon.getEventBus().publish(marker);
+        List<DatabaseEvent.RowsChanged> changes = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            DatabaseEvent event = received.poll();
+            if (event == null) {
+                Thread.sleep(5);
+            } else if (event.equals(marker)) {
+                return changes;
+            } else if (event instanceof DatabaseEvent.RowsChanged rows) {
+                changes.add(rows);
+            }
+        }
+        throw new IllegalStateException("events were not delivered");
+    }
+
+    private static List<Integer> changed(List<DatabaseEvent.RowsChanged> changes, ChangeFeed.Table table) {
+        List<Integer> ids = new ArrayList<>();
+        changes.stream().filter(rows -> rows.table() == table).forEach(rows -> ids.addAll(rows.changed()));
+        return ids;
+    }
+
+    private static List<Integer> deleted(List<DatabaseEvent.RowsChanged> changes, ChangeFeed.Table table) {
+        List<Integer> ids = new ArrayList<>();
+        changes.stream().filter(rows -> rows.table() == table).forEach(rows -> ids.addAll(rows.deleted()));
+        return ids;
+    }
+
+    private static void update(String sql, SQLConnection sqlCon, Object... params) throws SQLException {
+        try (Connection con = sqlCon.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+}
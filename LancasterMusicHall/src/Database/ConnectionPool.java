@@ -0,0 +1,474 @@
+package Database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, self-validating JDBC connection pool used by {@link SQLConnection}.
+ * <p>
+ * Physical connections are opened lazily up to {@code maxSize} and handed out wrapped in a proxy whose
+ * {@code close()} returns the connection to the pool instead of closing the socket. A background
+ * housekeeper evicts connections that have been idle longer than {@code idleTimeoutMillis} (never going
+ * below {@code minIdle}), tops the pool back up to {@code minIdle}, and reports connections that have been
+ * borrowed for longer than {@code leakThresholdMillis} together with the stack trace of the borrower.
+ * </p>
+ * <p>
+ * Each physical connection carries its own {@link StatementCache}, so {@code prepareStatement(sql)} on a
+ * borrowed connection reuses a statement prepared earlier on the same socket.
+ * </p>
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long borrowTimeoutMillis;
+    private final int statementCacheSize;
+
+    /**
+     * Connections that have been idle for less than this are handed out without a validation round trip.
+     */
+    private static final long VALIDATION_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * Seconds allowed for {@link Connection#isValid(int)} when validating an idle connection.
+     */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledEntry, Lease> leased = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    /**
+     * Creates a new pool. No connection is opened until the first borrow or housekeeping run.
+     *
+     * @param url                 the JDBC URL
+     * @param user                the database user
+     * @param password            the database password
+     * @param minIdle             the number of connections kept open even when unused
+     * @param maxSize             the maximum number of physical connections
+     * @param idleTimeoutMillis   how long a surplus connection may sit idle before it is closed
+     * @param leakThresholdMillis how long a connection may be borrowed before it is reported as a leak
+     * @param borrowTimeoutMillis how long {@link #borrow()} waits for a free connection
+     * @param statementCacheSize  prepared statements cached per connection; {@code 0} disables the cache
+     */
+    public ConnectionPool(String url, String user, String password,
+                          int minIdle, int maxSize,
+                          long idleTimeoutMillis, long leakThresholdMillis, long borrowTimeoutMillis,
+                          int statementCacheSize) {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool bounds: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ConnectionPool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 30, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured borrow timeout for one to become available.
+     * <p>
+     * The returned connection must be closed by the caller; closing it returns it to the pool.
+     * </p>
+     *
+     * @return a pooled {@code Connection}
+     * @throws SQLException if the pool is exhausted for the whole timeout, has been shut down,
+     *                      or a new physical connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a pooled connection ("
+                        + leased.size() + " in use, max " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = open();
+            }
+            leased.put(entry, new Lease(new Throwable("Connection borrowed here"), System.currentTimeMillis()));
+            borrowCount.incrementAndGet();
+            return entry.proxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's current size and accumulated borrow metrics.
+     *
+     * @return a {@link PoolStats} snapshot
+     */
+    public PoolStats getStats() {
+        return new PoolStats(totalConnections.get(), idle.size(), leased.size(), permits.getQueueLength(),
+                borrowCount.get(), totalWaitNanos.get(), maxWaitNanos.get(), timeoutCount.get(),
+                createdCount.get(), destroyedCount.get(), leakCount.get(),
+                statementHits.get(), statementMisses.get(), statementEvictions.get());
+    }
+
+    /**
+     * Closes every idle connection and stops the housekeeper. Borrowed connections are closed when returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection, validating it first if it has been idle for a while.
+     * Broken connections are discarded.
+     */
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - entry.lastUsed < VALIDATION_INTERVAL_MILLIS || isAlive(entry)) {
+                return entry;
+            }
+            destroy(entry);
+        }
+        return null;
+    }
+
+    private PooledEntry open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledEntry(physical);
+    }
+
+    private boolean isAlive(PooledEntry entry) {
+        try {
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        entry.statements.closeAll();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.out.println("Failed to close pooled connection: " + e);
+        }
+        totalConnections.decrementAndGet();
+        destroyedCount.incrementAndGet();
+    }
+
+    /**
+     * Called by a proxy's {@code close()}. Resets session state and puts the connection back on the idle deque,
+     * or discards it if it is broken or the pool has been shut down.
+     */
+    private void release(PooledEntry entry) {
+        leased.remove(entry);
+        try {
+            boolean reusable = !shutdown && !entry.physical.isClosed();
+            if (reusable && !entry.physical.getAutoCommit()) {
+                // Never hand out a connection with someone else's uncommitted work on it.
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                entry.statements.returnAll();
+                entry.physical.clearWarnings();
+                entry.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            } else {
+                destroy(entry);
+            }
+        } catch (SQLException e) {
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Periodic maintenance: idle eviction, refilling to {@code minIdle} and leak detection.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Evict from the cold end of the deque; the hot end holds the most recently used connections.
+        Iterator<PooledEntry> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > minIdle) {
+            PooledEntry entry = it.next();
+            if (now - entry.lastUsed > idleTimeoutMillis && idle.remove(entry)) {
+                destroy(entry);
+            }
+        }
+
+        while (!shutdown && totalConnections.get() < minIdle && permits.tryAcquire()) {
+            try {
+                idle.offerLast(open());
+            } catch (SQLException e) {
+                System.out.println("Connection pool could not open an idle connection: " + e);
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+
+        for (Lease lease : leased.values()) {
+            if (!lease.reported && now - lease.borrowedAt > leakThresholdMillis) {
+                lease.reported = true;
+                leakCount.incrementAndGet();
+                System.out.println("Possible connection leak: connection held for " + (now - lease.borrowedAt) + " ms");
+                lease.borrower.printStackTrace(System.out);
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledEntry {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize,
+                    statementHits, statementMisses, statementEvictions);
+        }
+
+        /**
+         * Creates a fresh proxy for one borrow, so a stale reference closed twice cannot release the entry again.
+         */
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * Routes every call to the physical connection except {@code close()}, {@code isClosed()} and the
+     * {@code prepareStatement} variants served by the statement cache.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed;
+
+        LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (method.getName().equals("prepareStatement")) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return entry.statements.prepare((Connection) proxy, (String) args[0], null);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return entry.statements.prepare((Connection) proxy, (String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Bookkeeping for a borrowed connection, used for leak detection.
+     */
+    private static final class Lease {
+        private final Throwable borrower;
+        private final long borrowedAt;
+        private volatile boolean reported;
+
+        Lease(Throwable borrower, long borrowedAt) {
+            this.borrower = borrower;
+            this.borrowedAt = borrowedAt;
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool size and borrow metrics.
+     */
+    public static final class PoolStats {
+        private final int total;
+        private final int idle;
+        private final int active;
+        private final int waiting;
+        private final long borrows;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeouts;
+        private final long created;
+        private final long destroyed;
+        private final long leaks;
+        private final long statementHits;
+        private final long statementMisses;
+        private final long statementEvictions;
+
+        PoolStats(int total, int idle, int active, int waiting, long borrows, long totalWaitNanos,
+                  long maxWaitNanos, long timeouts, long created, long destroyed, long leaks,
+                  long statementHits, long statementMisses, long statementEvictions) {
+            this.total = total;
+            this.idle = idle;
+            this.active = active;
+            this.waiting = waiting;
+            this.borrows = borrows;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeouts = timeouts;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.leaks = leaks;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+
+        /** @return the number of open physical connections */
+        public int getTotal() { return total; }
+
+        /** @return the number of connections waiting in the pool */
+        public int getIdle() { return idle; }
+
+        /** @return the number of connections currently borrowed */
+        public int getActive() { return active; }
+
+        /** @return the number of threads currently blocked waiting for a connection */
+        public int getWaiting() { return waiting; }
+
+        /** @return the number of successful borrows since the pool was created */
+        public long getBorrows() { return borrows; }
+
+        /** @return the mean time a successful borrow spent waiting, in milliseconds */
+        public double getAverageWaitMillis() {
+            return borrows == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / borrows;
+        }
+
+        /** @return the longest time a borrow has waited, in milliseconds */
+        public double getMaxWaitMillis() { return maxWaitNanos / 1_000_000.0; }
+
+        /** @return the number of borrows that gave up waiting */
+        public long getTimeouts() { return timeouts; }
+
+        /** @return the number of physical connections opened */
+        public long getCreated() { return created; }
+
+        /** @return the number of physical connections closed */
+        public long getDestroyed() { return destroyed; }
+
+        /** @return the number of borrows reported as possible leaks */
+        public long getLeaks() { return leaks; }
+
+        /** @return the number of {@code prepareStatement} calls served from a statement cache */
+        public long getStatementHits() { return statementHits; }
+
+        /** @return the number of {@code prepareStatement} calls that had to prepare a new statement */
+        public long getStatementMisses() { return statementMisses; }
+
+        /** @return the number of cached statements closed to make room for newer ones */
+        public long getStatementEvictions() { return statementEvictions; }
+
+        @Override
+        public String toString() {
+            return String.format("PoolStats[total=%d, idle=%d, active=%d, waiting=%d, borrows=%d, avgWait=%.2fms, " +
+                            "maxWait=%.2fms, timeouts=%d, created=%d, destroyed=%d, leaks=%d, " +
+                            "statementHits=%d, statementMisses=%d, statementEvictions=%d]",
+                    total, idle, active, waiting, borrows, getAverageWaitMillis(), getMaxWaitMillis(),
+                    timeouts, created, destroyed, leaks, statementHits, statementMisses, statementEvictions);
+        }
+    }
+}
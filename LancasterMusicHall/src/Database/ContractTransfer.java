@@ -0,0 +1,144 @@
+package Database;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams contract documents between the local file system and the {@code Contract.file_data} column
+ * without holding the whole document in memory.
+ * <p>
+ * Uploads are read through a size-limited stream that reports progress as the driver consumes it; downloads
+ * are copied from the column's binary stream into a {@link FileChannel} through a fixed-size buffer.
+ * </p>
+ */
+public final class ContractTransfer {
+
+    /**
+     * Largest contract accepted for upload: the capacity of a MySQL {@code MEDIUMBLOB}.
+     */
+    public static final long MAX_CONTRACT_BYTES = 16L * 1024 * 1024 - 1;
+
+    /**
+     * Size of the buffer used to copy a download to disk.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContractTransfer() {
+    }
+
+    /**
+     * Receives progress updates during an upload or download.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called after each chunk is transferred.
+         *
+         * @param transferred bytes transferred so far
+         * @param total       total bytes expected, or {@code -1} if unknown
+         */
+        void progress(long transferred, long total);
+    }
+
+    /**
+     * Opens a contract file for upload.
+     *
+     * @param file     the file to upload
+     * @param listener receives progress as the stream is read; may be {@code null}
+     * @return a stream that must be closed by the caller once the statement has executed
+     * @throws IOException if the file cannot be opened or is larger than {@link #MAX_CONTRACT_BYTES}
+     */
+    public static InputStream openUpload(File file, ProgressListener listener) throws IOException {
+        long size = file.length();
+        if (size > MAX_CONTRACT_BYTES) {
+            throw new IOException("Contract file " + file.getName() + " is " + size
+                    + " bytes; the limit is " + MAX_CONTRACT_BYTES + " bytes");
+        }
+        return new ProgressInputStream(new FileInputStream(file), size, listener);
+    }
+
+    /**
+     * Copies a contract document to a local file through a bounded buffer.
+     *
+     * @param in       the document stream, e.g. from {@code ResultSet.getBinaryStream}
+     * @param target   the file to write; created or truncated
+     * @param total    the expected size in bytes, or {@code -1} if unknown
+     * @param listener receives progress after each chunk; may be {@code null}
+     * @return the number of bytes written
+     * @throws IOException if reading or writing fails
+     */
+    public static long copyToFile(InputStream in, Path target, long total, ProgressListener listener)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long written = 0;
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel sink = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    written += sink.write(buffer);
+                }
+                buffer.clear();
+                if (listener != null) {
+                    listener.progress(written, total);
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Counts bytes as they are read, enforces the upload limit and reports progress.
+     */
+    private static final class ProgressInputStream extends FilterInputStream {
+        private final long total;
+        private final ProgressListener listener;
+        private long read;
+
+        ProgressInputStream(InputStream in, long total, ProgressListener listener) {
+            super(in);
+            this.total = total;
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        private void advance(long n) throws IOException {
+            read += n;
+            if (read > MAX_CONTRACT_BYTES) {
+                // The file grew after the size check.
+                throw new IOException("Contract upload exceeded " + MAX_CONTRACT_BYTES + " bytes");
+            }
+            if (listener != null) {
+                listener.progress(read, total);
+            }
+        }
+    }
+}
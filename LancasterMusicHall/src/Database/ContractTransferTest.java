@@ -0,0 +1,83 @@
+package Database;
+
+import Database.rows.ContractRow;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code ContractTransferTest} class is a test driver for contract uploads and downloads.
+ * <p>
+ * It uploads a document for a booking, downloads it twice through {@link SQLConnection#downloadContract} and
+ * checks that the bytes come back unchanged with progress reported up to the full size, and that a cached
+ * statement given a fetch size is handed out again with the default one. Run it against the embedded profile
+ * ({@code -Dlmh.db.profile=embedded}). The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class ContractTransferTest {
+
+    /**
+     * Constructs a new ContractTransferTest instance.
+     */
+    public ContractTransferTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if the test files cannot be written or a statement fails
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        int bookingId = sqlCon.queryForObject("SELECT MIN(booking_id) FROM Booking", rs -> rs.getInt(1))
+                .orElseThrow();
+        byte[] document = new byte[300_000];
+        new Random(42).nextBytes(document);
+        Path upload = Files.createTempFile("contract-upload", ".pdf");
+        Path download = Files.createTempFile("contract-download", ".pdf");
+        try {
+            Files.write(upload, document);
+            check("document is uploaded", sqlCon.uploadContract(bookingId, upload.toFile(), null, null));
+            Optional<ContractRow> contract = sqlCon.getContractDetails(bookingId);
+            check("contract reports the document size", contract.isPresent()
+                    && contract.get().fileSize() == document.length);
+            int contractId = contract.map(ContractRow::contractId).orElse(0);
+
+            AtomicLong reported = new AtomicLong();
+            long written = sqlCon.downloadContract(contractId, download, (transferred, total) ->
+                    reported.set(transferred));
+            check("download writes the whole document", written == document.length);
+            check("downloaded bytes match the upload", Arrays.equals(Files.readAllBytes(download), document));
+            check("progress reaches the full size", reported.get() == document.length);
+            check("second download reuses the statement",
+                    sqlCon.downloadContract(contractId, download, null) == document.length);
+
+            try (Connection con = sqlCon.getConnection()) {
+                String sql = "SELECT details FROM Contract WHERE contract_id = ?";
+                int defaultFetchSize;
+                try (PreparedStatement ps = con.prepareStatement(sql)) {
+                    defaultFetchSize = ps.getFetchSize();
+                    ps.setFetchSize(defaultFetchSize + 50);
+                }
+                try (PreparedStatement ps = con.prepareStatement(sql)) {
+                    check("cached statement is returned with its default fetch size",
+                            ps.getFetchSize() == defaultFetchSize);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(upload);
+            Files.deleteIfExists(download);
+        }
+
+        TestChecks.finish();
+    }
+}
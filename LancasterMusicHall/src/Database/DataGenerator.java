@@ -0,0 +1,631 @@
+package Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code DataGenerator} class fills the database with a realistic volume of synthetic data: clients,
+ * bookings, single- and multi-day events across every {@code Venue} row, and for each booking an invoice, a
+ * contract and a financial record, plus reviews of some of the events.
+ * <p>
+ * The rows keep to the rules the application keeps: exactly the requested number of events is made, each
+ * booking has a client of its own (deleting a held booking deletes its client), bookings are taken by the staff
+ * on record, events in one venue never overlap each other or the events already there, and held bookings have
+ * no financial record or reviews yet. Events run between {@link #OPENING} and 22:00 in half-hour steps.
+ * </p>
+ * <p>
+ * The data is a pure function of the seed, the options and the events already in the venues. The events are
+ * split into fixed-size units, each covering its own stretch of days, generated from its own random stream and
+ * given a precomputed ID range, so the same options produce the same rows with the same IDs however many
+ * writers run in parallel. Each writer inserts a unit with JDBC batches on its own pooled connection and commits
+ * once per unit.
+ * </p>
+ * <p>
+ * Rows are added after the existing ones; nothing is deleted. Run it from the command line with
+ * {@code key=value} options, e.g. {@code events=100000 years=10 writers=8}, against a MySQL or file-backed
+ * embedded database, or call {@link #run()} in process to fill the in-memory embedded database. The venues hold
+ * about three events a day each, so a run fails at once if the events asked for do not fit in the years given.
+ * </p>
+ */
+public class DataGenerator {
+
+    /** Events generated, inserted and committed together, with their bookings. */
+    private static final int EVENTS_PER_UNIT = 1500;
+
+    /** Most events in one booking; the count is uniform between 1 and this. */
+    private static final int MAX_EVENTS_PER_BOOKING = 5;
+
+    /** Rows sent per JDBC batch. */
+    private static final int BATCH_SIZE = 500;
+
+    /** Fraction of events that are reviewed. */
+    private static final double REVIEW_RATE = 0.1;
+
+    /** Fraction of events that run over several days. */
+    private static final double MULTI_DAY_RATE = 0.05;
+
+    /** When the first event of a day may start. */
+    private static final LocalTime OPENING = LocalTime.of(10, 0);
+
+    /** Half-hour slots from {@link #OPENING} to 22:00, when the last event of a day must end. */
+    private static final int SLOTS_PER_DAY = 24;
+
+    /**
+     * Slots of venue time an event takes on average, counting multi-day events and the end of the day left
+     * over when the next event does not fit; sizes the gaps between events and the capacity check.
+     */
+    private static final int SLOTS_PER_EVENT = 8;
+
+    /** Fraction of bookings that are still held rather than confirmed. */
+    private static final double HELD_RATE = 0.2;
+
+    private static final String[] COMPANY_WORDS = {
+            "Lune", "Northern", "Castle", "Quay", "Priory", "Ashton", "Morecambe", "Pendle", "Bowland", "Dalton",
+            "Williamson", "Storey", "Judges", "Skerton", "Scotforth", "Halton"
+    };
+    private static final String[] COMPANY_KINDS = {
+            "Films", "Strings", "Players", "Trust", "Choir", "Productions", "Events", "Society", "Orchestra", "Media"
+    };
+    private static final String[] FIRST_NAMES = {
+            "John", "Amy", "Raj", "Sophie", "Tom", "Priya", "James", "Hannah", "Ali", "Grace", "Owen", "Zara"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Clarke", "Patel", "Jones", "Brown", "Khan", "Taylor", "Wilson", "Evans", "Hughes"
+    };
+    private static final String[] SHOW_NAMES = {
+            "Evening Concert", "Comedy Night", "Jazz Session", "Choir Recital", "Theatre Premiere", "Folk Night",
+            "Orchestra Gala", "Dance Showcase"
+    };
+    private static final String[] FILM_NAMES = {
+            "Classic Film Night", "Matinee Screening", "Documentary Evening", "Silent Film Gala", "Family Cinema"
+    };
+    private static final String[] MEETING_NAMES = {
+            "Board Meeting", "Training Day", "Workshop", "Trustees Meeting", "Press Briefing", "Team Away Day"
+    };
+    private static final String[] REVIEW_TEXTS = {
+            "Wonderful evening, great acoustics.", "Seats were a little cramped.", "Friendly staff and easy access.",
+            "Would book again.", "Sound was too loud at the back.", "Excellent value for money."
+    };
+    private static final String[] REVIEW_SOURCES = {"Website", "Email", "Social Media", "Phone"};
+
+    private final SQLConnection sqlCon;
+    private final long seed;
+    private final long events;
+    private final int years;
+    private final LocalDate start;
+    private final int writers;
+
+    /** One venue that events can be held in. */
+    private record VenueRef(int id, String name) {
+    }
+
+    /**
+     * The first ID of each table for one unit, and how many bookings and events it makes. Clients, invoices and
+     * contracts follow the bookings one for one; financial records are made for confirmed bookings only.
+     */
+    private record UnitIds(long client, long booking, long event, long review, long record, int bookings,
+                           int events) {
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param sqlCon  the connection to write through
+     * @param seed    the seed every random choice is derived from
+     * @param events  the number of events to create
+     * @param years   the number of years the bookings are spread over
+     * @param start   the first day bookings may start on
+     * @param writers the number of units written in parallel
+     */
+    public DataGenerator(SQLConnection sqlCon, long seed, long events, int years, LocalDate start, int writers) {
+        if (events < 1 || years < 1 || writers < 1) {
+            throw new IllegalArgumentException("events, years and writers must be positive");
+        }
+        this.sqlCon = sqlCon;
+        this.seed = seed;
+        this.events = events;
+        this.years = years;
+        this.start = start;
+        this.writers = writers;
+    }
+
+    /**
+     * Generates data from {@code key=value} options: {@code events} (default 20000), {@code years}
+     * (default 3), {@code seed} (default 42), {@code start} (default 2024-01-01) and {@code writers}
+     * (default 4). The database is chosen as described in {@link DatabaseConfig}.
+     *
+     * @param args the options
+     * @throws Exception if the data cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        long events = 20_000;
+        int years = 3;
+        long seed = 42;
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        int writers = 4;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            switch (option[0]) {
+                case "events" -> events = Long.parseLong(option[1]);
+                case "years" -> years = Integer.parseInt(option[1]);
+                case "seed" -> seed = Long.parseLong(option[1]);
+                case "start" -> start = LocalDate.parse(option[1]);
+                case "writers" -> writers = Integer.parseInt(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + option[0]);
+            }
+        }
+        SQLConnection sqlCon = new SQLConnection();
+        new DataGenerator(sqlCon, seed, events, years, start, writers).run();
+        System.out.println(sqlCon.getPool().getStats());
+        System.exit(0);
+    }
+
+    /**
+     * Generates and inserts the data.
+     *
+     * @return the number of events inserted
+     * @throws SQLException if the existing data cannot be read or a unit cannot be written
+     * @throws InterruptedException if interrupted while waiting for the writers
+     */
+    public long run() throws SQLException, InterruptedException {
+        List<VenueRef> venues = sqlCon.queryForList("SELECT venue_id, venue_name FROM Venue ORDER BY venue_id",
+                rs -> new VenueRef(rs.getInt("venue_id"), rs.getString("venue_name")));
+        if (venues.isEmpty()) {
+            throw new SQLException("The generator needs at least one Venue row");
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(start, start.plusYears(years));
+        long slotsPerYear = (long) venues.size() * 365 * SLOTS_PER_DAY;
+        if (events * SLOTS_PER_EVENT > (long) venues.size() * days * SLOTS_PER_DAY) {
+            throw new IllegalArgumentException(String.format("%d events do not fit in %d venues over %d years; "
+                    + "use at least %d years", events, venues.size(), years,
+                    (events * SLOTS_PER_EVENT + slotsPerYear - 1) / slotsPerYear));
+        }
+        List<Integer> staffIds = sqlCon.queryForList("SELECT staff_id FROM Staff ORDER BY staff_id",
+                rs -> rs.getInt(1));
+        Map<Integer, TreeMap<Long, Long>> booked = bookedSlots(days);
+
+        // Size every unit up front from its count stream, so each unit knows its ID range before any is written.
+        int units = (int) ((events + EVENTS_PER_UNIT - 1) / EVENTS_PER_UNIT);
+        UnitIds[] ids = new UnitIds[units];
+        long client = nextId("Clients", "client_id");
+        long booking = nextId("Booking", "booking_id");
+        long event = nextId("Event", "event_id");
+        long review = nextId("Review", "review_id");
+        long invoice = nextId("Invoice", "invoice_id");
+        long contract = nextId("Contract", "contract_id");
+        long record = nextId("FinancialRecord", "financial_record_id");
+        for (int u = 0; u < units; u++) {
+            int unitEvents = (int) Math.min(EVENTS_PER_UNIT, events - (long) u * EVENTS_PER_UNIT);
+            SplittableRandom counts = countStream(u);
+            long firstReview = review;
+            long firstRecord = record;
+            int unitBookings = 0;
+            for (int left = unitEvents; left > 0; unitBookings++) {
+                int n = Math.min(left, 1 + counts.nextInt(MAX_EVENTS_PER_BOOKING));
+                boolean held = counts.nextDouble() < HELD_RATE;
+                for (int e = 0; e < n; e++) {
+                    if (counts.nextDouble() < REVIEW_RATE && !held) {
+                        review++;
+                    }
+                }
+                if (!held) {
+                    record++;
+                }
+                left -= n;
+            }
+            ids[u] = new UnitIds(client, booking, event, firstReview, firstRecord, unitBookings, unitEvents);
+            client += unitBookings;
+            booking += unitBookings;
+            event += unitEvents;
+        }
+        long bookingBase = ids[0].booking();
+        System.out.printf("Generating %d bookings and %d events over %d years from seed %d with %d writers%n",
+                booking - bookingBase, event - ids[0].event(), years, seed, writers);
+
+        long started = System.nanoTime();
+        AtomicLong done = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int u = 0; u < units; u++) {
+                int unit = u;
+                // Invoice and contract IDs follow the booking IDs one for one.
+                long offset = ids[unit].booking() - bookingBase;
+                results.add(pool.submit(() -> {
+                    writeUnit(unit, units, days, ids[unit], invoice + offset, contract + offset, venues, staffIds,
+                            booked);
+                    long finished = done.incrementAndGet();
+                    if (finished % 20 == 0 || finished == units) {
+                        System.out.printf("%d/%d units written%n", finished, units);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof SQLException ? (SQLException) e.getCause() : new SQLException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (sqlCon.getConfig().isEmbedded()) {
+            restartIdentities();
+        }
+        long inserted = event - ids[0].event();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Inserted %d events in %.1f s (%.0f events/s)%n", inserted, seconds, inserted / seconds);
+        return inserted;
+    }
+
+    /**
+     * The stream that decides how many events a unit's bookings have and which events are reviewed.
+     */
+    private SplittableRandom countStream(int unit) {
+        return new SplittableRandom(seed * 31 + unit * 2L);
+    }
+
+    /**
+     * The stream that decides everything else about a unit.
+     */
+    private SplittableRandom dataStream(int unit) {
+        return new SplittableRandom(seed * 31 + unit * 2L + 1);
+    }
+
+    /**
+     * Generates one unit and inserts it in a single transaction.
+     * <p>
+     * The unit's events fill its own stretch of days, in order in each venue: an event starts a random gap after
+     * the previous one in its venue, skipping the events already booked there, and moves to the next day if it
+     * would run past 22:00.
+     * </p>
+     */
+    private void writeUnit(int unit, int units, int days, UnitIds ids, long invoiceId, long contractId,
+                           List<VenueRef> venues, List<Integer> staffIds, Map<Integer, TreeMap<Long, Long>> booked)
+            throws SQLException {
+        SplittableRandom counts = countStream(unit);
+        SplittableRandom rng = dataStream(unit);
+        long firstSlot = (long) days * unit / units * SLOTS_PER_DAY;
+        long endSlot = (long) days * (unit + 1) / units * SLOTS_PER_DAY;
+        long[] cursors = new long[venues.size()];
+        Arrays.fill(cursors, firstSlot);
+        // Gaps average half the venue time the unit's events leave spare, so the events spread over its days.
+        int maxGap = (int) Math.max(0, (endSlot - firstSlot) * venues.size() / ids.events() - SLOTS_PER_EVENT);
+
+        try (Connection con = sqlCon.getConnection()) {
+            if (con == null) {
+                throw new SQLException("No database connection available");
+            }
+            con.setAutoCommit(false);
+            try (Batch clients = new Batch(con, "INSERT INTO Clients (client_id, `Company Name`, `Contact Name`, "
+                         + "`Phone Number`, `Contact Email`, `Customer Account Number`, `Customer Sort Code`, "
+                         + "`Street Address`, `City`, `Postcode`) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                 Batch bookings = new Batch(con, "INSERT INTO Booking (booking_id, booking_DateStart, "
+                         + "booking_DateEnd, booking_status, ticket_price, total_cost, payment_status, "
+                         + "payment_due_date, staff_id, client_id, max_discount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                 Batch eventRows = new Batch(con, "INSERT INTO Event (event_id, name, start_date, end_date, "
+                         + "start_time, end_time, event_type, venue_id, booking_id, client_id, location, description, "
+                         + "layout, max_discount, booked_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                 Batch invoices = new Batch(con,
+                         "INSERT INTO Invoice (invoice_id, booking_id, date, total, client_id) VALUES (?, ?, ?, ?, ?)");
+                 Batch contracts = new Batch(con,
+                         "INSERT INTO Contract (contract_id, details, client_id, booking_id) VALUES (?, ?, ?, ?)");
+                 Batch records = new Batch(con, "INSERT INTO FinancialRecord (financial_record_id, booking_id, "
+                         + "revenue, cost, profit, financial_record_date) VALUES (?, ?, ?, ?, ?, ?)");
+                 Batch reviews = new Batch(con, "INSERT INTO Review (review_id, event_id, review_text, review_date, "
+                         + "source, rating) VALUES (?, ?, ?, ?, ?, ?)")) {
+
+                long eventId = ids.event();
+                long reviewId = ids.review();
+                long recordId = ids.record();
+                int left = ids.events();
+                for (int b = 0; b < ids.bookings(); b++) {
+                    long bookingId = ids.booking() + b;
+                    long clientId = ids.client() + b;
+                    String company = pick(rng, COMPANY_WORDS) + " " + pick(rng, COMPANY_KINDS) + " " + clientId;
+                    String contact = pick(rng, FIRST_NAMES) + " " + pick(rng, LAST_NAMES);
+                    clients.add(clientId, company, contact, String.format("07%09d", rng.nextInt(1_000_000_000)),
+                            contact.toLowerCase().replace(' ', '.') + "@client" + clientId + ".example",
+                            String.format("%08d", rng.nextInt(100_000_000)),
+                            String.format("%02d-%02d-%02d", rng.nextInt(100), rng.nextInt(100), rng.nextInt(100)),
+                            (1 + rng.nextInt(200)) + " Market Street", "Lancaster", "LA1 " + (1 + rng.nextInt(9)) + "AA");
+
+                    int n = Math.min(left, 1 + counts.nextInt(MAX_EVENTS_PER_BOOKING));
+                    boolean held = counts.nextDouble() < HELD_RATE;
+                    left -= n;
+                    double maxDiscount = rng.nextInt(4) * 5.0;
+                    Integer staffId = staffIds.isEmpty() ? null : staffIds.get(rng.nextInt(staffIds.size()));
+                    LocalDate bookingStart = null;
+                    LocalDate bookingEnd = null;
+                    double total = 0;
+
+                    for (int e = 0; e < n; e++, eventId++) {
+                        long[] slots = place(rng, venues, cursors, maxGap, endSlot, booked);
+                        VenueRef venue = venues.get((int) slots[0]);
+                        LocalDate eventStart = start.plusDays(slots[1] / SLOTS_PER_DAY);
+                        LocalTime startTime = OPENING.plusMinutes(slots[1] % SLOTS_PER_DAY * 30);
+                        long endDay = (slots[2] - 1) / SLOTS_PER_DAY;
+                        LocalDate eventEnd = start.plusDays(endDay);
+                        LocalTime endTime = OPENING.plusMinutes((slots[2] - endDay * SLOTS_PER_DAY) * 30);
+                        String type = eventType(rng, venue.name());
+                        String name = pick(rng, type.equals("Film") ? FILM_NAMES
+                                : type.equals("Meeting") ? MEETING_NAMES : SHOW_NAMES);
+                        total += price(TariffEngine.plan(venue.name(), venue.id(), eventStart, eventEnd,
+                                startTime, endTime));
+                        if (bookingStart == null || eventStart.isBefore(bookingStart)) {
+                            bookingStart = eventStart;
+                        }
+                        if (bookingEnd == null || eventEnd.isAfter(bookingEnd)) {
+                            bookingEnd = eventEnd;
+                        }
+                        eventRows.add(eventId, name, eventStart, eventEnd, startTime, endTime, type, venue.id(),
+                                bookingId, clientId, venue.name(), name + " for " + company,
+                                type.equals("Meeting") ? "Boardroom" : "Stalls", maxDiscount, company);
+
+                        if (counts.nextDouble() < REVIEW_RATE && !held) {
+                            reviews.add(reviewId++, eventId, pick(rng, REVIEW_TEXTS),
+                                    eventEnd.plusDays(1 + rng.nextInt(14)), pick(rng, REVIEW_SOURCES),
+                                    1 + rng.nextInt(5));
+                        }
+                    }
+
+                    double cost = Math.round(total * (0.30 + rng.nextDouble() * 0.15) * 100) / 100.0;
+                    bookings.add(bookingId, bookingStart, bookingEnd, held ? "held" : "confirmed",
+                            5.0 + rng.nextInt(20), total, held ? "Pending" : pick(rng, new String[]{"Paid", "Pending", "Overdue"}),
+                            bookingStart.minusDays(14), staffId, clientId, maxDiscount);
+                    invoices.add(invoiceId + b, bookingId, bookingStart, total, clientId);
+                    contracts.add(contractId + b, "Standard hire contract for booking " + bookingId, clientId, bookingId);
+                    if (!held) {
+                        records.add(recordId++, bookingId, total, cost, total - cost, bookingStart);
+                    }
+                }
+                clients.flush();
+                bookings.flush();
+                eventRows.flush();
+                invoices.flush();
+                contracts.flush();
+                records.flush();
+                reviews.flush();
+                CalendarEntries.refreshBookings(con, ids.booking(), ids.booking() + ids.bookings() - 1);
+                con.commit();
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Places the next event of a unit: picks a venue and a length, then the first free slots after a random gap
+     * in that venue. If the venue has no room left before the end of the unit's days, the venue with the earliest
+     * free time is used instead.
+     *
+     * @return the index of the venue in {@code venues}, the event's first slot and the slot after its last
+     * @throws SQLException if no venue has room left
+     */
+    private static long[] place(SplittableRandom rng, List<VenueRef> venues, long[] cursors, int maxGap,
+                                long endSlot, Map<Integer, TreeMap<Long, Long>> booked) throws SQLException {
+        int chosen = rng.nextInt(venues.size());
+        int gap = rng.nextInt(maxGap + 1);
+        boolean multiDay = rng.nextDouble() < MULTI_DAY_RATE;
+        int length = 2 + rng.nextInt(7);
+        int extraDays = 1 + rng.nextInt(2);
+        int lastDaySlots = 2 + rng.nextInt(SLOTS_PER_DAY - 1);
+
+        int venue = chosen;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            TreeMap<Long, Long> taken = booked.getOrDefault(venues.get(venue).id(), new TreeMap<>());
+            long first = cursors[venue] + gap;
+            while (true) {
+                long day = first / SLOTS_PER_DAY;
+                if (!multiDay && first % SLOTS_PER_DAY + length > SLOTS_PER_DAY) {
+                    first = (day + 1) * SLOTS_PER_DAY;
+                    continue;
+                }
+                long end = multiDay ? (day + extraDays) * SLOTS_PER_DAY + lastDaySlots : first + length;
+                if (end > endSlot) {
+                    break;
+                }
+                Map.Entry<Long, Long> clash = taken.lowerEntry(end);
+                if (clash != null && clash.getValue() > first) {
+                    first = clash.getValue();
+                    continue;
+                }
+                cursors[venue] = end;
+                return new long[] {venue, first, end};
+            }
+            int earliest = 0;
+            for (int v = 1; v < cursors.length; v++) {
+                if (cursors[v] < cursors[earliest]) {
+                    earliest = v;
+                }
+            }
+            if (earliest == venue) {
+                break;
+            }
+            venue = earliest;
+            gap = 0;
+        }
+        throw new SQLException("No venue has room for another event before day " + endSlot / SLOTS_PER_DAY
+                + " of the run; use more years or a later start");
+    }
+
+    /**
+     * Reads the events already in the venues during the run's days as slot ranges, so new events can avoid
+     * them. Each venue's ranges are merged where they touch or overlap and keyed by their first slot; times
+     * outside the day's slots are clamped to them.
+     */
+    private Map<Integer, TreeMap<Long, Long>> bookedSlots(int days) throws SQLException {
+        Map<Integer, TreeMap<Long, Long>> booked = new HashMap<>();
+        int read = sqlCon.queryForEach("SELECT venue_id, start_date, start_time, end_date, end_time FROM Event "
+                + "WHERE venue_id IS NOT NULL AND start_date < ? AND end_date >= ? "
+                + "ORDER BY venue_id, start_date, start_time", rs -> new long[] {rs.getInt(1),
+                slotOf(rs.getDate(2).toLocalDate(), rs.getTime(3).toLocalTime(), false),
+                slotOf(rs.getDate(4).toLocalDate(), rs.getTime(5).toLocalTime(), true)}, row -> {
+            if (row[2] <= row[1]) {
+                return;
+            }
+            TreeMap<Long, Long> taken = booked.computeIfAbsent((int) row[0], id -> new TreeMap<>());
+            Map.Entry<Long, Long> previous = taken.lastEntry();
+            if (previous != null && previous.getValue() >= row[1]) {
+                taken.put(previous.getKey(), Math.max(previous.getValue(), row[2]));
+            } else {
+                taken.put(row[1], row[2]);
+            }
+        }, start.plusDays(days), start);
+        if (read < 0) {
+            throw new SQLException("Could not read the events already in the venues");
+        }
+        return booked;
+    }
+
+    /**
+     * @return the slot a time falls in, counted from the first slot of {@link #start}; the next slot boundary
+     *         if {@code roundUp}
+     */
+    private long slotOf(LocalDate date, LocalTime time, boolean roundUp) {
+        long minutes = ChronoUnit.MINUTES.between(OPENING, time);
+        long slot = roundUp ? Math.floorDiv(minutes + 29, 30) : Math.floorDiv(minutes, 30);
+        return ChronoUnit.DAYS.between(start, date) * SLOTS_PER_DAY + Math.max(0, Math.min(SLOTS_PER_DAY, slot));
+    }
+
+    /**
+     * Picks an event type that suits the venue: meetings in meeting rooms, films and shows in the halls.
+     */
+    private static String eventType(SplittableRandom rng, String venueName) {
+        if (venueName.contains("Hall") || venueName.equals("Venue")) {
+            return rng.nextBoolean() ? "Film" : "Show";
+        }
+        if (venueName.contains("Rehearsal")) {
+            return "Show";
+        }
+        return "Meeting";
+    }
+
+    /**
+     * Prices an event with the local tariff, as the embedded profile's pricing functions would.
+     */
+    private static double price(TariffEngine.Plan plan) {
+        List<Object> args = plan.tariff().args();
+        Double value = switch (plan.tariff().function()) {
+            case "calculateMainHallCost" -> EmbeddedTariffs.calculateMainHallCost(
+                    java.sql.Date.valueOf((LocalDate) args.get(0)), (String) args.get(1), (Integer) args.get(2));
+            case "calculateSmallHallCost" -> EmbeddedTariffs.calculateSmallHallCost(
+                    java.sql.Date.valueOf((LocalDate) args.get(0)), (String) args.get(1), (Integer) args.get(2));
+            case "calculateRehearsalCost" -> EmbeddedTariffs.calculateRehearsalCost(
+                    java.sql.Date.valueOf((LocalDate) args.get(0)), (String) args.get(1), (Integer) args.get(2));
+            case "calculateRoomCost" -> EmbeddedTariffs.calculateRoomCost(
+                    (Integer) args.get(0), (String) args.get(1), (String) args.get(2));
+            case "calculateVenueCost" -> EmbeddedTariffs.calculateVenueCost(
+                    java.sql.Date.valueOf((LocalDate) args.get(0)), (String) args.get(1));
+            default -> null;
+        };
+        return value == null ? 0.0 : value * plan.multiplier();
+    }
+
+    private static String pick(SplittableRandom rng, String[] values) {
+        return values[rng.nextInt(values.length)];
+    }
+
+    /**
+     * @return one more than the largest ID in the table, or 1 if it is empty
+     */
+    private long nextId(String table, String column) throws SQLException {
+        try (Connection con = sqlCon.getConnection();
+             Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * H2 does not move an identity column past explicitly inserted IDs the way MySQL's AUTO_INCREMENT does,
+     * so restart every identity after the generated rows.
+     */
+    private void restartIdentities() throws SQLException {
+        String[][] identities = {
+                {"Clients", "client_id"}, {"Booking", "booking_id"}, {"Event", "event_id"}, {"Review", "review_id"},
+                {"Invoice", "invoice_id"}, {"Contract", "contract_id"}, {"FinancialRecord", "financial_record_id"}
+        };
+        try (Connection con = sqlCon.getConnection();
+             Statement stmt = con.createStatement()) {
+            for (String[] identity : identities) {
+                stmt.execute("ALTER TABLE " + identity[0] + " ALTER COLUMN " + identity[1]
+                        + " RESTART WITH " + nextId(identity[0], identity[1]));
+            }
+        }
+    }
+
+    /**
+     * A prepared insert that sends its rows in batches of {@link #BATCH_SIZE}.
+     */
+    private static final class Batch implements AutoCloseable {
+        private final PreparedStatement ps;
+        private int pending;
+
+        Batch(Connection con, String sql) throws SQLException {
+            this.ps = con.prepareStatement(sql);
+        }
+
+        /**
+         * Adds one row, sending the batch once it is full.
+         */
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value instanceof LocalDate) {
+                    ps.setDate(i + 1, java.sql.Date.valueOf((LocalDate) value));
+                } else if (value instanceof LocalTime) {
+                    ps.setTime(i + 1, java.sql.Time.valueOf((LocalTime) value));
+                } else {
+                    ps.setObject(i + 1, value);
+                }
+            }
+            ps.addBatch();
+            if (++pending == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Sends the rows added since the last batch.
+         */
+        void flush() throws SQLException {
+            if (pending > 0) {
+                ps.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            ps.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package Database;
+
+import java.time.LocalDate;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code DataGeneratorTest} class is a test driver for {@link DataGenerator}.
+ * <p>
+ * It generates a few thousand events into the embedded database, twice over the same days, and checks that
+ * exactly the requested number of events is made, that no two events in a venue overlap, that every booking has
+ * a client of its own and held bookings have no financial records or reviews, so that a generated held booking
+ * can be deleted; and that a run asking for more events than the venues hold is refused. Run it against the
+ * embedded profile ({@code -Dlmh.db.profile=embedded}). The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class DataGeneratorTest {
+
+    private static final LocalDate START = LocalDate.of(2040, 1, 1);
+
+    /**
+     * Constructs a new DataGeneratorTest instance.
+     */
+    public DataGeneratorTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if the data cannot be generated
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        int before = count(sqlCon, "SELECT COUNT(*) FROM Event");
+        long inserted = new DataGenerator(sqlCon, 3, 3_201, 2, START, 3).run();
+        check("the requested number of events is made",
+                inserted == 3_201 && count(sqlCon, "SELECT COUNT(*) FROM Event") == before + 3_201);
+        long again = new DataGenerator(sqlCon, 4, 1_000, 2, START, 2).run();
+        check("a second run over the same days is made", again == 1_000);
+
+        check("no two events in a venue overlap", count(sqlCon, "SELECT COUNT(*) FROM Event a JOIN Event b "
+                + "ON a.venue_id = b.venue_id AND a.event_id < b.event_id "
+                + "AND (a.start_date < b.end_date OR (a.start_date = b.end_date AND a.start_time < b.end_time)) "
+                + "AND (b.start_date < a.end_date OR (b.start_date = a.end_date AND b.start_time < a.end_time)) "
+                + "WHERE a.start_date >= ?", START) == 0);
+        check("every booking has a client of its own", count(sqlCon, "SELECT COUNT(*) FROM Booking "
+                + "WHERE booking_DateStart >= ? AND client_id IN (SELECT client_id FROM Booking "
+                + "GROUP BY client_id HAVING COUNT(*) > 1)", START) == 0);
+        check("bookings are taken by staff on record", count(sqlCon, "SELECT COUNT(*) FROM Booking "
+                + "WHERE booking_DateStart >= ? AND staff_id NOT IN (SELECT staff_id FROM Staff)", START) == 0);
+        check("held bookings have no financial records or reviews", count(sqlCon, "SELECT COUNT(*) FROM Booking b "
+                + "WHERE b.booking_status = 'held' AND b.booking_DateStart >= ? AND (EXISTS (SELECT 1 FROM "
+                + "FinancialRecord f WHERE f.booking_id = b.booking_id) OR EXISTS (SELECT 1 FROM Review r "
+                + "JOIN Event e ON r.event_id = e.event_id WHERE e.booking_id = b.booking_id))", START) == 0);
+
+        int held = sqlCon.queryForObject("SELECT MIN(booking_id) FROM Booking WHERE booking_status = 'held' "
+                + "AND booking_DateStart >= ?", rs -> rs.getInt(1), START).orElse(0);
+        check("a generated held booking can be deleted", held > 0 && sqlCon.deleteFullBooking(held)
+                && count(sqlCon, "SELECT COUNT(*) FROM Booking WHERE booking_id = ?", held) == 0);
+
+        boolean refused;
+        try {
+            new DataGenerator(sqlCon, 5, 1_000_000, 1, START, 1).run();
+            refused = false;
+        } catch (IllegalArgumentException e) {
+            refused = e.getMessage().contains("years");
+        }
+        check("more events than the venues hold are refused", refused);
+
+        TestChecks.finish();
+    }
+
+    private static int count(SQLConnection sqlCon, String sql, Object... params) {
+        return sqlCon.queryForObject(sql, rs -> rs.getInt(1), params).orElse(-1);
+    }
+}
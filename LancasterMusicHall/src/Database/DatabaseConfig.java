@@ -0,0 +1,218 @@
+package Database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Where {@link SQLConnection} connects to and with which credentials.
+ * <p>
+ * Two profiles are supported:
+ * </p>
+ * <ul>
+ *   <li>{@link Profile#MYSQL} connects to a MySQL server using the configured URL and credentials.</li>
+ *   <li>{@link Profile#EMBEDDED} runs an in-process H2 database in MySQL compatibility mode. On first use it is
+ *       created from the bundled schema, seeded with the venues, rooms and a staff account, and given local
+ *       equivalents of the {@code calculate*Cost} stored functions (see {@link EmbeddedDatabase}).</li>
+ * </ul>
+ * <p>
+ * Each setting is read from the first of these that defines it:
+ * </p>
+ * <ol>
+ *   <li>a system property, e.g. {@code -Dlmh.db.profile=embedded};</li>
+ *   <li>an environment variable, e.g. {@code LMH_DB_PROFILE=embedded};</li>
+ *   <li>the properties file named by {@code lmh.db.config}, or else {@code database.properties} in the working
+ *       directory, or else {@code database.properties} on the classpath.</li>
+ * </ol>
+ * <p>
+ * The keys are {@code lmh.db.profile}, {@code lmh.db.url}, {@code lmh.db.user} and {@code lmh.db.password}.
+ * If no profile is configured anywhere the embedded profile is used, so the application can always start.
+ * </p>
+ */
+public final class DatabaseConfig {
+
+    /**
+     * The kind of database the application connects to.
+     */
+    public enum Profile {
+        /** A MySQL server reached over the network. */
+        MYSQL,
+        /** An in-process H2 database created and seeded on first use. */
+        EMBEDDED
+    }
+
+    /** Key of the profile setting. */
+    public static final String PROFILE_KEY = "lmh.db.profile";
+
+    /** Key of the JDBC URL setting. */
+    public static final String URL_KEY = "lmh.db.url";
+
+    /** Key of the database user setting. */
+    public static final String USER_KEY = "lmh.db.user";
+
+    /** Key of the database password setting. */
+    public static final String PASSWORD_KEY = "lmh.db.password";
+
+    /** System property naming an alternative properties file. */
+    public static final String CONFIG_FILE_KEY = "lmh.db.config";
+
+    /** Name of the properties file looked up in the working directory and on the classpath. */
+    private static final String CONFIG_FILE_NAME = "database.properties";
+
+    /**
+     * URL of the default embedded database: in memory, kept alive until the JVM exits, and using MySQL syntax
+     * with case-insensitive identifiers so the application's queries run unchanged.
+     */
+    public static final String EMBEDDED_URL = "jdbc:h2:mem:lancaster;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    private final Profile profile;
+    private final String url;
+    private final String user;
+    private final String password;
+
+    /**
+     * Creates a configuration.
+     *
+     * @param profile  the kind of database
+     * @param url      the JDBC URL
+     * @param user     the database user
+     * @param password the database password
+     */
+    public DatabaseConfig(Profile profile, String url, String user, String password) {
+        this.profile = profile;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Returns the default in-memory embedded configuration.
+     *
+     * @return an embedded configuration using {@link #EMBEDDED_URL}
+     */
+    public static DatabaseConfig embedded() {
+        return new DatabaseConfig(Profile.EMBEDDED, EMBEDDED_URL, "sa", "");
+    }
+
+    /**
+     * Reads the configuration from system properties, environment variables and the properties file.
+     *
+     * @return the configuration to connect with
+     * @throws IllegalStateException if the profile is unknown, the properties file cannot be read, or the
+     *                               MySQL profile is selected without a URL
+     */
+    public static DatabaseConfig load() {
+        Properties file = readFile();
+        String profileName = setting(file, PROFILE_KEY);
+        Profile profile;
+        try {
+            profile = profileName == null ? Profile.EMBEDDED : Profile.valueOf(profileName.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown database profile '" + profileName + "'", e);
+        }
+
+        String url = setting(file, URL_KEY);
+        String user = setting(file, USER_KEY);
+        String password = setting(file, PASSWORD_KEY);
+        if (profile == Profile.EMBEDDED) {
+            // A configured MySQL URL is for the other profile; only an H2 URL replaces the default.
+            if (url == null || !url.startsWith("jdbc:h2:")) {
+                return embedded();
+            }
+            return new DatabaseConfig(profile, url, user != null ? user : "sa", password != null ? password : "");
+        }
+        if (url == null) {
+            throw new IllegalStateException("Database profile 'mysql' needs " + URL_KEY);
+        }
+        return new DatabaseConfig(profile, url, user, password);
+    }
+
+    /**
+     * Looks a setting up in the system properties, then the environment, then the properties file.
+     */
+    private static String setting(Properties file, String key) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(key.toUpperCase(Locale.ROOT).replace('.', '_'));
+        }
+        if (value == null) {
+            value = file.getProperty(key);
+        }
+        return value;
+    }
+
+    /**
+     * Reads the properties file, returning empty properties if there is none.
+     */
+    private static Properties readFile() {
+        Properties props = new Properties();
+        String explicit = System.getProperty(CONFIG_FILE_KEY);
+        try {
+            if (explicit != null) {
+                try (InputStream in = Files.newInputStream(Path.of(explicit))) {
+                    props.load(in);
+                }
+            } else if (Files.isRegularFile(Path.of(CONFIG_FILE_NAME))) {
+                try (InputStream in = Files.newInputStream(Path.of(CONFIG_FILE_NAME))) {
+                    props.load(in);
+                }
+            } else {
+                try (InputStream in = DatabaseConfig.class.getResourceAsStream("/" + CONFIG_FILE_NAME)) {
+                    if (in != null) {
+                        props.load(in);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read database configuration", e);
+        }
+        return props;
+    }
+
+    /**
+     * @return the kind of database
+     */
+    public Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return {@code true} for the in-process embedded database
+     */
+    public boolean isEmbedded() {
+        return profile == Profile.EMBEDDED;
+    }
+
+    /**
+     * @return the JDBC URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return the database user
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * @return the database password
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Describes the configuration without the password.
+     */
+    @Override
+    public String toString() {
+        return profile.name().toLowerCase(Locale.ROOT) + " " + url + " as " + user;
+    }
+}
@@ -0,0 +1,166 @@
+package Database;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A change committed to the database, published on the {@link DatabaseEventBus} after the transaction that made
+ * it has committed.
+ * <p>
+ * Subscribers choose the event types they want by class, e.g. {@code DatabaseEvent.BookingUpdated.class}, or
+ * {@code DatabaseEvent.class} for all of them.
+ * </p>
+ */
+public sealed interface DatabaseEvent {
+
+    /**
+     * Whether a subscriber that has not yet received this event may skip an equal one published after it.
+     * Only events that say "something changed, reload it" are coalescible.
+     *
+     * @return true if equal pending events can be merged into one
+     */
+    default boolean coalescible() {
+        return false;
+    }
+
+    /**
+     * @return the update type passed to a {@link DatabaseUpdateListener}
+     */
+    String type();
+
+    /**
+     * @return the payload passed to a {@link DatabaseUpdateListener}
+     */
+    Object data();
+
+    /**
+     * A staff member's password was reset.
+     *
+     * @param staffId the staff ID whose password changed
+     */
+    record PasswordReset(String staffId) implements DatabaseEvent {
+        @Override
+        public String type() {
+            return "passwordReset";
+        }
+
+        @Override
+        public Object data() {
+            return staffId;
+        }
+    }
+
+    /**
+     * A booking was created together with its client, events, invoice and contract.
+     *
+     * @param bookingId the new booking's ID
+     */
+    record BookingCreated(int bookingId) implements DatabaseEvent {
+        @Override
+        public String type() {
+            return "fullBookingCreated";
+        }
+
+        @Override
+        public Object data() {
+            return bookingId;
+        }
+    }
+
+    /**
+     * A booking, or its events, invoice, client or contract, was changed, or the booking was deleted.
+     *
+     * @param bookingId the changed booking's ID
+     */
+    record BookingUpdated(int bookingId) implements DatabaseEvent {
+        @Override
+        public boolean coalescible() {
+            return true;
+        }
+
+        @Override
+        public String type() {
+            return "bookingUpdated";
+        }
+
+        @Override
+        public Object data() {
+            return bookingId;
+        }
+    }
+
+    /**
+     * An event's details were changed outside a booking update.
+     *
+     * @param eventId the changed event's ID
+     */
+    record EventUpdated(int eventId) implements DatabaseEvent {
+        @Override
+        public boolean coalescible() {
+            return true;
+        }
+
+        @Override
+        public String type() {
+            return "eventUpdated";
+        }
+
+        @Override
+        public Object data() {
+            return eventId;
+        }
+    }
+
+    /**
+     * A venue or one of its rooms was changed.
+     *
+     * @param venueId the changed venue's ID
+     */
+    record VenueUpdated(int venueId) implements DatabaseEvent {
+        @Override
+        public boolean coalescible() {
+            return true;
+        }
+
+        @Override
+        public String type() {
+            return "venueUpdated";
+        }
+
+        @Override
+        public Object data() {
+            return venueId;
+        }
+    }
+
+    /**
+     * Rows of a watched table were changed or deleted, by this client or another, as found by the
+     * {@link ChangeFeed}.
+     *
+     * @param table   the table the rows are in
+     * @param changed the primary keys of rows inserted or updated since the feed last looked
+     * @param deleted the primary keys of rows deleted since the feed last looked
+     */
+    record RowsChanged(ChangeFeed.Table table, List<Integer> changed, List<Integer> deleted)
+            implements DatabaseEvent {
+        @Override
+        public String type() {
+            return "rowsChanged";
+        }
+
+        @Override
+        public Object data() {
+            return table;
+        }
+
+        /**
+         * @return the primary keys of every row changed or deleted
+         */
+        public Set<Integer> ids() {
+            Set<Integer> ids = new LinkedHashSet<>(changed);
+            ids.addAll(deleted);
+            return ids;
+        }
+    }
+}
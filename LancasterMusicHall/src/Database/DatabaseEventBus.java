@@ -0,0 +1,346 @@
+package Database;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link DatabaseEvent}s from the threads that write to the database to the subscribers interested in
+ * them, without making the writers wait for the subscribers.
+ * <p>
+ * {@link #publish(DatabaseEvent)} only appends the event to an unbounded queue, so its cost does not depend on
+ * how many subscribers there are or how slow they are. A dispatcher thread hands each event to the bounded
+ * queue of every subscriber whose type matches, and each subscriber drains its own queue on its own executor:
+ * a fresh virtual thread, or the Event Dispatch Thread for Swing subscribers. Events reach one subscriber in
+ * the order they were published and never two at a time.
+ * </p>
+ * <p>
+ * A full subscriber queue either drops its oldest or the new event, or makes the dispatcher wait for room
+ * ({@link Overflow#BLOCK}), which delays the other subscribers but never the writers. A coalescing subscriber
+ * skips an event if an equal coalescible one is still waiting in its queue, so a burst of
+ * {@code BookingUpdated} events for the same booking reaches it once.
+ * </p>
+ * <p>
+ * Subscribing and unsubscribing are safe from any thread, including from inside a handler. A handler that
+ * throws has its exception printed and keeps its subscription.
+ * </p>
+ */
+public class DatabaseEventBus {
+
+    /**
+     * Queue size used by {@link #subscribe(Class, Consumer)}, {@link #subscribeLossless(Class, Consumer)} and
+     * {@link #subscribeOnEdt(Class, Consumer)}.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** Runs tasks on the Event Dispatch Thread. */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    /** Runs each task on a new virtual thread. */
+    public static final Executor BACKGROUND =
+            task -> Thread.ofVirtual().name("DatabaseEventBus-subscriber").start(task);
+
+    /**
+     * What a subscriber's queue does with a new event when it is full.
+     */
+    public enum Overflow {
+        /** Discard the oldest waiting event to make room. */
+        DROP_OLDEST,
+        /** Discard the new event. */
+        DROP_NEWEST,
+        /** Wait for the subscriber to take events; no event is lost. */
+        BLOCK
+    }
+
+    private final LinkedBlockingQueue<DatabaseEvent> published = new LinkedBlockingQueue<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Thread dispatcher;
+
+    /**
+     * Creates a bus and starts its dispatcher.
+     */
+    public DatabaseEventBus() {
+        dispatcher = Thread.ofVirtual().name("DatabaseEventBus-dispatcher").start(this::dispatch);
+    }
+
+    /**
+     * Queues an event for delivery and returns at once.
+     *
+     * @param event the committed change
+     */
+    public void publish(DatabaseEvent event) {
+        published.add(Objects.requireNonNull(event, "event"));
+    }
+
+    /**
+     * Subscribes a handler that runs on a background thread, with a queue of {@link #DEFAULT_CAPACITY} events
+     * that drops the oldest when full and coalesces repeated events.
+     *
+     * @param type    the events wanted, e.g. {@code DatabaseEvent.BookingUpdated.class}
+     * @param handler receives the events
+     * @param <E>     the event type
+     * @return the subscription, closed to unsubscribe
+     */
+    public <E extends DatabaseEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler) {
+        return subscribe(type, handler, BACKGROUND, DEFAULT_CAPACITY, Overflow.DROP_OLDEST, true);
+    }
+
+    /**
+     * Subscribes a handler that must see every event, e.g. one that invalidates or updates a cache, which would
+     * serve stale data after a dropped event. It runs on a background thread with a queue of
+     * {@link #DEFAULT_CAPACITY} events that coalesces repeated events and, when full, makes the dispatcher wait
+     * for room ({@link Overflow#BLOCK}) instead of dropping one.
+     *
+     * @param type    the events wanted, e.g. {@code DatabaseEvent.BookingUpdated.class}
+     * @param handler receives the events; should be quick, as a full queue holds up the other subscribers
+     * @param <E>     the event type
+     * @return the subscription, closed to unsubscribe
+     */
+    public <E extends DatabaseEvent> Subscription subscribeLossless(Class<E> type, Consumer<? super E> handler) {
+        return subscribe(type, handler, BACKGROUND, DEFAULT_CAPACITY, Overflow.BLOCK, true);
+    }
+
+    /**
+     * Subscribes a handler that runs on the Event Dispatch Thread and may therefore update Swing components,
+     * with a queue of {@link #DEFAULT_CAPACITY} events that drops the oldest when full and coalesces repeated
+     * events.
+     *
+     * @param type    the events wanted, e.g. {@code DatabaseEvent.BookingUpdated.class}
+     * @param handler receives the events
+     * @param <E>     the event type
+     * @return the subscription, closed to unsubscribe
+     */
+    public <E extends DatabaseEvent> Subscription subscribeOnEdt(Class<E> type, Consumer<? super E> handler) {
+        return subscribe(type, handler, EDT, DEFAULT_CAPACITY, Overflow.DROP_OLDEST, true);
+    }
+
+    /**
+     * Subscribes a handler.
+     *
+     * @param type     the events wanted, e.g. {@code DatabaseEvent.BookingUpdated.class}
+     * @param handler  receives the events
+     * @param executor runs the handler, e.g. {@link #EDT} or {@link #BACKGROUND}; given one task at a time, which
+     *                 it must not run on the calling thread
+     * @param capacity the most events waiting for this handler
+     * @param overflow what to do with a new event when {@code capacity} events are waiting
+     * @param coalesce true to skip an event equal to a coalescible one still waiting
+     * @param <E>      the event type
+     * @return the subscription, closed to unsubscribe
+     * @throws IllegalArgumentException if {@code capacity} is less than 1
+     */
+    public <E extends DatabaseEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler,
+                                                            Executor executor, int capacity,
+                                                            Overflow overflow, boolean coalesce) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        Subscription subscription = new Subscription(
+                type, event -> handler.accept(type.cast(event)), executor, capacity, overflow, coalesce);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * @return the number of open subscriptions
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void dispatch() {
+        try {
+            while (true) {
+                DatabaseEvent event = published.take();
+                for (Subscription subscription : subscriptions) {
+                    if (subscription.type.isInstance(event)) {
+                        subscription.offer(event);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Only interrupted by close().
+        }
+    }
+
+    /**
+     * Stops delivering events. Events still queued are discarded.
+     */
+    public void close() {
+        dispatcher.interrupt();
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * One handler's registration and queue.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final Class<? extends DatabaseEvent> type;
+        private final Consumer<DatabaseEvent> handler;
+        private final Executor executor;
+        private final int capacity;
+        private final Overflow overflow;
+        private final boolean coalesce;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        /** Waiting events in publication order, keyed by the event itself if it may be coalesced. */
+        private final Map<Object, DatabaseEvent> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        private volatile boolean closed;
+
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+
+        private Subscription(Class<? extends DatabaseEvent> type, Consumer<DatabaseEvent> handler,
+                             Executor executor, int capacity, Overflow overflow, boolean coalesce) {
+            this.type = type;
+            this.handler = handler;
+            this.executor = executor;
+            this.capacity = capacity;
+            this.overflow = overflow;
+            this.coalesce = coalesce;
+        }
+
+        /**
+         * Adds an event to the queue, starting a drain if none is running. Called only by the dispatcher.
+         */
+        private void offer(DatabaseEvent event) throws InterruptedException {
+            boolean startDrain;
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                Object key = coalesce && event.coalescible() ? event : new Object();
+                if (pending.containsKey(key)) {
+                    coalesced.increment();
+                    return;
+                }
+                while (pending.size() >= capacity) {
+                    if (overflow == Overflow.DROP_NEWEST) {
+                        dropped.increment();
+                        return;
+                    } else if (overflow == Overflow.DROP_OLDEST) {
+                        Iterator<DatabaseEvent> oldest = pending.values().iterator();
+                        oldest.next();
+                        oldest.remove();
+                        dropped.increment();
+                    } else {
+                        notFull.await();
+                        if (closed) {
+                            return;
+                        }
+                    }
+                }
+                pending.put(key, event);
+                startDrain = !scheduled;
+                scheduled = true;
+            } finally {
+                lock.unlock();
+            }
+            if (startDrain) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // The executor has shut down; nothing more will be delivered.
+                e.printStackTrace();
+                close();
+            }
+        }
+
+        /**
+         * Delivers the events waiting when it starts, then reschedules itself if more have arrived, so a
+         * subscriber on the EDT never holds it for longer than one batch.
+         */
+        private void drain() {
+            List<DatabaseEvent> batch;
+            lock.lock();
+            try {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            for (DatabaseEvent event : batch) {
+                if (closed) {
+                    break;
+                }
+                try {
+                    handler.accept(event);
+                    delivered.increment();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+            boolean more;
+            lock.lock();
+            try {
+                more = !pending.isEmpty() && !closed;
+                scheduled = more;
+            } finally {
+                lock.unlock();
+            }
+            if (more) {
+                schedule();
+            }
+        }
+
+        /**
+         * @return the events handed to the handler so far
+         */
+        public long getDelivered() {
+            return delivered.sum();
+        }
+
+        /**
+         * @return the events discarded because the queue was full
+         */
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * @return the events skipped because an equal one was already waiting
+         */
+        public long getCoalesced() {
+            return coalesced.sum();
+        }
+
+        /**
+         * Unsubscribes. Events already queued are discarded; one being handled finishes.
+         */
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
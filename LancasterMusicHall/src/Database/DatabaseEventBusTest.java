@@ -0,0 +1,209 @@
+package Database;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code DatabaseEventBusTest} class is a test driver for {@link DatabaseEventBus}.
+ * <p>
+ * It checks that publishing does not wait for slow subscribers, that each subscriber sees its events in order
+ * and only those of its type, that held-up subscribers coalesce repeated events and drop or block when their
+ * queue is full, that a lossless subscriber loses nothing from a burst larger than its queue, and that Swing
+ * subscribers and {@link DatabaseUpdateListener}s are called on the Event Dispatch Thread. No database is needed. The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class DatabaseEventBusTest {
+
+    /**
+     * Constructs a new DatabaseEventBusTest instance.
+     */
+    public DatabaseEventBusTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws InterruptedException if interrupted while waiting for delivery
+     */
+    public static void main(String[] args) throws InterruptedException {
+        DatabaseEventBus bus = new DatabaseEventBus();
+
+        // Publishing costs the same with a hundred stalled subscribers as with none.
+        CountDownLatch stall = new CountDownLatch(1);
+        List<DatabaseEventBus.Subscription> slow = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            slow.add(bus.subscribe(DatabaseEvent.class, event -> await(stall)));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            bus.publish(new DatabaseEvent.BookingUpdated(i));
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        check("10,000 publishes to 100 stalled subscribers take under 200 ms (" + millis + " ms)", millis < 200);
+        stall.countDown();
+        slow.forEach(DatabaseEventBus.Subscription::close);
+        check("closed subscriptions are removed", bus.getSubscriberCount() == 0);
+        bus.close();
+
+        // The rest use a bus with nothing left to dispatch from the first check.
+        bus = new DatabaseEventBus();
+
+        // Order and type filtering.
+        List<Integer> updated = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger resets = new AtomicInteger();
+        DatabaseEventBus.Subscription bookings = bus.subscribe(DatabaseEvent.BookingUpdated.class,
+                event -> updated.add(event.bookingId()), DatabaseEventBus.BACKGROUND, 1000,
+                DatabaseEventBus.Overflow.BLOCK, false);
+        DatabaseEventBus.Subscription passwords = bus.subscribe(DatabaseEvent.PasswordReset.class,
+                event -> resets.incrementAndGet());
+        for (int i = 0; i < 500; i++) {
+            bus.publish(new DatabaseEvent.BookingUpdated(i));
+        }
+        bus.publish(new DatabaseEvent.PasswordReset("1"));
+        waitFor(() -> updated.size() == 500 && resets.get() == 1);
+        boolean ordered = updated.size() == 500;
+        for (int i = 0; ordered && i < 500; i++) {
+            ordered = updated.get(i) == i;
+        }
+        check("events arrive in publication order", ordered);
+        check("subscribers only see their event type", resets.get() == 1);
+        bookings.close();
+        passwords.close();
+
+        // A held-up subscriber coalesces a burst of updates to one booking.
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        DatabaseEventBus.Subscription coalescing = bus.subscribe(DatabaseEvent.BookingUpdated.class, event -> {
+            await(gate);
+            handled.incrementAndGet();
+        });
+        for (int i = 0; i < 1000; i++) {
+            bus.publish(new DatabaseEvent.BookingUpdated(7));
+        }
+        waitFor(() -> coalescing.getCoalesced() >= 998);
+        gate.countDown();
+        waitFor(() -> handled.get() + coalescing.getCoalesced() == 1000);
+        check("1,000 updates of one booking are delivered at most twice (" + handled.get() + ")", handled.get() <= 2);
+        coalescing.close();
+
+        // Full queues drop the oldest or the newest event.
+        check("drop-oldest keeps the latest events", overflow(bus, DatabaseEventBus.Overflow.DROP_OLDEST)
+                .equals(List.of(0, 18, 19)));
+        check("drop-newest keeps the earliest events", overflow(bus, DatabaseEventBus.Overflow.DROP_NEWEST)
+                .equals(List.of(0, 1, 2)));
+
+        // A blocking queue loses nothing, however small.
+        AtomicInteger blocked = new AtomicInteger();
+        DatabaseEventBus.Subscription blocking = bus.subscribe(DatabaseEvent.PasswordReset.class, event -> {
+            sleep(1);
+            blocked.incrementAndGet();
+        }, DatabaseEventBus.BACKGROUND, 1, DatabaseEventBus.Overflow.BLOCK, true);
+        for (int i = 0; i < 200; i++) {
+            bus.publish(new DatabaseEvent.PasswordReset(String.valueOf(i)));
+        }
+        waitFor(() -> blocked.get() == 200);
+        check("blocking subscriber receives every event", blocked.get() == 200 && blocking.getDropped() == 0);
+        blocking.close();
+
+        // A lossless subscriber held up past its queue's capacity still receives every event.
+        CountDownLatch held = new CountDownLatch(1);
+        List<Integer> lossless = Collections.synchronizedList(new ArrayList<>());
+        DatabaseEventBus.Subscription invalidator = bus.subscribeLossless(DatabaseEvent.VenueUpdated.class,
+                event -> {
+                    await(held);
+                    lossless.add(event.venueId());
+                });
+        int burst = DatabaseEventBus.DEFAULT_CAPACITY * 4;
+        for (int i = 0; i < burst; i++) {
+            bus.publish(new DatabaseEvent.VenueUpdated(i));
+        }
+        sleep(100);
+        held.countDown();
+        waitFor(() -> lossless.size() == burst);
+        check("lossless subscriber receives every event of an overflowing burst",
+                lossless.size() == burst && lossless.get(0) == 0 && invalidator.getDropped() == 0);
+        invalidator.close();
+
+        // Swing subscribers run on the EDT, including listeners registered the old way.
+        AtomicBoolean onEdt = new AtomicBoolean();
+        CountDownLatch edtDelivered = new CountDownLatch(1);
+        DatabaseEventBus.Subscription swing = bus.subscribeOnEdt(DatabaseEvent.BookingCreated.class, event -> {
+            onEdt.set(SwingUtilities.isEventDispatchThread());
+            edtDelivered.countDown();
+        });
+        bus.publish(new DatabaseEvent.BookingCreated(3));
+        check("EDT subscriber called on the EDT", edtDelivered.await(5, TimeUnit.SECONDS) && onEdt.get());
+        swing.close();
+
+        SQLConnection sqlCon = new SQLConnection();
+        List<String> legacy = Collections.synchronizedList(new ArrayList<>());
+        DatabaseEventBus.Subscription listener = sqlCon.registerUpdateListener((updateType, data) ->
+                legacy.add(updateType + " " + data + " " + SwingUtilities.isEventDispatchThread()));
+        sqlCon.getEventBus().publish(new DatabaseEvent.BookingUpdated(42));
+        waitFor(() -> !legacy.isEmpty());
+        check("update listener called on the EDT", legacy.equals(List.of("bookingUpdated 42 true")));
+        listener.close();
+
+        bus.close();
+        TestChecks.finish();
+    }
+
+    /**
+     * Publishes 20 password resets to a subscriber with room for 2 that is held up by the first, and returns the
+     * ones it received.
+     */
+    private static List<Integer> overflow(DatabaseEventBus bus, DatabaseEventBus.Overflow overflow)
+            throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        DatabaseEventBus.Subscription subscription = bus.subscribe(DatabaseEvent.PasswordReset.class, event -> {
+            first.countDown();
+            await(gate);
+            received.add(Integer.parseInt(event.staffId()));
+        }, DatabaseEventBus.BACKGROUND, 2, overflow, true);
+        bus.publish(new DatabaseEvent.PasswordReset("0"));
+        first.await(5, TimeUnit.SECONDS);
+        for (int i = 1; i < 20; i++) {
+            bus.publish(new DatabaseEvent.PasswordReset(String.valueOf(i)));
+        }
+        waitFor(() -> subscription.getDropped() == 17);
+        gate.countDown();
+        waitFor(() -> received.size() == 3);
+        subscription.close();
+        return new ArrayList<>(received);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,13 +3,19 @@ package Database;
 /**
  * Any class that wants to be notified about database updates
  * (e.g., booking changes, password resets, etc.) implements this interface.
+ * <p>
+ * Listeners registered with {@link SQLConnection#registerUpdateListener(DatabaseUpdateListener)} are called
+ * on the Event Dispatch Thread, after the change has committed. New code can subscribe to the typed
+ * {@link DatabaseEvent}s on {@link SQLConnection#getEventBus()} directly.
+ * </p>
  */
 public interface DatabaseUpdateListener {
     /**
      * Called whenever a database update occurs.
      *
      * @param updateType A short string describing the type of update
-     *                   (e.g., "bookingUpdate", "passwordReset", "reportUpdate").
+     *                   ("passwordReset", "fullBookingCreated", "bookingUpdated",
+     *                   "eventUpdated" or "venueUpdated").
      * @param data       Optional payload (e.g., an ID or object related to the update).
      */
     void databaseUpdated(String updateType, Object data);
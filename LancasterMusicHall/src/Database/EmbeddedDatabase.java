@@ -0,0 +1,55 @@
+package Database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creates the in-process database used by the {@link DatabaseConfig.Profile#EMBEDDED embedded} profile.
+ * <p>
+ * {@link #initialise(DatabaseConfig)} runs the bundled {@code sql/schema.sql}, which creates the tables and
+ * registers {@link EmbeddedTariffs} as the pricing functions, and loads {@code sql/seed.sql} if the database
+ * has no venues yet. It then fills the calendar read model ({@link CalendarEntries}) if it is empty but there
+ * are events. Every step is safe to repeat, so a file-backed embedded database keeps its data across runs while
+ * an in-memory one is rebuilt on every start.
+ * </p>
+ */
+public final class EmbeddedDatabase {
+
+    private static final String SCHEMA_SCRIPT = "classpath:/Database/sql/schema.sql";
+    private static final String SEED_SCRIPT = "classpath:/Database/sql/seed.sql";
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Creates the schema and, for an empty database, the seed data.
+     *
+     * @param config an embedded configuration
+     * @throws SQLException if a script fails
+     */
+    public static void initialise(DatabaseConfig config) throws SQLException {
+        try (Connection con = DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword());
+             Statement stmt = con.createStatement()) {
+            stmt.execute("RUNSCRIPT FROM '" + SCHEMA_SCRIPT + "' CHARSET 'UTF-8'");
+            boolean empty;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Venue")) {
+                empty = rs.next() && rs.getInt(1) == 0;
+            }
+            if (empty) {
+                stmt.execute("RUNSCRIPT FROM '" + SEED_SCRIPT + "' CHARSET 'UTF-8'");
+            }
+            // The seed, and file databases made before the calendar read model, have events but no entries.
+            boolean unentered;
+            try (ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM Event) "
+                    + "AND NOT EXISTS (SELECT 1 FROM CalendarEntry)")) {
+                unentered = rs.next() && rs.getBoolean(1);
+            }
+            if (unentered) {
+                CalendarEntries.rebuild(con);
+            }
+        }
+    }
+}
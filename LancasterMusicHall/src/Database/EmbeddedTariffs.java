@@ -0,0 +1,174 @@
+package Database;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.util.Map;
+
+/**
+ * Local equivalents of the pricing stored functions, registered as SQL functions by the embedded schema.
+ * <p>
+ * They take the same arguments as the MySQL functions and are called the same way, so
+ * {@link TariffEngine} and the {@code calculate*Cost} methods of {@link SQLConnection} work unchanged against
+ * the embedded profile. The rates are a fixed local tariff for development, tests and benchmarks; the
+ * production rates live only in the MySQL functions.
+ * </p>
+ * <p>
+ * Friday and Saturday are charged at the weekend rate. An unknown rate type, duration or room yields SQL
+ * {@code NULL}, which the callers read as {@code 0}.
+ * </p>
+ */
+public final class EmbeddedTariffs {
+
+    /** Main hall: hourly, weekday evening, weekend evening, weekday day, weekend day. */
+    private static final double[] MAIN_HALL = {325, 1850, 2200, 3800, 4200};
+
+    /** Small hall: hourly, weekday evening, weekend evening, weekday day, weekend day. */
+    private static final double[] SMALL_HALL = {225, 950, 1300, 2200, 2500};
+
+    /** Rehearsal space hourly rate. */
+    private static final double REHEARSAL_HOURLY = 60;
+
+    /** Rehearsal space rate per day of a multi-day booking. */
+    private static final double REHEARSAL_DAILY_LONG = 240;
+
+    /** Rehearsal space rate for a whole week. */
+    private static final double REHEARSAL_WEEKLY_LONG = 1000;
+
+    /** Whole venue: weekday evening, weekend evening, weekday day, weekend day. */
+    private static final double[] VENUE = {8000, 9500, 15000, 17500};
+
+    /** Meeting rooms: 1 hour, morning/afternoon, all day, week; the same rates the booking forms list. */
+    private static final Map<String, double[]> ROOMS = Map.of(
+            "The Green Room", new double[]{25, 75, 130, 600},
+            "Brontë Boardroom", new double[]{120, 200, 650, 900},
+            "Dickens Den", new double[]{40, 75, 130, 500},
+            "Poe Parlor", new double[]{50, 100, 150, 700},
+            "Globe Room", new double[]{150, 250, 800, 1200},
+            "Chekhov Chamber", new double[]{38, 110, 160, 850});
+
+    private EmbeddedTariffs() {
+    }
+
+    /**
+     * Prices the main hall.
+     *
+     * @param date     the day of the booking
+     * @param rateType {@code hourly}, {@code evening} or {@code daily}
+     * @param hours    the hours charged for an hourly booking
+     * @return the cost, or {@code null} for an unknown rate type
+     */
+    public static Double calculateMainHallCost(Date date, String rateType, int hours) {
+        return hallCost(MAIN_HALL, date, rateType, hours);
+    }
+
+    /**
+     * Prices the small hall.
+     *
+     * @param date     the day of the booking
+     * @param rateType {@code hourly}, {@code evening} or {@code daily}
+     * @param hours    the hours charged for an hourly booking
+     * @return the cost, or {@code null} for an unknown rate type
+     */
+    public static Double calculateSmallHallCost(Date date, String rateType, int hours) {
+        return hallCost(SMALL_HALL, date, rateType, hours);
+    }
+
+    /**
+     * Prices the rehearsal space.
+     *
+     * @param date     the day of the booking
+     * @param rateType {@code hourly}, {@code daily_long} or {@code weekly_long}
+     * @param hours    the hours charged for an hourly booking
+     * @return the cost, or {@code null} for an unknown rate type
+     */
+    public static Double calculateRehearsalCost(Date date, String rateType, int hours) {
+        if (rateType == null) {
+            return null;
+        }
+        switch (rateType) {
+            case "hourly":
+                return REHEARSAL_HOURLY * hours;
+            case "daily":
+            case "daily_long":
+                return REHEARSAL_DAILY_LONG;
+            case "weekly_long":
+                return REHEARSAL_WEEKLY_LONG;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Prices a meeting room.
+     *
+     * @param venueId      the venue ID of the room (not used by the local tariff)
+     * @param roomName     the room name, e.g. "Dickens Den"
+     * @param durationType {@code 1 Hour}, {@code Morning/Afternoon}, {@code All Day} or {@code Week}
+     * @return the cost, or {@code null} for an unknown room or duration
+     */
+    public static Double calculateRoomCost(int venueId, String roomName, String durationType) {
+        double[] rates = roomName == null ? null : ROOMS.get(roomName);
+        if (rates == null || durationType == null) {
+            return null;
+        }
+        switch (durationType) {
+            case "1 Hour":
+                return rates[0];
+            case "Morning/Afternoon":
+                return rates[1];
+            case "All Day":
+                return rates[2];
+            case "Week":
+                return rates[3];
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Prices the whole venue.
+     *
+     * @param date        the day of the booking
+     * @param bookingType {@code evening} or {@code full_day}
+     * @return the cost, or {@code null} for an unknown booking type
+     */
+    public static Double calculateVenueCost(Date date, String bookingType) {
+        if (bookingType == null) {
+            return null;
+        }
+        int weekend = isWeekend(date) ? 1 : 0;
+        switch (bookingType) {
+            case "evening":
+                return VENUE[weekend];
+            case "full_day":
+                return VENUE[2 + weekend];
+            default:
+                return null;
+        }
+    }
+
+    private static Double hallCost(double[] rates, Date date, String rateType, int hours) {
+        if (rateType == null) {
+            return null;
+        }
+        int weekend = isWeekend(date) ? 1 : 0;
+        switch (rateType) {
+            case "hourly":
+                return rates[0] * hours;
+            case "evening":
+                return rates[1 + weekend];
+            case "daily":
+                return rates[3 + weekend];
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isWeekend(Date date) {
+        if (date == null) {
+            return false;
+        }
+        DayOfWeek day = date.toLocalDate().getDayOfWeek();
+        return day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY;
+    }
+}
@@ -0,0 +1,146 @@
+package Database;
+
+import operations.entities.Event;
+import operations.entities.Venue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code EventInsertBenchmark} class measures how long inserting a booking's events takes as the number of
+ * events grows, comparing one {@code executeUpdate} per event with the batched
+ * {@link SQLConnection#insertEvents} path.
+ * <p>
+ * Every run happens inside a transaction that is rolled back, so the benchmark leaves no rows behind.
+ * </p>
+ */
+public class EventInsertBenchmark {
+
+    private static final int[] EVENT_COUNTS = {1, 10, 50, 100, 250, 500};
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    /**
+     * Constructs a new EventInsertBenchmark instance.
+     */
+    public EventInsertBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints a table of mean latency per event count.
+     *
+     * @param args command-line arguments (not used)
+     * @throws SQLException if the benchmark fixture cannot be created
+     */
+    public static void main(String[] args) throws SQLException {
+        SQLConnection sqlCon = new SQLConnection();
+        int venueId = sqlCon.queryForObject("SELECT venue_id FROM Venue ORDER BY venue_id", rs -> rs.getInt(1))
+                .orElseThrow(() -> new SQLException("Benchmark needs at least one Venue row"));
+
+        System.out.printf("%8s %16s %16s %10s%n", "events", "per-row (ms)", "batched (ms)", "speed-up");
+        for (int count : EVENT_COUNTS) {
+            List<Event> events = sampleEvents(count, venueId);
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                timeRun(sqlCon, events, false);
+                timeRun(sqlCon, events, true);
+            }
+            double perRow = 0;
+            double batched = 0;
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                perRow += timeRun(sqlCon, events, false);
+                batched += timeRun(sqlCon, events, true);
+            }
+            perRow /= MEASURED_RUNS;
+            batched /= MEASURED_RUNS;
+            System.out.printf("%8d %16.2f %16.2f %9.1fx%n", count, perRow, batched, perRow / batched);
+        }
+        System.out.println(sqlCon.getPool().getStats());
+    }
+
+    /**
+     * Inserts the events for a throwaway booking and rolls everything back.
+     *
+     * @return the time spent inserting events, in milliseconds
+     */
+    private static double timeRun(SQLConnection sqlCon, List<Event> events, boolean batched) throws SQLException {
+        try (Connection con = sqlCon.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                int clientId = insertReturningKey(con,
+                        "INSERT INTO Clients (`Company Name`, `Contact Name`) VALUES ('Benchmark', 'Benchmark')");
+                int bookingId = insertReturningKey(con,
+                        "INSERT INTO Booking (booking_DateStart, booking_DateEnd, booking_status, client_id) "
+                                + "VALUES (CURDATE(), CURDATE(), 'held', " + clientId + ")");
+                long start = System.nanoTime();
+                if (batched) {
+                    sqlCon.insertEvents(con, events, bookingId, clientId, 0.0);
+                } else {
+                    insertOneByOne(con, events, bookingId, clientId);
+                }
+                return (System.nanoTime() - start) / 1_000_000.0;
+            } finally {
+                con.rollback();
+            }
+        }
+    }
+
+    /**
+     * The pre-batching insert path: one statement execution and round trip per event.
+     */
+    private static void insertOneByOne(Connection con, List<Event> events, int bookingId, int clientId)
+            throws SQLException {
+        String sql = "INSERT INTO Event (name, start_date, end_date, start_time, end_time, event_type, venue_id, "
+                + "booking_id, client_id, location, description, layout, max_discount) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        for (Event event : events) {
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                ps.setString(1, event.getName());
+                ps.setDate(2, java.sql.Date.valueOf(event.getStartDate()));
+                ps.setDate(3, java.sql.Date.valueOf(event.getEndDate()));
+                ps.setTime(4, java.sql.Time.valueOf(event.getStartTime()));
+                ps.setTime(5, java.sql.Time.valueOf(event.getEndTime()));
+                ps.setString(6, event.getEventType());
+                ps.setInt(7, event.getVenue().getVenueId());
+                ps.setInt(8, bookingId);
+                ps.setInt(9, clientId);
+                ps.setString(10, event.getRoom());
+                ps.setString(11, event.getDescription());
+                ps.setString(12, event.getLayout());
+                ps.setDouble(13, 0.0);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private static int insertReturningKey(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No key generated for: " + sql);
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static List<Event> sampleEvents(int count, int venueId) {
+        Venue venue = new Venue(venueId, "Benchmark", "Benchmark", 0, "N/A", false, false, 0.0);
+        List<Event> events = new ArrayList<>(count);
+        LocalDate day = LocalDate.now().plusYears(5);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = day.plusDays(i / 4);
+            LocalTime start = LocalTime.of(10 + (i % 4) * 3, 0);
+            events.add(new Event(0, "Benchmark event " + i, "Show", date, date, start, start.plusHours(2),
+                    false, "", venue, null, "", "Main Hall", "", null, 0.0, "Benchmark", "Standard"));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,206 @@
+package Database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A set of half-open intervals {@code [start, end)}, each carrying a value, that finds the intervals overlapping
+ * a given one in {@code O(log n + k)} time for {@code k} matches.
+ * <p>
+ * The intervals are kept in a treap (a binary search tree ordered by start and balanced by random priorities)
+ * in which every node also records the latest end in its subtree, so whole subtrees that end before the query
+ * starts are skipped. Adding and removing an interval take {@code O(log n)} expected time. This class is not
+ * thread-safe.
+ * </p>
+ *
+ * @param <T> the value type
+ */
+public class IntervalTree<T> {
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final T value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node<T> left;
+        Node<T> right;
+        long maxEnd;
+        int size;
+
+        Node(long start, long end, T value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.maxEnd = end;
+            this.size = 1;
+        }
+    }
+
+    private Node<T> root;
+
+    /** Set by {@link #remove} when it finds the interval. */
+    private boolean removed;
+
+    /**
+     * Constructs an empty tree.
+     */
+    public IntervalTree() {
+    }
+
+    /**
+     * Adds an interval. The same interval and value may be added more than once.
+     *
+     * @param start the start, inclusive
+     * @param end   the end, exclusive
+     * @param value the value carried by the interval
+     */
+    public void add(long start, long end, T value) {
+        root = insert(root, new Node<>(start, end, value));
+    }
+
+    /**
+     * Removes one interval with the given bounds and an equal value.
+     *
+     * @param start the start the interval was added with
+     * @param end   the end the interval was added with
+     * @param value the value the interval was added with
+     * @return true if an interval was removed
+     */
+    public boolean remove(long start, long end, T value) {
+        removed = false;
+        root = remove(root, start, end, value);
+        return removed;
+    }
+
+    /**
+     * @param start the start of the query interval, inclusive
+     * @param end   the end of the query interval, exclusive
+     * @return the values of the intervals overlapping {@code [start, end)}, in start order
+     */
+    public List<T> overlapping(long start, long end) {
+        List<T> matches = new ArrayList<>();
+        collect(root, start, end, matches);
+        return matches;
+    }
+
+    /**
+     * @return the number of intervals
+     */
+    public int size() {
+        return size(root);
+    }
+
+    private void collect(Node<T> node, long start, long end, List<T> matches) {
+        if (node == null || node.maxEnd <= start) {
+            return; // nothing in this subtree ends after the query starts
+        }
+        collect(node.left, start, end, matches);
+        if (node.start < end) {
+            if (node.end > start) {
+                matches.add(node.value);
+            }
+            collect(node.right, start, end, matches);
+        }
+    }
+
+    private static int compare(long start, long end, Node<?> node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : Long.compare(end, node.end);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.end, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, long start, long end, T value) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, end, node);
+        if (c < 0) {
+            node.left = remove(node.left, start, end, value);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, end, value);
+        } else if (Objects.equals(value, node.value)) {
+            removed = true;
+            return merge(node.left, node.right);
+        } else {
+            // Rotations can leave equal bounds on either side.
+            node.left = remove(node.left, start, end, value);
+            if (!removed) {
+                node.right = remove(node.right, start, end, value);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        update(node);
+        left.right = node;
+        update(left);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        update(node);
+        right.left = node;
+        update(right);
+        return right;
+    }
+
+    private static <T> void update(Node<T> node) {
+        node.maxEnd = node.end;
+        node.size = 1;
+        if (node.left != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+            node.size += node.left.size;
+        }
+        if (node.right != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+            node.size += node.right.size;
+        }
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,658 @@
+package Database;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Measures every SQL statement run on a connection handed out by {@link SQLConnection#getConnection()}.
+ * <p>
+ * {@link #instrument(Connection)} wraps a connection so that each statement it creates reports, per statement
+ * template, a latency histogram, the rows returned (or updated) and the number of failures. The latency of a
+ * query is the time spent in {@code execute*} plus the time spent fetching rows in {@code ResultSet.next()};
+ * time the caller spends on each row is not counted. The template of a prepared statement is its SQL text; for
+ * plain statements string and number literals are replaced by {@code ?} so that the same query with different
+ * values is counted once. The time {@code getConnection()} waits for a pooled connection is recorded with
+ * {@link #recordConnectionWait(long, boolean)}.
+ * </p>
+ * <p>
+ * Statements slower than the slow-query threshold are appended to the slow-query log with their row count and
+ * the shape of their bind parameters (types and string lengths, never values). The log is rate-limited: lines
+ * beyond the per-minute limit are counted and the count is reported on the next line written. If a dump file
+ * is configured, {@link #report()} is written to it periodically and when the JVM exits.
+ * </p>
+ */
+public class QueryMetrics {
+
+    /** Histogram bucket upper bounds, in microseconds; the last bucket takes everything slower. */
+    private static final long[] BUCKET_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+
+    /** Templates beyond this many are counted together, so unparameterised SQL cannot grow the map forever. */
+    private static final int MAX_TEMPLATES = 1_000;
+
+    /** The template that collects statements once {@link #MAX_TEMPLATES} is reached. */
+    private static final String OTHER_TEMPLATE = "(other statements)";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final long slowQueryNanos;
+    private final int slowLogLinesPerMinute;
+    private final Path slowLog;
+    private final Path dumpFile;
+
+    private final Map<String, TemplateStats> templates = new ConcurrentHashMap<>();
+    private final TemplateStats connectionWait = new TemplateStats();
+    private volatile LocalDateTime since = LocalDateTime.now();
+
+    // Slow-query log rate limiting, guarded by this.
+    private long slowLogWindowStart;
+    private int slowLogLinesInWindow;
+    private long slowLogSuppressed;
+    private boolean slowLogFailed;
+
+    /**
+     * Creates the metrics and, if a dump file and interval are given, starts dumping the report periodically.
+     *
+     * @param slowQueryMillis       statements taking at least this long are written to the slow-query log
+     * @param slowLogLinesPerMinute the most slow-query log lines written in any one minute
+     * @param slowLog               the slow-query log file, or {@code null} for no log
+     * @param dumpFile              the file the report is dumped to, or {@code null} for no dump
+     * @param dumpIntervalMillis    the time between dumps; {@code 0} or less dumps only when the JVM exits
+     */
+    public QueryMetrics(long slowQueryMillis, int slowLogLinesPerMinute, Path slowLog,
+                        Path dumpFile, long dumpIntervalMillis) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.slowLogLinesPerMinute = slowLogLinesPerMinute;
+        this.slowLog = slowLog;
+        this.dumpFile = dumpFile;
+        if (dumpFile != null) {
+            if (dumpIntervalMillis > 0) {
+                ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "QueryMetrics-dump");
+                    t.setDaemon(true);
+                    return t;
+                });
+                dumper.scheduleWithFixedDelay(this::dump, dumpIntervalMillis, dumpIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(this::dump, "QueryMetrics-final-dump"));
+        }
+    }
+
+    /**
+     * Wraps a connection so that the statements it creates are measured. Closing the wrapper closes the
+     * connection and records any statement its borrower left open.
+     *
+     * @param con the connection to measure, or {@code null}
+     * @return the measured connection, or {@code null} if {@code con} was {@code null}
+     */
+    public Connection instrument(Connection con) {
+        if (con == null) {
+            return null;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(con));
+    }
+
+    /**
+     * Records how long a caller waited for a connection.
+     *
+     * @param nanos  the time spent waiting
+     * @param failed true if no connection was obtained
+     */
+    public void recordConnectionWait(long nanos, boolean failed) {
+        connectionWait.record(nanos, 0, failed);
+    }
+
+    /**
+     * Returns the statistics of every statement template, the templates with the most total time first.
+     *
+     * @return a snapshot of the per-template statistics
+     */
+    public List<StatementStats> getStatementStats() {
+        List<StatementStats> stats = new ArrayList<>();
+        for (Map.Entry<String, TemplateStats> entry : templates.entrySet()) {
+            stats.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        stats.sort(Comparator.comparingDouble(StatementStats::totalMillis).reversed());
+        return stats;
+    }
+
+    /**
+     * Returns the statistics of the time spent waiting for a connection. Its executions are the connection
+     * requests, its errors those that failed, and it has no rows.
+     *
+     * @return a snapshot of the connection wait statistics
+     */
+    public StatementStats getConnectionWaitStats() {
+        return connectionWait.snapshot("(connection wait)");
+    }
+
+    /**
+     * Discards everything measured so far.
+     */
+    public void reset() {
+        templates.clear();
+        connectionWait.clear();
+        since = LocalDateTime.now();
+    }
+
+    /**
+     * Formats the connection wait and per-template statistics as a table.
+     *
+     * @return the report
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SQL metrics from ").append(TIMESTAMP.format(since))
+                .append(" to ").append(TIMESTAMP.format(LocalDateTime.now())).append("\n\n");
+        StatementStats wait = getConnectionWaitStats();
+        sb.append(String.format("Connection wait: %d requests, %d failed, mean %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n%n",
+                wait.executions(), wait.errors(), wait.meanMillis(), wait.p95Millis(), wait.p99Millis(), wait.maxMillis()));
+        sb.append(String.format("%8s %7s %11s %9s %9s %9s %9s %9s %10s  %s%n",
+                "calls", "errors", "total ms", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "rows/call", "statement"));
+        for (StatementStats s : getStatementStats()) {
+            sb.append(String.format("%8d %7d %11.1f %9.2f %9.2f %9.2f %9.2f %9.2f %10.1f  %s%n",
+                    s.executions(), s.errors(), s.totalMillis(), s.meanMillis(), s.p50Millis(), s.p95Millis(),
+                    s.p99Millis(), s.maxMillis(), s.executions() == 0 ? 0.0 : (double) s.rows() / s.executions(),
+                    s.template()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@link #report()} to the dump file, replacing its previous contents. Does nothing if there is no
+     * dump file.
+     */
+    public void dump() {
+        if (dumpFile == null) {
+            return;
+        }
+        try {
+            Path parent = dumpFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "sql-metrics", ".tmp");
+            Files.writeString(tmp, report(), StandardCharsets.UTF_8);
+            Files.move(tmp, dumpFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Could not write SQL metrics to " + dumpFile + ": " + e);
+        }
+    }
+
+    /**
+     * Returns the template a statement is counted under: its SQL with runs of whitespace collapsed, and for
+     * plain statements with string and number literals replaced by {@code ?}.
+     *
+     * @param sql      the SQL text
+     * @param prepared true if the SQL was prepared, so its values are already placeholders
+     * @return the template
+     */
+    static String template(String sql, boolean prepared) {
+        if (sql == null) {
+            return "(unknown)";
+        }
+        String template = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        if (!prepared) {
+            template = STRING_LITERAL.matcher(template).replaceAll("?");
+            template = NUMBER_LITERAL.matcher(template).replaceAll("?");
+        }
+        return template;
+    }
+
+    /**
+     * Adds one finished execution to its template's statistics and, if it was slow, to the slow-query log.
+     */
+    private void record(Execution execution) {
+        TemplateStats stats = templates.get(execution.template);
+        if (stats == null) {
+            String key = templates.size() < MAX_TEMPLATES ? execution.template : OTHER_TEMPLATE;
+            stats = templates.computeIfAbsent(key, k -> new TemplateStats());
+        }
+        stats.record(execution.nanos, execution.rows, execution.failed);
+        if (execution.nanos >= slowQueryNanos) {
+            logSlow(execution);
+        }
+    }
+
+    private synchronized void logSlow(Execution execution) {
+        if (slowLog == null || slowLogFailed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - slowLogWindowStart >= 60_000) {
+            slowLogWindowStart = now;
+            slowLogLinesInWindow = 0;
+        }
+        if (slowLogLinesInWindow >= slowLogLinesPerMinute) {
+            slowLogSuppressed++;
+            return;
+        }
+        slowLogLinesInWindow++;
+        StringBuilder line = new StringBuilder();
+        line.append(TIMESTAMP.format(LocalDateTime.now()))
+                .append(String.format(" %.1f ms", execution.nanos / 1_000_000.0))
+                .append(execution.failed ? " FAILED" : ", " + execution.rows + " rows")
+                .append(", params ").append(execution.params)
+                .append(": ").append(execution.template);
+        if (slowLogSuppressed > 0) {
+            line.append(" (").append(slowLogSuppressed).append(" earlier slow statements not logged)");
+            slowLogSuppressed = 0;
+        }
+        line.append(System.lineSeparator());
+        try {
+            Path parent = slowLog.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Files.writeString(slowLog, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            slowLogFailed = true;
+            System.out.println("Could not write the slow-query log " + slowLog + ", disabling it: " + e);
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = nanos / 1_000;
+        for (int i = 0; i < BUCKET_MICROS.length; i++) {
+            if (micros <= BUCKET_MICROS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_MICROS.length;
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Statistics of one statement template, or of the connection wait.
+     *
+     * @param template    the statement template
+     * @param executions  the number of executions, failed ones included
+     * @param errors      the number of failed executions
+     * @param rows        the rows returned by queries plus the rows changed by updates
+     * @param totalMillis the total time of all executions
+     * @param meanMillis  the mean time of an execution
+     * @param p50Millis   the median time, as the upper bound of its histogram bucket
+     * @param p95Millis   the 95th percentile time, as the upper bound of its histogram bucket
+     * @param p99Millis   the 99th percentile time, as the upper bound of its histogram bucket
+     * @param maxMillis   the longest time
+     */
+    public record StatementStats(String template, long executions, long errors, long rows, double totalMillis,
+                                 double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                                 double maxMillis) {
+    }
+
+    /**
+     * Counters and latency histogram of one template.
+     */
+    private static final class TemplateStats {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_MICROS.length + 1);
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, long rowCount, boolean failed) {
+            buckets.incrementAndGet(bucketOf(nanos));
+            executions.increment();
+            if (failed) {
+                errors.increment();
+            }
+            rows.add(rowCount);
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void clear() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            executions.reset();
+            errors.reset();
+            rows.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+
+        StatementStats snapshot(String template) {
+            long count = executions.sum();
+            long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+            double max = maxNanos.get() / 1_000_000.0;
+            double total = totalNanos.sum() / 1_000_000.0;
+            return new StatementStats(template, count, errors.sum(), rows.sum(), total,
+                    count == 0 ? 0.0 : total / count, percentile(counts, 0.50, max),
+                    percentile(counts, 0.95, max), percentile(counts, 0.99, max), max);
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given fraction of the executions, capped at the
+         * maximum so the slowest bucket does not report an unbounded time.
+         */
+        private static double percentile(long[] counts, double fraction, double maxMillis) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0.0;
+            }
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i < BUCKET_MICROS.length ? Math.min(BUCKET_MICROS[i] / 1_000.0, maxMillis) : maxMillis;
+                }
+            }
+            return maxMillis;
+        }
+    }
+
+    /**
+     * One execution of a statement, open until its result set or statement is closed.
+     */
+    private static final class Execution {
+        private final String template;
+        private final String params;
+        private long nanos;
+        private long rows;
+        private boolean failed;
+        private boolean finished;
+
+        Execution(String template, String params, long nanos) {
+            this.template = template;
+            this.params = params;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Wraps the statements a connection creates, and records the executions they left open when it is closed.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final Set<StatementHandler> statements = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "createStatement":
+                    return wrap((Connection) proxy, (Statement) call(target, method, args), null, Statement.class);
+                case "prepareStatement":
+                    return wrap((Connection) proxy, (Statement) call(target, method, args), (String) args[0],
+                            PreparedStatement.class);
+                case "prepareCall":
+                    return wrap((Connection) proxy, (Statement) call(target, method, args), (String) args[0],
+                            CallableStatement.class);
+                case "close":
+                    for (StatementHandler statement : new ArrayList<>(statements)) {
+                        statement.finish();
+                    }
+                    statements.clear();
+                    return call(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return call(target, method, args);
+            }
+        }
+
+        private Statement wrap(Connection owner, Statement statement, String sql, Class<? extends Statement> type) {
+            StatementHandler handler = new StatementHandler(this, owner, statement, sql);
+            statements.add(handler);
+            return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+
+    /**
+     * Times the executions of one statement and remembers the shape of its bind parameters.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final ConnectionHandler connection;
+        private final Connection owner;
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, String> shapes = new TreeMap<>();
+        private int batchSize;
+        private String batchSql;
+        private Execution current;
+
+        StatementHandler(ConnectionHandler connection, Connection owner, Statement target, String preparedSql) {
+            this.connection = connection;
+            this.owner = owner;
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            switch (name) {
+                case "getResultSet": {
+                    ResultSet rs = (ResultSet) call(target, method, args);
+                    return rs == null || current == null || current.finished ? rs : wrap(proxy, rs, current);
+                }
+                case "addBatch":
+                    batchSize++;
+                    if (args != null && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    batchSql = null;
+                    break;
+                case "clearParameters":
+                    shapes.clear();
+                    break;
+                case "close":
+                    finish();
+                    connection.statements.remove(this);
+                    break;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        shapes.put((Integer) args[0], shapeOf(name, args[1]));
+                    }
+                    break;
+            }
+            return call(target, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            finish();
+            boolean batch = method.getName().startsWith("executeBatch")
+                    || method.getName().startsWith("executeLargeBatch");
+            String template;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                template = template((String) args[0], false);
+            } else if (batch && batchSql != null) {
+                template = template(batchSql, false);
+            } else {
+                template = template(preparedSql, true);
+            }
+            String params = batch ? "batch of " + batchSize + " " + shapes.values() : shapes.values().toString();
+            if (batch) {
+                batchSize = 0;
+                batchSql = null;
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(target, method, args);
+            } catch (Throwable t) {
+                Execution failed = new Execution(template, params, System.nanoTime() - start);
+                failed.failed = true;
+                finish(failed);
+                throw t;
+            }
+            Execution execution = new Execution(template, params, System.nanoTime() - start);
+            if (result instanceof ResultSet) {
+                current = execution;
+                return wrap(proxy, (ResultSet) result, execution);
+            }
+            if (result instanceof Number) {
+                execution.rows = Math.max(0, ((Number) result).longValue());
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    execution.rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    execution.rows += Math.max(0, count);
+                }
+            } else if (Boolean.TRUE.equals(result)) {
+                // execute() returned a result set; its rows are counted when it is fetched with getResultSet().
+                current = execution;
+                return result;
+            } else if (Boolean.FALSE.equals(result)) {
+                execution.rows = Math.max(0, target.getUpdateCount());
+            }
+            finish(execution);
+            return result;
+        }
+
+        /**
+         * Records the open execution, if any.
+         */
+        void finish() {
+            if (current != null) {
+                finish(current);
+                current = null;
+            }
+        }
+
+        private void finish(Execution execution) {
+            if (!execution.finished) {
+                execution.finished = true;
+                record(execution);
+            }
+        }
+
+        private ResultSet wrap(Object statement, ResultSet rs, Execution execution) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(this, (Statement) statement, rs, execution));
+        }
+    }
+
+    /**
+     * Counts the rows fetched from a result set and the time spent fetching them.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final StatementHandler statementHandler;
+        private final Statement statement;
+        private final ResultSet target;
+        private final Execution execution;
+
+        ResultSetHandler(StatementHandler statementHandler, Statement statement, ResultSet target, Execution execution) {
+            this.statementHandler = statementHandler;
+            this.statement = statement;
+            this.target = target;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    try {
+                        boolean more = (Boolean) call(target, method, args);
+                        if (more) {
+                            execution.rows++;
+                        }
+                        return more;
+                    } catch (Throwable t) {
+                        execution.failed = true;
+                        throw t;
+                    } finally {
+                        execution.nanos += System.nanoTime() - start;
+                    }
+                }
+                case "close":
+                    statementHandler.finish(execution);
+                    return call(target, method, args);
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return call(target, method, args);
+            }
+        }
+    }
+
+    /**
+     * Describes a bind parameter without its value: its type, and the length of a string.
+     */
+    private static String shapeOf(String setter, Object value) {
+        if (value == null || setter.equals("setNull")) {
+            return "null";
+        }
+        if (value instanceof String) {
+            return "String(" + ((String) value).length() + ")";
+        }
+        return setter.equals("setObject") ? value.getClass().getSimpleName() : setter.substring(3);
+    }
+}
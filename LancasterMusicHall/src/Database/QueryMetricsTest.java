@@ -0,0 +1,116 @@
+package Database;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code QueryMetricsTest} class is a test driver for {@link QueryMetrics}.
+ * <p>
+ * It runs prepared, plain, failing and updating statements against the configured database on a measured
+ * connection, with a slow-query threshold of 0 ms so every statement is slow, and checks the per-template
+ * counts, the rows, the errors, the rate-limited slow-query log and the dump file. Updates are rolled back.
+ * The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class QueryMetricsTest {
+
+    /**
+     * Constructs a new QueryMetricsTest instance.
+     */
+    public QueryMetricsTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws SQLException if the database cannot be queried
+     * @throws IOException  if the temporary files cannot be created or read
+     */
+    public static void main(String[] args) throws SQLException, IOException {
+        SQLConnection sqlCon = new SQLConnection();
+        Path dir = Files.createTempDirectory("query-metrics");
+        Path slowLog = dir.resolve("slow.log");
+        Path dumpFile = dir.resolve("metrics.txt");
+        QueryMetrics metrics = new QueryMetrics(0, 3, slowLog, dumpFile, 0);
+
+        String prepared = "SELECT venue_id, venue_name FROM Venue WHERE venue_id <= ?";
+        int fetched = 0;
+        try (Connection con = metrics.instrument(sqlCon.getConnection())) {
+            try (PreparedStatement ps = con.prepareStatement(prepared)) {
+                ps.setInt(1, 3);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        fetched++;
+                    }
+                }
+            }
+            try (Statement stmt = con.createStatement()) {
+                for (int venueId = 1; venueId <= 2; venueId++) {
+                    try (ResultSet rs = stmt.executeQuery("SELECT venue_name FROM Venue WHERE venue_id = " + venueId)) {
+                        check("plain query returns its venue", rs.next());
+                    }
+                }
+            }
+            try (Statement stmt = con.createStatement()) {
+                stmt.executeQuery("SELECT no_such_column FROM Venue");
+                check("failing statement throws", false);
+            } catch (SQLException expected) {
+                // Counted as an error below.
+            }
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(
+                    "UPDATE Venue SET venue_capacity = venue_capacity WHERE venue_id = ?")) {
+                ps.setInt(1, 1);
+                check("update changes one row", ps.executeUpdate() == 1);
+            } finally {
+                con.rollback();
+                con.setAutoCommit(true);
+            }
+        }
+
+        List<QueryMetrics.StatementStats> stats = metrics.getStatementStats();
+        QueryMetrics.StatementStats select = find(stats, prepared);
+        check("prepared query counted once", select != null && select.executions() == 1);
+        check("prepared query rows", select != null && select.rows() == fetched && fetched > 0);
+        QueryMetrics.StatementStats plain = find(stats, "SELECT venue_name FROM Venue WHERE venue_id = ?");
+        check("plain queries share a template", plain != null && plain.executions() == 2 && plain.rows() == 2);
+        QueryMetrics.StatementStats failing = find(stats, "SELECT no_such_column FROM Venue");
+        check("failing statement counted as an error", failing != null && failing.errors() == 1);
+        QueryMetrics.StatementStats update = find(stats, "UPDATE Venue SET venue_capacity = venue_capacity WHERE venue_id = ?");
+        check("update rows", update != null && update.rows() == 1);
+        check("latency recorded", select != null && select.maxMillis() > 0 && select.p99Millis() <= select.maxMillis());
+
+        List<String> lines = Files.readAllLines(slowLog);
+        check("slow-query log limited to 3 lines a minute", lines.size() == 3);
+        check("slow-query log has parameter shapes", !lines.isEmpty() && lines.get(0).contains("params [Int]"));
+
+        metrics.dump();
+        check("dump file written", Files.readString(dumpFile).contains(prepared));
+
+        metrics.reset();
+        check("reset clears the statistics", metrics.getStatementStats().isEmpty());
+
+        System.out.println();
+        System.out.print(sqlCon.getQueryMetrics().report());
+        TestChecks.finish();
+    }
+
+    private static QueryMetrics.StatementStats find(List<QueryMetrics.StatementStats> stats, String template) {
+        for (QueryMetrics.StatementStats s : stats) {
+            if (s.template().equals(template)) {
+                return s;
+            }
+        }
+        return null;
+    }
+}
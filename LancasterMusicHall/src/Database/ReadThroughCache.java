@@ -0,0 +1,227 @@
+package Database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * A bounded, expiring cache that loads missing values itself.
+ * <p>
+ * {@link #get(Object)} returns the cached value for a key, or loads it with the cache's {@link Loader} and keeps
+ * it. Keys the loader finds nothing for are cached too, so repeated lookups of a missing key do not reach the
+ * database either; loads that fail are not cached. At most {@code maxSize} keys are kept, the least recently
+ * used going first, and each expires {@code ttlMillis} after it was loaded.
+ * </p>
+ * <p>
+ * {@link #invalidate(Object)} and {@link #invalidateAll()} drop entries at once, {@link #updateAll} changes them
+ * in place, and a load that was already running when they were called does not store its (possibly stale)
+ * result. {@link #putAll} stores values the caller read itself, e.g. many keys with one query. This class is
+ * thread-safe; loads run outside the lock, so two threads missing the same key may both load it.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ReadThroughCache<K, V> {
+
+    /**
+     * Reads the value for one key from the database.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        /**
+         * Loads a value.
+         *
+         * @param key the key to load
+         * @return the value, or {@code null} if there is none
+         * @throws Exception if the value cannot be read; nothing is cached
+         */
+        V load(K key) throws Exception;
+    }
+
+    /** A cached value, {@code null} for a key with none, and when it was loaded. */
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Loader<K, V> loader;
+    private final Map<K, Entry<V>> entries;
+
+    /** Incremented by every invalidation, so loads that overlap one are not stored. */
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name      the cache's name, used in error messages
+     * @param maxSize   the most keys kept
+     * @param ttlMillis how long a loaded value is kept, in milliseconds
+     * @param loader    reads values that are not cached
+     */
+    public ReadThroughCache(String name, int maxSize, long ttlMillis, Loader<K, V> loader) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.loader = loader;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ReadThroughCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value for a key, loading it if it is not cached or has expired.
+     *
+     * @param key the key
+     * @return the value, or an empty {@code Optional} if there is none or it could not be loaded
+     */
+    public Optional<V> get(K key) {
+        long invalidationsBefore;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                hits.increment();
+                return Optional.ofNullable(entry.value());
+            }
+            invalidationsBefore = invalidations;
+        }
+        misses.increment();
+        V value;
+        try {
+            value = loader.load(key);
+        } catch (Exception e) {
+            System.err.println("Could not load " + name + " " + key);
+            e.printStackTrace();
+            return Optional.empty();
+        }
+        synchronized (this) {
+            if (invalidations == invalidationsBefore) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * @param key the key
+     * @return true if the key's value is cached and has not expired, so {@link #get(Object)} will not load it
+     */
+    public synchronized boolean isCached(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos;
+    }
+
+    /**
+     * Returns the value for a key only if it is cached and has not expired; never loads it and does not count as
+     * a hit or a miss.
+     *
+     * @param key the key
+     * @return the cached value, or an empty {@code Optional} if it is not cached or is cached as missing
+     */
+    public synchronized Optional<V> getIfCached(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos
+                ? Optional.ofNullable(entry.value()) : Optional.empty();
+    }
+
+    /**
+     * Stores values read by the caller instead of the loader, e.g. many keys read with one query. As with a load,
+     * nothing is stored if the cache was invalidated since {@code invalidationsBefore} was taken, as the values
+     * may have been read before the change.
+     *
+     * @param values              the values, by key
+     * @param invalidationsBefore {@link #getInvalidations()} as it was before the values were read
+     */
+    public synchronized void putAll(Map<? extends K, ? extends V> values, long invalidationsBefore) {
+        if (invalidations != invalidationsBefore) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Map.Entry<? extends K, ? extends V> value : values.entrySet()) {
+            entries.put(value.getKey(), new Entry<>(value.getValue(), now));
+        }
+    }
+
+    /**
+     * @return a count that changes whenever entries are invalidated or updated; see {@link #putAll}
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Drops one key, so its next lookup reads it again.
+     *
+     * @param key the key
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every key.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * Replaces cached values with ones derived from them, e.g. to merge a few changed rows instead of loading
+     * every value again. Entries keep their load time, and keys cached as missing are left alone. Loads already
+     * running are not stored, as they may have read the data before the change.
+     *
+     * @param update given each key and its cached value; returns the new value, or the same one to keep it
+     * @return true if any value was replaced
+     */
+    public synchronized boolean updateAll(BiFunction<? super K, ? super V, ? extends V> update) {
+        invalidations++;
+        boolean changed = false;
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            V value = entry.getValue().value();
+            if (value == null) {
+                continue;
+            }
+            V updated = update.apply(entry.getKey(), value);
+            if (updated != value) {
+                entry.setValue(new Entry<>(updated, entry.getValue().loadedAt()));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return the number of keys cached, including expired ones not yet replaced
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the lookups answered from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the lookups that had to load their value
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,145 @@
+package Database;
+
+import Database.rows.RoomRow;
+import Database.rows.VenueRow;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copies of the reference data the box office looks up over and over: venues, the rooms of each venue
+ * and the venue each event is held in.
+ * <p>
+ * Each is a {@link ReadThroughCache}, so the first lookup of a key reads it from the database and later ones
+ * are answered from memory until the entry expires or is evicted. Changes published on the
+ * {@link DatabaseEventBus} drop the affected entries: {@link DatabaseEvent.VenueUpdated} the venue, its
+ * rooms and the venue list, {@link DatabaseEvent.EventUpdated} the event's venue, and booking changes, which may move events to
+ * other venues, every event's venue.
+ * </p>
+ */
+public class ReferenceData {
+
+    private static final String VENUE_QUERY = "SELECT venue_id, venue_name, venue_capacity, is_flexible_seating, "
+            + "is_accessible FROM Venue WHERE venue_id = ?";
+
+    private static final String ALL_VENUES_QUERY = "SELECT venue_id, venue_name, venue_capacity, "
+            + "is_flexible_seating, is_accessible FROM Venue ORDER BY venue_id";
+
+    /** The one key of {@link #allVenues}. */
+    private static final String ALL = "all";
+
+    private static final String ROOMS_QUERY = "SELECT room_name, venue_id, room_number, room_capacity, "
+            + "classroom_capacity, boardroom_capacity, presentation_capacity, seating_type "
+            + "FROM Room WHERE venue_id = ? ORDER BY room_id";
+
+    private static final String EVENT_VENUE_QUERY = "SELECT venue_id FROM Event WHERE event_id = ?";
+
+    private final ReadThroughCache<Integer, VenueRow> venues;
+    private final ReadThroughCache<String, List<VenueRow>> allVenues;
+    private final ReadThroughCache<Integer, List<RoomRow>> rooms;
+    private final ReadThroughCache<Integer, Integer> eventVenues;
+
+    /**
+     * Creates empty caches and subscribes them to the changes that invalidate them.
+     *
+     * @param sqlCon    the connection the data is read through
+     * @param maxVenues the most venues, and venues' room lists, kept
+     * @param maxEvents the most event-to-venue mappings kept
+     * @param ttlMillis how long an entry is kept, in milliseconds
+     */
+    public ReferenceData(SQLConnection sqlCon, int maxVenues, int maxEvents, long ttlMillis) {
+        venues = new ReadThroughCache<>("venue", maxVenues, ttlMillis,
+                venueId -> first(sqlCon.queryForStream(VENUE_QUERY, VenueRow.MAPPER, venueId)));
+        allVenues = new ReadThroughCache<>("venue list", 1, ttlMillis, key -> {
+            try (Stream<VenueRow> rows = sqlCon.queryForStream(ALL_VENUES_QUERY, VenueRow.MAPPER)) {
+                return rows.toList();
+            }
+        });
+        rooms = new ReadThroughCache<>("rooms of venue", maxVenues, ttlMillis, venueId -> {
+            try (Stream<RoomRow> rows = sqlCon.queryForStream(ROOMS_QUERY, RoomRow.MAPPER, venueId)) {
+                return rows.toList();
+            }
+        });
+        eventVenues = new ReadThroughCache<>("venue of event", maxEvents, ttlMillis,
+                eventId -> first(sqlCon.queryForStream(EVENT_VENUE_QUERY, rs -> {
+                    int venueId = rs.getInt("venue_id");
+                    return rs.wasNull() ? null : venueId;
+                }, eventId)));
+
+        DatabaseEventBus bus = sqlCon.getEventBus();
+        // A dropped invalidation would leave stale data until it expired, so none may be dropped.
+        bus.subscribeLossless(DatabaseEvent.VenueUpdated.class, event -> invalidateVenue(event.venueId()));
+        bus.subscribeLossless(DatabaseEvent.EventUpdated.class, event -> eventVenues.invalidate(event.eventId()));
+        bus.subscribeLossless(DatabaseEvent.BookingUpdated.class, event -> eventVenues.invalidateAll());
+        bus.subscribeLossless(DatabaseEvent.BookingCreated.class, event -> eventVenues.invalidateAll());
+    }
+
+    private static <T> T first(Stream<T> rows) {
+        try (rows) {
+            return rows.findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * @param venueId the venue ID
+     * @return the venue, or an empty {@code Optional} if there is none or it could not be read
+     */
+    public Optional<VenueRow> getVenue(int venueId) {
+        return venues.get(venueId);
+    }
+
+    /**
+     * @return every venue, in venue ID order; empty if they could not be read
+     */
+    public List<VenueRow> getVenues() {
+        return allVenues.get(ALL).orElse(List.of());
+    }
+
+    /**
+     * @param venueId the venue ID
+     * @return the venue's rooms; empty if it has none or they could not be read
+     */
+    public List<RoomRow> getRooms(int venueId) {
+        return rooms.get(venueId).orElse(List.of());
+    }
+
+    /**
+     * @param eventId the event ID
+     * @return the ID of the venue the event is held in, or an empty {@code Optional} if the event does not exist,
+     *         has no venue or could not be read
+     */
+    public Optional<Integer> getVenueIdForEvent(int eventId) {
+        return eventVenues.get(eventId);
+    }
+
+    /**
+     * Drops a venue and its rooms.
+     *
+     * @param venueId the venue ID
+     */
+    public void invalidateVenue(int venueId) {
+        venues.invalidate(venueId);
+        allVenues.invalidateAll();
+        rooms.invalidate(venueId);
+    }
+
+    /**
+     * Drops everything.
+     */
+    public void invalidateAll() {
+        venues.invalidateAll();
+        allVenues.invalidateAll();
+        rooms.invalidateAll();
+        eventVenues.invalidateAll();
+    }
+
+    /**
+     * @return a one-line summary of the hit and miss counts of each cache
+     */
+    public String describeStats() {
+        return String.format("venues %d/%d, rooms %d/%d, event venues %d/%d (hits/misses)",
+                venues.getHits(), venues.getMisses(), rooms.getHits(), rooms.getMisses(),
+                eventVenues.getHits(), eventVenues.getMisses());
+    }
+}
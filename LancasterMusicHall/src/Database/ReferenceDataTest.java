@@ -0,0 +1,144 @@
+package Database;
+
+import Database.rows.VenueRow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code ReferenceDataTest} class is a test driver for {@link ReferenceData} and {@link ReadThroughCache}.
+ * <p>
+ * It looks venues, rooms and event venues up repeatedly and checks, with the statement counts of
+ * {@link QueryMetrics}, that only the first lookup of each reaches the database; that a published
+ * {@link DatabaseEvent.VenueUpdated} makes the next lookup read the change, even when a burst of changes
+ * follows it; that entries expire and are evicted; and that values stored in bulk are kept only if nothing was
+ * invalidated meanwhile. Run it against the embedded profile ({@code -Dlmh.db.profile=embedded}); the venue it renames is
+ * renamed back. The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class ReferenceDataTest {
+
+    /**
+     * Constructs a new ReferenceDataTest instance.
+     */
+    public ReferenceDataTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if the test venue cannot be renamed
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        ReferenceData data = sqlCon.getReferenceData();
+        QueryMetrics metrics = sqlCon.getQueryMetrics();
+        int eventId = sqlCon.queryForObject("SELECT MIN(event_id) FROM Event", rs -> rs.getInt(1)).orElse(1);
+        metrics.reset();
+
+        int venueId = data.getVenueIdForEvent(eventId).orElse(0);
+        String name = data.getVenue(venueId).map(VenueRow::venueName).orElse(null);
+        int rooms = data.getRooms(2).size();
+        long queries = queryCount(metrics);
+        for (int i = 0; i < 100; i++) {
+            data.getVenueIdForEvent(eventId);
+            data.getVenue(venueId);
+            data.getRooms(2);
+        }
+        check("event venue found", venueId > 0);
+        check("venue name found", name != null);
+        check("rooms found", rooms > 0);
+        check("first lookups take three queries", queries == 3);
+        check("repeated lookups take none", queryCount(metrics) == queries);
+        check("missing venue is empty", data.getVenue(-1).isEmpty() && data.getVenue(-1).isEmpty());
+        check("missing venue is looked up once", queryCount(metrics) == queries + 1);
+
+        rename(sqlCon, venueId, name + " (renamed)");
+        try {
+            check("unpublished change is not seen",
+                    name.equals(data.getVenue(venueId).map(VenueRow::venueName).orElse(null)));
+            sqlCon.getEventBus().publish(new DatabaseEvent.VenueUpdated(venueId));
+            waitFor(() -> data.getVenue(venueId).map(VenueRow::venueName).orElse("").endsWith("(renamed)"));
+            check("published change is seen",
+                    data.getVenue(venueId).map(VenueRow::venueName).orElse("").endsWith("(renamed)"));
+
+            // A change published first in a burst that overflows the subscriber's queue is still applied.
+            data.getVenue(venueId);
+            rename(sqlCon, venueId, name + " (burst)");
+            sqlCon.getEventBus().publish(new DatabaseEvent.VenueUpdated(venueId));
+            for (int i = 1; i <= DatabaseEventBus.DEFAULT_CAPACITY * 20; i++) {
+                sqlCon.getEventBus().publish(new DatabaseEvent.VenueUpdated(-i));
+            }
+            waitFor(() -> data.getVenue(venueId).map(VenueRow::venueName).orElse("").endsWith("(burst)"));
+            check("change before a burst of changes is seen",
+                    data.getVenue(venueId).map(VenueRow::venueName).orElse("").endsWith("(burst)"));
+        } finally {
+            rename(sqlCon, venueId, name);
+            sqlCon.getEventBus().publish(new DatabaseEvent.VenueUpdated(venueId));
+        }
+
+        int[] loads = new int[1];
+        ReadThroughCache<Integer, Integer> cache = new ReadThroughCache<>("square", 2, 50, key -> {
+            loads[0]++;
+            return key * key;
+        });
+        cache.get(1);
+        cache.get(2);
+        cache.get(1);
+        cache.get(3);
+        check("least recently used key is evicted", cache.size() == 2 && loads[0] == 3);
+        cache.get(1);
+        check("recently used key is kept", loads[0] == 3);
+        Thread.sleep(60);
+        check("expired key is loaded again", cache.get(1).equals(Optional.of(1)) && loads[0] == 4);
+        ReadThroughCache<Integer, Integer> failing = new ReadThroughCache<>("failing", 2, 60_000, key -> {
+            throw new SQLException("expected failure");
+        });
+        check("failed load is empty and not cached", failing.get(1).isEmpty() && failing.size() == 0);
+        long before = cache.getInvalidations();
+        cache.putAll(Map.of(5, 25), before);
+        check("stored values are served without loading", cache.get(5).equals(Optional.of(25)) && loads[0] == 4);
+        cache.invalidate(5);
+        cache.putAll(Map.of(5, 0), before);
+        check("values read before an invalidation are not stored", !cache.isCached(5));
+
+        System.out.println(data.describeStats());
+        TestChecks.finish();
+    }
+
+    private static long queryCount(QueryMetrics metrics) {
+        long count = 0;
+        List<QueryMetrics.StatementStats> stats = metrics.getStatementStats();
+        for (QueryMetrics.StatementStats s : stats) {
+            if (s.template().contains("FROM Venue") || s.template().contains("FROM Room")
+                    || s.template().startsWith("SELECT venue_id FROM Event")) {
+                count += s.executions();
+            }
+        }
+        return count;
+    }
+
+    private static void rename(SQLConnection sqlCon, int venueId, String name) throws SQLException {
+        try (Connection con = sqlCon.getConnection();
+             PreparedStatement ps = con.prepareStatement("UPDATE Venue SET venue_name = ? WHERE venue_id = ?")) {
+            ps.setString(1, name);
+            ps.setInt(2, venueId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package Database;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Thrown inside a booking or event transaction when an event would overlap another event in the same venue;
+ * the transaction is rolled back.
+ */
+public class RoomConflictException extends SQLException {
+
+    private final List<RoomOccupancyIndex.Conflict> conflicts;
+
+    /**
+     * Creates an exception listing the conflicts found.
+     *
+     * @param conflicts the overlapping pairs, at least one
+     */
+    public RoomConflictException(List<RoomOccupancyIndex.Conflict> conflicts) {
+        super(RoomOccupancyIndex.describe(conflicts));
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    /**
+     * @return the overlapping pairs
+     */
+    public List<RoomOccupancyIndex.Conflict> getConflicts() {
+        return conflicts;
+    }
+}
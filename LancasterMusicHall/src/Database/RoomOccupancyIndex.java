@@ -0,0 +1,356 @@
+package Database;
+
+import Database.rows.OccupancyRow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Which events hold each venue and when, used to stop two events being booked into the same venue at the same
+ * time.
+ * <p>
+ * There are two checks. {@link #findConflicts} answers from memory: the events of each venue are read once into
+ * an {@link IntervalTree}, so finding the events that overlap a proposed one takes {@code O(log n)} time however
+ * many events the venue has, and booking forms can warn before anything is saved. {@link #recheck} runs inside
+ * the writing transaction and is the one that counts: it locks the venues' rows, so two staff saving into the
+ * same venue at once take turns, and then asks the database for overlapping events, so events saved by another
+ * client since the venue was read are seen too.
+ * </p>
+ * <p>
+ * The write paths in {@link SQLConnection} and {@code BoxOfficeService} pass what they changed to
+ * {@link #update} after committing. Venues are kept for {@code ttlMillis} and then read again, to pick up
+ * changes made by other clients. {@link #occupiedMinutes} gives the
+ * {@link AvailabilityEngine} each venue's days as minute bitmaps. This class is thread-safe.
+ * </p>
+ */
+public class RoomOccupancyIndex {
+
+    /**
+     * A proposed event and an event it would overlap.
+     *
+     * @param requested the event being saved
+     * @param existing  the event it overlaps: one already in the database, or another event being saved with it
+     */
+    public record Conflict(OccupancyRow requested, OccupancyRow existing) {
+        /**
+         * @return a one-line description of the conflict
+         */
+        public String describe() {
+            return requested.describe() + " overlaps " + existing.describe() + " in venue " + requested.venueId();
+        }
+    }
+
+    private static final String COLUMNS = "SELECT event_id, venue_id, name, start_date, start_time, end_date, end_time "
+            + "FROM Event ";
+
+    private static final String VENUE_QUERY = COLUMNS + "WHERE venue_id = ?";
+
+    private static final String LOCK_VENUE = "SELECT venue_id FROM Venue WHERE venue_id = ? FOR UPDATE";
+
+    /** Events in a venue that start before {@code end} and end after {@code start}; locked until commit. */
+    private static final String OVERLAP_QUERY = COLUMNS + "WHERE venue_id = ? "
+            + "AND (start_date < ? OR (start_date = ? AND start_time < ?)) "
+            + "AND (end_date > ? OR (end_date = ? AND end_time > ?)) FOR UPDATE";
+
+    /** Days of a venue whose minute bitmaps are kept; older ones are painted again when next asked for. */
+    private static final int MAX_DAYS_PER_VENUE = 400;
+
+    /** The events held in one venue, and the minute bitmaps of the days asked about. */
+    private static final class Timeline {
+        private final IntervalTree<OccupancyRow> tree = new IntervalTree<>();
+        private final Map<Integer, OccupancyRow> byEvent = new HashMap<>();
+        private final Map<LocalDate, BitSet> days = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, BitSet> eldest) {
+                return size() > MAX_DAYS_PER_VENUE;
+            }
+        };
+
+        synchronized void put(OccupancyRow row) {
+            remove(row.eventId());
+            byEvent.put(row.eventId(), row);
+            tree.add(row.startSecond(), row.endSecond(), row);
+            forget(row);
+        }
+
+        synchronized void remove(int eventId) {
+            OccupancyRow old = byEvent.remove(eventId);
+            if (old != null) {
+                tree.remove(old.startSecond(), old.endSecond(), old);
+                forget(old);
+            }
+        }
+
+        synchronized List<OccupancyRow> overlapping(OccupancyRow row) {
+            return tree.overlapping(row.startSecond(), row.endSecond());
+        }
+
+        synchronized BitSet day(LocalDate date) {
+            BitSet minutes = days.get(date);
+            if (minutes == null) {
+                long dayStart = date.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+                long dayEnd = dayStart + 24 * 60 * 60;
+                minutes = AvailabilityEngine.paint(dayStart, tree.overlapping(dayStart, dayEnd));
+                days.put(date, minutes);
+            }
+            return (BitSet) minutes.clone();
+        }
+
+        /** Drops the bitmaps of the days an event touches. */
+        private void forget(OccupancyRow row) {
+            days.keySet().removeIf(date -> !date.isBefore(row.startDate()) && !date.isAfter(row.endDate()));
+        }
+    }
+
+    private final ReadThroughCache<Integer, Timeline> venues;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param sqlCon    the connection venues are read through
+     * @param maxVenues the most venues kept
+     * @param ttlMillis how long a venue is kept before it is read again, in milliseconds
+     */
+    public RoomOccupancyIndex(SQLConnection sqlCon, int maxVenues, long ttlMillis) {
+        venues = new ReadThroughCache<>("events of venue", maxVenues, ttlMillis, venueId -> {
+            Timeline timeline = new Timeline();
+            try (Stream<OccupancyRow> rows = sqlCon.queryForStream(VENUE_QUERY, OccupancyRow.MAPPER, venueId)) {
+                rows.forEach(timeline::put);
+            }
+            return timeline;
+        });
+    }
+
+    /**
+     * Finds, from memory, the events that a set of proposed events would overlap.
+     * <p>
+     * Proposed events with an ID are moves of existing events, so their current times, and those of every other
+     * event in {@code requested}, are ignored. Proposed events are also checked against each other.
+     * </p>
+     *
+     * @param requested the events about to be saved
+     * @return the conflicts found; empty if there are none or a venue could not be read
+     */
+    public List<Conflict> findConflicts(List<OccupancyRow> requested) {
+        Set<Integer> moving = movingIds(requested);
+        List<Conflict> conflicts = new ArrayList<>();
+        for (OccupancyRow row : requested) {
+            venues.get(row.venueId()).ifPresent(timeline -> {
+                for (OccupancyRow existing : timeline.overlapping(row)) {
+                    if (!moving.contains(existing.eventId())) {
+                        conflicts.add(new Conflict(row, existing));
+                    }
+                }
+            });
+        }
+        conflicts.addAll(conflictsWithin(requested));
+        return conflicts;
+    }
+
+    /**
+     * Checks a set of proposed events against the database inside the caller's transaction, before they are
+     * written.
+     * <p>
+     * The rows of the venues involved are locked first, in venue order so concurrent checks cannot deadlock,
+     * and stay locked until the caller commits or rolls back; the overlapping events are then read with locking
+     * reads, so they include everything committed by transactions that held the locks before.
+     * </p>
+     *
+     * @param con       a connection with auto-commit disabled
+     * @param requested the events about to be saved, with their final venue and times
+     * @throws RoomConflictException if any proposed event overlaps another; the caller should roll back
+     * @throws SQLException          if the check cannot be run
+     */
+    public void recheck(Connection con, List<OccupancyRow> requested) throws SQLException {
+        if (requested.isEmpty()) {
+            return;
+        }
+        Set<Integer> venueIds = new TreeSet<>();
+        for (OccupancyRow row : requested) {
+            venueIds.add(row.venueId());
+        }
+        try (PreparedStatement ps = con.prepareStatement(LOCK_VENUE)) {
+            for (int venueId : venueIds) {
+                ps.setInt(1, venueId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+            }
+        }
+
+        Set<Integer> moving = movingIds(requested);
+        List<Conflict> conflicts = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(OVERLAP_QUERY)) {
+            for (OccupancyRow row : requested) {
+                java.sql.Date endDate = java.sql.Date.valueOf(row.endDate());
+                java.sql.Date startDate = java.sql.Date.valueOf(row.startDate());
+                ps.setInt(1, row.venueId());
+                ps.setDate(2, endDate);
+                ps.setDate(3, endDate);
+                ps.setTime(4, java.sql.Time.valueOf(row.endTime()));
+                ps.setDate(5, startDate);
+                ps.setDate(6, startDate);
+                ps.setTime(7, java.sql.Time.valueOf(row.startTime()));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        OccupancyRow existing = OccupancyRow.MAPPER.mapRow(rs);
+                        if (!moving.contains(existing.eventId()) && row.overlaps(existing)) {
+                            conflicts.add(new Conflict(row, existing));
+                        }
+                    }
+                }
+            }
+        }
+        conflicts.addAll(conflictsWithin(requested));
+        if (!conflicts.isEmpty()) {
+            throw new RoomConflictException(conflicts);
+        }
+    }
+
+    /**
+     * Records committed changes in the venues held in memory.
+     *
+     * @param before the events as they were before the change (removed), empty for new events
+     * @param after  the events as they are now (added), empty for deleted events
+     */
+    public void update(Collection<OccupancyRow> before, Collection<OccupancyRow> after) {
+        for (OccupancyRow row : before) {
+            timeline(row.venueId(), timeline -> timeline.remove(row.eventId()));
+        }
+        for (OccupancyRow row : after) {
+            timeline(row.venueId(), timeline -> timeline.put(row));
+        }
+    }
+
+    private void timeline(int venueId, Consumer<Timeline> change) {
+        Timeline timeline = venues.getIfCached(venueId).orElse(null);
+        if (timeline != null) {
+            change.accept(timeline);
+        } else {
+            // Not held: make sure a read already under way does not store the venue without this change.
+            venues.invalidate(venueId);
+        }
+    }
+
+    /**
+     * The minutes of a day during which a venue is held.
+     * <p>
+     * Bit {@code m} is set if an event holds the venue at any time during minute {@code m} after midnight, so an
+     * event ending at 10:00:30 holds minute 600. Each day is painted from the venue's events the first time it is
+     * asked for and kept until an event touching it changes.
+     * </p>
+     *
+     * @param venueId the venue ID
+     * @param date    the day
+     * @return a fresh bitmap of the day's {@link AvailabilityEngine#MINUTES_PER_DAY} minutes, which the caller
+     *         may change; empty if the venue has no events that day or could not be read
+     */
+    public BitSet occupiedMinutes(int venueId, LocalDate date) {
+        return venues.get(venueId).map(timeline -> timeline.day(date)).orElseGet(BitSet::new);
+    }
+
+    /**
+     * Drops every venue, so each is read again when next checked.
+     */
+    public void invalidateAll() {
+        venues.invalidateAll();
+    }
+
+    /**
+     * Reads the current venue and times of events inside the caller's transaction.
+     *
+     * @param con      the connection to read through
+     * @param eventIds the event IDs
+     * @return the events found, in the order of {@code eventIds}; events with no venue are left out
+     * @throws SQLException if the events cannot be read
+     */
+    public static List<OccupancyRow> readEvents(Connection con, Collection<Integer> eventIds) throws SQLException {
+        List<OccupancyRow> rows = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(COLUMNS + "WHERE event_id = ? AND venue_id IS NOT NULL")) {
+            for (int eventId : eventIds) {
+                ps.setInt(1, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        rows.add(OccupancyRow.MAPPER.mapRow(rs));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the current venue and times of a booking's events inside the caller's transaction.
+     *
+     * @param con       the connection to read through
+     * @param bookingId the booking ID
+     * @return the booking's events that have a venue
+     * @throws SQLException if the events cannot be read
+     */
+    public static List<OccupancyRow> readBooking(Connection con, int bookingId) throws SQLException {
+        List<OccupancyRow> rows = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(
+                COLUMNS + "WHERE booking_id = ? AND venue_id IS NOT NULL")) {
+            ps.setInt(1, bookingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(OccupancyRow.MAPPER.mapRow(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @param conflicts the conflicts to describe
+     * @return one line per conflict
+     */
+    public static String describe(List<Conflict> conflicts) {
+        StringJoiner lines = new StringJoiner("\n");
+        for (Conflict conflict : conflicts) {
+            lines.add(conflict.describe());
+        }
+        return lines.toString();
+    }
+
+    private static Set<Integer> movingIds(List<OccupancyRow> requested) {
+        Set<Integer> ids = new HashSet<>();
+        for (OccupancyRow row : requested) {
+            if (row.eventId() != 0) {
+                ids.add(row.eventId());
+            }
+        }
+        return ids;
+    }
+
+    /** The proposed events that overlap an earlier one in the list. */
+    private static List<Conflict> conflictsWithin(List<OccupancyRow> requested) {
+        List<Conflict> conflicts = new ArrayList<>();
+        Map<Integer, IntervalTree<OccupancyRow>> byVenue = new HashMap<>();
+        for (OccupancyRow row : requested) {
+            IntervalTree<OccupancyRow> tree = byVenue.computeIfAbsent(row.venueId(), id -> new IntervalTree<>());
+            for (OccupancyRow earlier : tree.overlapping(row.startSecond(), row.endSecond())) {
+                conflicts.add(new Conflict(row, earlier));
+            }
+            tree.add(row.startSecond(), row.endSecond(), row);
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,173 @@
+package Database;
+
+import Database.rows.OccupancyRow;
+import boxoffice.BoxOfficeService;
+import operations.entities.Event;
+import operations.entities.Venue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code RoomOccupancyIndexTest} class is a test driver for {@link IntervalTree} and
+ * {@link RoomOccupancyIndex}.
+ * <p>
+ * It compares the interval tree with a linear scan over random intervals, then books events into one venue of the
+ * embedded database and checks that {@code insertFullBooking}, {@code updateFullBooking} and
+ * {@code BoxOfficeService.updateEventDetails} refuse overlapping times, accept adjacent ones, and let only one of
+ * two concurrent overlapping bookings through. Run it against the embedded profile
+ * ({@code -Dlmh.db.profile=embedded}); the bookings it makes are deleted again. The process exits with status 1
+ * if a check fails.
+ * </p>
+ */
+public class RoomOccupancyIndexTest {
+
+    private static final int VENUE_ID = 8;
+
+    /**
+     * Constructs a new RoomOccupancyIndexTest instance.
+     */
+    public RoomOccupancyIndexTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if a concurrent booking cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        checkTree();
+
+        SQLConnection sqlCon = new SQLConnection();
+        RoomOccupancyIndex index = sqlCon.getRoomOccupancy();
+        LocalDate day = LocalDate.now().plusYears(5);
+
+        int first = book(sqlCon, event(0, "First", day, "10:00", "12:00"));
+        check("free slot is booked", first > 0);
+        check("overlapping booking is flagged",
+                sqlCon.findRoomConflicts(List.of(event(0, "Clash", day, "11:00", "13:00"))).size() == 1);
+        check("overlapping booking is refused", book(sqlCon, event(0, "Clash", day, "11:00", "13:00")) == 0);
+        check("overlapping events in one booking are refused",
+                book(sqlCon, event(0, "A", day, "14:00", "16:00"), event(0, "B", day, "15:00", "17:00")) == 0);
+        int adjacent = book(sqlCon, event(0, "Adjacent", day, "12:00", "13:00"));
+        check("adjacent booking is accepted", adjacent > 0);
+
+        int firstEvent = eventId(sqlCon, first);
+        BoxOfficeService boxOffice = new BoxOfficeService(sqlCon);
+        check("event moved onto another is refused",
+                !boxOffice.updateEventDetails(firstEvent, event(firstEvent, "First", day, "11:30", "12:30")));
+        check("event moved to a free slot is accepted",
+                boxOffice.updateEventDetails(firstEvent, event(firstEvent, "First", day, "08:00", "10:00")));
+        check("index follows the move",
+                sqlCon.findRoomConflicts(List.of(event(0, "Early", day, "09:00", "09:30"))).size() == 1
+                        && sqlCon.findRoomConflicts(List.of(event(0, "Late", day, "10:00", "12:00"))).isEmpty());
+        BookingSnapshot snapshot = sqlCon.loadBookingSnapshot(first);
+        check("unchanged event is not moved", snapshot != null
+                && !SQLConnection.movesEvent(snapshot, event(firstEvent, "Renamed", day, "08:00", "10:00")));
+        check("retimed event is moved", snapshot != null
+                && SQLConnection.movesEvent(snapshot, event(firstEvent, "First", day, "12:30", "13:30")));
+        check("booking update onto another event is refused", !sqlCon.updateFullBooking(String.valueOf(first),
+                null, null, null, null, null, null, null, null,
+                List.of(event(firstEvent, null, day, "12:30", "13:30")), 0, null, null, null, null, null, null,
+                null, null, null, null, null, null));
+
+        // Two staff booking the same free slot at once: the venue lock lets exactly one through.
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<Integer>> racers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String name = "Racer " + i;
+            racers.add(pool.submit((Callable<Integer>) () -> {
+                start.await();
+                return book(sqlCon, event(0, name, day, "18:00", "20:00"));
+            }));
+        }
+        start.countDown();
+        List<Integer> raced = new ArrayList<>();
+        for (Future<Integer> racer : racers) {
+            raced.add(racer.get());
+        }
+        pool.shutdown();
+        check("one of two concurrent bookings wins", raced.stream().filter(id -> id > 0).count() == 1);
+
+        List<Integer> made = new ArrayList<>(List.of(first, adjacent));
+        raced.stream().filter(id -> id > 0).forEach(made::add);
+        for (int bookingId : made) {
+            sqlCon.deleteFullBooking(bookingId);
+        }
+        check("deleted bookings free the venue",
+                index.findConflicts(List.of(new OccupancyRow(0, VENUE_ID, "After", day, LocalTime.MIN,
+                        day.plusDays(1), LocalTime.MIN))).isEmpty());
+
+        TestChecks.finish();
+    }
+
+    /** Compares the tree with a linear scan while intervals are added and removed. */
+    private static void checkTree() {
+        Random random = new Random(7);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            long start = random.nextInt(1_000_000);
+            long[] interval = {start, start + 1 + random.nextInt(random.nextInt(20) == 0 ? 50_000 : 500), i};
+            intervals.add(interval);
+            tree.add(interval[0], interval[1], i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long[] interval = intervals.set(random.nextInt(intervals.size()), null);
+            if (interval != null && !tree.remove(interval[0], interval[1], (int) interval[2])) {
+                check("tree removes an added interval", false);
+                return;
+            }
+        }
+        intervals.removeIf(interval -> interval == null);
+        check("tree size follows adds and removes", tree.size() == intervals.size());
+
+        boolean matches = true;
+        long nanos = 0;
+        for (int q = 0; q < 2_000 && matches; q++) {
+            long start = random.nextInt(1_000_000);
+            long end = start + random.nextInt(2_000);
+            long expected = intervals.stream().filter(iv -> iv[0] < end && iv[1] > start).count();
+            long began = System.nanoTime();
+            List<Integer> found = tree.overlapping(start, end);
+            nanos += System.nanoTime() - began;
+            matches = found.size() == expected;
+        }
+        check("tree overlaps match a linear scan", matches);
+        System.out.printf("average overlap query over %d intervals: %.1f us%n", tree.size(), nanos / 2_000 / 1e3);
+    }
+
+    private static Event event(int id, String name, LocalDate day, String start, String end) {
+        Venue venue = new Venue(VENUE_ID, "Main_Hall", "Ground floor", 370, "Stalls", false, true, 0.0);
+        return new Event(id, name, "Show", day, day, LocalTime.parse(start), LocalTime.parse(end), false, "",
+                venue, null, "", "Main_Hall", "Occupancy Test", null, 0.0, "", "");
+    }
+
+    /** Books events as a new held booking; returns its ID, or 0 if it was refused. */
+    private static int book(SQLConnection sqlCon, Event... events) {
+        String company = "Occupancy Test " + System.nanoTime();
+        LocalDate day = events[0].getStartDate();
+        boolean saved = sqlCon.insertFullBooking("Occupancy Test", day, day, "held", company, "Tester",
+                "0", "test@example.com", new ArrayList<>(List.of(events)), 0, 0, "", "", "", "", "", day,
+                "unpaid", null, null, 0, null);
+        return saved ? sqlCon.queryForObject("SELECT B.booking_id FROM Booking B JOIN Clients C "
+                + "ON B.client_id = C.client_id WHERE C.`Company Name` = ?", rs -> rs.getInt(1), company).orElse(0) : 0;
+    }
+
+    private static int eventId(SQLConnection sqlCon, int bookingId) {
+        return sqlCon.queryForObject("SELECT MIN(event_id) FROM Event WHERE booking_id = ?",
+                rs -> rs.getInt(1), bookingId).orElse(0);
+    }
+}
@@ -0,0 +1,26 @@
+package Database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet} to a typed value.
+ * <p>
+ * Implementations must only read the current row and must not advance or close the result set;
+ * {@link SQLConnection} owns the cursor and releases it together with the connection.
+ * </p>
+ *
+ * @param <T> the type each row is mapped to
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row.
+     *
+     * @param rs the result set, positioned on the row to map
+     * @return the mapped value
+     * @throws SQLException if a column cannot be read
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
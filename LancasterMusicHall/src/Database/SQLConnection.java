@@ -1,8 +1,16 @@
 package Database;
 
+import Database.rows.BookingDetailsRow;
+import Database.rows.BookingEventRow;
+import Database.rows.ClientDetailsRow;
+import Database.rows.ContractRow;
+import Database.rows.EventDetailsRow;
+import Database.rows.OccupancyRow;
 import operations.entities.Event;
 import java.io.File;
-import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -11,6 +19,9 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.sql.Statement;
 
 /**
@@ -23,28 +34,22 @@ import java.sql.Statement;
  */
 public class SQLConnection implements SQLInterface {
     /**
-     * JDBC URL for database connection. Includes server address, port, and database name.
-     * <p><b>Format:</b> jdbc:mysql://host:port/database</p>
+     * Database URL, credentials and profile shared by every {@code SQLConnection} instance.
+     * <p><b>Source:</b> {@link DatabaseConfig#load()}, i.e. system properties, environment variables or
+     * {@code database.properties}, unless set first with {@link #configure(DatabaseConfig)}</p>
+     * <p><b>MySQL URL:</b> should enable {@code useServerPrepStmts}, so statements kept in the pool's statement
+     * cache are parsed once per connection, {@code rewriteBatchedStatements}, so JDBC batches of inserts are
+     * sent as multi-row {@code INSERT} statements, and {@code useCursorFetch}, so the streaming query methods
+     * fetch {@link #STREAM_FETCH_SIZE} rows at a time instead of reading whole results</p>
+     * <p><b>Security:</b> The password is never logged or exposed</p>
      */
-    private static final String url = "jdbc:mysql://sst-stuproj00.city.ac.uk:3306/in2033t23";
+    private static DatabaseConfig config;
 
     /**
-     * Database username with restricted permissions.
-     * <p><b>Security:</b> Should only have necessary CRUD permissions</p>
+     * Bus carrying committed changes to their subscribers, shared by every {@code SQLConnection} instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getEventBus()}</p>
      */
-    private final String dbUser = "in2033t23_a";
-
-    /**
-     * Database password stored as final field.
-     * <p><b>Security:</b> Never logged or exposed in any way</p>
-     */
-    private final String dbPassword = "XUBLJfsYMHY";
-
-    /**
-     * List of registered listeners for database update events.
-     * <p><b>Usage:</b> Notified after significant database changes</p>
-     */
-    private final List<DatabaseUpdateListener> listeners = new ArrayList<>();
+    private static DatabaseEventBus eventBus;
 
     /**
      * Static initializer for loading MySQL JDBC driver.
@@ -60,6 +65,129 @@ public class SQLConnection implements SQLInterface {
         }
     }
 
+    /**
+     * Connection pool shared by every {@code SQLConnection} instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getPool()}</p>
+     */
+    private static ConnectionPool pool;
+
+    /** Connections kept open while the application is idle. */
+    private static final int POOL_MIN_IDLE = 2;
+
+    /** Upper bound on physical connections to the database server. */
+    private static final int POOL_MAX_SIZE = 10;
+
+    /** Surplus idle connections are closed after this long. */
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+
+    /** Borrowed connections held longer than this are reported with the borrower's stack trace. */
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = 60_000;
+
+    /** How long {@link #getConnection()} waits for a free connection before giving up. */
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 10_000;
+
+    /** Prepared statements kept per pooled connection, evicted least-recently-used first. */
+    private static final int POOL_STATEMENT_CACHE_SIZE = 64;
+
+    /** Rows fetched per round trip by the streaming query methods. */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /** Maximum rows sent in one JDBC batch by the batched write paths. */
+    static final int WRITE_BATCH_SIZE = 500;
+
+    /**
+     * Tariff cache shared by every {@code SQLConnection} instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getTariffs()}</p>
+     */
+    private static TariffEngine tariffs;
+
+    /** Minimum time between checks for altered pricing functions. */
+    private static final long TARIFF_VERSION_CHECK_MILLIS = 60_000;
+
+    /** Asynchronous operations that have not finished after this long fail with a timeout. */
+    private static final long ASYNC_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * Statement metrics shared by every {@code SQLConnection} instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getQueryMetrics()}</p>
+     */
+    private static QueryMetrics metrics;
+
+    /** Statements taking at least this long are written to the slow-query log; {@code -Dlmh.sql.slowQueryMillis}. */
+    private static final long SLOW_QUERY_MILLIS = 500;
+
+    /** Most slow-query log lines written per minute; {@code -Dlmh.sql.slowLogLinesPerMinute}. */
+    private static final int SLOW_LOG_LINES_PER_MINUTE = 30;
+
+    /** Slow-query log file; {@code -Dlmh.sql.slowLog}, empty for none. */
+    private static final String SLOW_LOG_FILE = "logs/slow-queries.log";
+
+    /** File the statement metrics are dumped to; {@code -Dlmh.sql.metricsFile}, empty for none. */
+    private static final String METRICS_FILE = "logs/sql-metrics.txt";
+
+    /** Seconds between metrics dumps; {@code -Dlmh.sql.metricsDumpSeconds}, 0 to dump only on exit. */
+    private static final long METRICS_DUMP_SECONDS = 60;
+
+    /**
+     * Venue, room and event-to-venue caches shared by every {@code SQLConnection} instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getReferenceData()}</p>
+     */
+    private static ReferenceData referenceData;
+
+    /** Venues (and their room lists) kept by the reference-data cache. */
+    private static final int REFERENCE_MAX_VENUES = 256;
+
+    /** Event-to-venue mappings kept by the reference-data cache. */
+    private static final int REFERENCE_MAX_EVENTS = 10_000;
+
+    /** Reference data is read again this long after it was cached, even if no change was published. */
+    private static final long REFERENCE_TTL_MILLIS = 10 * 60_000;
+
+    /**
+     * Calendar events shared by the calendar, diary and daily events views.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getCalendarStore()}</p>
+     */
+    private static CalendarStore calendarStore;
+
+    /** Months of events kept by the calendar store. */
+    private static final int CALENDAR_MAX_MONTHS = 24;
+
+    /** A month of events is read again this long after it was cached, even if no change was published. */
+    private static final long CALENDAR_TTL_MILLIS = 5 * 60_000;
+
+    /**
+     * Poller publishing the rows other clients have changed, shared by every instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getChangeFeed()}; polls once started</p>
+     */
+    private static ChangeFeed changeFeed;
+
+    /** Seconds between polls of the change feed, unless {@code -Dlmh.changes.pollSeconds} says otherwise. */
+    private static final long CHANGE_POLL_SECONDS = 10;
+
+    /**
+     * Per-venue event timelines used to find double bookings.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getRoomOccupancy()}</p>
+     */
+    private static RoomOccupancyIndex roomOccupancy;
+
+    /** Venues whose events are kept by the room occupancy index. */
+    private static final int OCCUPANCY_MAX_VENUES = 256;
+
+    /** A venue's events are read again this long after they were cached, to see other clients' bookings. */
+    private static final long OCCUPANCY_TTL_MILLIS = 10 * 60_000;
+
+    /**
+     * Venue availability engine shared by every instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getAvailability()}</p>
+     */
+    private static AvailabilityEngine availability;
+
+    /**
+     * Asynchronous facade over this instance.
+     * <p><b>Lifecycle:</b> Created on first use by {@link #getAsync()}</p>
+     */
+    private AsyncSQLConnection async;
+
     /**
      * Constructs a new SQLConnection instance that implements the SQLInterface.
      * <p>
@@ -71,43 +199,476 @@ public class SQLConnection implements SQLInterface {
     }
 
     /**
-     * Registers a listener to receive database update notifications.
+     * Registers a listener to receive database update notifications on the Event Dispatch Thread.
+     * <p>
+     * The listener is a coalescing subscriber of the shared {@link #getEventBus() event bus}, so it hears about
+     * changes made through any {@code SQLConnection}, after they have committed, and never delays the writer.
+     * </p>
      *
-     * @param listener the {@code DatabaseUpdateListener} to add to the listeners list
+     * @param listener the {@code DatabaseUpdateListener} to notify
+     * @return the subscription, closed to unregister the listener
      */
-    public void registerUpdateListener(DatabaseUpdateListener listener) {
-        listeners.add(listener);
+    public DatabaseEventBus.Subscription registerUpdateListener(DatabaseUpdateListener listener) {
+        return getEventBus().subscribeOnEdt(DatabaseEvent.class,
+                event -> listener.databaseUpdated(event.type(), event.data()));
     }
 
     /**
-     * Notifies all registered listeners of a database update event.
+     * Returns the shared event bus, creating it on first use.
+     * <p>
+     * Every committed change made through an {@code SQLConnection} is published here as a
+     * {@link DatabaseEvent}.
+     * </p>
      *
-     * @param updateType a {@code String} representing the type of update (e.g., "passwordReset", "bookingUpdated")
-     * @param data       additional data related to the update event
+     * @return the {@code DatabaseEventBus} used by every {@code SQLConnection}
      */
-    private void notifyUpdateListeners(String updateType, Object data) {
-        for (DatabaseUpdateListener listener : listeners) {
-            listener.databaseUpdated(updateType, data);
+    public DatabaseEventBus getEventBus() {
+        synchronized (SQLConnection.class) {
+            if (eventBus == null) {
+                eventBus = new DatabaseEventBus();
+            }
+            return eventBus;
+        }
+    }
+
+    /**
+     * Publishes a committed change on the event bus. Returns without waiting for the subscribers.
+     *
+     * @param event the change
+     */
+    private void publish(DatabaseEvent event) {
+        getEventBus().publish(event);
+    }
+
+    /**
+     * Selects the database every {@code SQLConnection} connects to, instead of the one
+     * {@link DatabaseConfig#load()} would pick. Must be called before the first connection is made.
+     *
+     * @param databaseConfig the database to connect to
+     * @throws IllegalStateException if the connection pool has already been created
+     */
+    public static void configure(DatabaseConfig databaseConfig) {
+        synchronized (SQLConnection.class) {
+            if (pool != null) {
+                throw new IllegalStateException("The database is already in use: " + config);
+            }
+            config = databaseConfig;
+        }
+    }
+
+    /**
+     * Returns the shared database configuration, loading it on first use.
+     *
+     * @return the {@code DatabaseConfig} used by every {@code SQLConnection}
+     */
+    public DatabaseConfig getConfig() {
+        synchronized (SQLConnection.class) {
+            if (config == null) {
+                config = DatabaseConfig.load();
+            }
+            return config;
+        }
+    }
+
+    /**
+     * Returns the shared connection pool, creating it on first use.
+     * <p>
+     * For the embedded profile the database schema and seed data are created first.
+     * </p>
+     *
+     * @return the {@code ConnectionPool} used by every {@code SQLConnection}
+     */
+    public ConnectionPool getPool() {
+        synchronized (SQLConnection.class) {
+            if (pool == null) {
+                DatabaseConfig db = getConfig();
+                System.out.println("Using database: " + db);
+                if (db.isEmbedded()) {
+                    try {
+                        EmbeddedDatabase.initialise(db);
+                    } catch (SQLException e) {
+                        System.out.println("Embedded database initialisation failed: " + e);
+                        e.printStackTrace();
+                    }
+                }
+                pool = new ConnectionPool(db.getUrl(), db.getUser(), db.getPassword(), POOL_MIN_IDLE, POOL_MAX_SIZE,
+                        POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS, POOL_BORROW_TIMEOUT_MILLIS,
+                        POOL_STATEMENT_CACHE_SIZE);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Returns the shared in-process tariff engine, creating it on first use.
+     * <p>
+     * Prefer it over the {@code calculate*Cost} methods, which make a round trip per call.
+     * </p>
+     *
+     * @return the {@code TariffEngine} used by every {@code SQLConnection}
+     */
+    public TariffEngine getTariffs() {
+        synchronized (SQLConnection.class) {
+            if (tariffs == null) {
+                // H2 has no routine versions to check; the engine's time-to-live still applies.
+                tariffs = new TariffEngine(this, getConfig().isEmbedded() ? -1 : TARIFF_VERSION_CHECK_MILLIS);
+            }
+            return tariffs;
+        }
+    }
+
+    /**
+     * Returns the shared venue, room and event-to-venue caches, creating them on first use.
+     * <p>
+     * Entries are dropped when a matching change is published on the {@link #getEventBus() event bus}, and in
+     * any case after {@link #REFERENCE_TTL_MILLIS}.
+     * </p>
+     *
+     * @return the {@code ReferenceData} used by every {@code SQLConnection}
+     */
+    public ReferenceData getReferenceData() {
+        synchronized (SQLConnection.class) {
+            if (referenceData == null) {
+                referenceData = new ReferenceData(this, REFERENCE_MAX_VENUES, REFERENCE_MAX_EVENTS,
+                        REFERENCE_TTL_MILLIS);
+            }
+            return referenceData;
+        }
+    }
+
+    /**
+     * Returns the shared calendar event store, creating it on first use.
+     * <p>
+     * Every calendar and diary view reads its events from it, so a month is read from the database once however
+     * many views show it. Changes published on the {@link #getEventBus() event bus}, including other clients' changes
+     * found by the {@link #getChangeFeed() change feed}, are merged into the cached months by reading back only the
+     * changed rows; a venue change or a very large change drops every month. Each month is read again after
+     * {@link #CALENDAR_TTL_MILLIS} in case a change was missed.
+     * </p>
+     *
+     * @return the {@code CalendarStore} used by every {@code SQLConnection}
+     */
+    public CalendarStore getCalendarStore() {
+        synchronized (SQLConnection.class) {
+            if (calendarStore == null) {
+                calendarStore = new CalendarStore(this, CALENDAR_MAX_MONTHS, CALENDAR_TTL_MILLIS);
+            }
+            return calendarStore;
+        }
+    }
+
+    /**
+     * Returns the shared change feed, creating it on first use.
+     * <p>
+     * Once {@link ChangeFeed#start() started}, it publishes a {@link DatabaseEvent.RowsChanged} event for the
+     * events, bookings and reviews any client has changed since it last looked, so open views can read back just
+     * those rows.
+     * </p>
+     *
+     * @return the {@code ChangeFeed} used by every {@code SQLConnection}
+     */
+    public ChangeFeed getChangeFeed() {
+        synchronized (SQLConnection.class) {
+            if (changeFeed == null) {
+                changeFeed = new ChangeFeed(this,
+                        Long.getLong("lmh.changes.pollSeconds", CHANGE_POLL_SECONDS) * 1_000);
+            }
+            return changeFeed;
         }
     }
 
+    /**
+     * Returns the shared room occupancy index, creating it on first use.
+     * <p>
+     * {@code insertFullBooking}, {@code updateFullBooking} and {@code BoxOfficeService.updateEventDetails} check
+     * new event times against it, and record them in it once committed.
+     * </p>
+     *
+     * @return the {@code RoomOccupancyIndex} used by every {@code SQLConnection}
+     */
+    public RoomOccupancyIndex getRoomOccupancy() {
+        synchronized (SQLConnection.class) {
+            if (roomOccupancy == null) {
+                roomOccupancy = new RoomOccupancyIndex(this, OCCUPANCY_MAX_VENUES, OCCUPANCY_TTL_MILLIS);
+            }
+            return roomOccupancy;
+        }
+    }
+
+    /**
+     * Returns the shared availability engine, creating it on first use.
+     *
+     * @return the {@code AvailabilityEngine} used by every {@code SQLConnection}, answering from
+     *         {@link #getRoomOccupancy()}
+     */
+    public AvailabilityEngine getAvailability() {
+        synchronized (SQLConnection.class) {
+            if (availability == null) {
+                availability = new AvailabilityEngine(this);
+            }
+            return availability;
+        }
+    }
+
+    /**
+     * Finds the events already booked that the given events would overlap in their venues, without writing
+     * anything. Booking forms call this before saving so staff can move the clashing events; the save itself
+     * checks again inside its transaction.
+     *
+     * @param events the events about to be saved; those with an ID are existing events being moved
+     * @return the conflicts found; empty if there are none
+     */
+    public List<RoomOccupancyIndex.Conflict> findRoomConflicts(List<Event> events) {
+        return getRoomOccupancy().findConflicts(occupancy(events));
+    }
+
+    /**
+     * The venue and times of events, as checked by the room occupancy index. An existing event given without a
+     * venue is taken to stay in its current one; events without times are left out.
+     */
+    private List<OccupancyRow> occupancy(List<Event> events) {
+        List<OccupancyRow> rows = new ArrayList<>(events.size());
+        for (Event event : events) {
+            int venueId = event.getVenue() != null ? event.getVenue().getVenueId() : 0;
+            if (venueId == 0 && event.getId() != 0) {
+                venueId = getReferenceData().getVenueIdForEvent(event.getId()).orElse(0);
+            }
+            if (venueId != 0 && event.getStartDate() != null && event.getEndDate() != null
+                    && event.getStartTime() != null && event.getEndTime() != null) {
+                rows.add(new OccupancyRow(event.getId(), venueId, event.getName(), event.getStartDate(),
+                        event.getStartTime(), event.getEndDate(), event.getEndTime()));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the shared statement metrics, creating them on first use.
+     * <p>
+     * Every statement run on a connection from {@link #getConnection()}, including those of the services that
+     * borrow connections from this class, is measured here. The slow-query threshold, the log and dump files and
+     * the dump interval default to the {@code SLOW_*} and {@code METRICS_*} constants and can be changed with
+     * the system properties named next to them.
+     * </p>
+     *
+     * @return the {@code QueryMetrics} used by every {@code SQLConnection}
+     */
+    public QueryMetrics getQueryMetrics() {
+        synchronized (SQLConnection.class) {
+            if (metrics == null) {
+                String slowLog = System.getProperty("lmh.sql.slowLog", SLOW_LOG_FILE);
+                String metricsFile = System.getProperty("lmh.sql.metricsFile", METRICS_FILE);
+                metrics = new QueryMetrics(
+                        Long.getLong("lmh.sql.slowQueryMillis", SLOW_QUERY_MILLIS),
+                        Integer.getInteger("lmh.sql.slowLogLinesPerMinute", SLOW_LOG_LINES_PER_MINUTE),
+                        slowLog.isEmpty() ? null : Path.of(slowLog),
+                        metricsFile.isEmpty() ? null : Path.of(metricsFile),
+                        Long.getLong("lmh.sql.metricsDumpSeconds", METRICS_DUMP_SECONDS) * 1_000);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Returns the asynchronous facade over this connection, creating it on first use.
+     * <p>
+     * At most {@link #POOL_MAX_SIZE} of its tasks run at once, matching the size of the connection pool.
+     * </p>
+     *
+     * @return the {@code AsyncSQLConnection} for this instance
+     */
+    public synchronized AsyncSQLConnection getAsync() {
+        if (async == null) {
+            async = new AsyncSQLConnection(this, POOL_MAX_SIZE, ASYNC_TIMEOUT_MILLIS);
+        }
+        return async;
+    }
+
     /**
      * Centralized method to obtain a database connection using the current connection details.
+     * <p>
+     * Connections are borrowed from the shared {@link ConnectionPool}; closing the returned
+     * connection hands it back to the pool, so callers must always close it (ideally with try-with-resources).
+     * The time spent waiting for the connection and every statement run on it are recorded in
+     * {@link #getQueryMetrics()}.
+     * </p>
      *
      * @return a {@code Connection} object, or {@code null} if the connection fails
      */
     public Connection getConnection() {
         Connection con = null;
+        ConnectionPool connectionPool = getPool();
+        QueryMetrics queryMetrics = getQueryMetrics();
+        long waitStart = System.nanoTime();
         try {
-            // Directly obtain a connection using the JDBC URL, username, and password.
-            con = DriverManager.getConnection(url, dbUser, dbPassword);
-            System.out.println("Connected to MySQL database successfully!");
+            con = queryMetrics.instrument(connectionPool.borrow());
+            queryMetrics.recordConnectionWait(System.nanoTime() - waitStart, false);
         } catch (SQLException e) {
+            queryMetrics.recordConnectionWait(System.nanoTime() - waitStart, true);
             System.out.println("Connection failed: " + e);
         }
         return con;
     }
 
+    /**
+     * Runs a query and maps every row with the given mapper.
+     * <p>
+     * The connection, statement and result set are always released before this method returns.
+     * </p>
+     *
+     * @param query  the SQL query with {@code ?} placeholders
+     * @param mapper maps one row to a value
+     * @param params the values bound to the placeholders, in order
+     * @param <T>    the row type
+     * @return the mapped rows; an empty list if there are none or an error occurs
+     */
+    public <T> List<T> queryForList(String query, RowMapper<T> mapper, Object... params) {
+        List<T> rows = new ArrayList<>();
+        queryForEach(query, mapper, rows::add, params);
+        return rows;
+    }
+
+    /**
+     * Runs a query expected to return at most one row and maps it with the given mapper.
+     *
+     * @param query  the SQL query with {@code ?} placeholders
+     * @param mapper maps the row to a value
+     * @param params the values bound to the placeholders, in order
+     * @param <T>    the row type
+     * @return the first mapped row, or an empty {@code Optional} if there is none or an error occurs
+     */
+    public <T> Optional<T> queryForObject(String query, RowMapper<T> mapper, Object... params) {
+        try (Connection con = getConnection();
+             PreparedStatement ps = con.prepareStatement(query)) {
+            bindParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.ofNullable(mapper.mapRow(rs)) : Optional.empty();
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Streams the rows of a query to a callback one at a time, without collecting them in memory.
+     * <p>
+     * Rows are fetched in chunks of {@link #STREAM_FETCH_SIZE} where the driver supports it: always on the embedded
+     * profile, and on MySQL when the URL sets {@code useCursorFetch=true}, without which Connector/J reads the
+     * whole result first. The connection is released when the last row has been handed to the callback or an
+     * error occurs.
+     * </p>
+     *
+     * @param query    the SQL query with {@code ?} placeholders
+     * @param mapper   maps one row to a value
+     * @param consumer receives each mapped row in result order
+     * @param params   the values bound to the placeholders, in order
+     * @param <T>      the row type
+     * @return the number of rows delivered, or {@code -1} if an error occurs
+     */
+    public <T> int queryForEach(String query, RowMapper<T> mapper, Consumer<? super T> consumer, Object... params) {
+        int count = 0;
+        try (Connection con = getConnection();
+             PreparedStatement ps = con.prepareStatement(query)) {
+            bindParameters(ps, params);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapper.mapRow(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * Runs a query and returns its rows as a lazily populated {@code Stream}.
+     * <p>
+     * The stream holds a pooled connection until it is closed, so it must be used in a
+     * try-with-resources block. Rows are fetched in chunks as for {@link #queryForEach}. Errors while reading
+     * rows surface as {@link IllegalStateException}.
+     * </p>
+     *
+     * @param query  the SQL query with {@code ?} placeholders
+     * @param mapper maps one row to a value
+     * @param params the values bound to the placeholders, in order
+     * @param <T>    the row type
+     * @return a stream of mapped rows whose {@code close()} releases the connection
+     * @throws SQLException if the query cannot be executed
+     */
+    public <T> Stream<T> queryForStream(String query, RowMapper<T> mapper, Object... params) throws SQLException {
+        Connection con = getConnection();
+        if (con == null) {
+            throw new SQLException("No database connection available");
+        }
+        PreparedStatement ps = null;
+        ResultSet rs;
+        try {
+            ps = con.prepareStatement(query);
+            bindParameters(ps, params);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            rs = ps.executeQuery();
+        } catch (SQLException ex) {
+            if (ps != null) {
+                ps.close();
+            }
+            con.close();
+            throw ex;
+        }
+        final PreparedStatement statement = ps;
+        final ResultSet resultSet = rs;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.mapRow(resultSet));
+                    return true;
+                } catch (SQLException ex) {
+                    throw new IllegalStateException("Failed to read row", ex);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            // Closed in reverse order of opening; each is closed even if an earlier one fails.
+            for (AutoCloseable resource : new AutoCloseable[]{resultSet, statement, con}) {
+                try {
+                    resource.close();
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Binds positional parameters, converting {@code java.time} values to their JDBC equivalents.
+     *
+     * @param ps     the statement to bind
+     * @param params the values, in placeholder order; {@code null} binds SQL NULL
+     * @throws SQLException if a parameter cannot be bound
+     */
+    private static void bindParameters(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if (param == null) {
+                ps.setNull(i + 1, java.sql.Types.NULL);
+            } else if (param instanceof LocalDate) {
+                ps.setDate(i + 1, java.sql.Date.valueOf((LocalDate) param));
+            } else if (param instanceof LocalTime) {
+                ps.setTime(i + 1, java.sql.Time.valueOf((LocalTime) param));
+            } else {
+                ps.setObject(i + 1, param);
+            }
+        }
+    }
+
     /**
      * Connects to the database using the provided username and password, and queries the Booking table
      * to print all booking IDs.
@@ -118,7 +679,7 @@ public class SQLConnection implements SQLInterface {
      */
     @Override
     public void connectToAndQueryDatabase(String username, String password) throws SQLException {
-        try (Connection con = DriverManager.getConnection(url, username, password);
+        try (Connection con = getQueryMetrics().instrument(DriverManager.getConnection(getConfig().getUrl(), username, password));
              Statement statement = con.createStatement();
              // Query to select the booking_id column from the Booking table.
              ResultSet resultSet = statement.executeQuery("SELECT booking_id FROM Booking")) {
@@ -167,7 +728,7 @@ public class SQLConnection implements SQLInterface {
 
     /**
      * Resets the password for a staff member, given the staff ID, email, and new password.
-     * This method updates the Staff table and notifies update listeners upon success.
+     * This method updates the Staff table and publishes a {@link DatabaseEvent.PasswordReset} upon success.
      *
      * @param staffId    the staff ID for the password reset
      * @param email      the email associated with the staff account
@@ -188,7 +749,7 @@ public class SQLConnection implements SQLInterface {
             if (rows > 0) {
                 con.commit();
                 updated = true;
-                notifyUpdateListeners("passwordReset", staffId);
+                publish(new DatabaseEvent.PasswordReset(staffId));
             } else {
                 con.rollback();
             }
@@ -219,44 +780,6 @@ public class SQLConnection implements SQLInterface {
         return currentStaffId;
     }
 
-    /**
-     * Retrieves a {@code DefaultTableModel} containing bookings data.
-     * <p>
-     * The table contains the following columns: "ID No.", "Name", "Start Date", "End Date", and "Status".
-     * Data is obtained by joining the Booking and Clients tables.
-     * </p>
-     *
-     * @return a {@code DefaultTableModel} with booking information
-     */
-    public DefaultTableModel getBookingsTableModel() {
-        String[] columnNames = {"ID No.", "Name", "Start Date", "End Date", "Status"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-
-        // Updated query with a JOIN on Clients to get the "Company Name"
-        String query = "SELECT B.booking_id, C.`Company Name` AS clientName, "
-                + "B.booking_DateStart, B.booking_DateEnd, B.booking_status "
-                + "FROM Booking B "
-                + "JOIN Clients C ON B.client_id = C.client_id";
-
-        try (Connection con = getConnection();
-             Statement stmt = con.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            while (rs.next()) {
-                int bookingId = rs.getInt("booking_id");
-                String clientName = rs.getString("clientName");
-                String startDate = rs.getDate("booking_DateStart").toString();
-                String endDate = rs.getDate("booking_DateEnd").toString();
-                String status = rs.getString("booking_status");
-                Object[] row = {bookingId, clientName, startDate, endDate, status};
-                model.addRow(row);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return model;
-    }
-
     /**
      * A helper class for encapsulating financial report data.
      */
@@ -308,19 +831,19 @@ public class SQLConnection implements SQLInterface {
                 "SUM(profit) AS total_profit " +
                 "FROM FinancialRecord " +
                 "WHERE financial_record_date BETWEEN ? AND ?";
-        try (Connection con = DriverManager.getConnection(url, dbUser, dbPassword);
+        try (Connection con = getConnection();
              PreparedStatement ps = con.prepareStatement(query)) {
 
             ps.setDate(1, java.sql.Date.valueOf(startDate));
             ps.setDate(2, java.sql.Date.valueOf(endDate));
 
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                double revenue = rs.getDouble("total_revenue");
-                double profit = rs.getDouble("total_profit");
-                reportData = new ReportData(revenue, profit);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    double revenue = rs.getDouble("total_revenue");
+                    double profit = rs.getDouble("total_profit");
+                    reportData = new ReportData(revenue, profit);
+                }
             }
-            rs.close();
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -335,7 +858,8 @@ public class SQLConnection implements SQLInterface {
      *   <li>Insert into Clients and retrieve generated client_id</li>
      *   <li>Insert into Booking and retrieve generated booking_id</li>
      *   <li>Insert an Invoice record for the booking</li>
-     *   <li>Insert each Event record</li>
+     *   <li>Insert the Event records in JDBC batches (see {@link #insertEvents}), and their
+     *   {@link CalendarEntries calendar entries}</li>
      *   <li>Insert Contract details if a file is provided</li>
      * </ol>
      *
@@ -387,8 +911,6 @@ public class SQLConnection implements SQLInterface {
                                      Integer staffId) {
         // 1. Booking: Now includes payment_due_date, staff_id, client_id, and max_discount.
         String insertBooking = "INSERT INTO Booking (booking_DateStart, booking_DateEnd, booking_status, ticket_price, total_cost, payment_status, payment_due_date, staff_id, client_id, max_discount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        // 2. Event: Now includes booking_id, client_id, location, description, layout, and max_discount.
-        String insertEvent = "INSERT INTO Event (name, start_date, end_date, start_time, end_time, event_type, venue_id, booking_id, client_id, location, description, layout, max_discount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         // 3. Clients: Now includes Street Address, City, Postcode.
         String insertClient = "INSERT INTO Clients (`Company Name`, `Contact Name`, `Phone Number`, `Contact Email`, `Customer Account Number`, `Customer Sort Code`, `Payment Due Date`, `Street Address`, `City`, `Postcode`) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         // 4. Contract: remains unchanged.
@@ -466,9 +988,64 @@ public class SQLConnection implements SQLInterface {
                 psInvoice.executeUpdate();
             }
 
-            // 3. Insert each Event.
-            for (Event event : events) {
-                try (PreparedStatement psEvent = con.prepareStatement(insertEvent)) {
+            // 3. Insert all Events in batches, once no other booking holds their venues at those times.
+            getRoomOccupancy().recheck(con, occupancy(events));
+            insertEvents(con, events, bookingId, clientId, maxDiscount);
+            CalendarEntries.refreshBooking(con, bookingId);
+
+            // 4. Insert Contract details, linking to the new booking and client.
+            if (contractFile != null) {
+                try (PreparedStatement psContract = con.prepareStatement(insertContract);
+                     InputStream in = ContractTransfer.openUpload(contractFile, null)) {
+                    psContract.setString(1, contractDetails != null ? contractDetails : "N/A");
+                    psContract.setInt(2, clientId);
+                    psContract.setInt(3, bookingId);
+                    psContract.setBlob(4, in, contractFile.length());
+                    psContract.executeUpdate();
+                }
+            }
+
+            con.commit();
+            getRoomOccupancy().update(List.of(), occupancy(events));
+            publish(new DatabaseEvent.BookingCreated(bookingId));
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * SQL for inserting one Event row; batched by {@link #insertEvents}.
+     */
+    private static final String INSERT_EVENT = "INSERT INTO Event (name, start_date, end_date, start_time, end_time, "
+            + "event_type, venue_id, booking_id, client_id, location, description, layout, max_discount) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Inserts events for a booking using JDBC batches on the caller's connection and transaction.
+     * <p>
+     * Rows are sent in batches of up to {@link #WRITE_BATCH_SIZE}; with {@code rewriteBatchedStatements}
+     * enabled each batch travels as multi-row {@code INSERT}s, so a festival booking with hundreds of events
+     * costs a handful of round trips instead of one per event. The generated IDs are written back to the
+     * {@code Event} objects as well as returned.
+     * </p>
+     *
+     * @param con         an open connection, usually with auto-commit disabled
+     * @param events      the events to insert
+     * @param bookingId   the booking the events belong to
+     * @param clientId    the client the events belong to
+     * @param maxDiscount the maximum discount stored on each event
+     * @return the generated event IDs, in the same order as {@code events}
+     * @throws SQLException if any insert fails or the driver does not return a key for every row
+     */
+    public List<Integer> insertEvents(Connection con, List<Event> events, int bookingId, int clientId,
+                                      double maxDiscount) throws SQLException {
+        List<Integer> generatedIds = new ArrayList<>(events.size());
+        try (PreparedStatement psEvent = con.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS)) {
+            for (int start = 0; start < events.size(); start += WRITE_BATCH_SIZE) {
+                List<Event> chunk = events.subList(start, Math.min(start + WRITE_BATCH_SIZE, events.size()));
+                for (Event event : chunk) {
                     // Use the event's own name (do not fallback to bookingEventName).
                     String eventName = (event.getName() != null && !event.getName().isEmpty()) ? event.getName() : "";
                     psEvent.setString(1, eventName);
@@ -484,28 +1061,23 @@ public class SQLConnection implements SQLInterface {
                     psEvent.setString(11, event.getDescription());
                     psEvent.setString(12, event.getLayout());
                     psEvent.setDouble(13, maxDiscount);
-                    psEvent.executeUpdate();
+                    psEvent.addBatch();
                 }
-            }
-
-            // 4. Insert Contract details, linking to the new booking and client.
-            if (contractFile != null) {
-                try (PreparedStatement psContract = con.prepareStatement(insertContract)) {
-                    psContract.setString(1, contractDetails != null ? contractDetails : "N/A");
-                    psContract.setInt(2, clientId);
-                    psContract.setInt(3, bookingId);
-                    psContract.setBlob(4, new java.io.FileInputStream(contractFile));
-                    psContract.executeUpdate();
+                psEvent.executeBatch();
+                try (ResultSet keys = psEvent.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < chunk.size()) {
+                        int id = keys.getInt(1);
+                        chunk.get(i++).setId(id);
+                        generatedIds.add(id);
+                    }
+                    if (i != chunk.size()) {
+                        throw new SQLException("Expected " + chunk.size() + " generated event IDs but got " + i);
+                    }
                 }
             }
-
-            con.commit();
-            notifyUpdateListeners("fullBookingCreated", null);
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
         }
+        return generatedIds;
     }
 
     /**
@@ -649,64 +1221,130 @@ public class SQLConnection implements SQLInterface {
      * </p>
      *
      * @param bookingId the booking ID used to filter event details
-     * @return a {@code ResultSet} containing event details, or {@code null} if an error occurs
+     * @return the booking's events; an empty list if there are none or an error occurs
      */
-    public ResultSet getEventDetails(int bookingId) {
+    public List<BookingEventRow> getEventDetails(int bookingId) {
         String query = "SELECT e.event_id, e.name, e.start_date, e.end_date, e.start_time, e.end_time, " +
                 "'N/A' AS event_type, v.venue_name " +
                 "FROM Event e " +
                 "JOIN Venue v ON e.venue_id = v.venue_id " +
                 "WHERE e.booking_id = ?";
-        try {
-            Connection con = getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return queryForList(query, BookingEventRow.MAPPER, bookingId);
     }
 
     /**
      * Retrieves client details for a given booking by joining the Booking and Clients tables.
      *
      * @param bookingId the booking ID used to find the client details
-     * @return a {@code ResultSet} containing client details, or {@code null} if an error occurs
+     * @return the client details, or an empty {@code Optional} if not found or an error occurs
      */
-    public ResultSet getClientDetails(int bookingId) {
+    public Optional<ClientDetailsRow> getClientDetails(int bookingId) {
         String query = "SELECT c.`Company Name`, c.`Contact Name`, c.`Phone Number`, c.`Contact Email`, " +
                 "c.`Customer Account Number`, c.`Customer Sort Code` " +
                 "FROM Clients c " +
                 "JOIN Booking b ON c.client_id = b.client_id " +
                 "WHERE b.booking_id = ?";
-        try {
-            Connection con = getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
+        return queryForObject(query, ClientDetailsRow.MAPPER, bookingId);
+    }
+
+    /**
+     * Retrieves contract metadata for the specified booking.
+     * <p>
+     * Only the size of the document is selected; use {@link #downloadContract} to fetch the document itself.
+     * </p>
+     *
+     * @param bookingId the booking ID for which the contract details are retrieved
+     * @return the contract, or an empty {@code Optional} if none exists or an error occurs
+     */
+    public Optional<ContractRow> getContractDetails(int bookingId) {
+        String query = "SELECT contract_id, details, COALESCE(OCTET_LENGTH(file_data), 0) AS file_size " +
+                "FROM Contract WHERE booking_id = ?";
+        return queryForObject(query, ContractRow.MAPPER, bookingId);
+    }
+
+    /**
+     * Streams a contract document straight to a local file.
+     * <p>
+     * On MySQL the driver is asked for a streaming result so the document is copied through a bounded buffer
+     * rather than materialised as one byte array. The embedded database already reads large objects lazily
+     * through the binary stream.
+     * </p>
+     *
+     * @param contractId the contract ID
+     * @param target     the file to write; created or truncated
+     * @param listener   receives progress after each chunk; may be {@code null}
+     * @return the number of bytes written, or {@code -1} if the contract has no document or an error occurs
+     */
+    public long downloadContract(int contractId, Path target, ContractTransfer.ProgressListener listener) {
+        String query = "SELECT file_data, OCTET_LENGTH(file_data) AS file_size FROM Contract WHERE contract_id = ?";
+        try (Connection con = getConnection();
+             PreparedStatement ps = con.prepareStatement(query)) {
+            ps.setInt(1, contractId);
+            if (getConfig().getProfile() == DatabaseConfig.Profile.MYSQL) {
+                // Connector/J streams rows one at a time with this fetch size instead of buffering the result;
+                // other drivers reject it.
+                ps.setFetchSize(Integer.MIN_VALUE);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                long size = rs.getLong("file_size");
+                try (InputStream in = rs.getBinaryStream("file_data")) {
+                    if (in == null) {
+                        return -1;
+                    }
+                    return ContractTransfer.copyToFile(in, target, size, listener);
+                }
+            }
+        } catch (SQLException | IOException ex) {
             ex.printStackTrace();
-            return null;
+            return -1;
         }
     }
 
     /**
-     * Retrieves contract details for the specified booking.
+     * Uploads a new contract document for a booking, replacing any existing one.
+     * <p>
+     * The file is streamed to the database with the {@link ContractTransfer#MAX_CONTRACT_BYTES} limit and
+     * progress reported to {@code listener}. If the booking has no contract row yet, one is created.
+     * </p>
      *
-     * @param bookingId the booking ID for which the contract details are retrieved
-     * @return a {@code ResultSet} containing contract_id, details, and file_data, or {@code null} if an error occurs
+     * @param bookingId the booking ID
+     * @param file      the document to upload
+     * @param details   the contract details text, or {@code null} to keep the current text
+     * @param listener  receives progress as the file is read; may be {@code null}
+     * @return {@code true} if the document was stored; {@code false} otherwise
      */
-    public ResultSet getContractDetails(int bookingId) {
-        String query = "SELECT contract_id, details, file_data FROM Contract WHERE booking_id = ?";
-        try {
-            Connection con = getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
+    public boolean uploadContract(int bookingId, File file, String details, ContractTransfer.ProgressListener listener) {
+        String update = "UPDATE Contract SET details = COALESCE(?, details), file_data = ? WHERE booking_id = ?";
+        String insert = "INSERT INTO Contract (details, client_id, booking_id, file_data) " +
+                "SELECT ?, client_id, booking_id, ? FROM Booking WHERE booking_id = ?";
+        try (Connection con = getConnection()) {
+            int rows;
+            try (PreparedStatement ps = con.prepareStatement(update);
+                 InputStream in = ContractTransfer.openUpload(file, listener)) {
+                ps.setString(1, details);
+                ps.setBlob(2, in, file.length());
+                ps.setInt(3, bookingId);
+                rows = ps.executeUpdate();
+            }
+            if (rows == 0) {
+                try (PreparedStatement ps = con.prepareStatement(insert);
+                     InputStream in = ContractTransfer.openUpload(file, listener)) {
+                    ps.setString(1, details != null ? details : "N/A");
+                    ps.setBlob(2, in, file.length());
+                    ps.setInt(3, bookingId);
+                    rows = ps.executeUpdate();
+                }
+            }
+            if (rows > 0) {
+                publish(new DatabaseEvent.BookingUpdated(bookingId));
+            }
+            return rows > 0;
+        } catch (SQLException | IOException ex) {
             ex.printStackTrace();
-            return null;
+            return false;
         }
     }
 
@@ -714,132 +1352,201 @@ public class SQLConnection implements SQLInterface {
      * Retrieves event details for a given event ID for calendar view purposes.
      *
      * @param eventId the event ID used to filter the event details
-     * @return a {@code ResultSet} containing event details, or {@code null} if an error occurs
+     * @return the event details, or an empty {@code Optional} if not found or an error occurs
      */
-    public ResultSet getEventDetailsByEventId(int eventId) {
+    public Optional<EventDetailsRow> getEventDetailsByEventId(int eventId) {
         String query = "SELECT e.event_id, e.name, e.start_date, e.end_date, e.start_time, e.end_time, " +
                 "e.`event_type`, e.description, e.booked_by, v.venue_name " +
                 "FROM Event e " +
                 "LEFT JOIN Venue v ON e.venue_id = v.venue_id " +
                 "WHERE e.event_id = ?";
-        try {
-            Connection con = getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, eventId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return queryForObject(query, EventDetailsRow.MAPPER, eventId);
     }
 
     /**
      * Retrieves booking details for the given booking ID.
      *
      * @param bookingId the booking ID used to retrieve booking details
-     * @return a {@code ResultSet} containing booking details, or {@code null} if an error occurs
+     * @return the booking details, or an empty {@code Optional} if not found or an error occurs
      */
-    public ResultSet getBookingDetails(int bookingId) {
+    public Optional<BookingDetailsRow> getBookingDetails(int bookingId) {
         String query = "SELECT b.booking_DateStart, b.booking_DateEnd, b.booking_status, b.total_cost, b.payment_status, " +
                 "b.client_id, c.`Company Name` AS company_name " +
                 "FROM Booking b " +
                 "JOIN Clients c ON b.client_id = c.client_id " +
                 "WHERE b.booking_id = ?";
-        try {
-            Connection con = getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return queryForObject(query, BookingDetailsRow.MAPPER, bookingId);
     }
 
     /**
-     * Retrieves film event details and computes available free time intervals for each venue on the given date.
+     * Describes the free time of every venue on the given date, within the standard opening hours
+     * ({@link AvailabilityEngine#OPENING} to {@link AvailabilityEngine#CLOSING}).
      * <p>
-     * The method groups film events by venue and calculates the free time intervals (based on fixed operating hours, 08:00 to 22:00)
-     * by subtracting the booked intervals.
+     * The free time is read off the venues' occupancy bitmaps by {@link #getAvailability()}, so every event
+     * holding a venue counts, not only films, and venues with no events that day are listed as free all day.
      * </p>
      *
-     * @param date the date for which the film event availability is calculated
-     * @return a {@code Map} where each key is a venue (location) and the value is a {@code String} describing the free time intervals
+     * @param date the date for which the availability is calculated
+     * @return a {@code Map} where each key is a venue name and the value describes its free time as
+     *         {@code "HH:mm to HH:mm"} intervals joined by commas; empty if a venue is booked all day
      */
     public Map<String, String> getFilmEventDetailsWithAvailability(LocalDate date) {
-        Map<String, List<Interval>> bookedSlotsByVenue = new HashMap<>();
-        Map<String, String> freeTimeByVenue = new HashMap<>();
-        String query = "SELECT location, start_time, end_time FROM Event " +
-                "WHERE event_type = 'Film' AND start_date = ?";
-        try (Connection con = getConnection();
-             PreparedStatement ps = con.prepareStatement(query)) {
-            ps.setDate(1, java.sql.Date.valueOf(date));
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()){
-                String venue = rs.getString("location");
-                java.sql.Time sqlStartTime = rs.getTime("start_time");
-                java.sql.Time sqlEndTime = rs.getTime("end_time");
-                LocalTime startTime = sqlStartTime.toLocalTime();
-                LocalTime endTime = sqlEndTime.toLocalTime();
-                bookedSlotsByVenue.computeIfAbsent(venue, k -> new ArrayList<>())
-                        .add(new Interval(startTime, endTime));
-            }
-            rs.close();
+        Map<String, String> freeTimeByVenue = new LinkedHashMap<>();
+        getAvailability().freeSlotsByVenue(date).forEach((venue, slots) ->
+                freeTimeByVenue.put(venue.venueName(), AvailabilityEngine.describe(slots)));
+        return freeTimeByVenue;
+    }
+
+    /**
+     * Loads the current column values of a booking and its Invoice, Clients, Event and Contract rows.
+     * <p>
+     * Screens that edit a booking keep the snapshot from when they opened it and pass it to
+     * {@code updateFullBooking(BookingSnapshot, ...)}, so a save only writes what the user changed.
+     * </p>
+     *
+     * @param bookingId the booking ID
+     * @return the snapshot, or {@code null} if the booking does not exist or an error occurs
+     */
+    public BookingSnapshot loadBookingSnapshot(int bookingId) {
+        try (Connection con = getConnection()) {
+            return loadBookingSnapshot(con, bookingId);
         } catch (SQLException ex) {
             ex.printStackTrace();
-            return freeTimeByVenue;
+            return null;
         }
-        // Assume operating hours for each venue: 08:00 to 22:00.
-        LocalTime operatingStart = LocalTime.of(8, 0);
-        LocalTime operatingEnd = LocalTime.of(22, 0);
-        // For each venue, compute free intervals.
-        for (Map.Entry<String, List<Interval>> entry : bookedSlotsByVenue.entrySet()) {
-            String venue = entry.getKey();
-            List<Interval> intervals = entry.getValue();
-            intervals.sort(Comparator.comparing(i -> i.start));
-            List<String> freeIntervals = new ArrayList<>();
-            LocalTime current = operatingStart;
-            for (Interval interval : intervals) {
-                if (current.isBefore(interval.start)) {
-                    freeIntervals.add(current + " to " + interval.start);
+    }
+
+    /**
+     * Loads a booking snapshot using the caller's connection.
+     */
+    private BookingSnapshot loadBookingSnapshot(Connection con, int bookingId) throws SQLException {
+        BookingSnapshot snapshot = new BookingSnapshot(bookingId);
+        String bookingQuery = "SELECT b.booking_DateStart, b.booking_DateEnd, b.booking_status, b.ticket_price, " +
+                "b.total_cost, b.payment_status, b.payment_due_date, b.staff_id, b.max_discount, " +
+                "i.date AS invoice_date, i.total AS invoice_total, " +
+                "c.`Company Name`, c.`Contact Name`, c.`Phone Number`, c.`Contact Email`, " +
+                "c.`Customer Account Number`, c.`Customer Sort Code`, c.`Payment Due Date`, " +
+                "c.`Street Address`, c.`City`, c.`Postcode` " +
+                "FROM Booking b " +
+                "JOIN Clients c ON b.client_id = c.client_id " +
+                "LEFT JOIN Invoice i ON i.booking_id = b.booking_id " +
+                "WHERE b.booking_id = ?";
+        try (PreparedStatement ps = con.prepareStatement(bookingQuery)) {
+            ps.setInt(1, bookingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Map<String, Object> booking = snapshot.booking();
+                booking.put("booking_DateStart", localDate(rs, "booking_DateStart"));
+                booking.put("booking_DateEnd", localDate(rs, "booking_DateEnd"));
+                booking.put("booking_status", rs.getString("booking_status"));
+                booking.put("ticket_price", rs.getObject("ticket_price") != null ? rs.getDouble("ticket_price") : null);
+                booking.put("total_cost", rs.getObject("total_cost") != null ? rs.getDouble("total_cost") : null);
+                booking.put("payment_status", rs.getString("payment_status"));
+                booking.put("payment_due_date", localDate(rs, "payment_due_date"));
+                booking.put("staff_id", rs.getObject("staff_id") != null ? rs.getInt("staff_id") : null);
+                booking.put("max_discount", rs.getObject("max_discount") != null ? rs.getDouble("max_discount") : null);
+
+                Map<String, Object> invoice = snapshot.invoice();
+                invoice.put("date", localDate(rs, "invoice_date"));
+                invoice.put("total", rs.getObject("invoice_total") != null ? rs.getDouble("invoice_total") : null);
+
+                Map<String, Object> client = snapshot.client();
+                for (String column : CLIENT_COLUMNS) {
+                    client.put(column, column.equals("Payment Due Date") ? localDate(rs, column) : rs.getString(column));
                 }
-                if (current.isBefore(interval.end)) {
-                    current = interval.end;
+            }
+        }
+
+        String eventQuery = "SELECT event_id, name, start_date, end_date, start_time, end_time, venue_id, " +
+                "location, description, layout, max_discount FROM Event WHERE booking_id = ?";
+        try (PreparedStatement ps = con.prepareStatement(eventQuery)) {
+            ps.setInt(1, bookingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> event = snapshot.putEvent(rs.getInt("event_id"));
+                    event.put("name", rs.getString("name"));
+                    event.put("start_date", localDate(rs, "start_date"));
+                    event.put("end_date", localDate(rs, "end_date"));
+                    event.put("start_time", localTime(rs, "start_time"));
+                    event.put("end_time", localTime(rs, "end_time"));
+                    event.put("venue_id", rs.getObject("venue_id") != null ? rs.getInt("venue_id") : null);
+                    event.put("location", rs.getString("location"));
+                    event.put("description", rs.getString("description"));
+                    event.put("layout", rs.getString("layout"));
+                    event.put("max_discount", rs.getObject("max_discount") != null ? rs.getDouble("max_discount") : null);
                 }
             }
-            if (current.isBefore(operatingEnd)) {
-                freeIntervals.add(current + " to " + operatingEnd);
+        }
+
+        try (PreparedStatement ps = con.prepareStatement("SELECT details FROM Contract WHERE booking_id = ?")) {
+            ps.setInt(1, bookingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    snapshot.contract().put("details", rs.getString("details"));
+                }
             }
-            freeTimeByVenue.put(venue, String.join(", ", freeIntervals));
         }
-        // Optionally, for venues without any film events, you could add full operating hours.
-        return freeTimeByVenue;
+        return snapshot;
     }
 
     /**
-     * A helper class to represent a time interval.
+     * Event columns that, when changed by {@code updateFullBooking}, move the event in its venue's timeline.
      */
-    private static class Interval {
-        LocalTime start;
-        LocalTime end;
+    private static final Set<String> SCHEDULE_COLUMNS = Set.of(
+            "start_date", "end_date", "start_time", "end_time", "venue_id");
 
-        /**
-         * Constructs an {@code Interval} with a start and end time.
-         *
-         * @param start the start time of the interval
-         * @param end   the end time of the interval
-         */
-        Interval(LocalTime start, LocalTime end) {
-            this.start = start;
-            this.end = end;
-        }
+    /**
+     * The {@link #SCHEDULE_COLUMNS} values of an edited event, {@code null} for those to keep.
+     */
+    private static Map<String, Object> scheduleValues(Event event) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("start_date", event.getStartDate());
+        values.put("end_date", event.getEndDate());
+        values.put("start_time", event.getStartTime());
+        values.put("end_time", event.getEndTime());
+        values.put("venue_id", (event.getVenue() != null && event.getVenue().getVenueId() != 0)
+                ? event.getVenue().getVenueId() : null);
+        return values;
+    }
+
+    /**
+     * Tells whether saving an edited event through {@code updateFullBooking} would move it to another venue or
+     * other times. A moved event that overlaps another event in its venue is refused by the save; an event left
+     * where it is is saved even if it already overlaps one.
+     *
+     * @param snapshot the booking as loaded for editing
+     * @param event    the edited event
+     * @return true if the event's venue, dates or times differ from the snapshot
+     */
+    public static boolean movesEvent(BookingSnapshot snapshot, Event event) {
+        return !BookingSnapshot.changes(snapshot.event(event.getId()), scheduleValues(event)).isEmpty();
+    }
+
+    /**
+     * Client columns compared and updated by {@code updateFullBooking}, in bind order.
+     */
+    private static final String[] CLIENT_COLUMNS = {
+            "Company Name", "Contact Name", "Phone Number", "Contact Email", "Customer Account Number",
+            "Customer Sort Code", "Payment Due Date", "Street Address", "City", "Postcode"
+    };
+
+    private static LocalDate localDate(ResultSet rs, String column) throws SQLException {
+        java.sql.Date date = rs.getDate(column);
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static LocalTime localTime(ResultSet rs, String column) throws SQLException {
+        java.sql.Time time = rs.getTime(column);
+        return time != null ? time.toLocalTime() : null;
     }
 
     /**
      * Updates a full booking and its associated records such as booking, invoice, client, events, and contract.
      * <p>
-     * This method uses COALESCE in the update queries so that if a passed parameter is {@code null},
-     * the current value in the database remains unchanged.
+     * The current values are loaded first and only the changed columns are written; see
+     * the {@code BookingSnapshot} overload for details. A {@code null} parameter keeps the current value.
      * </p>
      *
      * @param bookingId         the ID of the booking to update (as a {@code String})
@@ -890,140 +1597,233 @@ public class SQLConnection implements SQLInterface {
                                      File contractFile,
                                      Double maxDiscount,
                                      Integer staffId) {
-        // Use COALESCE so that if the passed parameter is null, the current value remains.
-        String updateBooking = "UPDATE Booking SET " +
-                "booking_DateStart = COALESCE(?, booking_DateStart), " +
-                "booking_DateEnd = COALESCE(?, booking_DateEnd), " +
-                "booking_status = COALESCE(?, booking_status), " +
-                "ticket_price = COALESCE(?, ticket_price), " +
-                "total_cost = COALESCE(?, total_cost), " +
-                "payment_status = COALESCE(?, payment_status), " +
-                "payment_due_date = COALESCE(?, payment_due_date), " +
-                "staff_id = COALESCE(?, staff_id), " +
-                "max_discount = COALESCE(?, max_discount) " +
-                "WHERE booking_id = ?";
-
-        String updateInvoice = "UPDATE Invoice SET " +
-                "date = COALESCE(?, date), " +
-                "total = COALESCE(?, total) " +
-                "WHERE booking_id = ?";
-
-        String updateClient = "UPDATE Clients SET " +
-                "`Company Name` = COALESCE(?, `Company Name`), " +
-                "`Contact Name` = COALESCE(?, `Contact Name`), " +
-                "`Phone Number` = COALESCE(?, `Phone Number`), " +
-                "`Contact Email` = COALESCE(?, `Contact Email`), " +
-                "`Customer Account Number` = COALESCE(?, `Customer Account Number`), " +
-                "`Customer Sort Code` = COALESCE(?, `Customer Sort Code`), " +
-                "`Payment Due Date` = COALESCE(?, `Payment Due Date`), " +
-                "`Street Address` = COALESCE(?, `Street Address`), " +
-                "`City` = COALESCE(?, `City`), " +
-                "`Postcode` = COALESCE(?, `Postcode`) " +
-                "WHERE client_id = (SELECT client_id FROM Booking WHERE booking_id = ?)";
-
-        // NOTE: Removed event_type update.
-        String updateEvent = "UPDATE Event SET " +
-                "name = COALESCE(?, name), " +
-                "start_date = COALESCE(?, start_date), " +
-                "end_date = COALESCE(?, end_date), " +
-                "start_time = COALESCE(?, start_time), " +
-                "end_time = COALESCE(?, end_time), " +
-                "venue_id = COALESCE(?, venue_id), " +
-                "location = COALESCE(?, location), " +
-                "description = COALESCE(?, description), " +
-                "layout = COALESCE(?, layout), " +
-                "max_discount = COALESCE(?, max_discount) " +
-                "WHERE event_id = ?";
-
-        String updateContract = "UPDATE Contract SET " +
-                "details = COALESCE(?, details), " +
-                "file_data = COALESCE(?, file_data) " +
-                "WHERE booking_id = ?";
+        return updateFullBooking(null, bookingId, bookingEventName, bookingStartDate, bookingEndDate, bookingStatus,
+                companyName, primaryContact, telephone, email, events, customerBillTotal, ticketPrice,
+                customerAccount, customerSortCode, streetAddress, city, postcode, paymentDueDate, paymentStatus,
+                contractDetails, contractFile, maxDiscount, staffId);
+    }
+
+    /**
+     * Updates a full booking, writing only the rows and columns that differ from {@code original}.
+     * <p>
+     * Each table gets at most one {@code UPDATE}, listing just its changed columns; tables with no changes are
+     * skipped entirely. Each changed event is updated in just its changed columns, and events with the same changed
+     * columns are sent together as one JDBC batch. A {@code null} parameter, or a {@code null} event field, keeps
+     * the current value. If nothing changed, no statement is sent at all. If the booking or its events changed, the
+     * booking's {@link CalendarEntries calendar entries} are rewritten in the same transaction. On success
+     * {@code original} is updated to the saved values so it can be reused for the next save.
+     * </p>
+     *
+     * @param original          the booking as loaded for editing, or {@code null} to load it inside the transaction
+     * @param bookingId         the ID of the booking to update (as a {@code String})
+     * @param bookingEventName  the new booking event name (not used; each event has its own name)
+     * @param bookingStartDate  the new booking start date
+     * @param bookingEndDate    the new booking end date
+     * @param bookingStatus     the new booking status
+     * @param companyName       the new company name for the client
+     * @param primaryContact    the new primary contact name
+     * @param telephone         the new telephone number
+     * @param email             the new email address
+     * @param events            the list of {@code Event} objects to update
+     * @param customerBillTotal the new customer bill total
+     * @param ticketPrice       the new ticket price
+     * @param customerAccount   the new customer account number
+     * @param customerSortCode  the new customer sort code
+     * @param streetAddress     the new street address
+     * @param city              the new city
+     * @param postcode          the new postcode
+     * @param paymentDueDate    the new payment due date
+     * @param paymentStatus     the new payment status
+     * @param contractDetails   the new contract details
+     * @param contractFile      the new contract {@code File} (or {@code null} if not updated)
+     * @param maxDiscount       the new maximum discount
+     * @param staffId           the new staff ID
+     * @return {@code true} if the update is successful or there was nothing to change; {@code false} otherwise
+     */
+    public boolean updateFullBooking(BookingSnapshot original,
+                                     String bookingId,
+                                     String bookingEventName,
+                                     LocalDate bookingStartDate,
+                                     LocalDate bookingEndDate,
+                                     String bookingStatus,
+                                     String companyName,
+                                     String primaryContact,
+                                     String telephone,
+                                     String email,
+                                     List<Event> events,
+                                     double customerBillTotal,
+                                     Double ticketPrice,
+                                     String customerAccount,
+                                     String customerSortCode,
+                                     String streetAddress,
+                                     String city,
+                                     String postcode,
+                                     LocalDate paymentDueDate,
+                                     String paymentStatus,
+                                     String contractDetails,
+                                     File contractFile,
+                                     Double maxDiscount,
+                                     Integer staffId) {
+        int id = Integer.parseInt(bookingId);
+
+        // Desired values; null means "keep the current value".
+        Map<String, Object> bookingValues = new LinkedHashMap<>();
+        bookingValues.put("booking_DateStart", bookingStartDate);
+        bookingValues.put("booking_DateEnd", bookingEndDate);
+        bookingValues.put("booking_status", bookingStatus);
+        bookingValues.put("ticket_price", ticketPrice);
+        bookingValues.put("total_cost", customerBillTotal);
+        bookingValues.put("payment_status", paymentStatus);
+        bookingValues.put("payment_due_date", paymentDueDate);
+        bookingValues.put("staff_id", staffId);
+        bookingValues.put("max_discount", maxDiscount);
+
+        Map<String, Object> invoiceValues = new LinkedHashMap<>();
+        invoiceValues.put("date", bookingStartDate);
+        invoiceValues.put("total", customerBillTotal);
+
+        Object[] clientParams = {companyName, primaryContact, telephone, email, customerAccount,
+                customerSortCode, paymentDueDate, streetAddress, city, postcode};
+        Map<String, Object> clientValues = new LinkedHashMap<>();
+        for (int i = 0; i < CLIENT_COLUMNS.length; i++) {
+            clientValues.put(CLIENT_COLUMNS[i], clientParams[i]);
+        }
+
+        Map<String, Object> contractValues = new LinkedHashMap<>();
+        contractValues.put("details", contractDetails);
 
         Connection con = null;
         try {
             con = getConnection();
             con.setAutoCommit(false);
+            BookingSnapshot snapshot = original != null ? original : loadBookingSnapshot(con, id);
+            if (snapshot == null) {
+                System.out.println("Booking " + bookingId + " not found.");
+                con.rollback();
+                return false;
+            }
 
-            // 1. Update Booking record.
-            try (PreparedStatement psBooking = con.prepareStatement(updateBooking)) {
-                psBooking.setDate(1, (bookingStartDate != null) ? java.sql.Date.valueOf(bookingStartDate) : null);
-                psBooking.setDate(2, (bookingEndDate != null) ? java.sql.Date.valueOf(bookingEndDate) : null);
-                psBooking.setString(3, bookingStatus);
-                psBooking.setObject(4, ticketPrice, java.sql.Types.DOUBLE);
-                psBooking.setDouble(5, customerBillTotal);
-                psBooking.setString(6, paymentStatus);
-                psBooking.setDate(7, (paymentDueDate != null) ? java.sql.Date.valueOf(paymentDueDate) : null);
-                psBooking.setObject(8, staffId, java.sql.Types.INTEGER);
-                psBooking.setObject(9, maxDiscount, java.sql.Types.DOUBLE);
-                psBooking.setInt(10, Integer.parseInt(bookingId));
-                psBooking.executeUpdate();
+            Map<String, Object> bookingChanges = BookingSnapshot.changes(snapshot.booking(), bookingValues);
+            Map<String, Object> invoiceChanges = BookingSnapshot.changes(snapshot.invoice(), invoiceValues);
+            Map<String, Object> clientChanges = BookingSnapshot.changes(snapshot.client(), clientValues);
+            Map<String, Object> contractChanges = BookingSnapshot.changes(snapshot.contract(), contractValues);
+
+            // NOTE: event_type is never updated.
+            Map<Integer, Map<String, Object>> eventValues = new LinkedHashMap<>();
+            List<Integer> movedIds = new ArrayList<>();
+            for (Event event : events) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("name", event.getName());
+                values.putAll(scheduleValues(event));
+                values.put("location", event.getRoom());
+                values.put("description", event.getDescription());
+                values.put("layout", event.getLayout());
+                values.put("max_discount", maxDiscount);
+                Map<String, Object> changed = BookingSnapshot.changes(snapshot.event(event.getId()), values);
+                if (!changed.isEmpty()) {
+                    eventValues.put(event.getId(), changed);
+                }
+                if (!Collections.disjoint(changed.keySet(), SCHEDULE_COLUMNS)) {
+                    movedIds.add(event.getId());
+                }
             }
 
-            // 2. Update Invoice record.
-            try (PreparedStatement psInvoice = con.prepareStatement(updateInvoice)) {
-                psInvoice.setDate(1, (bookingStartDate != null) ? java.sql.Date.valueOf(bookingStartDate) : null);
-                psInvoice.setDouble(2, customerBillTotal);
-                psInvoice.setInt(3, Integer.parseInt(bookingId));
-                psInvoice.executeUpdate();
+            if (bookingChanges.isEmpty() && invoiceChanges.isEmpty() && clientChanges.isEmpty()
+                    && contractChanges.isEmpty() && eventValues.isEmpty() && contractFile == null) {
+                con.rollback();
+                System.out.println("Booking " + bookingId + " has no changes to save.");
+                return true;
             }
 
-            // 3. Update Client record.
-            try (PreparedStatement psClient = con.prepareStatement(updateClient)) {
-                psClient.setString(1, companyName);
-                psClient.setString(2, primaryContact);
-                psClient.setString(3, telephone);
-                psClient.setString(4, email);
-                psClient.setString(5, customerAccount);
-                psClient.setString(6, customerSortCode);
-                psClient.setDate(7, (paymentDueDate != null) ? java.sql.Date.valueOf(paymentDueDate) : null);
-                psClient.setString(8, streetAddress);
-                psClient.setString(9, city);
-                psClient.setString(10, postcode);
-                psClient.setInt(11, Integer.parseInt(bookingId));
-                psClient.executeUpdate();
+            // Events moved to other times or venues must not land on another event.
+            List<OccupancyRow> movedFrom = RoomOccupancyIndex.readEvents(con, movedIds);
+            List<OccupancyRow> movedTo = new ArrayList<>(movedFrom.size());
+            for (OccupancyRow current : movedFrom) {
+                Map<String, Object> values = eventValues.get(current.eventId());
+                movedTo.add(new OccupancyRow(current.eventId(),
+                        values.get("venue_id") != null ? (Integer) values.get("venue_id") : current.venueId(),
+                        values.get("name") != null ? (String) values.get("name") : current.name(),
+                        values.get("start_date") != null ? (LocalDate) values.get("start_date") : current.startDate(),
+                        values.get("start_time") != null ? (LocalTime) values.get("start_time") : current.startTime(),
+                        values.get("end_date") != null ? (LocalDate) values.get("end_date") : current.endDate(),
+                        values.get("end_time") != null ? (LocalTime) values.get("end_time") : current.endTime()));
+            }
+            getRoomOccupancy().recheck(con, movedTo);
+
+            // 1-3. Booking, Invoice and Client rows: only the changed columns.
+            updateColumns(con, "Booking", bookingChanges, "booking_id = ?", id);
+            updateColumns(con, "Invoice", invoiceChanges, "booking_id = ?", id);
+            updateColumns(con, "Clients", clientChanges,
+                    "client_id = (SELECT client_id FROM Booking WHERE booking_id = ?)", id);
+            if (bookingChanges.isEmpty() && !clientChanges.isEmpty()) {
+                // The bookings list shows the client's name, so move the booking's change watermark too.
+                try (PreparedStatement psTouch = con.prepareStatement(
+                        "UPDATE Booking SET updated_at = CURRENT_TIMESTAMP(3) WHERE booking_id = ?")) {
+                    psTouch.setInt(1, id);
+                    psTouch.executeUpdate();
+                }
             }
 
-            // 4. Update each Event record.
-            for (Event event : events) {
-                try (PreparedStatement psEvent = con.prepareStatement(updateEvent)) {
-                    psEvent.setString(1, event.getName());
-                    psEvent.setDate(2, (event.getStartDate() != null) ? java.sql.Date.valueOf(event.getStartDate()) : null);
-                    psEvent.setDate(3, (event.getEndDate() != null) ? java.sql.Date.valueOf(event.getEndDate()) : null);
-                    psEvent.setTime(4, (event.getStartTime() != null) ? java.sql.Time.valueOf(event.getStartTime()) : null);
-                    psEvent.setTime(5, (event.getEndTime() != null) ? java.sql.Time.valueOf(event.getEndTime()) : null);
-                    // Skipping event_type update.
-                    Integer venueId = (event.getVenue() != null && event.getVenue().getVenueId() != 0)
-                            ? event.getVenue().getVenueId() : null;
-                    psEvent.setObject(6, venueId, java.sql.Types.INTEGER);
-                    psEvent.setString(7, event.getRoom());
-                    psEvent.setString(8, event.getDescription());
-                    psEvent.setString(9, event.getLayout());
-                    psEvent.setObject(10, maxDiscount, java.sql.Types.DOUBLE);
-                    psEvent.setInt(11, event.getId());
-                    psEvent.executeUpdate();
+            // 4. Changed events: only their changed columns, one batch per set of changed columns.
+            Map<List<String>, List<Integer>> eventsByColumns = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Map<String, Object>> entry : eventValues.entrySet()) {
+                eventsByColumns.computeIfAbsent(List.copyOf(entry.getValue().keySet()), columns -> new ArrayList<>())
+                        .add(entry.getKey());
+            }
+            for (Map.Entry<List<String>, List<Integer>> group : eventsByColumns.entrySet()) {
+                StringJoiner set = new StringJoiner(", ");
+                for (String column : group.getKey()) {
+                    set.add("`" + column + "` = ?");
+                }
+                try (PreparedStatement psEvent = con.prepareStatement(
+                        "UPDATE Event SET " + set + " WHERE event_id = ?")) {
+                    for (int eventId : group.getValue()) {
+                        List<Object> params = new ArrayList<>(eventValues.get(eventId).values());
+                        params.add(eventId);
+                        bindParameters(psEvent, params.toArray());
+                        psEvent.addBatch();
+                    }
+                    psEvent.executeBatch();
                 }
             }
 
-            // 5. Update Contract details.
+            // The calendar shows the booking's status and its events; copy them to its entries.
+            if (!bookingChanges.isEmpty() || !eventValues.isEmpty()) {
+                CalendarEntries.refreshBooking(con, id);
+            }
+
+            // 5. Contract: a new file is always written; otherwise only changed details.
             if (contractFile != null) {
-                try (PreparedStatement psContract = con.prepareStatement(updateContract)) {
-                    psContract.setString(1, contractDetails != null ? contractDetails : "N/A");
-                    psContract.setBlob(2, new java.io.FileInputStream(contractFile));
-                    psContract.setInt(3, Integer.parseInt(bookingId));
+                try (PreparedStatement psContract = con.prepareStatement(
+                        "UPDATE Contract SET details = COALESCE(?, details), file_data = ? WHERE booking_id = ?");
+                     InputStream in = ContractTransfer.openUpload(contractFile, null)) {
+                    psContract.setString(1, contractDetails);
+                    psContract.setBlob(2, in, contractFile.length());
+                    psContract.setInt(3, id);
                     psContract.executeUpdate();
                 }
             } else {
-                try (PreparedStatement psContract = con.prepareStatement("UPDATE Contract SET details = COALESCE(?, details) WHERE booking_id = ?")) {
-                    psContract.setString(1, contractDetails != null ? contractDetails : "N/A");
-                    psContract.setInt(2, Integer.parseInt(bookingId));
-                    psContract.executeUpdate();
-                }
+                updateColumns(con, "Contract", contractChanges, "booking_id = ?", id);
             }
 
             con.commit();
+            getRoomOccupancy().update(movedFrom, movedTo);
+
+            snapshot.booking().putAll(bookingChanges);
+            snapshot.invoice().putAll(invoiceChanges);
+            snapshot.client().putAll(clientChanges);
+            snapshot.contract().putAll(contractChanges);
+            for (Map.Entry<Integer, Map<String, Object>> entry : eventValues.entrySet()) {
+                Map<String, Object> stored = snapshot.putEvent(entry.getKey());
+                entry.getValue().forEach((column, value) -> {
+                    if (value != null) {
+                        stored.put(column, value);
+                    }
+                });
+            }
+
             System.out.println("Booking " + bookingId + " updated successfully.");
-            notifyUpdateListeners("bookingUpdated", bookingId);
+            publish(new DatabaseEvent.BookingUpdated(id));
             return true;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -1039,6 +1839,7 @@ public class SQLConnection implements SQLInterface {
             if (con != null) {
                 try {
                     con.setAutoCommit(true);
+                    con.close();
                 } catch (SQLException e) {
                     e.printStackTrace();
                 }
@@ -1046,6 +1847,34 @@ public class SQLConnection implements SQLInterface {
         }
     }
 
+    /**
+     * Runs {@code UPDATE table SET col = ?, ... WHERE where} for the given changed columns.
+     * Does nothing when there are no changes.
+     *
+     * @param con      the connection to use
+     * @param table    the table name
+     * @param changes  the changed columns and their new values (column names come from fixed lists, never user input)
+     * @param where    the WHERE clause, with one {@code ?} for {@code keyValue}
+     * @param keyValue the value bound to the WHERE placeholder
+     * @throws SQLException if the update fails
+     */
+    private static void updateColumns(Connection con, String table, Map<String, Object> changes,
+                                      String where, Object keyValue) throws SQLException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        StringJoiner set = new StringJoiner(", ");
+        for (String column : changes.keySet()) {
+            set.add("`" + column + "` = ?");
+        }
+        List<Object> params = new ArrayList<>(changes.values());
+        params.add(keyValue);
+        try (PreparedStatement ps = con.prepareStatement("UPDATE " + table + " SET " + set + " WHERE " + where)) {
+            bindParameters(ps, params.toArray());
+            ps.executeUpdate();
+        }
+    }
+
     /**
      * Deletes a full booking and its associated records from the database.
      * <p>
@@ -1053,6 +1882,8 @@ public class SQLConnection implements SQLInterface {
      * <ol>
      *   <li>Checks if the booking exists and has a "held" status</li>
      *   <li>Deletes the Contract, Invoice, Event, Booking, and Client records associated with the booking</li>
+     *   <li>Records the deleted Event and Booking rows in {@code DeletedRow}, for other clients' {@link ChangeFeed}</li>
+     *   <li>Removes the booking's {@link CalendarEntries calendar entries}</li>
      * </ol>
      *
      * @param bookingId the booking ID to delete
@@ -1096,7 +1927,16 @@ public class SQLConnection implements SQLInterface {
                 psInvoice.executeUpdate();
             }
 
-            // 4. Delete Event records.
+            // 4. Delete Event records, freeing their venues, and record them for other clients' change feeds.
+            List<OccupancyRow> freed = RoomOccupancyIndex.readBooking(con, bookingId);
+            try (PreparedStatement psDeleted = con.prepareStatement("INSERT INTO DeletedRow (table_name, row_id) "
+                    + "SELECT 'Event', event_id FROM Event WHERE booking_id = ? "
+                    + "UNION ALL SELECT 'Booking', booking_id FROM Booking WHERE booking_id = ?")) {
+                psDeleted.setInt(1, bookingId);
+                psDeleted.setInt(2, bookingId);
+                psDeleted.executeUpdate();
+            }
+            CalendarEntries.removeBooking(con, bookingId);
             try (PreparedStatement psEvent = con.prepareStatement("DELETE FROM Event WHERE booking_id = ?")) {
                 psEvent.setInt(1, bookingId);
                 psEvent.executeUpdate();
@@ -1115,7 +1955,9 @@ public class SQLConnection implements SQLInterface {
             }
 
             con.commit();
+            getRoomOccupancy().update(freed, List.of());
             System.out.println("Booking " + bookingId + " has been deleted.");
+            publish(new DatabaseEvent.BookingUpdated(bookingId));
             return true;
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -1131,6 +1973,7 @@ public class SQLConnection implements SQLInterface {
             if (con != null) {
                 try {
                     con.setAutoCommit(true);
+                    con.close();
                 } catch (SQLException e) {
                     e.printStackTrace();
                 }
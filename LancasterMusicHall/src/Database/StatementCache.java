@@ -0,0 +1,218 @@
+package Database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A least-recently-used cache of {@link PreparedStatement}s bound to one physical pooled connection.
+ * <p>
+ * Statements are keyed by their SQL text (plus the generated-keys flag, if one was requested). Calling
+ * {@code close()} on a statement handed out by the cache only returns it to the cache: parameters, batches, the
+ * fetch size and any open result set are reset, but the server-side statement stays prepared so the next caller
+ * with the same SQL skips the parse. When the cache is full the least recently used idle statement is really closed.
+ * </p>
+ * <p>
+ * A connection is only used by one borrower at a time, so this class is not thread-safe. Hit, miss and
+ * eviction counters are shared across every cache in a pool.
+ * </p>
+ */
+public class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * Idle and checked-out statements in access order; the eldest entry is the next eviction candidate.
+     */
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates a cache for the given physical connection.
+     *
+     * @param physical  the physical connection that prepares the statements
+     * @param maxSize   the maximum number of statements kept prepared; {@code 0} disables caching
+     * @param hits      counter incremented when a prepared statement is reused
+     * @param misses    counter incremented when a statement has to be prepared
+     * @param evictions counter incremented when a statement is closed to make room
+     */
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one when it is not already checked out.
+     *
+     * @param owner             the connection proxy returned by {@code getConnection()} on the statement
+     * @param sql               the SQL text
+     * @param autoGeneratedKeys the generated-keys flag, or {@code null} for plain {@code prepareStatement(sql)}
+     * @return a statement whose {@code close()} returns it to this cache
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(Connection owner, String sql, Integer autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + "#" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.checkedOut) {
+            hits.incrementAndGet();
+            return cached.checkOut(owner);
+        }
+        misses.incrementAndGet();
+        PreparedStatement ps = autoGeneratedKeys == null
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+        if (maxSize == 0 || cached != null) {
+            // Same SQL already in use on this connection (e.g. nested loops); hand out an uncached statement.
+            return ps;
+        }
+        CachedStatement entry = new CachedStatement(ps);
+        statements.put(key, entry);
+        evictIfFull();
+        return entry.checkOut(owner);
+    }
+
+    /**
+     * Returns every statement still checked out to the cache. Called when the connection goes back to the pool
+     * so a borrower that forgot to close a statement does not leave it unusable.
+     */
+    void returnAll() {
+        for (CachedStatement entry : statements.values()) {
+            if (entry.checkedOut) {
+                entry.checkIn();
+            }
+        }
+    }
+
+    /**
+     * Closes every cached statement. Called before the physical connection is closed.
+     */
+    void closeAll() {
+        for (CachedStatement entry : statements.values()) {
+            closeQuietly(entry.physical);
+        }
+        statements.clear();
+    }
+
+    private void evictIfFull() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (!eldest.checkedOut) {
+                it.remove();
+                closeQuietly(eldest.physical);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            System.out.println("Failed to close cached statement: " + e);
+        }
+    }
+
+    /**
+     * A physical prepared statement plus the proxy state of its current checkout.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement physical;
+        private final int defaultFetchSize;
+        private boolean checkedOut;
+        private StatementHandler handler;
+
+        CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.defaultFetchSize = physical.getFetchSize();
+        }
+
+        PreparedStatement checkOut(Connection owner) {
+            checkedOut = true;
+            handler = new StatementHandler(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+
+        void checkIn() {
+            if (handler != null) {
+                handler.closed = true;
+                handler = null;
+            }
+            checkedOut = false;
+            try {
+                ResultSet open = physical.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                physical.clearWarnings();
+                if (physical.getFetchSize() != defaultFetchSize) {
+                    physical.setFetchSize(defaultFetchSize);
+                }
+            } catch (SQLException e) {
+                System.out.println("Failed to reset cached statement: " + e);
+            }
+        }
+    }
+
+    /**
+     * Forwards calls to the physical statement, turning {@code close()} into a check-in.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final CachedStatement entry;
+        private final Connection owner;
+        private boolean closed;
+
+        StatementHandler(CachedStatement entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        entry.checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package Database;
+
+import operations.entities.Event;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Prices events in process instead of calling a pricing stored function per quote.
+ * <p>
+ * The tariffs themselves live in the database behind the {@code calculateMainHallCost},
+ * {@code calculateSmallHallCost}, {@code calculateRehearsalCost}, {@code calculateRoomCost} and
+ * {@code calculateVenueCost} stored functions. This engine keeps every tariff it has evaluated, keyed by the
+ * function and its exact arguments, so repeated quotes are answered from memory. Tariffs that are not cached
+ * yet are evaluated together in a single round trip, however many events are being priced.
+ * </p>
+ * <p>
+ * At most {@value #MAX_TARIFFS} tariffs are kept, the least recently used going first. Each is evaluated again
+ * ten minutes ({@link #TARIFF_TTL_MILLIS}) after it was, so a change to the rates behind the functions shows up
+ * in quotes within that time. On MySQL the cache is also tagged with the last time any of the pricing functions
+ * was altered; at most once per check interval the engine re-reads that version and drops every cached tariff
+ * if it has changed. {@link #invalidate()} clears the cache immediately. This class is thread-safe.
+ * </p>
+ */
+public class TariffEngine {
+
+    /** The pricing stored functions whose results are cached. */
+    private static final String[] FUNCTIONS = {
+            "calculateMainHallCost", "calculateSmallHallCost", "calculateRehearsalCost",
+            "calculateRoomCost", "calculateVenueCost"
+    };
+
+    /** Meeting rooms priced by {@code calculateRoomCost}. */
+    private static final Set<String> ROOMS = Set.of(
+            "The Green Room", "Brontë Boardroom", "Dickens Den", "Poe Parlor", "Globe Room", "Chekhov Chamber");
+
+    /** Hourly bookings are charged for at least this many hours. */
+    private static final int MIN_HOURLY_HOURS = 3;
+
+    /** Bookings starting at or after this hour use the evening rate. */
+    private static final int EVENING_START_HOUR = 17;
+
+    /** The most tariffs kept. */
+    static final int MAX_TARIFFS = 10_000;
+
+    /** How long an evaluated tariff is kept, in milliseconds. */
+    static final long TARIFF_TTL_MILLIS = 10 * 60_000;
+
+    /** Tariffs evaluated per query when filling the cache. */
+    private static final int RESOLVE_CHUNK_SIZE = 200;
+
+    private static final String VERSION_QUERY = "SELECT MAX(LAST_ALTERED) FROM information_schema.ROUTINES "
+            + "WHERE ROUTINE_SCHEMA = DATABASE() AND ROUTINE_NAME IN (?, ?, ?, ?, ?)";
+
+    private final SQLConnection sqlCon;
+    private final long versionCheckIntervalMillis;
+    private final ReadThroughCache<Tariff, Double> tariffs;
+
+    private Timestamp version;
+    private long lastVersionCheck;
+
+    /**
+     * A single stored function call: the function name and its arguments in order.
+     */
+    record Tariff(String function, List<Object> args) {
+    }
+
+    /**
+     * How one event is priced: the tariff to look up and how many times it is charged.
+     */
+    record Plan(Tariff tariff, int multiplier) {
+    }
+
+    /**
+     * Creates an engine that evaluates tariffs through the given connection.
+     *
+     * @param sqlCon                     the connection used to evaluate tariffs and check the version
+     * @param versionCheckIntervalMillis minimum time between version checks; {@code 0} checks on every quote;
+     *                                   negative never checks
+     */
+    public TariffEngine(SQLConnection sqlCon, long versionCheckIntervalMillis) {
+        this.sqlCon = sqlCon;
+        this.versionCheckIntervalMillis = versionCheckIntervalMillis;
+        this.tariffs = new ReadThroughCache<>("tariff", MAX_TARIFFS, TARIFF_TTL_MILLIS,
+                tariff -> evaluate(List.of(tariff)).get(tariff));
+    }
+
+    /**
+     * Prices one event.
+     *
+     * @param location  the location as shown in the booking forms (e.g. "Main_Hall", "Room Dickens Den")
+     * @param venueId   the venue ID of the location
+     * @param startDate the first day of the event
+     * @param endDate   the last day of the event
+     * @param startTime the daily start time
+     * @param endTime   the daily end time
+     * @return the price of the event
+     * @throws SQLException if a tariff that is not cached cannot be evaluated
+     */
+    public double quote(String location, int venueId, LocalDate startDate, LocalDate endDate,
+                        LocalTime startTime, LocalTime endTime) throws SQLException {
+        Plan plan = plan(location, venueId, startDate, endDate, startTime, endTime);
+        return price(plan, resolve(List.of(plan)));
+    }
+
+    /**
+     * Prices a list of events, evaluating every tariff that is not cached in one round trip.
+     * <p>
+     * Each event's location is taken from its venue name and its venue ID from the venue.
+     * </p>
+     *
+     * @param events the events to price
+     * @return the price of each event, in list order
+     * @throws SQLException if a tariff that is not cached cannot be evaluated
+     */
+    double[] quoteAll(List<Event> events) throws SQLException {
+        List<Plan> plans = new ArrayList<>(events.size());
+        for (Event event : events) {
+            plans.add(plan(event.getVenue().getVenueName(), event.getVenue().getVenueId(), event.getStartDate(),
+                    event.getEndDate(), event.getStartTime(), event.getEndTime()));
+        }
+        Map<Tariff, Double> values = resolve(plans);
+        double[] prices = new double[plans.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = price(plans.get(i), values);
+        }
+        return prices;
+    }
+
+    /**
+     * Drops every cached tariff.
+     */
+    public void invalidate() {
+        tariffs.invalidateAll();
+    }
+
+    /**
+     * @return the number of tariffs currently cached, including expired ones not yet evaluated again
+     */
+    public int size() {
+        return tariffs.size();
+    }
+
+    /**
+     * Works out which tariff prices an event and how many times it is charged, using the same rules the
+     * booking forms have always applied.
+     */
+    static Plan plan(String location, int venueId, LocalDate startDate, LocalDate endDate,
+                     LocalTime startTime, LocalTime endTime) {
+        long daysDiff = ChronoUnit.DAYS.between(startDate, endDate);
+        int totalDays = (daysDiff == 0) ? 1 : (int) daysDiff + 1;
+        int hours = (int) Math.max(Duration.between(startTime, endTime).toHours(), MIN_HOURLY_HOURS);
+        boolean evening = startTime.getHour() >= EVENING_START_HOUR;
+        String name = location.replace("Room ", "").trim();
+
+        switch (name) {
+            case "Main_Hall":
+            case "Small_Hall": {
+                String function = name.equals("Main_Hall") ? "calculateMainHallCost" : "calculateSmallHallCost";
+                if (totalDays == 1) {
+                    return evening
+                            ? plan(function, 1, startDate, "evening", 0)
+                            : plan(function, 1, startDate, "hourly", hours);
+                }
+                return plan(function, totalDays, startDate, "daily", 0);
+            }
+            case "Rehearsal_Space":
+                if (totalDays == 1) {
+                    return plan("calculateRehearsalCost", 1, startDate, "hourly", hours);
+                } else if (totalDays == 7) {
+                    return plan("calculateRehearsalCost", 1, startDate, "weekly_long", 0);
+                }
+                return plan("calculateRehearsalCost", totalDays, startDate, "daily_long", 0);
+            case "Venue":
+                if (totalDays == 1) {
+                    return new Plan(new Tariff("calculateVenueCost",
+                            List.of(startDate, evening ? "evening" : "full_day")), 1);
+                }
+                return new Plan(new Tariff("calculateVenueCost", List.of(startDate, "full_day")), totalDays);
+            default:
+                if (ROOMS.contains(name)) {
+                    long rawHours = Duration.between(startTime, endTime).toHours();
+                    if (totalDays == 1) {
+                        String duration = rawHours <= 1 ? "1 Hour" : rawHours <= 4 ? "Morning/Afternoon" : "All Day";
+                        return new Plan(new Tariff("calculateRoomCost", List.of(venueId, name, duration)), 1);
+                    } else if (totalDays == 7) {
+                        return new Plan(new Tariff("calculateRoomCost", List.of(venueId, name, "Week")), 1);
+                    }
+                    return new Plan(new Tariff("calculateRoomCost", List.of(venueId, name, "All Day")), totalDays);
+                }
+                // Unknown locations fall back to the main hall hourly rate.
+                return plan("calculateMainHallCost", 1, startDate, "hourly", hours);
+        }
+    }
+
+    private static Plan plan(String function, int multiplier, LocalDate date, String rateType, int hours) {
+        return new Plan(new Tariff(function, List.of(date, rateType, hours)), multiplier);
+    }
+
+    private static double price(Plan plan, Map<Tariff, Double> values) {
+        return values.getOrDefault(plan.tariff(), 0.0) * plan.multiplier();
+    }
+
+    /**
+     * Looks up every tariff needed by the given plans, evaluating the ones that are not cached on the server.
+     *
+     * @return the value of every tariff the plans need
+     */
+    private Map<Tariff, Double> resolve(List<Plan> plans) throws SQLException {
+        checkVersion();
+        Map<Tariff, Double> values = new HashMap<>();
+        Set<Tariff> missing = new LinkedHashSet<>();
+        for (Plan plan : plans) {
+            Optional<Double> cached = tariffs.getIfCached(plan.tariff());
+            if (cached.isPresent()) {
+                values.put(plan.tariff(), cached.get());
+            } else {
+                missing.add(plan.tariff());
+            }
+        }
+        if (!missing.isEmpty()) {
+            long invalidationsBefore = tariffs.getInvalidations();
+            Map<Tariff, Double> evaluated = evaluate(new ArrayList<>(missing));
+            tariffs.putAll(evaluated, invalidationsBefore);
+            values.putAll(evaluated);
+        }
+        return values;
+    }
+
+    /**
+     * Evaluates the given tariffs with one {@code SELECT f(...), g(...), ...} per chunk.
+     *
+     * @param calls the tariffs to evaluate
+     * @return the value of each tariff; SQL {@code NULL} results are stored as {@code 0.0}, matching the
+     *         {@code calculate*} methods on {@link SQLConnection}
+     * @throws SQLException if the query fails
+     */
+    Map<Tariff, Double> evaluate(List<Tariff> calls) throws SQLException {
+        Map<Tariff, Double> values = new HashMap<>();
+        try (Connection con = sqlCon.getConnection()) {
+            if (con == null) {
+                throw new SQLException("No database connection available");
+            }
+            for (int from = 0; from < calls.size(); from += RESOLVE_CHUNK_SIZE) {
+                List<Tariff> chunk = calls.subList(from, Math.min(from + RESOLVE_CHUNK_SIZE, calls.size()));
+                StringBuilder sql = new StringBuilder("SELECT ");
+                List<Object> params = new ArrayList<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    Tariff call = chunk.get(i);
+                    sql.append(i == 0 ? "" : ", ").append(call.function()).append('(');
+                    for (int a = 0; a < call.args().size(); a++) {
+                        sql.append(a == 0 ? "?" : ", ?");
+                    }
+                    sql.append(')');
+                    params.addAll(call.args());
+                }
+                try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < params.size(); i++) {
+                        Object value = params.get(i);
+                        ps.setObject(i + 1, value instanceof LocalDate ? java.sql.Date.valueOf((LocalDate) value) : value);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            for (int i = 0; i < chunk.size(); i++) {
+                                values.put(chunk.get(i), rs.getDouble(i + 1));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Clears the cache if any pricing function has been altered since the tariffs were evaluated.
+     */
+    private synchronized void checkVersion() {
+        if (versionCheckIntervalMillis < 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (lastVersionCheck != 0 && now - lastVersionCheck < versionCheckIntervalMillis) {
+            return;
+        }
+        lastVersionCheck = now;
+        Connection con = sqlCon.getConnection();
+        if (con == null) {
+            return; // Keep serving cached tariffs; the next check will try again.
+        }
+        try (con; PreparedStatement ps = con.prepareStatement(VERSION_QUERY)) {
+            for (int i = 0; i < FUNCTIONS.length; i++) {
+                ps.setString(i + 1, FUNCTIONS[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                Timestamp current = rs.next() ? rs.getTimestamp(1) : null;
+                if (!Objects.equals(current, version)) {
+                    tariffs.invalidateAll();
+                    version = current;
+                }
+            }
+        } catch (SQLException ex) {
+            // Keep serving cached tariffs; the next check will try again.
+            System.out.println("Tariff version check failed: " + ex);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package Database;
+
+import operations.entities.Event;
+import operations.entities.Venue;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code TariffParityTest} class is a test driver that checks the {@link TariffEngine} against the pricing
+ * stored functions.
+ * <p>
+ * Every location offered by the booking forms is priced over a range of dates, times and lengths, once through
+ * the engine and once the way the forms used to do it: one {@code calculate*Cost} stored function call per quote.
+ * Any difference is printed, and the process exits with status 1 if there was one.
+ * </p>
+ */
+public class TariffParityTest {
+
+    /** The locations offered by the booking forms, with the venue IDs the forms map them to. */
+    private static final Map<String, Integer> LOCATIONS = new LinkedHashMap<>();
+
+    static {
+        LOCATIONS.put("Venue", 1);
+        LOCATIONS.put("The Green Room", 2);
+        LOCATIONS.put("Room Brontë Boardroom", 3);
+        LOCATIONS.put("Room Dickens Den", 4);
+        LOCATIONS.put("Room Poe Parlor", 5);
+        LOCATIONS.put("Room Globe Room", 6);
+        LOCATIONS.put("Chekhov Chamber", 7);
+        LOCATIONS.put("Main_Hall", 8);
+        LOCATIONS.put("Small_Hall", 9);
+        LOCATIONS.put("Rehearsal_Space", 10);
+    }
+
+    /** Daily start and end times covering hourly, minimum-charge, room-duration and evening rates. */
+    private static final LocalTime[][] TIMES = {
+            {LocalTime.of(10, 0), LocalTime.of(11, 0)},
+            {LocalTime.of(10, 0), LocalTime.of(12, 0)},
+            {LocalTime.of(10, 0), LocalTime.of(14, 0)},
+            {LocalTime.of(10, 0), LocalTime.of(18, 0)},
+            {LocalTime.of(13, 0), LocalTime.of(23, 0)},
+            {LocalTime.of(17, 0), LocalTime.of(22, 0)},
+            {LocalTime.of(19, 30), LocalTime.of(23, 0)}
+    };
+
+    /** Event lengths in days, including the seven-day weekly rates. */
+    private static final int[] LENGTHS = {1, 2, 7, 10};
+
+    /** Days from the start date to check. */
+    private static final int DAYS = 14;
+
+    /**
+     * Constructs a new TariffParityTest instance.
+     */
+    public TariffParityTest() {
+    }
+
+    /**
+     * Runs the parity check.
+     *
+     * @param args optionally the first date to check, as {@code yyyy-MM-dd}; defaults to today
+     * @throws SQLException if the engine cannot evaluate its tariffs
+     */
+    public static void main(String[] args) throws SQLException {
+        SQLConnection sqlCon = new SQLConnection();
+        TariffEngine engine = new TariffEngine(sqlCon, 0);
+        LocalDate from = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now();
+
+        List<Event> events = new ArrayList<>();
+        for (int d = 0; d < DAYS; d++) {
+            LocalDate start = from.plusDays(d);
+            for (Map.Entry<String, Integer> location : LOCATIONS.entrySet()) {
+                for (LocalTime[] times : TIMES) {
+                    for (int length : LENGTHS) {
+                        Event event = new Event();
+                        event.setVenue(new Venue(location.getValue(), location.getKey(), location.getKey(),
+                                0, "N/A", false, false, 0.0));
+                        event.setStartDate(start);
+                        event.setEndDate(start.plusDays(length - 1));
+                        event.setStartTime(times[0]);
+                        event.setEndTime(times[1]);
+                        events.add(event);
+                    }
+                }
+            }
+        }
+
+        long engineStart = System.nanoTime();
+        double[] quoted = engine.quoteAll(events);
+        long engineMillis = (System.nanoTime() - engineStart) / 1_000_000;
+
+        long cachedStart = System.nanoTime();
+        engine.quoteAll(events);
+        long cachedMicros = (System.nanoTime() - cachedStart) / 1_000;
+
+        int mismatches = 0;
+        long legacyStart = System.nanoTime();
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            double expected = legacyQuote(sqlCon, event);
+            if (Double.compare(expected, quoted[i]) != 0) {
+                mismatches++;
+                System.out.printf("MISMATCH %s %s..%s %s-%s: stored functions %.2f, engine %.2f%n",
+                        event.getVenue().getVenueName(), event.getStartDate(), event.getEndDate(),
+                        event.getStartTime(), event.getEndTime(), expected, quoted[i]);
+            }
+        }
+        long legacyMillis = (System.nanoTime() - legacyStart) / 1_000_000;
+
+        System.out.println("=== Tariff parity ===");
+        System.out.println("Quotes checked:          " + events.size());
+        System.out.println("Distinct tariffs cached: " + engine.size());
+        System.out.println("Engine, cold cache:      " + engineMillis + " ms");
+        System.out.println("Engine, warm cache:      " + cachedMicros + " us");
+        System.out.println("Stored function per quote: " + legacyMillis + " ms");
+        System.out.println("Mismatches:              " + mismatches);
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    /**
+     * Prices an event the way the booking forms did before the tariff engine: one stored function call per quote.
+     */
+    private static double legacyQuote(SQLConnection sqlCon, Event event) {
+        LocalDate startDate = event.getStartDate();
+        LocalTime startTime = event.getStartTime();
+        long daysDiff = ChronoUnit.DAYS.between(startDate, event.getEndDate());
+        int totalDays = (daysDiff == 0) ? 1 : (int) daysDiff + 1;
+        long hours = Duration.between(startTime, event.getEndTime()).toHours();
+        String location = event.getVenue().getVenueName().replace("Room ", "").trim();
+        int venueId = event.getVenue().getVenueId();
+        Date sqlDate = Date.valueOf(startDate);
+
+        switch (location) {
+            case "Main_Hall":
+                if (totalDays == 1) {
+                    return startTime.getHour() >= 17
+                            ? sqlCon.calculateMainHallCost(sqlDate, "evening", 0)
+                            : sqlCon.calculateMainHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
+                }
+                return sqlCon.calculateMainHallCost(sqlDate, "daily", 0) * totalDays;
+            case "Small_Hall":
+                if (totalDays == 1) {
+                    return startTime.getHour() >= 17
+                            ? sqlCon.calculateSmallHallCost(sqlDate, "evening", 0)
+                            : sqlCon.calculateSmallHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
+                }
+                return sqlCon.calculateSmallHallCost(sqlDate, "daily", 0) * totalDays;
+            case "Rehearsal_Space":
+                if (totalDays == 1) {
+                    return sqlCon.calculateRehearsalCost(sqlDate, "hourly", (int) Math.max(hours, 3));
+                } else if (totalDays == 7) {
+                    return sqlCon.calculateRehearsalCost(sqlDate, "weekly_long", 0);
+                }
+                return sqlCon.calculateRehearsalCost(sqlDate, "daily_long", 0) * totalDays;
+            case "Venue":
+                if (totalDays == 1) {
+                    return startTime.getHour() >= 17
+                            ? sqlCon.calculateVenueCost(sqlDate, "evening")
+                            : sqlCon.calculateVenueCost(sqlDate, "full_day");
+                }
+                return sqlCon.calculateVenueCost(sqlDate, "full_day") * totalDays;
+            case "The Green Room":
+            case "Brontë Boardroom":
+            case "Dickens Den":
+            case "Poe Parlor":
+            case "Globe Room":
+            case "Chekhov Chamber":
+                if (totalDays == 1) {
+                    String duration = hours <= 1 ? "1 Hour" : hours <= 4 ? "Morning/Afternoon" : "All Day";
+                    return sqlCon.calculateRoomCost(venueId, location, duration);
+                } else if (totalDays == 7) {
+                    return sqlCon.calculateRoomCost(venueId, location, "Week");
+                }
+                return sqlCon.calculateRoomCost(venueId, location, "All Day") * totalDays;
+            default:
+                return sqlCon.calculateMainHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
+        }
+    }
+}
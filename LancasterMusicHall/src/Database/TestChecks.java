@@ -0,0 +1,46 @@
+package Database;
+
+/**
+ * The {@code TestChecks} class holds the pass/fail bookkeeping shared by the test drivers.
+ * <p>
+ * A driver calls {@link #check(String, boolean)} for each check, which prints {@code PASS} or {@code FAIL} and
+ * the check's name, and ends its {@code main} with {@link #finish()}, which prints the outcome and exits with
+ * status 1 if any check failed.
+ * </p>
+ */
+public final class TestChecks {
+
+    private static int failures;
+
+    private TestChecks() {
+    }
+
+    /**
+     * Records one check.
+     *
+     * @param name   what was checked
+     * @param passed whether the check passed
+     */
+    public static synchronized void check(String name, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    /**
+     * @return the number of checks that have failed so far
+     */
+    public static synchronized int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Prints whether every check passed and exits, with status 1 if any failed.
+     */
+    public static void finish() {
+        int failed = getFailures();
+        System.out.println(failed == 0 ? "All checks passed." : failed + " check(s) failed.");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,33 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalDate;
+
+/**
+ * A booking joined with the company name of its client.
+ *
+ * @param startDate     the booking start date
+ * @param endDate       the booking end date
+ * @param status        the booking status ("confirmed" or "held")
+ * @param totalCost     the total cost of the booking
+ * @param paymentStatus the payment status
+ * @param clientId      the client ID
+ * @param companyName   the client company name
+ */
+public record BookingDetailsRow(LocalDate startDate, LocalDate endDate, String status, double totalCost,
+                                String paymentStatus, int clientId, String companyName) {
+
+    /**
+     * Maps {@code booking_DateStart, booking_DateEnd, booking_status, total_cost, payment_status,
+     * client_id, company_name}.
+     */
+    public static final RowMapper<BookingDetailsRow> MAPPER = rs -> new BookingDetailsRow(
+            Rows.localDate(rs, "booking_DateStart"),
+            Rows.localDate(rs, "booking_DateEnd"),
+            rs.getString("booking_status"),
+            rs.getDouble("total_cost"),
+            rs.getString("payment_status"),
+            rs.getInt("client_id"),
+            rs.getString("company_name"));
+}
@@ -0,0 +1,35 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One event of a booking joined with its venue name, as listed on the booking detail screen.
+ *
+ * @param eventId   the event ID
+ * @param name      the event name
+ * @param startDate the start date
+ * @param endDate   the end date
+ * @param startTime the start time
+ * @param endTime   the end time
+ * @param eventType the event type
+ * @param venueName the venue name
+ */
+public record BookingEventRow(int eventId, String name, LocalDate startDate, LocalDate endDate,
+                              LocalTime startTime, LocalTime endTime, String eventType, String venueName) {
+
+    /**
+     * Maps {@code event_id, name, start_date, end_date, start_time, end_time, event_type, venue_name}.
+     */
+    public static final RowMapper<BookingEventRow> MAPPER = rs -> new BookingEventRow(
+            rs.getInt("event_id"),
+            rs.getString("name"),
+            Rows.localDate(rs, "start_date"),
+            Rows.localDate(rs, "end_date"),
+            Rows.localTime(rs, "start_time"),
+            Rows.localTime(rs, "end_time"),
+            rs.getString("event_type"),
+            rs.getString("venue_name"));
+}
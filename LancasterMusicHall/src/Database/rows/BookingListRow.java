@@ -0,0 +1,28 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalDate;
+
+/**
+ * One line of the bookings list: a booking and the company name of its client.
+ *
+ * @param bookingId   the booking ID
+ * @param clientName  the client company name
+ * @param startDate   the booking start date
+ * @param endDate     the booking end date
+ * @param status      the booking status ("confirmed" or "held")
+ */
+public record BookingListRow(int bookingId, String clientName, LocalDate startDate, LocalDate endDate,
+                             String status) {
+
+    /**
+     * Maps {@code booking_id, client_name, booking_DateStart, booking_DateEnd, booking_status}.
+     */
+    public static final RowMapper<BookingListRow> MAPPER = rs -> new BookingListRow(
+            rs.getInt("booking_id"),
+            rs.getString("client_name"),
+            Rows.localDate(rs, "booking_DateStart"),
+            Rows.localDate(rs, "booking_DateEnd"),
+            rs.getString("booking_status"));
+}
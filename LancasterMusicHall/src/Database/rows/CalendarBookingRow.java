@@ -0,0 +1,25 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalDate;
+
+/**
+ * A booking as listed on the marketing calendar.
+ *
+ * @param bookingId the booking ID
+ * @param startDate the booking start date
+ * @param endDate   the booking end date
+ * @param status    the booking status
+ */
+public record CalendarBookingRow(int bookingId, LocalDate startDate, LocalDate endDate, String status) {
+
+    /**
+     * Maps {@code booking_id, booking_DateStart, booking_DateEnd, booking_status}.
+     */
+    public static final RowMapper<CalendarBookingRow> MAPPER = rs -> new CalendarBookingRow(
+            rs.getInt("booking_id"),
+            Rows.localDate(rs, "booking_DateStart"),
+            Rows.localDate(rs, "booking_DateEnd"),
+            rs.getString("booking_status"));
+}
@@ -0,0 +1,50 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An event as shown on the calendar and diary views, with its venue name and the status of its booking.
+ *
+ * @param eventId       the event ID
+ * @param bookingId     the booking the event belongs to
+ * @param name          the event name
+ * @param startDate     the event start date
+ * @param endDate       the event end date
+ * @param startTime     the event start time
+ * @param endTime       the event end time
+ * @param eventType     the event type, e.g. "Film" or "Show"
+ * @param description   the event description
+ * @param bookedBy      who booked the event
+ * @param location      the location recorded on the event
+ * @param venueId       the venue ID, or {@code null} if none
+ * @param venueName     the venue name, or {@code null} if the event has no venue
+ * @param bookingStatus the booking status ("confirmed" or "held"), or {@code null} if the booking is missing
+ */
+public record CalendarEventRow(int eventId, int bookingId, String name, LocalDate startDate, LocalDate endDate,
+                               LocalTime startTime, LocalTime endTime, String eventType, String description,
+                               String bookedBy, String location, Integer venueId, String venueName,
+                               String bookingStatus) {
+
+    /**
+     * Maps {@code event_id, booking_id, name, start_date, end_date, start_time, end_time, event_type,
+     * description, booked_by, location, venue_id, venue_name, booking_status}.
+     */
+    public static final RowMapper<CalendarEventRow> MAPPER = rs -> new CalendarEventRow(
+            rs.getInt("event_id"),
+            rs.getInt("booking_id"),
+            rs.getString("name"),
+            Rows.localDate(rs, "start_date"),
+            Rows.localDate(rs, "end_date"),
+            Rows.localTime(rs, "start_time"),
+            Rows.localTime(rs, "end_time"),
+            rs.getString("event_type"),
+            rs.getString("description"),
+            rs.getString("booked_by"),
+            rs.getString("location"),
+            Rows.integer(rs, "venue_id"),
+            rs.getString("venue_name"),
+            rs.getString("booking_status"));
+}
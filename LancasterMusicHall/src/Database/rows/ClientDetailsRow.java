@@ -0,0 +1,28 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+/**
+ * Contact and account details of the client behind a booking.
+ *
+ * @param companyName     the client company name
+ * @param contactName     the primary contact name
+ * @param phoneNumber     the contact phone number
+ * @param email           the contact email address
+ * @param accountNumber   the customer account number
+ * @param sortCode        the customer sort code
+ */
+public record ClientDetailsRow(String companyName, String contactName, String phoneNumber, String email,
+                               String accountNumber, String sortCode) {
+
+    /**
+     * Maps the {@code Clients} columns selected by {@code SQLConnection.getClientDetails}.
+     */
+    public static final RowMapper<ClientDetailsRow> MAPPER = rs -> new ClientDetailsRow(
+            rs.getString("Company Name"),
+            rs.getString("Contact Name"),
+            rs.getString("Phone Number"),
+            rs.getString("Contact Email"),
+            rs.getString("Customer Account Number"),
+            rs.getString("Customer Sort Code"));
+}
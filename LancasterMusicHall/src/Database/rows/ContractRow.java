@@ -0,0 +1,31 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+/**
+ * The contract attached to a booking, without its document.
+ * <p>
+ * The document itself is fetched on demand with {@code SQLConnection.downloadContract}.
+ * </p>
+ *
+ * @param contractId the contract ID
+ * @param details    the contract details text
+ * @param fileSize   the size of the uploaded document in bytes, or {@code 0} if none was uploaded
+ */
+public record ContractRow(int contractId, String details, long fileSize) {
+
+    /**
+     * Maps {@code contract_id, details, file_size}.
+     */
+    public static final RowMapper<ContractRow> MAPPER = rs -> new ContractRow(
+            rs.getInt("contract_id"),
+            rs.getString("details"),
+            rs.getLong("file_size"));
+
+    /**
+     * @return {@code true} if a non-empty document is attached
+     */
+    public boolean hasFile() {
+        return fileSize > 0;
+    }
+}
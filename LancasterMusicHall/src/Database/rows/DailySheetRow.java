@@ -0,0 +1,25 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalTime;
+
+/**
+ * One line of a daily sheet: an event starting on the requested day.
+ *
+ * @param eventId   the event ID
+ * @param name      the event name
+ * @param startTime the start time
+ * @param endTime   the end time
+ */
+public record DailySheetRow(int eventId, String name, LocalTime startTime, LocalTime endTime) {
+
+    /**
+     * Maps {@code event_id, name, start_time, end_time}.
+     */
+    public static final RowMapper<DailySheetRow> MAPPER = rs -> new DailySheetRow(
+            rs.getInt("event_id"),
+            rs.getString("name"),
+            Rows.localTime(rs, "start_time"),
+            Rows.localTime(rs, "end_time"));
+}
@@ -0,0 +1,40 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A single event with its venue name, as shown on the event detail screen.
+ *
+ * @param eventId     the event ID
+ * @param name        the event name
+ * @param startDate   the start date
+ * @param endDate     the end date
+ * @param startTime   the start time
+ * @param endTime     the end time
+ * @param eventType   the event type
+ * @param description the event description
+ * @param bookedBy    the team that booked the event
+ * @param venueName   the venue name, or {@code null} if the event has no venue
+ */
+public record EventDetailsRow(int eventId, String name, LocalDate startDate, LocalDate endDate,
+                              LocalTime startTime, LocalTime endTime, String eventType,
+                              String description, String bookedBy, String venueName) {
+
+    /**
+     * Maps the columns selected by {@code SQLConnection.getEventDetailsByEventId}.
+     */
+    public static final RowMapper<EventDetailsRow> MAPPER = rs -> new EventDetailsRow(
+            rs.getInt("event_id"),
+            rs.getString("name"),
+            Rows.localDate(rs, "start_date"),
+            Rows.localDate(rs, "end_date"),
+            Rows.localTime(rs, "start_time"),
+            Rows.localTime(rs, "end_time"),
+            rs.getString("event_type"),
+            rs.getString("description"),
+            rs.getString("booked_by"),
+            rs.getString("venue_name"));
+}
@@ -0,0 +1,81 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+/**
+ * The time an event holds a venue, from its start date and time up to (not including) its end date and time.
+ *
+ * @param eventId   the event ID, or 0 for an event not yet inserted
+ * @param venueId   the venue the event is held in
+ * @param name      the event name
+ * @param startDate the first day of the event
+ * @param startTime the time the event starts on its first day
+ * @param endDate   the last day of the event
+ * @param endTime   the time the event ends on its last day
+ */
+public record OccupancyRow(int eventId, int venueId, String name, LocalDate startDate, LocalTime startTime,
+                           LocalDate endDate, LocalTime endTime) {
+
+    /**
+     * Maps {@code event_id, venue_id, name, start_date, start_time, end_date, end_time}.
+     */
+    public static final RowMapper<OccupancyRow> MAPPER = rs -> new OccupancyRow(
+            rs.getInt("event_id"),
+            rs.getInt("venue_id"),
+            rs.getString("name"),
+            Rows.localDate(rs, "start_date"),
+            Rows.localTime(rs, "start_time"),
+            Rows.localDate(rs, "end_date"),
+            Rows.localTime(rs, "end_time"));
+
+    /**
+     * @return when the event starts
+     */
+    public LocalDateTime start() {
+        return LocalDateTime.of(startDate, startTime);
+    }
+
+    /**
+     * @return when the event ends
+     */
+    public LocalDateTime end() {
+        return LocalDateTime.of(endDate, endTime);
+    }
+
+    /**
+     * @return the start as seconds since the epoch, the key used by the occupancy index
+     */
+    public long startSecond() {
+        return start().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the end as seconds since the epoch, the key used by the occupancy index
+     */
+    public long endSecond() {
+        return end().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * @param other another event
+     * @return true if both events are in the same venue, are not the same event, and their times overlap
+     */
+    public boolean overlaps(OccupancyRow other) {
+        return venueId == other.venueId
+                && (eventId == 0 || eventId != other.eventId)
+                && start().isBefore(other.end()) && other.start().isBefore(end());
+    }
+
+    /**
+     * @return the event's name and times, for conflict messages
+     */
+    public String describe() {
+        return String.format("%s (%s %s to %s %s)", name != null && !name.isEmpty() ? name : "event " + eventId,
+                startDate, startTime, endDate, endTime);
+    }
+}
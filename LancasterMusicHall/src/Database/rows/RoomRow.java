@@ -0,0 +1,34 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+/**
+ * A room of a venue with its capacity in each layout.
+ *
+ * @param roomName             the room name
+ * @param venueId              the venue the room belongs to
+ * @param roomNumber           the room number, or {@code null} if it has none
+ * @param roomCapacity         the total capacity, or {@code null} if not recorded
+ * @param classroomCapacity    the capacity in a classroom layout
+ * @param boardroomCapacity    the capacity in a boardroom layout
+ * @param presentationCapacity the capacity in a presentation layout
+ * @param seatingType          the seating arrangement
+ */
+public record RoomRow(String roomName, int venueId, Integer roomNumber, Integer roomCapacity,
+                      int classroomCapacity, int boardroomCapacity, int presentationCapacity,
+                      String seatingType) {
+
+    /**
+     * Maps {@code room_name, venue_id, room_number, room_capacity, classroom_capacity, boardroom_capacity,
+     * presentation_capacity, seating_type}.
+     */
+    public static final RowMapper<RoomRow> MAPPER = rs -> new RoomRow(
+            rs.getString("room_name"),
+            rs.getInt("venue_id"),
+            Rows.integer(rs, "room_number"),
+            Rows.integer(rs, "room_capacity"),
+            rs.getInt("classroom_capacity"),
+            rs.getInt("boardroom_capacity"),
+            rs.getInt("presentation_capacity"),
+            rs.getString("seating_type"));
+}
@@ -0,0 +1,32 @@
+package Database.rows;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Null-safe column readers shared by the row mappers in this package.
+ */
+final class Rows {
+
+    private Rows() {
+    }
+
+    static LocalDate localDate(ResultSet rs, String column) throws SQLException {
+        Date date = rs.getDate(column);
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    static Integer integer(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    static LocalTime localTime(ResultSet rs, String column) throws SQLException {
+        Time time = rs.getTime(column);
+        return time != null ? time.toLocalTime() : null;
+    }
+}
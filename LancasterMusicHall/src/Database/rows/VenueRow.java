@@ -0,0 +1,26 @@
+package Database.rows;
+
+import Database.RowMapper;
+
+/**
+ * A venue: a hall, rehearsal space or meeting room that events are held in.
+ *
+ * @param venueId         the venue ID
+ * @param venueName       the venue name
+ * @param capacity        the venue capacity, or {@code null} if not recorded
+ * @param flexibleSeating {@code true} if the seating can be rearranged
+ * @param accessible      {@code true} if the venue's seating is accessible
+ */
+public record VenueRow(int venueId, String venueName, Integer capacity, boolean flexibleSeating,
+                       boolean accessible) {
+
+    /**
+     * Maps {@code venue_id, venue_name, venue_capacity, is_flexible_seating, is_accessible}.
+     */
+    public static final RowMapper<VenueRow> MAPPER = rs -> new VenueRow(
+            rs.getInt("venue_id"),
+            rs.getString("venue_name"),
+            Rows.integer(rs, "venue_capacity"),
+            rs.getBoolean("is_flexible_seating"),
+            rs.getBoolean("is_accessible"));
+}
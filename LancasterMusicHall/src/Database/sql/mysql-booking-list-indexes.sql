@@ -0,0 +1,11 @@
+-- Adds the indexes the bookings list (Database.BookingListQuery) pages along to an existing production MySQL schema.
+--
+-- The embedded profile gets the same indexes from schema.sql. Run this once. Each index ends with booking_id, the
+-- list's tie-breaker, so a page sorted by start date, end date or status continues from the previous one with
+-- one index range. MySQL reads an index in either direction, so unlike schema.sql this needs no descending
+-- twins. Ordering by client name and filtering are not indexed; see the class documentation.
+
+ALTER TABLE Booking
+    ADD INDEX idx_booking_start_id (booking_DateStart, booking_id),
+    ADD INDEX idx_booking_end_id (booking_DateEnd, booking_id),
+    ADD INDEX idx_booking_status_id (booking_status, booking_id);
@@ -0,0 +1,26 @@
+-- Adds the calendar read model kept by Database.CalendarEntries to an existing production MySQL schema.
+--
+-- The embedded profile gets the same table from schema.sql. Run this once, then fill the table with
+-- java Database.CalendarEntries, which rebuilds it from Event, Venue and Booking in one transaction.
+
+CREATE TABLE CalendarEntry (
+    entry_date      DATE NOT NULL,
+    start_time      TIME NOT NULL,
+    event_id        INT NOT NULL,
+    booking_id      INT NOT NULL,
+    name            VARCHAR(255),
+    start_date      DATE NOT NULL,
+    end_date        DATE NOT NULL,
+    end_time        TIME NOT NULL,
+    event_type      VARCHAR(50),
+    description     VARCHAR(1000),
+    booked_by       VARCHAR(255),
+    colour_category VARCHAR(20) NOT NULL,
+    location        VARCHAR(100),
+    venue_id        INT,
+    venue_name      VARCHAR(100),
+    booking_status  VARCHAR(20),
+    PRIMARY KEY (entry_date, start_time, event_id),
+    INDEX idx_calendar_entry_event (event_id),
+    INDEX idx_calendar_entry_booking (booking_id)
+);
@@ -0,0 +1,23 @@
+-- Adds the change watermarks read by Database.ChangeFeed to an existing production MySQL schema.
+--
+-- The embedded profile gets the same columns and table from schema.sql. Run this once; MySQL sets updated_at on
+-- every insert and on every update that changes the row.
+
+ALTER TABLE Booking
+    ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX idx_booking_updated (updated_at);
+
+ALTER TABLE Event
+    ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX idx_event_updated (updated_at);
+
+ALTER TABLE Review
+    ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX idx_review_updated (updated_at);
+
+CREATE TABLE DeletedRow (
+    table_name VARCHAR(20) NOT NULL,
+    row_id     INT NOT NULL,
+    deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_deleted_row_time (deleted_at)
+);
@@ -0,0 +1,200 @@
+-- Schema of the embedded database profile (see Database.DatabaseConfig).
+--
+-- Mirrors the tables of the production MySQL schema that the application reads and writes. It is run by
+-- Database.EmbeddedDatabase with H2 in MySQL mode, so back-quoted column names such as `Company Name` work
+-- unchanged. Every statement is idempotent so the script can be re-run against an existing file database.
+
+CREATE TABLE IF NOT EXISTS Staff (
+    staff_id             INT AUTO_INCREMENT PRIMARY KEY,
+    name                 VARCHAR(100) NOT NULL,
+    email                VARCHAR(255) NOT NULL,
+    password             VARCHAR(255) NOT NULL,
+    role                 VARCHAR(50),
+    last_password_change TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS Venue (
+    venue_id            INT AUTO_INCREMENT PRIMARY KEY,
+    venue_name          VARCHAR(100) NOT NULL,
+    venue_location      VARCHAR(100),
+    venue_capacity      INT,
+    venue_layout        VARCHAR(100),
+    is_flexible_seating BOOLEAN DEFAULT FALSE,
+    is_accessible       BOOLEAN DEFAULT TRUE,
+    base_rental_cost    DECIMAL(10, 2)
+);
+
+CREATE TABLE IF NOT EXISTS Room (
+    room_id               INT AUTO_INCREMENT PRIMARY KEY,
+    room_name             VARCHAR(100) NOT NULL,
+    venue_id              INT NOT NULL,
+    room_number           INT,
+    room_capacity         INT,
+    classroom_capacity    INT,
+    boardroom_capacity    INT,
+    presentation_capacity INT,
+    seating_type          VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS Clients (
+    client_id                 INT AUTO_INCREMENT PRIMARY KEY,
+    `Company Name`            VARCHAR(255),
+    `Contact Name`            VARCHAR(255),
+    `Phone Number`            VARCHAR(50),
+    `Contact Email`           VARCHAR(255),
+    `Customer Account Number` VARCHAR(50),
+    `Customer Sort Code`      VARCHAR(20),
+    `Payment Due Date`        DATE,
+    `Street Address`          VARCHAR(255),
+    `City`                    VARCHAR(100),
+    `Postcode`                VARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS Booking (
+    booking_id        INT AUTO_INCREMENT PRIMARY KEY,
+    booking_DateStart DATE NOT NULL,
+    booking_DateEnd   DATE NOT NULL,
+    booking_status    VARCHAR(20) NOT NULL,
+    ticket_price      DECIMAL(10, 2),
+    total_cost        DECIMAL(12, 2),
+    payment_status    VARCHAR(20),
+    payment_due_date  DATE,
+    staff_id          INT,
+    client_id         INT NOT NULL,
+    max_discount      DECIMAL(5, 2),
+    updated_at        TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_client ON Booking (client_id);
+CREATE INDEX IF NOT EXISTS idx_booking_dates ON Booking (booking_DateStart, booking_DateEnd);
+
+-- The orders the bookings list (Database.BookingListQuery) pages along, each ending with its booking_id
+-- tie-breaker. H2 does not read an index backwards, so each order has a descending twin.
+CREATE INDEX IF NOT EXISTS idx_booking_id_desc ON Booking (booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_start_id ON Booking (booking_DateStart, booking_id);
+CREATE INDEX IF NOT EXISTS idx_booking_start_id_desc ON Booking (booking_DateStart DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_end_id ON Booking (booking_DateEnd, booking_id);
+CREATE INDEX IF NOT EXISTS idx_booking_end_id_desc ON Booking (booking_DateEnd DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_status_id ON Booking (booking_status, booking_id);
+CREATE INDEX IF NOT EXISTS idx_booking_status_id_desc ON Booking (booking_status DESC, booking_id DESC);
+
+CREATE TABLE IF NOT EXISTS Event (
+    event_id     INT AUTO_INCREMENT PRIMARY KEY,
+    name         VARCHAR(255),
+    start_date   DATE NOT NULL,
+    end_date     DATE NOT NULL,
+    start_time   TIME NOT NULL,
+    end_time     TIME NOT NULL,
+    event_type   VARCHAR(50),
+    venue_id     INT,
+    booking_id   INT NOT NULL,
+    client_id    INT,
+    location     VARCHAR(100),
+    description  VARCHAR(1000),
+    layout       VARCHAR(255),
+    max_discount DECIMAL(5, 2),
+    booked_by    VARCHAR(255),
+    updated_at   TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_booking ON Event (booking_id);
+CREATE INDEX IF NOT EXISTS idx_event_start ON Event (start_date, start_time);
+CREATE INDEX IF NOT EXISTS idx_event_venue ON Event (venue_id, start_date);
+
+CREATE TABLE IF NOT EXISTS Invoice (
+    invoice_id INT AUTO_INCREMENT PRIMARY KEY,
+    booking_id INT NOT NULL,
+    date       DATE,
+    total      DECIMAL(12, 2),
+    client_id  INT
+);
+
+CREATE INDEX IF NOT EXISTS idx_invoice_booking ON Invoice (booking_id);
+
+CREATE TABLE IF NOT EXISTS Contract (
+    contract_id INT AUTO_INCREMENT PRIMARY KEY,
+    details     VARCHAR(4000),
+    client_id   INT,
+    booking_id  INT NOT NULL,
+    file_data   LONGBLOB
+);
+
+CREATE INDEX IF NOT EXISTS idx_contract_booking ON Contract (booking_id);
+
+CREATE TABLE IF NOT EXISTS FinancialRecord (
+    financial_record_id   INT AUTO_INCREMENT PRIMARY KEY,
+    booking_id            INT,
+    revenue               DECIMAL(12, 2),
+    cost                  DECIMAL(12, 2),
+    profit                DECIMAL(12, 2),
+    financial_record_date DATE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_financial_record_date ON FinancialRecord (financial_record_date);
+
+CREATE TABLE IF NOT EXISTS Review (
+    review_id   INT AUTO_INCREMENT PRIMARY KEY,
+    event_id    INT,
+    review_text VARCHAR(4000),
+    review_date DATE,
+    source      VARCHAR(100),
+    rating      INT,
+    reply_text  VARCHAR(4000),
+    updated_at  TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX IF NOT EXISTS idx_review_date ON Review (review_date);
+
+-- Change watermarks read by Database.ChangeFeed. The database sets updated_at on every insert and update; the
+-- ALTERs add it to file databases created before it existed.
+ALTER TABLE Booking ADD COLUMN IF NOT EXISTS
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+ALTER TABLE Event ADD COLUMN IF NOT EXISTS
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+ALTER TABLE Review ADD COLUMN IF NOT EXISTS
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+CREATE INDEX IF NOT EXISTS idx_booking_updated ON Booking (updated_at);
+CREATE INDEX IF NOT EXISTS idx_event_updated ON Event (updated_at);
+CREATE INDEX IF NOT EXISTS idx_review_updated ON Review (updated_at);
+
+-- Rows deleted from the tables above, so other clients can drop them too.
+CREATE TABLE IF NOT EXISTS DeletedRow (
+    table_name VARCHAR(20) NOT NULL,
+    row_id     INT NOT NULL,
+    deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX IF NOT EXISTS idx_deleted_row_time ON DeletedRow (deleted_at);
+
+-- The calendar's read model, kept by Database.CalendarEntries: one row per event per day it covers, with its venue
+-- name, booking status and colour category, so the calendar reads a range of the primary key without joins.
+CREATE TABLE IF NOT EXISTS CalendarEntry (
+    entry_date      DATE NOT NULL,
+    start_time      TIME NOT NULL,
+    event_id        INT NOT NULL,
+    booking_id      INT NOT NULL,
+    name            VARCHAR(255),
+    start_date      DATE NOT NULL,
+    end_date        DATE NOT NULL,
+    end_time        TIME NOT NULL,
+    event_type      VARCHAR(50),
+    description     VARCHAR(1000),
+    booked_by       VARCHAR(255),
+    colour_category VARCHAR(20) NOT NULL,
+    location        VARCHAR(100),
+    venue_id        INT,
+    venue_name      VARCHAR(100),
+    booking_status  VARCHAR(20),
+    PRIMARY KEY (entry_date, start_time, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_calendar_entry_event ON CalendarEntry (event_id);
+CREATE INDEX IF NOT EXISTS idx_calendar_entry_booking ON CalendarEntry (booking_id);
+
+-- Local equivalents of the pricing stored functions, implemented in Database.EmbeddedTariffs.
+CREATE ALIAS IF NOT EXISTS calculateMainHallCost FOR 'Database.EmbeddedTariffs.calculateMainHallCost';
+CREATE ALIAS IF NOT EXISTS calculateSmallHallCost FOR 'Database.EmbeddedTariffs.calculateSmallHallCost';
+CREATE ALIAS IF NOT EXISTS calculateRehearsalCost FOR 'Database.EmbeddedTariffs.calculateRehearsalCost';
+CREATE ALIAS IF NOT EXISTS calculateRoomCost FOR 'Database.EmbeddedTariffs.calculateRoomCost';
+CREATE ALIAS IF NOT EXISTS calculateVenueCost FOR 'Database.EmbeddedTariffs.calculateVenueCost';
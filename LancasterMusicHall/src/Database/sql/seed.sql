@@ -0,0 +1,72 @@
+-- Reference and sample data of the embedded database profile, loaded once into an empty database.
+--
+-- Venue IDs match the location lists of the booking and event forms. Staff member 1 (password "password")
+-- can log in. The sample bookings are dated relative to the current day so the calendar and diary views
+-- have something to show; Database.DataGenerator adds realistic volumes.
+
+INSERT INTO Venue (venue_id, venue_name, venue_location, venue_capacity, venue_layout, is_flexible_seating, is_accessible, base_rental_cost) VALUES
+    (1,  'Venue',           'Whole building', 600, 'Mixed',        FALSE, TRUE, 15000.00),
+    (2,  'The Green Room',  'First floor',     12, 'Boardroom',    TRUE,  TRUE,    130.00),
+    (3,  'Brontë Boardroom', 'Second floor',   25, 'Boardroom',    TRUE,  TRUE,    650.00),
+    (4,  'Dickens Den',     'First floor',     10, 'Boardroom',    TRUE,  TRUE,    130.00),
+    (5,  'Poe Parlor',      'Ground floor',    15, 'Classroom',    TRUE,  TRUE,    150.00),
+    (6,  'Globe Room',      'Second floor',    50, 'Presentation', TRUE,  TRUE,    800.00),
+    (7,  'Chekhov Chamber', 'Ground floor',    18, 'Classroom',    TRUE,  TRUE,    160.00),
+    (8,  'Main_Hall',       'Ground floor',   370, 'Stalls and balcony', FALSE, TRUE, 3800.00),
+    (9,  'Small_Hall',      'First floor',     95, 'Stalls',       TRUE,  TRUE,   2200.00),
+    (10, 'Rehearsal_Space', 'Basement',        50, 'Open floor',   TRUE,  FALSE,   240.00);
+
+ALTER TABLE Venue ALTER COLUMN venue_id RESTART WITH 11;
+
+INSERT INTO Room (room_name, venue_id, room_number, room_capacity, classroom_capacity, boardroom_capacity, presentation_capacity, seating_type) VALUES
+    ('The Green Room',   2,  1,  12,  10, 12,  20, 'Flexible'),
+    ('Brontë Boardroom', 3,  2,  25,  20, 18,  25, 'Flexible'),
+    ('Dickens Den',      4,  3,  10,   8, 10,  12, 'Flexible'),
+    ('Poe Parlor',       5,  4,  15,  12, 14,  18, 'Flexible'),
+    ('Globe Room',       6,  5,  50,  35, 20,  50, 'Flexible'),
+    ('Chekhov Chamber',  7,  6,  18,  15, 16,  20, 'Flexible'),
+    ('Main Hall',        8,  7, 370, NULL, NULL, 370, 'Fixed'),
+    ('Small Hall',       9,  8,  95, NULL, NULL,  95, 'Flexible'),
+    ('Rehearsal Space', 10,  9,  50, NULL, NULL,  50, 'Open');
+
+INSERT INTO Staff (staff_id, name, email, password, role, last_password_change) VALUES
+    (1, 'Operations Admin', 'operations@lancastermusichall.local', 'password', 'Manager', CURRENT_TIMESTAMP);
+
+ALTER TABLE Staff ALTER COLUMN staff_id RESTART WITH 2;
+
+INSERT INTO Clients (client_id, `Company Name`, `Contact Name`, `Phone Number`, `Contact Email`, `Customer Account Number`, `Customer Sort Code`, `Payment Due Date`, `Street Address`, `City`, `Postcode`) VALUES
+    (1, 'CinemaLTD',          'John Smith',   '07855645977', 'john.smith@cinemaltd.com',     '12345678', '12-34-56', DATEADD(DAY, 14, CURRENT_DATE), '1 Market Street', 'Lancaster', 'LA1 1AA'),
+    (2, 'Northern Strings',   'Amy Clarke',   '07700900123', 'amy@northernstrings.co.uk',    '87654321', '65-43-21', DATEADD(DAY, 21, CURRENT_DATE), '8 Dalton Square', 'Lancaster', 'LA1 1PP'),
+    (3, 'Lune Valley Trust',  'Raj Patel',    '07700900456', 'raj.patel@lunevalley.org',     '11223344', '30-90-12', DATEADD(DAY, 10, CURRENT_DATE), '22 Quay Road',    'Lancaster', 'LA1 1RB');
+
+ALTER TABLE Clients ALTER COLUMN client_id RESTART WITH 4;
+
+INSERT INTO Booking (booking_id, booking_DateStart, booking_DateEnd, booking_status, ticket_price, total_cost, payment_status, payment_due_date, staff_id, client_id, max_discount) VALUES
+    (1, CURRENT_DATE,                  DATEADD(DAY, 2, CURRENT_DATE), 'confirmed', 8.50,  4275.00, 'Pending', DATEADD(DAY, 14, CURRENT_DATE), 1, 1, 10.00),
+    (2, DATEADD(DAY, 1, CURRENT_DATE), DATEADD(DAY, 1, CURRENT_DATE), 'confirmed', 15.00, 1850.00, 'Paid',    DATEADD(DAY, 21, CURRENT_DATE), 1, 2, 5.00),
+    (3, DATEADD(DAY, 3, CURRENT_DATE), DATEADD(DAY, 3, CURRENT_DATE), 'held',      0.00,   200.00, 'Pending', DATEADD(DAY, 10, CURRENT_DATE), 1, 3, 0.00);
+
+ALTER TABLE Booking ALTER COLUMN booking_id RESTART WITH 4;
+
+INSERT INTO Event (name, start_date, end_date, start_time, end_time, event_type, venue_id, booking_id, client_id, location, description, layout, max_discount, booked_by) VALUES
+    ('Classic Film Night',  CURRENT_DATE,                  CURRENT_DATE,                  '18:00', '21:00', 'Film',    9, 1, 1, 'Small_Hall',       'Restored print screening',   'Stalls',       10.00, 'CinemaLTD'),
+    ('Matinee Screening',   DATEADD(DAY, 2, CURRENT_DATE), DATEADD(DAY, 2, CURRENT_DATE), '13:00', '16:00', 'Film',    8, 1, 1, 'Main_Hall',        'Family matinee',             'Stalls',       10.00, 'CinemaLTD'),
+    ('String Quartet',      DATEADD(DAY, 1, CURRENT_DATE), DATEADD(DAY, 1, CURRENT_DATE), '19:00', '22:00', 'Show',    8, 2, 2, 'Main_Hall',        'Evening concert',            'Stalls and balcony', 5.00, 'Northern Strings'),
+    ('Trustees Meeting',    DATEADD(DAY, 3, CURRENT_DATE), DATEADD(DAY, 3, CURRENT_DATE), '10:00', '14:00', 'Meeting', 3, 3, 3, 'Room Brontë Boardroom', 'Quarterly trustees meeting', 'Boardroom', 0.00, 'Lune Valley Trust');
+
+INSERT INTO Invoice (booking_id, date, total, client_id) VALUES
+    (1, CURRENT_DATE,                  4275.00, 1),
+    (2, DATEADD(DAY, 1, CURRENT_DATE), 1850.00, 2),
+    (3, DATEADD(DAY, 3, CURRENT_DATE),  200.00, 3);
+
+INSERT INTO Contract (details, client_id, booking_id, file_data) VALUES
+    ('Standard screening contract', 1, 1, NULL),
+    ('Standard performance contract', 2, 2, NULL);
+
+INSERT INTO FinancialRecord (booking_id, revenue, cost, profit, financial_record_date) VALUES
+    (1, 4275.00, 1200.00, 3075.00, CURRENT_DATE),
+    (2, 1850.00,  600.00, 1250.00, DATEADD(DAY, 1, CURRENT_DATE));
+
+INSERT INTO Review (event_id, review_text, review_date, source, rating, reply_text) VALUES
+    (1, 'Lovely venue and a great print of the film.', CURRENT_DATE, 'Website', 5, NULL),
+    (3, 'Wonderful acoustics in the main hall.',       CURRENT_DATE, 'Email',   4, NULL);
@@ -106,6 +106,9 @@ public class MainMenuGUI {
         cardPanel.add(report, "Reports");
         cardPanel.add(settings, "Settings");
 
+        // The panels are subscribed; start publishing changes made by other clients.
+        sqlConnection.getChangeFeed().start();
+
         // Add components to frame.
         frame.add(getTopPanel());
         frame.add(navBar);
@@ -1,21 +1,28 @@
 package GUI.MenuPanels.Booking;
 
+import Database.BookingSnapshot;
+import Database.RoomOccupancyIndex;
 import Database.SQLConnection;
+import Database.rows.BookingDetailsRow;
+import Database.rows.BookingEventRow;
+import Database.rows.ClientDetailsRow;
+import Database.rows.ContractRow;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * The {@code BookingDetailForm} class represents a dialog form that displays detailed booking information.
@@ -84,10 +91,10 @@ public class BookingDetailForm extends JDialog {
     private JButton downloadContractButton;
 
     /**
-     * Byte array storing the contract document data.
-     * Null until contract is uploaded or fetched from database.
+     * Size in bytes of the stored contract document.
+     * 0 until a contract with a document is found; the document itself is only fetched on download.
      */
-    private byte[] contractData;
+    private long contractFileSize;
 
     /**
      * Database ID of the associated contract document.
@@ -101,6 +108,11 @@ public class BookingDetailForm extends JDialog {
      */
     private String bookingStatus;
 
+    /**
+     * Column values as loaded, so saving only writes what was edited.
+     */
+    private BookingSnapshot snapshot;
+
     /**
      * Constructs a new {@code BookingDetailForm} dialog.
      *
@@ -245,19 +257,13 @@ public class BookingDetailForm extends JDialog {
 
         // Download button action listener for contract download.
         downloadContractButton.addActionListener(e -> {
-            if (contractData != null && contractData.length > 0) {
+            if (contractFileSize > 0) {
                 // Use a default file name based on contract ID.
                 JFileChooser fileChooser = new JFileChooser();
                 fileChooser.setSelectedFile(new File("contract_" + contractId + ".dat"));
                 int option = fileChooser.showSaveDialog(BookingDetailForm.this);
                 if (option == JFileChooser.APPROVE_OPTION) {
-                    File file = fileChooser.getSelectedFile();
-                    try (FileOutputStream fos = new FileOutputStream(file)) {
-                        fos.write(contractData);
-                        JOptionPane.showMessageDialog(BookingDetailForm.this, "Contract downloaded successfully!");
-                    } catch (IOException ex) {
-                        JOptionPane.showMessageDialog(BookingDetailForm.this, "Error saving file: " + ex.getMessage());
-                    }
+                    downloadContract(fileChooser.getSelectedFile());
                 }
             } else {
                 JOptionPane.showMessageDialog(BookingDetailForm.this, "No contract data available to download.");
@@ -274,6 +280,46 @@ public class BookingDetailForm extends JDialog {
         mainPanel.add(buttonPanel);
     }
 
+    /**
+     * Streams the contract document to the chosen file in the background, showing a progress dialog.
+     *
+     * @param file the file to save the contract to
+     */
+    private void downloadContract(File file) {
+        downloadContractButton.setEnabled(false);
+        ProgressMonitor monitor = new ProgressMonitor(this, "Downloading contract...", file.getName(), 0, 100);
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() {
+                return sqlCon.downloadContract(contractId, file.toPath(), (done, total) ->
+                        setProgress(total > 0 ? (int) Math.min(100, done * 100 / total) : 0));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                downloadContractButton.setEnabled(true);
+                try {
+                    if (get() >= 0) {
+                        JOptionPane.showMessageDialog(BookingDetailForm.this, "Contract downloaded successfully!");
+                    } else {
+                        JOptionPane.showMessageDialog(BookingDetailForm.this, "Error saving contract file.");
+                    }
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(BookingDetailForm.this, "Error saving file: " + ex.getMessage());
+                }
+            }
+
+            {
+                addPropertyChangeListener(evt -> {
+                    if ("progress".equals(evt.getPropertyName())) {
+                        monitor.setProgress((Integer) evt.getNewValue());
+                    }
+                });
+            }
+        }.execute();
+    }
+
     /**
      * Loads booking details from the database and populates the form fields.
      * <p>
@@ -284,64 +330,55 @@ public class BookingDetailForm extends JDialog {
     private void loadBookingDetails() {
         try {
             // --- Load Booking Data (join with Clients for company_name) ---
-            ResultSet rsBooking = sqlCon.getBookingDetails(Integer.parseInt(bookingId));
-            if (rsBooking.next()) {
-                bookingStartDateField.setText(rsBooking.getString("booking_DateStart"));
-                bookingEndDateField.setText(rsBooking.getString("booking_DateEnd"));
-                totalCostField.setText(rsBooking.getString("total_cost"));
-                paymentStatusField.setText(rsBooking.getString("payment_status"));
-                companyNameField.setText(rsBooking.getString("company_name"));
+            int id = Integer.parseInt(bookingId);
+            snapshot = sqlCon.loadBookingSnapshot(id);
+            Optional<BookingDetailsRow> booking = sqlCon.getBookingDetails(id);
+            if (booking.isPresent()) {
+                BookingDetailsRow b = booking.get();
+                bookingStartDateField.setText(Objects.toString(b.startDate(), ""));
+                bookingEndDateField.setText(Objects.toString(b.endDate(), ""));
+                totalCostField.setText(String.valueOf(b.totalCost()));
+                paymentStatusField.setText(b.paymentStatus());
+                companyNameField.setText(b.companyName());
                 // Capture booking_status; allowed values: "confirmed" or "held"
-                bookingStatus = rsBooking.getString("booking_status");
+                bookingStatus = b.status();
             }
-            rsBooking.close();
 
             // --- Load Client Data ---
-            ResultSet rsClient = sqlCon.getClientDetails(Integer.parseInt(bookingId));
-            if (rsClient.next()) {
-                contactNameField.setText(rsClient.getString("Contact Name"));
-                telephoneField.setText(rsClient.getString("Phone Number"));
-                emailField.setText(rsClient.getString("Contact Email"));
+            Optional<ClientDetailsRow> client = sqlCon.getClientDetails(id);
+            if (client.isPresent()) {
+                contactNameField.setText(client.get().contactName());
+                telephoneField.setText(client.get().phoneNumber());
+                emailField.setText(client.get().email());
             }
-            rsClient.close();
 
             // --- Load Event Data ---
-            ResultSet rsEvent = sqlCon.getEventDetails(Integer.parseInt(bookingId));
-            while (rsEvent.next()) {
+            for (BookingEventRow event : sqlCon.getEventDetails(id)) {
                 Object[] rowData = {
-                        rsEvent.getInt("event_id"),
-                        rsEvent.getString("name"),
-                        rsEvent.getString("start_date"),
-                        rsEvent.getString("end_date"),
-                        rsEvent.getString("start_time"),
-                        rsEvent.getString("end_time"),
-                        rsEvent.getString("event_type"),
-                        rsEvent.getString("venue_name")
+                        event.eventId(),
+                        event.name(),
+                        Objects.toString(event.startDate(), ""),
+                        Objects.toString(event.endDate(), ""),
+                        Objects.toString(event.startTime(), ""),
+                        Objects.toString(event.endTime(), ""),
+                        event.eventType(),
+                        event.venueName()
                 };
                 eventTableModel.addRow(rowData);
             }
-            rsEvent.close();
 
             // --- Load Contract Data ---
-            ResultSet rsContract = sqlCon.getContractDetails(Integer.parseInt(bookingId));
-            if (rsContract.next()) {
-                contractId = rsContract.getInt("contract_id");
-                String contractDetails = rsContract.getString("details");
-                contractData = rsContract.getBytes("file_data");    // store contract file data
-
-                if (contractData != null && contractData.length > 0) {
-                    contractStatusLabel.setText("<html>Contract ID: " + contractId +
-                            "<br/>Details: " + contractDetails + "</html>");
-                    downloadContractButton.setEnabled(true);
-                } else {
-                    contractStatusLabel.setText("No contract uploaded.");
-                    downloadContractButton.setEnabled(false);
-                }
+            Optional<ContractRow> contract = sqlCon.getContractDetails(id);
+            if (contract.isPresent() && contract.get().hasFile()) {
+                contractId = contract.get().contractId();
+                contractFileSize = contract.get().fileSize();    // the document is only fetched on download
+                contractStatusLabel.setText("<html>Contract ID: " + contractId +
+                        "<br/>Details: " + contract.get().details() + "</html>");
+                downloadContractButton.setEnabled(true);
             } else {
                 contractStatusLabel.setText("No contract uploaded.");
                 downloadContractButton.setEnabled(false);
             }
-            rsContract.close();
 
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error loading booking details: " + ex.getMessage());
@@ -411,12 +448,12 @@ public class BookingDetailForm extends JDialog {
                         venue,
                         null,
                         "",
-                        venueName,
+                        null, // location: not editable here
                         companyName,
                         null,
                         0.0,
-                        "", // description
-                        ""  // layout
+                        null, // description: not editable here
+                        null  // layout: not editable here
                 );
                 events.add(event);
             }
@@ -430,7 +467,7 @@ public class BookingDetailForm extends JDialog {
             String streetAddress = null;
             String city = null;
             String postcode = null;
-            LocalDate paymentDueDate = bookingStartDate; // Default to booking start date.
+            LocalDate paymentDueDate = null;
 
             // Validate payment_status: allow only "paid" or "unpaid"; if invalid or blank, default to "unpaid".
             String paymentStatus = emptyToNull.apply(paymentStatusField.getText());
@@ -449,8 +486,42 @@ public class BookingDetailForm extends JDialog {
                 staffId = 0;
             }
 
+            // An event moved onto another booking in its venue is refused by updateFullBooking, so stop here and
+            // name the clash. Clashes that were already there do not stop the save.
+            List<RoomOccupancyIndex.Conflict> refused = new ArrayList<>();
+            List<RoomOccupancyIndex.Conflict> existing = new ArrayList<>();
+            Set<Integer> movedIds = new HashSet<>();
+            for (operations.entities.Event event : events) {
+                if (snapshot == null || SQLConnection.movesEvent(snapshot, event)) {
+                    movedIds.add(event.getId());
+                }
+            }
+            for (RoomOccupancyIndex.Conflict conflict : sqlCon.findRoomConflicts(events)) {
+                if (movedIds.contains(conflict.requested().eventId())
+                        || movedIds.contains(conflict.existing().eventId())) {
+                    refused.add(conflict);
+                } else {
+                    existing.add(conflict);
+                }
+            }
+            if (!refused.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                        "These events cannot be moved; they would overlap other events in the same venue:\n"
+                                + RoomOccupancyIndex.describe(refused),
+                        "Venue Already Booked", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (!existing.isEmpty() && JOptionPane.showConfirmDialog(this,
+                    "These events already overlap other events in the same venue:\n"
+                            + RoomOccupancyIndex.describe(existing) + "\n\nSave the other changes anyway?",
+                    "Venue Already Booked", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE)
+                    != JOptionPane.YES_OPTION) {
+                return;
+            }
+
             // Call the SQLConnection updateFullBooking method.
             boolean success = sqlCon.updateFullBooking(
+                    snapshot,
                     bId,
                     bookingEventName,
                     bookingStartDate,
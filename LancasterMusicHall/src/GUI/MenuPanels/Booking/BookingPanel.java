@@ -1,22 +1,24 @@
 package GUI.MenuPanels.Booking;
 
+import Database.BookingListQuery;
+import Database.ChangeFeed;
+import Database.DatabaseEvent;
 import Database.SQLConnection;
+import Database.rows.BookingListRow;
 import GUI.MainMenuGUI;
 
 import java.awt.*;
-import java.util.Arrays;
-import java.util.Vector;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import java.util.List;
 
 /**
  * The {@code BookingPanel} class represents the main user interface panel for displaying and
  * interacting with booking records.
  * <p>
- * It retrieves booking data via a {@link SQLConnection} instance, and provides functionality
- * to filter, add, and view detailed booking information.
+ * It pages booking data in through a {@link BookingTableModel}, and provides functionality
+ * to filter, sort, add, and view detailed booking information.
  * </p>
  */
 public class BookingPanel extends JPanel {
@@ -107,17 +109,21 @@ public class BookingPanel extends JPanel {
         contentPanel.add(searchPanel, BorderLayout.NORTH);
 
         // === Bookings Table ===
-        DefaultTableModel originalModel = sqlCon.getBookingsTableModel();
-        // Create our own column vector since getColumnIdentifiers() is not accessible
-        String[] colNames = {"ID No.", "Name", "Start Date", "End Date", "Status"};
-        Vector<String> columnNamesVector = new Vector<>(Arrays.asList(colNames));
-
-        DefaultTableModel model = new DefaultTableModel(originalModel.getDataVector(), columnNamesVector) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;  // disable editing for all cells
+        // Rows are read a page at a time as they come into view; see BookingTableModel.
+        BookingTableModel model = new BookingTableModel(sqlCon);
+        // Only the changed bookings are read back; see BookingTableModel.bookingsChanged.
+        sqlCon.getEventBus().subscribeOnEdt(DatabaseEvent.BookingCreated.class,
+                event -> model.bookingsChanged(List.of(event.bookingId())));
+        sqlCon.getEventBus().subscribeOnEdt(DatabaseEvent.BookingUpdated.class,
+                event -> model.bookingsChanged(List.of(event.bookingId())));
+        sqlCon.getEventBus().subscribeOnEdt(DatabaseEvent.RowsChanged.class, event -> {
+            if (event.table() == ChangeFeed.Table.BOOKING) {
+                model.bookingsChanged(event.ids());
             }
-        };
+        });
+
+        filterButton.addActionListener(e -> model.setQuery(model.getQuery().filteredBy(searchField.getText())));
+        searchField.addActionListener(e -> model.setQuery(model.getQuery().filteredBy(searchField.getText())));
 
         JTable table = new JTable(model);
         table.setShowHorizontalLines(false);
@@ -157,6 +163,21 @@ public class BookingPanel extends JPanel {
         table.getColumnModel().getColumn(3).setPreferredWidth(150);
         table.getColumnModel().getColumn(4).setPreferredWidth(120);
 
+        // Clicking a heading sorts by that column in the database; clicking it again reverses the order.
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                int column = table.columnAtPoint(evt.getPoint());
+                if (column < 0) {
+                    return;
+                }
+                BookingListQuery query = model.getQuery();
+                BookingListQuery.Column sort = BookingListQuery.Column.values()[column];
+                model.setQuery(query.sortedBy(sort, query.sort() != sort || !query.ascending()));
+            }
+        });
+
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.getViewport().setBackground(Color.WHITE);
         scrollPane.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
@@ -169,9 +190,9 @@ public class BookingPanel extends JPanel {
                 // On double-click, launch the BookingDetailForm for viewing.
                 if (evt.getClickCount() == 2) {
                     int selectedRow = table.getSelectedRow();
-                    if (selectedRow != -1) {
-                        // Assuming the booking ID is in the first column.
-                        String bookingId = table.getValueAt(selectedRow, 0).toString();
+                    BookingListRow booking = selectedRow != -1 ? model.getRow(selectedRow) : null;
+                    if (booking != null) {
+                        String bookingId = String.valueOf(booking.bookingId());
                         Window ownerWindow = SwingUtilities.getWindowAncestor(BookingPanel.this);
                         Frame ownerFrame = (ownerWindow instanceof Frame) ? (Frame) ownerWindow : null;
                         BookingDetailForm detailForm = new BookingDetailForm(ownerFrame, sqlCon, bookingId);
@@ -185,13 +206,7 @@ public class BookingPanel extends JPanel {
         contentPanel.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
             public void mouseClicked(java.awt.event.MouseEvent evt) {
-                DefaultTableModel newModel = sqlCon.getBookingsTableModel();
-                table.setModel(new DefaultTableModel(newModel.getDataVector(), columnNamesVector) {
-                    @Override
-                    public boolean isCellEditable(int row, int column) {
-                        return false;
-                    }
-                });
+                model.refresh();
             }
         });
 
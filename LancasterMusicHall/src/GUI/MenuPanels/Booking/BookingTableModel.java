@@ -0,0 +1,380 @@
+package GUI.MenuPanels.Booking;
+
+import Database.BookingListQuery;
+import Database.SQLConnection;
+import Database.rows.BookingListRow;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A read-only table model of the bookings list that loads its rows a page at a time, in the background, as the
+ * table asks for them.
+ * <p>
+ * Pages are read with keyset pagination ({@link BookingListQuery}): page {@code n + 1} continues after the last
+ * row of page {@code n}, so the key of that row is kept for every page seen, while the rows themselves are kept
+ * only for the most recently used {@link #MAX_CACHED_PAGES} pages. A page that is not cached is shown blank and
+ * loaded; whenever a page is shown its neighbours are loaded too, so scrolling rarely reaches a blank row.
+ * </p>
+ * <p>
+ * The list grows as it is scrolled: the row count covers the pages read so far, and the next page is fetched
+ * when the last one comes into view. Opening the list therefore reads one page however many bookings there are.
+ * Sorting and filtering are done by the database and start the list again from its first page.
+ * </p>
+ * <p>
+ * All methods must be called on the Event Dispatch Thread; loads complete there.
+ * </p>
+ */
+public class BookingTableModel extends AbstractTableModel {
+
+    /** Rows read per query. */
+    public static final int PAGE_SIZE = 100;
+
+    /** Pages whose rows are kept; older ones are read again if they come back into view. */
+    public static final int MAX_CACHED_PAGES = 20;
+
+    private final SQLConnection sqlCon;
+    private BookingListQuery query = BookingListQuery.DEFAULT;
+
+    /** The last row of each page read so far; the cursor for the page after it. */
+    private final List<BookingListRow> pageEnds = new ArrayList<>();
+    private final Map<Integer, List<BookingListRow>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<BookingListRow>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loading = new HashSet<>();
+    private int rowCount;
+    private boolean complete;
+
+    /** True while a {@link #refresh()} is reading the pages again; other page loads wait for it. */
+    private boolean refreshing;
+
+    /** Incremented whenever the list starts again, so loads for an older list are ignored. */
+    private int generation;
+
+    /**
+     * Creates the model and starts loading the first page.
+     *
+     * @param sqlCon the connection the pages are read through
+     */
+    public BookingTableModel(SQLConnection sqlCon) {
+        this.sqlCon = sqlCon;
+        reload();
+    }
+
+    /**
+     * @return the current order and filter
+     */
+    public BookingListQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Changes the order or filter and starts the list again from its first page.
+     *
+     * @param query the new order and filter
+     */
+    public void setQuery(BookingListQuery query) {
+        this.query = query;
+        reload();
+    }
+
+    /**
+     * Forgets every row and reads the first page again.
+     */
+    public void reload() {
+        generation++;
+        pageEnds.clear();
+        pages.clear();
+        loading.clear();
+        refreshing = false;
+        rowCount = 0;
+        complete = false;
+        fireTableDataChanged();
+        load(0);
+    }
+
+    /**
+     * Reads the pages again, keeping the rows on screen until their new values arrive so the table does not
+     * jump. Used when bookings have changed. The pages are read in order, each continuing after the freshly read
+     * end of the one before, so a booking added, removed or moved ahead of a page shifts its rows rather than
+     * showing one twice or not at all; pages that are not cached are read only for their ends. The row count is
+     * then worked out again.
+     */
+    public void refresh() {
+        generation++;
+        loading.clear();
+        refreshing = true;
+        refreshPage(0, null, Math.max(pageEnds.size(), 1), Set.copyOf(pages.keySet()), generation);
+    }
+
+    /**
+     * Reads one page of a {@link #refresh()}, then the next, until {@code known} pages or the end of the list.
+     */
+    private void refreshPage(int page, BookingListRow after, int known, Set<Integer> cached, int refreshGeneration) {
+        BookingListQuery pageQuery = query;
+        sqlCon.getAsync()
+                .queryForList(pageQuery.sql(after), BookingListRow.MAPPER, pageQuery.params(after, PAGE_SIZE))
+                .whenCompleteAsync((rows, ex) -> {
+                    if (refreshGeneration != generation) {
+                        return; // the list has started again since
+                    }
+                    if (ex != null) {
+                        ex.printStackTrace();
+                        reload();
+                        return;
+                    }
+                    if (cached.contains(page) || page == 0) {
+                        pages.put(page, rows);
+                        int first = page * PAGE_SIZE;
+                        int last = Math.min(first + rows.size(), rowCount) - 1;
+                        if (last >= first) {
+                            fireTableRowsUpdated(first, last);
+                        }
+                    } else {
+                        pages.remove(page);
+                    }
+                    if (!rows.isEmpty()) {
+                        if (page < pageEnds.size()) {
+                            pageEnds.set(page, rows.get(rows.size() - 1));
+                        } else {
+                            pageEnds.add(rows.get(rows.size() - 1));
+                        }
+                    }
+                    if (rows.size() == PAGE_SIZE && page + 1 < known) {
+                        refreshPage(page + 1, rows.get(rows.size() - 1), known, cached, refreshGeneration);
+                    } else {
+                        refreshed(page, rows.size());
+                    }
+                }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Ends a {@link #refresh()} whose last page read was {@code page}, holding {@code size} rows.
+     */
+    private void refreshed(int page, int size) {
+        int pageCount = size > 0 ? page + 1 : page;
+        pageEnds.subList(pageCount, pageEnds.size()).clear();
+        pages.keySet().removeIf(p -> p >= pageCount);
+        complete = size < PAGE_SIZE;
+        refreshing = false;
+        int oldCount = rowCount;
+        rowCount = page * PAGE_SIZE + size;
+        if (rowCount > oldCount) {
+            fireTableRowsInserted(oldCount, rowCount - 1);
+        } else if (rowCount < oldCount) {
+            fireTableRowsDeleted(rowCount, oldCount - 1);
+        }
+        if (rowCount > 0) {
+            // Rows of pages that were not cached, or were asked for while refreshing, are loaded as they are shown.
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+    }
+
+    /**
+     * Updates the rows of bookings that have changed, reading only those bookings. A row is replaced where it
+     * is if the booking still matches the filter and keeps its place in the order; otherwise, or if a changed
+     * booking is not among the rows read, the list is {@link #refresh() refreshed}.
+     *
+     * @param bookingIds the bookings that were created, changed or deleted
+     */
+    public void bookingsChanged(Collection<Integer> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        if (bookingIds.size() > PAGE_SIZE) {
+            refresh();
+            return;
+        }
+        List<Integer> ids = List.copyOf(bookingIds);
+        BookingListQuery changeQuery = query;
+        int loadGeneration = generation;
+        sqlCon.getAsync()
+                .queryForList(changeQuery.sqlForIds(ids.size()), BookingListRow.MAPPER,
+                        changeQuery.paramsForIds(ids))
+                .whenCompleteAsync((rows, ex) -> {
+                    if (loadGeneration != generation) {
+                        return; // the list has been read again since
+                    }
+                    if (ex != null) {
+                        ex.printStackTrace();
+                        refresh();
+                        return;
+                    }
+                    changed(ids, rows);
+                }, SwingUtilities::invokeLater);
+    }
+
+    private void changed(List<Integer> ids, List<BookingListRow> rows) {
+        Map<Integer, BookingListRow> fresh = new HashMap<>();
+        for (BookingListRow row : rows) {
+            fresh.put(row.bookingId(), row);
+        }
+        // Where each changed booking is shown now, as {page, index}.
+        Map<Integer, int[]> shown = new HashMap<>();
+        for (Map.Entry<Integer, List<BookingListRow>> page : pages.entrySet()) {
+            List<BookingListRow> pageRows = page.getValue();
+            for (int i = 0; i < pageRows.size(); i++) {
+                if (ids.contains(pageRows.get(i).bookingId())) {
+                    shown.put(pageRows.get(i).bookingId(), new int[]{page.getKey(), i});
+                }
+            }
+        }
+        for (Integer id : ids) {
+            BookingListRow row = fresh.get(id);
+            int[] at = shown.get(id);
+            if (row == null && at == null) {
+                continue; // neither shown before nor now
+            }
+            if (row == null || at == null) {
+                refresh(); // added to or removed from the list
+                return;
+            }
+            BookingListRow old = pages.get(at[0]).get(at[1]);
+            if (!Objects.equals(query.sortValue(old), query.sortValue(row))) {
+                refresh(); // moved within the list
+                return;
+            }
+        }
+        for (Map.Entry<Integer, int[]> entry : shown.entrySet()) {
+            int[] at = entry.getValue();
+            BookingListRow row = fresh.get(entry.getKey());
+            List<BookingListRow> pageRows = new ArrayList<>(pages.get(at[0]));
+            if (!row.equals(pageRows.get(at[1]))) {
+                pageRows.set(at[1], row);
+                pages.put(at[0], pageRows);
+                if (at[1] == pageRows.size() - 1) {
+                    pageEnds.set(at[0], row);
+                }
+                int index = at[0] * PAGE_SIZE + at[1];
+                fireTableRowsUpdated(index, index);
+            }
+        }
+    }
+
+    /**
+     * @param row a row index
+     * @return the booking shown in the row, or {@code null} if its page has not been loaded
+     */
+    public BookingListRow getRow(int row) {
+        int page = row / PAGE_SIZE;
+        List<BookingListRow> rows = pages.get(page);
+        if (rows == null) {
+            load(page);
+        }
+        prefetch(page);
+        int index = row % PAGE_SIZE;
+        return rows != null && index < rows.size() ? rows.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return BookingListQuery.Column.values().length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return BookingListQuery.Column.values()[column].getTitle();
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        BookingListRow row = getRow(rowIndex);
+        if (row == null) {
+            return null;
+        }
+        return switch (BookingListQuery.Column.values()[columnIndex]) {
+            case ID -> row.bookingId();
+            case NAME -> row.clientName();
+            case START -> String.valueOf(row.startDate());
+            case END -> String.valueOf(row.endDate());
+            case STATUS -> row.status();
+        };
+    }
+
+    /**
+     * Loads the pages either side of one in view, and the next unread page once the last one is in view.
+     */
+    private void prefetch(int page) {
+        if (page > 0 && !pages.containsKey(page - 1)) {
+            load(page - 1);
+        }
+        if (page + 1 < pageEnds.size() || (page + 1 == pageEnds.size() && !complete)) {
+            if (!pages.containsKey(page + 1)) {
+                load(page + 1);
+            }
+        }
+    }
+
+    /**
+     * Reads one page in the background. Page {@code n} can only be read once page {@code n - 1} has been.
+     */
+    private void load(int page) {
+        if (refreshing || page > pageEnds.size() || !loading.add(page)) {
+            return;
+        }
+        BookingListRow after = page == 0 ? null : pageEnds.get(page - 1);
+        BookingListQuery pageQuery = query;
+        int loadGeneration = generation;
+        sqlCon.getAsync()
+                .queryForList(pageQuery.sql(after), BookingListRow.MAPPER, pageQuery.params(after, PAGE_SIZE))
+                .whenCompleteAsync((rows, ex) -> {
+                    if (loadGeneration != generation) {
+                        return; // the list has started again since
+                    }
+                    loading.remove(page);
+                    if (ex != null) {
+                        ex.printStackTrace();
+                        return;
+                    }
+                    loaded(page, rows);
+                }, SwingUtilities::invokeLater);
+    }
+
+    private void loaded(int page, List<BookingListRow> rows) {
+        boolean last = page >= pageEnds.size() - 1;
+        if (!last && rows.size() < PAGE_SIZE) {
+            // Bookings were deleted from the middle of the list; its page boundaries no longer hold.
+            reload();
+            return;
+        }
+        pages.put(page, rows);
+        if (!rows.isEmpty()) {
+            if (page < pageEnds.size()) {
+                pageEnds.set(page, rows.get(rows.size() - 1));
+            } else {
+                pageEnds.add(rows.get(rows.size() - 1));
+            }
+        }
+        int first = page * PAGE_SIZE;
+        if (last) {
+            complete = rows.size() < PAGE_SIZE;
+            int oldCount = rowCount;
+            rowCount = first + rows.size();
+            if (rowCount > oldCount) {
+                fireTableRowsInserted(oldCount, rowCount - 1);
+            } else if (rowCount < oldCount) {
+                fireTableRowsDeleted(rowCount, oldCount - 1);
+            }
+        }
+        if (!rows.isEmpty()) {
+            fireTableRowsUpdated(first, first + rows.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package GUI.MenuPanels.Booking;
+
+import Database.BookingListQuery;
+import Database.DataGenerator;
+import Database.SQLConnection;
+import Database.TestChecks;
+import Database.rows.BookingListRow;
+
+import javax.swing.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code BookingTableModelTest} class is a test driver for {@link BookingTableModel}.
+ * <p>
+ * It scrolls the bookings list three pages down, then adds a booking that sorts first and deletes it again, and
+ * after each change checks that the rows shown are exactly the rows the database lists in that order: every row
+ * on one page only, none missing, and the row count worked out again. Run it against the embedded profile
+ * ({@code -Dlmh.db.profile=embedded}) with {@code -Djava.awt.headless=true}. The process exits with status 1 if
+ * a check fails.
+ * </p>
+ */
+public class BookingTableModelTest {
+
+    private static final int PAGES = 3;
+
+    /**
+     * Constructs a new BookingTableModelTest instance.
+     */
+    public BookingTableModelTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if the test data cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        new DataGenerator(sqlCon, 9, 2_000, 2, LocalDate.of(2033, 1, 1), 2).run();
+        int bookings = sqlCon.queryForObject("SELECT COUNT(*) FROM Booking", rs -> rs.getInt(1)).orElse(0);
+        check("more bookings than the pages scrolled through", bookings > (PAGES + 1) * BookingTableModel.PAGE_SIZE);
+
+        BookingTableModel[] holder = new BookingTableModel[1];
+        SwingUtilities.invokeAndWait(() -> holder[0] = new BookingTableModel(sqlCon));
+        BookingTableModel model = holder[0];
+        check(PAGES + " pages are read by scrolling", await(() -> {
+            if (model.getRowCount() > 0) {
+                model.getRow(model.getRowCount() - 1);
+            }
+            return model.getRowCount() >= PAGES * BookingTableModel.PAGE_SIZE;
+        }));
+        int shown = PAGES * BookingTableModel.PAGE_SIZE;
+        check("rows shown match the database", await(() -> matches(model, sqlCon, shown)));
+
+        int bookingId = insertFirstBooking(sqlCon);
+        SwingUtilities.invokeAndWait(() -> model.bookingsChanged(List.of(bookingId)));
+        check("after a booking is added ahead of the cached pages, rows shown match the database",
+                await(() -> matches(model, sqlCon, shown)));
+        check("added booking is shown first", await(() -> {
+            BookingListRow first = model.getRow(0);
+            return first != null && first.bookingId() == bookingId;
+        }));
+
+        check("added booking is deleted", sqlCon.deleteFullBooking(bookingId));
+        SwingUtilities.invokeAndWait(() -> model.bookingsChanged(List.of(bookingId)));
+        check("after a booking is deleted ahead of the cached pages, rows shown match the database",
+                await(() -> matches(model, sqlCon, shown)));
+
+        TestChecks.finish();
+    }
+
+    /**
+     * Adds a held booking that starts after every other, so it sorts first in the default order.
+     *
+     * @return the new booking's ID
+     */
+    private static int insertFirstBooking(SQLConnection sqlCon) throws Exception {
+        int clientId = sqlCon.queryForObject("SELECT MIN(client_id) FROM Clients", rs -> rs.getInt(1)).orElse(1);
+        try (Connection con = sqlCon.getConnection();
+             PreparedStatement ps = con.prepareStatement("INSERT INTO Booking (booking_DateStart, booking_DateEnd, "
+                     + "booking_status, client_id) VALUES (?, ?, 'held', ?)", Statement.RETURN_GENERATED_KEYS)) {
+            ps.setObject(1, LocalDate.of(2099, 12, 30));
+            ps.setObject(2, LocalDate.of(2099, 12, 31));
+            ps.setInt(3, clientId);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * @return true if the model shows at least {@code count} rows, each the row the database lists at that place
+     */
+    private static boolean matches(BookingTableModel model, SQLConnection sqlCon, int count) {
+        BookingListQuery query = model.getQuery();
+        List<BookingListRow> expected = sqlCon.queryForList(query.sql(null), BookingListRow.MAPPER,
+                query.params(null, model.getRowCount()));
+        if (model.getRowCount() < count || model.getRowCount() != expected.size()) {
+            return false;
+        }
+        List<BookingListRow> rows = new ArrayList<>();
+        for (int i = 0; i < model.getRowCount(); i++) {
+            rows.add(model.getRow(i));
+        }
+        return rows.equals(expected);
+    }
+
+    /**
+     * Tests a condition on the Event Dispatch Thread until it holds, for up to ten seconds.
+     */
+    private static boolean await(BooleanSupplier condition) throws Exception {
+        AtomicBoolean held = new AtomicBoolean();
+        for (int i = 0; i < 200 && !held.get(); i++) {
+            SwingUtilities.invokeAndWait(() -> held.set(condition.getAsBoolean()));
+            if (!held.get()) {
+                Thread.sleep(50);
+            }
+        }
+        return held.get();
+    }
+}
@@ -1,6 +1,8 @@
 package GUI.MenuPanels.Booking;
 
+import Database.RoomOccupancyIndex;
 import Database.SQLConnection;
+import GUI.MenuPanels.PriceQuoter;
 import operations.entities.Event;
 import operations.entities.Venue;
 
@@ -30,6 +32,12 @@ public class NewBookingForm extends JDialog {
      * Date formatter using "dd/MM/yyyy" pattern.
      */
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** How long an event panel must stay unchanged before it is re-priced, in milliseconds. */
+    private static final int QUOTE_DEBOUNCE_MILLIS = 400;
+
+    /** Prices the event panels in the background as they are edited. */
+    private PriceQuoter<EventDetailPanel> quoter;
 // --- Client Details Fields ---
     /** Company/organization name (required for corporate bookings) */
     private JTextField companyNameField;
@@ -123,6 +131,34 @@ public class NewBookingForm extends JDialog {
         super(owner, "New Booking", true);
         this.sqlCon = sqlCon;
         eventPanels = new ArrayList<>();
+        quoter = new PriceQuoter<>(sqlCon, QUOTE_DEBOUNCE_MILLIS, EventDetailPanel::readQuoteRequest,
+                new PriceQuoter.Listener<>() {
+                    @Override
+                    public void started(EventDetailPanel panel) {
+                        panel.priced = false;
+                        panel.eventPriceLabel.setText("Calculating...");
+                        panel.eventPriceLabel.setToolTipText(null);
+                        updateCustomerBillTotal();
+                    }
+
+                    @Override
+                    public void quoted(EventDetailPanel panel, double price) {
+                        panel.price = price;
+                        panel.priced = true;
+                        panel.eventPriceLabel.setText(formatPrice(price));
+                        updateCustomerBillTotal();
+                    }
+
+                    @Override
+                    public void failed(EventDetailPanel panel, Throwable cause) {
+                        panel.price = 0.0;
+                        panel.priced = false;
+                        panel.eventPriceLabel.setText("Unavailable");
+                        panel.eventPriceLabel.setToolTipText(cause.getMessage() != null
+                                ? cause.getMessage() : cause.getClass().getSimpleName());
+                        updateCustomerBillTotal();
+                    }
+                });
         initComponents();
         pack();
         setLocationRelativeTo(owner);
@@ -198,7 +234,6 @@ public class NewBookingForm extends JDialog {
         eventsContainer = new JPanel();
         eventsContainer.setLayout(new BoxLayout(eventsContainer, BoxLayout.Y_AXIS));
         eventsContainer.setBorder(BorderFactory.createTitledBorder("Event Details"));
-        addNewEventPanel();
 
         addEventButton = new JButton("Add Another Event");
         addEventButton.addActionListener(e -> {
@@ -239,6 +274,9 @@ public class NewBookingForm extends JDialog {
         submitButton = new JButton("Submit Booking");
         submitButton.addActionListener(this::handleSubmitBooking);
 
+        // Pricing the first event updates the total and the submit button, so add it once they exist.
+        addNewEventPanel();
+
         // Add all panels to main panel.
         mainPanel.add(clientPanel);
         mainPanel.add(Box.createVerticalStrut(10));
@@ -260,26 +298,54 @@ public class NewBookingForm extends JDialog {
     }
 
     /**
-     * Updates the customer bill total label based on the price of each event detail panel.
+     * Cancels any outstanding price quotes before closing the dialog.
+     */
+    @Override
+    public void dispose() {
+        quoter.shutdown();
+        super.dispose();
+    }
+
+    /**
+     * Updates the customer bill total label from the latest price of each event detail panel, and enables the
+     * submit button only when every event has been priced.
+     * <p>
+     * Called whenever a panel's quote starts, lands or fails, so the total fills in as the quotes complete.
+     * </p>
      */
     private void updateCustomerBillTotal() {
         double totalBill = 0.0;
+        boolean allPriced = true;
         for (EventDetailPanel panel : eventPanels) {
-            Event event = panel.getEvent();
-            if (event != null) {
-                totalBill += event.getPrice();
-            }
+            totalBill += panel.price;
+            allPriced &= panel.priced;
         }
-        customerBillTotalLabel.setText("Customer Bill Total: £" + totalBill);
+        String state = quoter.isPending() ? " (calculating...)" : allPriced ? "" : " (some events could not be priced)";
+        customerBillTotalLabel.setText("Customer Bill Total: " + formatPrice(totalBill) + state);
+        submitButton.setEnabled(allPriced);
     }
 
     /**
-     * Adds a new event detail panel to the events container.
+     * Formats a price for display, e.g. "£120.00".
+     *
+     * @param price the price to format
+     * @return the formatted price
+     */
+    private static String formatPrice(double price) {
+        return String.format("£%.2f", price);
+    }
+
+    /**
+     * Adds a new event detail panel to the events container and starts pricing it.
      */
     private void addNewEventPanel() {
         EventDetailPanel eventPanel = new EventDetailPanel();
         eventPanels.add(eventPanel);
         eventsContainer.add(eventPanel);
+        quoter.watch(eventPanel, eventPanel.eventStartDateField, eventPanel.eventEndDateField,
+                eventPanel.eventStartTimeField, eventPanel.eventEndTimeField);
+        quoter.watch(eventPanel, eventPanel.locationCombo);
+        quoter.quoteNow(eventPanel);
     }
 
     /**
@@ -304,6 +370,19 @@ public class NewBookingForm extends JDialog {
      * @param e the {@code ActionEvent} triggering the submission
      */
     private void handleSubmitBooking(ActionEvent e) {
+        if (quoter.isPending()) {
+            JOptionPane.showMessageDialog(this, "Event prices are still being calculated. Please try again in a moment.");
+            return;
+        }
+        for (EventDetailPanel panel : eventPanels) {
+            if (!panel.priced) {
+                JOptionPane.showMessageDialog(this, "Event \"" + panel.eventNameField.getText().trim()
+                                + "\" could not be priced: " + panel.eventPriceLabel.getToolTipText()
+                                + "\nCorrect its dates, times and location before submitting.",
+                        "Price Unavailable", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
         try {
             // Collect Client details.
             String companyName = companyNameField.getText().trim();
@@ -330,7 +409,7 @@ public class NewBookingForm extends JDialog {
                     totalBill += event.getPrice();
                 }
             }
-            customerBillTotalLabel.setText("Customer Bill Total: £" + totalBill);
+            customerBillTotalLabel.setText("Customer Bill Total: " + formatPrice(totalBill));
 
             // Pricing and discount details.
             double ticketPrice = Double.parseDouble(ticketPriceField.getText().trim());
@@ -349,6 +428,16 @@ public class NewBookingForm extends JDialog {
                 staffId = 0;
             }
 
+            // Stop before saving if an event would clash with another booking in its venue.
+            List<RoomOccupancyIndex.Conflict> conflicts = sqlCon.findRoomConflicts(events);
+            if (!conflicts.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                        "These events overlap other events in the same venue:\n"
+                                + RoomOccupancyIndex.describe(conflicts),
+                        "Venue Already Booked", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
             // Call insertFullBooking with all the details.
             // Note: totalBill is passed as the total_cost for the booking.
             boolean success = sqlCon.insertFullBooking(
@@ -401,6 +490,10 @@ public class NewBookingForm extends JDialog {
         private JComboBox<String> eventTypeCombo;
         private JButton calcPriceButton;
         private JLabel eventPriceLabel;
+        /** The latest quoted price of this event; {@code 0} until a quote succeeds. */
+        private double price;
+        /** Whether {@link #price} is the quote for the current inputs; the booking cannot be submitted until it is. */
+        private boolean priced;
         // New fields for event description and layout.
         private JTextField descriptionField;
         private JTextField layoutField;
@@ -432,11 +525,7 @@ public class NewBookingForm extends JDialog {
             descriptionField = new JTextField();
             layoutField = new JTextField();
 
-            calcPriceButton.addActionListener(e -> {
-                double price = calculateEventPrice();
-                eventPriceLabel.setText("£" + price);
-                updateCustomerBillTotal();
-            });
+            calcPriceButton.addActionListener(e -> quoter.quoteNow(this));
 
             add(new JLabel("Event Start Date (dd/MM/yyyy):"));
             add(eventStartDateField);
@@ -509,116 +598,20 @@ public class NewBookingForm extends JDialog {
         }
 
         /**
-         * Calculates the price for the event based on its details and room selection.
+         * Reads the details that determine this event's price.
          *
-         * @return the calculated event price as a {@code double}
+         * @return the quote request for this event
+         * @throws java.time.format.DateTimeParseException if a date or time cannot be parsed
          */
-        private double calculateEventPrice() {
-            double price = 0.0;
-            try {
-                LocalDate startDate = LocalDate.parse(eventStartDateField.getText().trim(), DATE_FORMATTER);
-                LocalDate endDate = LocalDate.parse(eventEndDateField.getText().trim(), DATE_FORMATTER);
-                LocalTime startTime = LocalTime.parse(eventStartTimeField.getText().trim());
-                LocalTime endTime = LocalTime.parse(eventEndTimeField.getText().trim());
-
-                long daysDiff = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate);
-                int totalDays = (daysDiff == 0) ? 1 : (int) daysDiff + 1;
-                long hours = java.time.Duration.between(startTime, endTime).toHours();
-
-                String locationRaw = (String) locationCombo.getSelectedItem();
-                String location = locationRaw.replace("Room ", "").trim();
-                int venueId = mapLocationToVenueId(locationRaw);
-                java.sql.Date sqlDate = java.sql.Date.valueOf(startDate);
-
-                switch (location) {
-                    case "Main_Hall":
-                        if (totalDays == 1) {
-                            if (startTime.getHour() >= 17) {
-                                price = sqlCon.calculateMainHallCost(sqlDate, "evening", 0);
-                            } else {
-                                price = sqlCon.calculateMainHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                            }
-                        } else {
-                            price = sqlCon.calculateMainHallCost(sqlDate, "daily", 0) * totalDays;
-                        }
-                        break;
-                    case "Small_Hall":
-                        if (totalDays == 1) {
-                            if (startTime.getHour() >= 17) {
-                                price = sqlCon.calculateSmallHallCost(sqlDate, "evening", 0);
-                            } else {
-                                price = sqlCon.calculateSmallHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                            }
-                        } else {
-                            price = sqlCon.calculateSmallHallCost(sqlDate, "daily", 0) * totalDays;
-                        }
-                        break;
-                    case "Rehearsal_Space":
-                        if (totalDays == 1) {
-                            price = sqlCon.calculateRehearsalCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                        } else if (totalDays == 7) {
-                            price = sqlCon.calculateRehearsalCost(sqlDate, "weekly_long", 0);
-                        } else {
-                            price = sqlCon.calculateRehearsalCost(sqlDate, "daily_long", 0) * totalDays;
-                        }
-                        break;
-                    case "Venue":
-                        if (totalDays == 1) {
-                            if (startTime.getHour() >= 17) {
-                                price = sqlCon.calculateVenueCost(sqlDate, "evening");
-                            } else {
-                                price = sqlCon.calculateVenueCost(sqlDate, "full_day");
-                            }
-                        } else {
-                            price = sqlCon.calculateVenueCost(sqlDate, "full_day") * totalDays;
-                        }
-                        break;
-                    case "The Green Room":
-                    case "Brontë Boardroom":
-                    case "Dickens Den":
-                    case "Poe Parlor":
-                    case "Globe Room":
-                    case "Chekhov Chamber":
-                        if (totalDays == 1) {
-                            String duration;
-                            if (hours <= 1) {
-                                duration = "1 Hour";
-                            } else if (hours <= 4) {
-                                duration = "Morning/Afternoon";
-                            } else {
-                                duration = "All Day";
-                            }
-                            price = sqlCon.calculateRoomCost(venueId, location, duration);
-                        } else if (totalDays == 7) {
-                            price = sqlCon.calculateRoomCost(venueId, location, "Week");
-                        } else {
-                            price = sqlCon.calculateRoomCost(venueId, location, "All Day") * totalDays;
-                        }
-                        break;
-                    default:
-                        price = sqlCon.calculateMainHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                        break;
-                }
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Error calculating event price: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
-            return price;
-        }
-
-        /**
-         * Updates the overall customer bill total by summing the prices from all event detail panels.
-         */
-        private void updateCustomerBillTotal() {
-            double totalBill = 0.0;
-            for (EventDetailPanel panel : eventPanels) {
-                try {
-                    String priceStr = panel.eventPriceLabel.getText().replaceAll("[£]", "").trim();
-                    totalBill += Double.parseDouble(priceStr);
-                } catch (NumberFormatException e) {
-                    // Ignore if parsing fails.
-                }
-            }
-            customerBillTotalLabel.setText("Customer Bill Total: £" + totalBill);
+        private PriceQuoter.QuoteRequest readQuoteRequest() {
+            LocalDate startDate = LocalDate.parse(eventStartDateField.getText().trim(), DATE_FORMATTER);
+            LocalDate endDate = LocalDate.parse(eventEndDateField.getText().trim(), DATE_FORMATTER);
+            LocalTime startTime = LocalTime.parse(eventStartTimeField.getText().trim());
+            LocalTime endTime = LocalTime.parse(eventEndTimeField.getText().trim());
+
+            String locationRaw = (String) locationCombo.getSelectedItem();
+            int venueId = mapLocationToVenueId(locationRaw);
+            return new PriceQuoter.QuoteRequest(locationRaw, venueId, startDate, endDate, startTime, endTime);
         }
 
         /**
@@ -638,7 +631,6 @@ public class NewBookingForm extends JDialog {
                 LocalTime endTime = LocalTime.parse(eventEndTimeField.getText().trim());
                 int venueId = mapLocationToVenueId(location);
                 Venue venue = new Venue(venueId, location, location, 0, "N/A", false, false, 0.0);
-                double price = Double.parseDouble(eventPriceLabel.getText().replaceAll("[£]", ""));
                 String description = descriptionField.getText().trim(); // new description field
                 String layout = layoutField.getText().trim();           // new layout field
 
@@ -0,0 +1,129 @@
+package GUI.MenuPanels.Calendar;
+
+import Database.CalendarPrefetcher;
+import Database.CalendarStore;
+import Database.rows.CalendarEventRow;
+
+import javax.swing.*;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Loads a calendar or diary view's events off the Event Dispatch Thread, keeping only the newest request.
+ * <p>
+ * Every {@link #load} takes a new generation number, and results are handed over on the Event Dispatch Thread
+ * only if their generation is still the newest, so clicking through weeks faster than they load shows only the
+ * week the user stopped at. A superseded load is not cancelled: it is reading a month into the store that every
+ * view and the prefetcher share, often the very month the next load needs, and interrupting it would also cost
+ * its connection. Ranges already held by the {@link CalendarStore} are handed over at once, without a round trip
+ * through the event queue; otherwise the caller is told to show a placeholder until the events arrive, or told
+ * the load failed so it can take the placeholder down again. A loader made for a window size also tells a
+ * {@link CalendarPrefetcher.Cursor} each range it loads, so the ranges the view is likely to show next are read
+ * ahead. Each view has its own loader, and every method must be called on the Event Dispatch Thread.
+ * </p>
+ */
+public final class CalendarLoader {
+
+    private final CalendarStore store;
+    /** Reads ahead the ranges the view will show next, or {@code null} not to read ahead. */
+    private final CalendarPrefetcher.Cursor cursor;
+    /** The generation of the newest load; results of older ones are dropped. */
+    private long generation;
+    /** The newest load, or {@code null} once it has been handed over. */
+    private CompletableFuture<List<CalendarEventRow>> pending;
+
+    /**
+     * Creates a loader reading from the given store.
+     *
+     * @param store the shared event store
+     */
+    public CalendarLoader(CalendarStore store) {
+        this.store = store;
+        this.cursor = null;
+    }
+
+    /**
+     * Creates a loader reading from the given store that has the view's neighbouring ranges read ahead.
+     *
+     * @param store the shared event store
+     * @param step  the view's window size, which is also how far its previous and next buttons move
+     */
+    public CalendarLoader(CalendarStore store, Period step) {
+        this.store = store;
+        this.cursor = store.getPrefetcher().cursor(step);
+    }
+
+    /**
+     * Loads the events starting between two dates, dropping the result of any load still in flight.
+     *
+     * @param from          the first date, inclusive
+     * @param to            the last date, inclusive
+     * @param bookingStatus only events of bookings with this status, or {@code null} for all
+     * @param onWaiting     run at once if the events have to be read from the database, e.g. to show a
+     *                      placeholder; may be {@code null}
+     * @param onLoaded      given the events on the Event Dispatch Thread, unless a newer load has started
+     * @param onFailed      given the cause on the Event Dispatch Thread if the events could not be read, unless a
+     *                      newer load has started, e.g. to replace the placeholder with an error; may be
+     *                      {@code null}
+     */
+    public void load(LocalDate from, LocalDate to, String bookingStatus, Runnable onWaiting,
+                     Consumer<List<CalendarEventRow>> onLoaded, Consumer<Throwable> onFailed) {
+        cancel();
+        long token = generation;
+        CompletableFuture<List<CalendarEventRow>> load = store.loadEvents(from, to, bookingStatus, null);
+        boolean ready = load.isDone() && !load.isCompletedExceptionally();
+        if (cursor != null) {
+            cursor.shown(from, to, ready);
+        }
+        if (ready) {
+            onLoaded.accept(load.join());
+            return;
+        }
+        pending = load;
+        if (onWaiting != null) {
+            onWaiting.run();
+        }
+        load.whenCompleteAsync((rows, ex) -> {
+            if (token != generation) {
+                return; // superseded by a newer load
+            }
+            pending = null;
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                cause.printStackTrace();
+                if (onFailed != null) {
+                    onFailed.accept(cause);
+                }
+                return;
+            }
+            onLoaded.accept(rows);
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Drops the result of the load in flight, if any. The load itself runs on, so its months are still cached.
+     */
+    public void cancel() {
+        generation++;
+        pending = null;
+    }
+
+    /**
+     * @return {@code true} while a load is in flight
+     */
+    public boolean isLoading() {
+        return pending != null;
+    }
+
+    /**
+     * @return the number of loads started or cancelled so far; each result is tagged with the generation of its
+     *         load
+     */
+    public long getGeneration() {
+        return generation;
+    }
+}
@@ -0,0 +1,176 @@
+package GUI.MenuPanels.Calendar;
+
+import Database.CalendarStore;
+import Database.SQLConnection;
+import Database.TestChecks;
+import Database.rows.CalendarEventRow;
+
+import javax.swing.*;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code CalendarLoaderTest} class is a test driver for {@link CalendarLoader}.
+ * <p>
+ * It checks that a range the {@link CalendarStore} already holds is handed over at once without a placeholder,
+ * that of several loads started in quick succession only the last is handed over, that a cancelled load is
+ * never handed over, though superseded and cancelled loads still cache their months, and that a load the store
+ * cannot read is reported as failed, replacing the placeholder. Run it against the embedded profile
+ * ({@code -Dlmh.db.profile=embedded}) with {@code -Djava.awt.headless=true}. The process exits with status 1 if
+ * a check fails.
+ * </p>
+ */
+public class CalendarLoaderTest {
+
+    /**
+     * Constructs a new CalendarLoaderTest instance.
+     */
+    public CalendarLoaderTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     * @throws Exception if a load is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        SQLConnection sqlCon = new SQLConnection();
+        CalendarStore store = sqlCon.getCalendarStore();
+        LocalDate busiest = sqlCon.queryForObject("SELECT start_date FROM Event GROUP BY start_date "
+                + "ORDER BY COUNT(*) DESC, start_date LIMIT 1", rs -> rs.getDate(1).toLocalDate())
+                .orElse(LocalDate.now());
+        YearMonth month = YearMonth.from(busiest);
+        store.getEvents(month.atDay(1), month.atEndOfMonth(), null, null);
+        CalendarLoader loader = new CalendarLoader(store);
+
+        List<String> calls = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> loader.load(busiest, busiest, "confirmed",
+                () -> calls.add("waiting"), rows -> calls.add("loaded " + rows.size()), null));
+        check("cached range is handed over at once without a placeholder",
+                calls.size() == 1 && calls.get(0).startsWith("loaded") && !loader.isLoading());
+
+        // Three months the store has not read yet, asked for one after another while every connection is busy.
+        List<YearMonth> months = List.of(month.minusYears(3), month.minusYears(4), month.minusYears(5));
+        check("months not cached before loading", months.stream()
+                .noneMatch(m -> store.isCached(m.atDay(1), m.atEndOfMonth())));
+        List<LocalDate> delivered = new ArrayList<>();
+        List<Boolean> waited = new ArrayList<>();
+        CountDownLatch last = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        holdConnections(sqlCon, gate);
+        SwingUtilities.invokeAndWait(() -> {
+            for (YearMonth m : months) {
+                LocalDate first = m.atDay(1);
+                loader.load(first, m.atEndOfMonth(), null, () -> waited.add(true), rows -> {
+                    delivered.add(first);
+                    last.countDown();
+                }, null);
+            }
+            check("loader is busy while the month is read", loader.isLoading());
+        });
+        gate.countDown();
+        check("newest load is handed over", last.await(10, TimeUnit.SECONDS));
+        check("superseded loads still cache their months", cachedSoon(store, months));
+        settle(store, months);
+        check("placeholder shown for each load read from the database", waited.size() == months.size());
+        check("only the newest load is handed over",
+                delivered.equals(List.of(months.get(2).atDay(1))) && !loader.isLoading());
+
+        YearMonth skipped = month.minusYears(6);
+        List<String> cancelled = new ArrayList<>();
+        CountDownLatch held = new CountDownLatch(1);
+        holdConnections(sqlCon, held);
+        SwingUtilities.invokeAndWait(() -> {
+            loader.load(skipped.atDay(1), skipped.atEndOfMonth(), null, null, rows -> cancelled.add("loaded"),
+                    null);
+            loader.cancel();
+        });
+        held.countDown();
+        check("cancelled load still caches its month", cachedSoon(store, List.of(skipped)));
+        settle(store, List.of(skipped));
+        check("cancelled load is never handed over", cancelled.isEmpty() && !loader.isLoading());
+        check("each load and cancel takes a generation", loader.getGeneration() == 6);
+
+        // A month that cannot be read is reported as failed, and the timeline drops its placeholder.
+        YearMonth unreadable = month.minusYears(7);
+        TimelineView timeline = new TimelineView(1, 9, 40, CalendarEventRow::name, id -> { });
+        List<String> outcome = new ArrayList<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        execute(sqlCon, "ALTER TABLE CalendarEntry RENAME TO CalendarEntryHidden");
+        try {
+            SwingUtilities.invokeAndWait(() -> loader.load(unreadable.atDay(1), unreadable.atEndOfMonth(), null,
+                    () -> timeline.showLoading(unreadable.atDay(1)), rows -> outcome.add("loaded"), ex -> {
+                        outcome.add("failed");
+                        timeline.showFailed();
+                        failed.countDown();
+                    }));
+            check("failed load is reported", failed.await(10, TimeUnit.SECONDS));
+        } finally {
+            execute(sqlCon, "ALTER TABLE CalendarEntryHidden RENAME TO CalendarEntry");
+        }
+        SwingUtilities.invokeAndWait(() -> { });
+        check("failed load is not handed over", outcome.equals(List.of("failed")) && !loader.isLoading());
+        check("failed load replaces the placeholder", timeline.isFailed() && !timeline.isLoading());
+
+        TestChecks.finish();
+    }
+
+    /**
+     * Starts tasks that wait for the gate until one of them has to queue, so that the next reads queue too.
+     */
+    private static void holdConnections(SQLConnection sqlCon, CountDownLatch gate) throws Exception {
+        while (true) {
+            CountDownLatch started = new CountDownLatch(1);
+            sqlCon.getAsync().submit(sql -> {
+                started.countDown();
+                return gate.await(10, TimeUnit.SECONDS);
+            });
+            if (!started.await(200, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private static void execute(SQLConnection sqlCon, String sql) throws Exception {
+        try (Connection con = sqlCon.getConnection(); Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    /**
+     * @return true once the store holds every given month, without asking it to read them; false after ten seconds
+     */
+    private static boolean cachedSoon(CalendarStore store, List<YearMonth> months) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            if (months.stream().allMatch(m -> store.isCached(m.atDay(1), m.atEndOfMonth()))) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    /**
+     * Waits for the store to read the given months, then lets the Event Dispatch Thread run what they queued.
+     */
+    private static void settle(CalendarStore store, List<YearMonth> months) throws Exception {
+        for (YearMonth m : months) {
+            try {
+                store.loadEvents(m.atDay(1), m.atEndOfMonth(), null, null).get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                // A cancelled read is read again here; any failure shows up in the checks.
+            }
+        }
+        Thread.sleep(100);
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+}
@@ -73,6 +73,13 @@ public class CalendarPanel extends JPanel {
         initializeUI();
         switchToView(CalendarView.WEEK);
         setupBottomPanel();
+
+        // Redraw the open view from fresh events whenever a booking or event changes.
+        mainMenu.getSqlConnection().getCalendarStore().addChangeListener(() -> {
+            if (currentViewPanel != null) {
+                currentViewPanel.refreshView();
+            }
+        });
     }
 
     /**
@@ -101,35 +108,46 @@ public class CalendarPanel extends JPanel {
 
     /**
      * Switches to the specified view at the specified date.
+     * <p>
+     * Moving to another date in the view already shown reuses its panel, which loads the new dates in the
+     * background and drops any load it had in flight; switching to another view replaces the panel and cancels
+     * the old one's load. Either way nothing waits for the database on the Event Dispatch Thread.
+     * </p>
      *
      * @param view The view to switch to (DAY, WEEK, or MONTH)
      * @param date The date to display in the view
      */
     private void switchToView(CalendarView view, LocalDate date) {
+        boolean sameView = currentViewPanel != null && view == currentView;
         currentView = view;
         currentDate = date;
 
-        if (currentViewPanel != null) {
-            remove(currentViewPanel);
-        }
+        if (sameView) {
+            currentViewPanel.setViewDate(date);
+        } else {
+            if (currentViewPanel != null) {
+                currentViewPanel.cancelLoading();
+                remove(currentViewPanel);
+            }
 
-        switch (view) {
-            case WEEK:
-                currentViewPanel = new WeekViewPanel(date, events, mainMenu.getSqlConnection());
-                if (viewCombo != null) viewCombo.setSelectedItem("Week");
-                break;
-            case DAY:
-                currentViewPanel = new DayViewPanel(date, events, mainMenu.getSqlConnection());
-                if (viewCombo != null) viewCombo.setSelectedItem("Day");
-                break;
-            case MONTH:
-                currentViewPanel = new MonthViewPanel(date, events, mainMenu.getSqlConnection(),
-                        d -> switchToView(CalendarView.WEEK, d));
-                if (viewCombo != null) viewCombo.setSelectedItem("Month");
-                break;
-        }
+            switch (view) {
+                case WEEK:
+                    currentViewPanel = new WeekViewPanel(date, events, mainMenu.getSqlConnection());
+                    if (viewCombo != null) viewCombo.setSelectedItem("Week");
+                    break;
+                case DAY:
+                    currentViewPanel = new DayViewPanel(date, events, mainMenu.getSqlConnection());
+                    if (viewCombo != null) viewCombo.setSelectedItem("Day");
+                    break;
+                case MONTH:
+                    currentViewPanel = new MonthViewPanel(date, events, mainMenu.getSqlConnection(),
+                            d -> switchToView(CalendarView.WEEK, d));
+                    if (viewCombo != null) viewCombo.setSelectedItem("Month");
+                    break;
+            }
 
-        add(currentViewPanel, BorderLayout.CENTER);
+            add(currentViewPanel, BorderLayout.CENTER);
+        }
         updateHeaderText();
         revalidate();
         repaint();
@@ -216,10 +234,13 @@ public class CalendarPanel extends JPanel {
         datePicker.addPropertyChangeListener("date", e -> {
             java.util.Date selectedDate = datePicker.getDate();
             if (selectedDate != null) {
-                currentDate = selectedDate.toInstant()
+                LocalDate picked = selectedDate.toInstant()
                         .atZone(ZoneId.systemDefault())
                         .toLocalDate();
-                switchToView(currentView, currentDate);
+                // Ignore the picker echoing a date set by navigation.
+                if (!picked.equals(currentDate)) {
+                    switchToView(currentView, picked);
+                }
             }
         });
 
@@ -266,7 +287,10 @@ public class CalendarPanel extends JPanel {
         String selected = (String) viewCombo.getSelectedItem();
         if (selected != null) {
             CalendarView view = CalendarView.valueOf(selected.toUpperCase());
-            switchToView(view);
+            // Ignore the combo box echoing a view set by switchToView.
+            if (view != currentView) {
+                switchToView(view);
+            }
         }
     }
 
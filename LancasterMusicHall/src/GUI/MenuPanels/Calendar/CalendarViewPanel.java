@@ -8,6 +8,7 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +27,9 @@ public abstract class CalendarViewPanel extends JPanel {
     /** A list of events displayed on this calendar view. */
     protected List<Event> events;
 
+    /** Loads this view's events in the background; created on first use. */
+    private CalendarLoader loader;
+
     /**
      * Constructs a CalendarViewPanel with the specified starting date, list of events,
      * and SQL connection object.
@@ -70,6 +74,37 @@ public abstract class CalendarViewPanel extends JPanel {
      */
     protected abstract Database.SQLConnection getSQLConnection();
 
+    /**
+     * Returns the loader this view reads its events through, creating it on first use.
+     *
+     * @return the view's own {@link CalendarLoader}
+     */
+    protected CalendarLoader getLoader() {
+        if (loader == null) {
+            loader = new CalendarLoader(getSQLConnection().getCalendarStore(), getNavigationStep());
+        }
+        return loader;
+    }
+
+    /**
+     * Returns how far {@link #navigate(int)} moves the view, so its loader can read the neighbouring ranges
+     * ahead.
+     *
+     * @return one week by default; day and month views return their own window size
+     */
+    protected Period getNavigationStep() {
+        return Period.ofWeeks(1);
+    }
+
+    /**
+     * Drops the result of this view's event load still in flight, if any. Call when the view is replaced.
+     */
+    public void cancelLoading() {
+        if (loader != null) {
+            loader.cancel();
+        }
+    }
+
     /**
      * Sets the starting date for the calendar view.
      *
@@ -0,0 +1,248 @@
+package GUI.MenuPanels.Calendar;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Column layout shared by the calendar and diary day and week views.
+ * <p>
+ * Overlapping events are shown side by side. {@link #layout(List)} sweeps the events once in start order,
+ * keeping the events still running in a heap ordered by end time and the columns they have given back in a heap
+ * of free columns, so each event takes the lowest column free when it starts. That colours the interval graph
+ * with as few columns as any layout can, in {@code O(n log n)} time and without any per-slot state. Events that
+ * overlap, directly or through a chain of others, form a group; every event in a group is told how many columns
+ * the group needs, so events of a quiet part of the day keep their full width however busy the rest of it is.
+ * </p>
+ * <p>
+ * Times are whole minutes on any scale the caller likes, usually minutes after the midnight that starts the
+ * view. {@link #clip} turns an event's dates and times into that scale, so events that cross midnight or last
+ * several days are cut to the part shown on each day.
+ * </p>
+ */
+public final class EventColumns {
+
+    /** Minutes in a day. */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * An event as seen by the layout: the minutes it covers and the column it is given.
+     */
+    public interface Span {
+        /**
+         * @return the first minute the event covers
+         */
+        long start();
+
+        /**
+         * @return the minute after the last one the event covers; events that end where another starts do not
+         *         overlap it
+         */
+        long end();
+
+        /**
+         * Records where the event goes.
+         *
+         * @param column  the column index, from 0
+         * @param columns the number of columns of the event's group, so the event is {@code 1 / columns} wide
+         */
+        void place(int column, int columns);
+    }
+
+    private EventColumns() {
+    }
+
+    /**
+     * Assigns each event a column, and the number of columns of its group of overlapping events.
+     *
+     * @param events the events, in any order; each must end after it starts
+     * @return the most columns any group needs, or 0 if there are no events
+     */
+    public static int layout(List<? extends Span> events) {
+        int n = events.size();
+        if (n == 0) {
+            return 0;
+        }
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        int[] order = new int[n];   // indices into events, in start order
+        for (int i = 0; i < n; i++) {
+            Span event = events.get(i);
+            starts[i] = event.start();
+            ends[i] = event.end();
+            order[i] = i;
+        }
+        sort(order, new int[n], 0, n, starts, ends);
+
+        int[] columns = new int[n];
+        int[] running = new int[n];  // heap of indices into order, by end
+        int runningSize = 0;
+        int[] free = new int[n];     // heap of columns given back
+        int freeSize = 0;
+        int nextColumn = 0;          // columns ever used in the current group
+        int groupStart = 0;
+        int widest = 0;
+
+        for (int i = 0; i < n; i++) {
+            long start = starts[order[i]];
+            while (runningSize > 0 && ends[order[running[0]]] <= start) {
+                free[freeSize] = columns[running[0]];
+                siftUp(free, freeSize++);
+                running[0] = running[--runningSize];
+                siftDownByEnd(running, runningSize, order, ends);
+            }
+            if (runningSize == 0 && i > groupStart) {
+                // Nothing running: the events so far form a group of their own.
+                place(events, order, columns, groupStart, i, nextColumn);
+                widest = Math.max(widest, nextColumn);
+                groupStart = i;
+                nextColumn = 0;
+                freeSize = 0;
+            }
+            if (freeSize > 0) {
+                columns[i] = free[0];
+                free[0] = free[--freeSize];
+                siftDown(free, freeSize);
+            } else {
+                columns[i] = nextColumn++;
+            }
+            running[runningSize] = i;
+            siftUpByEnd(running, runningSize++, order, ends);
+        }
+        place(events, order, columns, groupStart, n, nextColumn);
+        return Math.max(widest, nextColumn);
+    }
+
+    /**
+     * Cuts an event to a window of one day and widens it to whole cells, as a grid view draws it.
+     * <p>
+     * Grid views draw an event in every cell it touches, so two events that share a cell are laid out as
+     * overlapping even if their times do not; widening first gives them different columns.
+     * </p>
+     *
+     * @param day         the day shown
+     * @param startDate   the event's first day
+     * @param startTime   the time the event starts on its first day
+     * @param endDate     the event's last day
+     * @param endTime     the time the event ends on its last day
+     * @param fromMinute  the first minute of {@code day} shown
+     * @param toMinute    the minute after the last one shown, up to {@link #MINUTES_PER_DAY}
+     * @param cellMinutes the length of a grid cell in minutes, or 1 for exact times
+     * @return the {@code {start, end}} minutes after {@code day}'s midnight, or {@code null} if no part of the
+     *         event is shown
+     */
+    public static long[] clip(LocalDate day, LocalDate startDate, LocalTime startTime, LocalDate endDate,
+                              LocalTime endTime, int fromMinute, int toMinute, int cellMinutes) {
+        long start = minutesFrom(day, startDate, startTime);
+        long end = Math.max(minutesFrom(day, endDate, endTime), start + 1);
+        start = Math.max(start, fromMinute);
+        end = Math.min(end, toMinute);
+        if (start >= end) {
+            return null;
+        }
+        long cellStart = fromMinute + (start - fromMinute) / cellMinutes * cellMinutes;
+        long cellEnd = fromMinute + (end - fromMinute + cellMinutes - 1) / cellMinutes * cellMinutes;
+        return new long[] {cellStart, Math.min(cellEnd, toMinute)};
+    }
+
+    /**
+     * @param day  the day to count from
+     * @param date a date
+     * @param time a time on {@code date}
+     * @return the minutes from {@code day}'s midnight to {@code time} on {@code date}; negative before it
+     */
+    public static long minutesFrom(LocalDate day, LocalDate date, LocalTime time) {
+        return (date.toEpochDay() - day.toEpochDay()) * MINUTES_PER_DAY + time.toSecondOfDay() / 60;
+    }
+
+    private static void place(List<? extends Span> events, int[] order, int[] columns, int from, int to,
+                              int groupColumns) {
+        for (int i = from; i < to; i++) {
+            events.get(order[i]).place(columns[i], groupColumns);
+        }
+    }
+
+    /**
+     * Merge-sorts {@code order[from, to)} by start, and longer events first among those starting together. Sorting
+     * the indices against the copied times keeps the comparisons free of calls back into the events.
+     */
+    private static void sort(int[] order, int[] scratch, int from, int to, long[] starts, long[] ends) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(order, scratch, from, mid, starts, ends);
+        sort(order, scratch, mid, to, starts, ends);
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && !before(scratch[right], scratch[left], starts, ends))) {
+                order[i] = scratch[left++];
+            } else {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+
+    private static boolean before(int a, int b, long[] starts, long[] ends) {
+        return starts[a] < starts[b] || (starts[a] == starts[b] && ends[a] > ends[b]);
+    }
+
+    private static void siftUp(int[] heap, int i) {
+        int value = heap[i];
+        while (i > 0 && heap[(i - 1) / 2] > value) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = value;
+    }
+
+    private static void siftDown(int[] heap, int size) {
+        int i = 0;
+        int value = heap[0];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= value) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    private static void siftUpByEnd(int[] heap, int i, int[] order, long[] ends) {
+        int value = heap[i];
+        long end = ends[order[value]];
+        while (i > 0 && ends[order[heap[(i - 1) / 2]]] > end) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = value;
+    }
+
+    private static void siftDownByEnd(int[] heap, int size, int[] order, long[] ends) {
+        if (size == 0) {
+            return;
+        }
+        int i = 0;
+        int value = heap[0];
+        long end = ends[order[value]];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && ends[order[heap[child + 1]]] < ends[order[heap[child]]]) {
+                child++;
+            }
+            if (ends[order[heap[child]]] >= end) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+}
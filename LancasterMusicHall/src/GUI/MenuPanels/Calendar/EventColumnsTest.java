@@ -0,0 +1,168 @@
+package GUI.MenuPanels.Calendar;
+
+import Database.TestChecks;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code EventColumnsTest} class is a test driver for {@link EventColumns}.
+ * <p>
+ * It lays out random days of events at minute resolution and checks, against a scan of every minute, that
+ * overlapping events never share a column, that each group of overlapping events uses no more columns than the
+ * most events running at once, and that events are told their own group's width. It then checks how
+ * {@link EventColumns#clip} cuts events that cross midnight or last several days. The process exits with
+ * status 1 if a check fails.
+ * </p>
+ */
+public class EventColumnsTest {
+
+    /**
+     * Constructs a new EventColumnsTest instance.
+     */
+    public EventColumnsTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     */
+    public static void main(String[] args) {
+        checkLayout();
+        checkClip();
+
+        TestChecks.finish();
+    }
+
+    /** Lays out random days and compares them with a scan of every minute. */
+    private static void checkLayout() {
+        Random random = new Random(5);
+        boolean separate = true;
+        boolean fewest = true;
+        boolean grouped = true;
+        for (int trial = 0; trial < 300; trial++) {
+            List<Event> day = new ArrayList<>();
+            int count = random.nextInt(60);
+            for (int i = 0; i < count; i++) {
+                long start = random.nextInt(EventColumns.MINUTES_PER_DAY);
+                day.add(new Event(start, start + 1 + random.nextInt(random.nextBoolean() ? 30 : 300)));
+            }
+            int widest = EventColumns.layout(day);
+
+            // Events running in each minute.
+            int[] running = new int[2 * EventColumns.MINUTES_PER_DAY];
+            for (Event event : day) {
+                for (long minute = event.start; minute < event.end; minute++) {
+                    running[(int) minute]++;
+                }
+            }
+            int most = Arrays.stream(running).max().orElse(0);
+            fewest &= widest == most;
+
+            // Groups: events joined by a chain of overlaps.
+            int[] group = new int[day.size()];
+            for (int i = 0; i < group.length; i++) {
+                group[i] = i;
+            }
+            for (int i = 0; i < day.size(); i++) {
+                Event a = day.get(i);
+                separate &= a.column >= 0 && a.column < a.columns;
+                for (int j = 0; j < day.size(); j++) {
+                    Event b = day.get(j);
+                    if (i != j && a.start < b.end && b.start < a.end) {
+                        separate &= a.column != b.column;
+                        int from = group[j];
+                        int into = group[i];
+                        for (int k = 0; k < group.length; k++) {
+                            if (group[k] == from) {
+                                group[k] = into;
+                            }
+                        }
+                    }
+                }
+            }
+            // Each group is as wide as the most of its events running at once.
+            for (int i = 0; i < day.size(); i++) {
+                int[] inGroup = new int[running.length];
+                for (int j = 0; j < day.size(); j++) {
+                    if (group[j] == group[i]) {
+                        for (long minute = day.get(j).start; minute < day.get(j).end; minute++) {
+                            inGroup[(int) minute]++;
+                        }
+                    }
+                }
+                grouped &= day.get(i).columns == Arrays.stream(inGroup).max().orElse(0);
+            }
+        }
+        check("overlapping events get different columns", separate);
+        check("layout uses the fewest columns", fewest);
+        check("each group is as wide as its busiest minute", grouped);
+
+        List<Event> busy = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            long start = random.nextInt(7 * EventColumns.MINUTES_PER_DAY);
+            busy.add(new Event(start, start + 15 + random.nextInt(45)));
+        }
+        long began = System.nanoTime();
+        EventColumns.layout(busy);
+        System.out.printf("layout of %d short meetings: %.1f ms%n", busy.size(), (System.nanoTime() - began) / 1e6);
+        check("back-to-back events share a column",
+                EventColumns.layout(List.of(new Event(600, 630), new Event(630, 660))) == 1);
+    }
+
+    /** Cuts events to one day of the grid. */
+    private static void checkClip() {
+        LocalDate day = LocalDate.of(2030, 6, 1);
+        LocalDate next = day.plusDays(1);
+        check("event is widened to whole hours", Arrays.equals(new long[] {600, 720},
+                EventColumns.clip(day, day, LocalTime.of(10, 15), day, LocalTime.of(11, 30), 600, 1440, 60)));
+        check("exact times are kept at minute cells", Arrays.equals(new long[] {615, 690},
+                EventColumns.clip(day, day, LocalTime.of(10, 15), day, LocalTime.of(11, 30), 600, 1440, 1)));
+        check("event crossing midnight stops at the end of the day", Arrays.equals(new long[] {1380, 1440},
+                EventColumns.clip(day, day, LocalTime.of(23, 0), next, LocalTime.of(2, 0), 600, 1440, 60)));
+        check("event crossing midnight starts the next day at midnight", Arrays.equals(new long[] {0, 120},
+                EventColumns.clip(next, day, LocalTime.of(23, 0), next, LocalTime.of(2, 0), 0, 1440, 60)));
+        check("middle day of a long event is covered", Arrays.equals(new long[] {600, 1440}, EventColumns.clip(
+                next, day, LocalTime.of(9, 0), next.plusDays(1), LocalTime.of(9, 0), 600, 1440, 60)));
+        check("event before the grid is not shown",
+                EventColumns.clip(day, day, LocalTime.of(8, 0), day, LocalTime.of(10, 0), 600, 1440, 60) == null);
+        check("event with no length still gets a cell", Arrays.equals(new long[] {660, 720},
+                EventColumns.clip(day, day, LocalTime.of(11, 0), day, LocalTime.of(11, 0), 600, 1440, 60)));
+    }
+
+    /** An event reduced to what the layout reads and writes. */
+    private static final class Event implements EventColumns.Span {
+        final long start;
+        final long end;
+        int column = -1;
+        int columns;
+
+        Event(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public long start() {
+            return start;
+        }
+
+        @Override
+        public long end() {
+            return end;
+        }
+
+        @Override
+        public void place(int column, int columns) {
+            this.column = column;
+            this.columns = columns;
+        }
+    }
+}
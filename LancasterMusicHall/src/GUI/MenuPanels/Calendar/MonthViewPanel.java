@@ -1,6 +1,8 @@
 package GUI.MenuPanels.Calendar;
 
+import Database.CalendarEntries;
 import Database.SQLConnection;
+import Database.rows.CalendarEventRow;
 import operations.entities.Event;
 
 import javax.swing.*;
@@ -8,10 +10,8 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.Period;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -69,6 +69,36 @@ public class MonthViewPanel extends CalendarViewPanel {
         return sqlCon;
     }
 
+    /**
+     * The view moves one month at a time.
+     *
+     * @return one month
+     */
+    @Override
+    protected Period getNavigationStep() {
+        return Period.ofMonths(1);
+    }
+
+    /**
+     * Returns the first day of the month in view.
+     *
+     * @return the LocalDate of the first day of the month.
+     */
+    @Override
+    public LocalDate getViewStartDate() {
+        return viewStartDate;
+    }
+
+    /**
+     * Returns the last day of the month in view.
+     *
+     * @return the LocalDate of the last day of the month.
+     */
+    @Override
+    public LocalDate getViewEndDate() {
+        return viewEndDate;
+    }
+
     /**
      * Sets the view date to the specified date by adjusting to the first day of that month.
      *
@@ -185,8 +215,11 @@ public class MonthViewPanel extends CalendarViewPanel {
     /**
      * Renders events on the month view.
      * <p>
-     * This method clears current events from all day cells, then queries the database for events occurring
-     * between the view's start and end dates. It then adds event information to the corresponding day cell.
+     * This method clears current events from all day cells, leaving the empty grid as a placeholder, then loads
+     * the confirmed events occurring between the view's start and end dates through the view's
+     * {@link CalendarLoader}, which reads them in the background if the shared {@link Database.CalendarStore} does
+     * not hold them and drops them if the view has moved on meanwhile. Event information is then added to the
+     * corresponding day cell on the Event Dispatch Thread.
      * </p>
      *
      * @param ignored a placeholder parameter that is not used in this implementation.
@@ -202,42 +235,33 @@ public class MonthViewPanel extends CalendarViewPanel {
             }
         }
 
-        // Query now joins the Booking table and filters for confirmed bookings.
-        String query = "SELECT e.event_id, e.booking_id, e.name, e.start_date, e.end_date, e.start_time, e.end_time, " +
-                "e.`event_type`, e.description, e.booked_by, v.venue_name " +
-                "FROM Event e " +
-                "LEFT JOIN Venue v ON e.venue_id = v.venue_id " +
-                "JOIN Booking b ON e.booking_id = b.booking_id " +
-                "WHERE e.start_date BETWEEN ? AND ? " +
-                "AND b.booking_status = 'confirmed'";
-
-        try {
-            PreparedStatement ps = getSQLConnection().getConnection().prepareStatement(query);
-            ps.setDate(1, java.sql.Date.valueOf(viewStartDate));
-            ps.setDate(2, java.sql.Date.valueOf(viewEndDate));
-            ResultSet rs = ps.executeQuery();
-
-            while (rs.next()) {
-                String eventName = rs.getString("name");
-                int bookingId = rs.getInt("booking_id");
-                LocalDate eventDate = rs.getDate("start_date").toLocalDate();
-
-                int dayOfMonth = eventDate.getDayOfMonth();
-                LocalDate firstOfMonth = viewStartDate.withDayOfMonth(1);
-                int startDayOfWeek = firstOfMonth.getDayOfWeek().getValue() - 1;
-                int cellIndex = startDayOfWeek + dayOfMonth - 1;
-                int row = cellIndex / 7;
-                int col = cellIndex % 7;
-                if (dayCells[row][col] != null) {
-                    dayCells[row][col].addEvent(String.format("%s (Booking: %d)", eventName, bookingId));
-                    dayCells[row][col].refresh();
+        LocalDate firstOfMonth = viewStartDate.withDayOfMonth(1);
+        LocalDate lastOfMonth = viewEndDate;
+        DayCellPanel[][] cells = dayCells;
+        getLoader().load(viewStartDate, viewEndDate, "confirmed", null, rows -> {
+            int startDayOfWeek = firstOfMonth.getDayOfWeek().getValue() - 1;
+            for (CalendarEventRow row : rows) {
+                // An event spanning several days is listed on each of them within the month.
+                LocalDate first = row.startDate().isBefore(firstOfMonth) ? firstOfMonth : row.startDate();
+                LocalDate last = CalendarEntries.lastDay(row).isAfter(lastOfMonth)
+                        ? lastOfMonth : CalendarEntries.lastDay(row);
+                for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                    int cellIndex = startDayOfWeek + date.getDayOfMonth() - 1;
+                    DayCellPanel cell = cells[cellIndex / 7][cellIndex % 7];
+                    if (cell != null) {
+                        cell.addEvent(String.format("%s (Booking: %d)", row.name(), row.bookingId()));
+                        cell.refresh();
+                    }
                 }
             }
-            rs.close();
-            ps.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
+            revalidate();
+            repaint();
+        }, ex -> {
+            JLabel monthHeader = (JLabel) getClientProperty("monthHeader");
+            if (monthHeader != null) {
+                monthHeader.setText(firstOfMonth.format(monthYearFormatter) + " (events could not be loaded)");
+            }
+        });
         revalidate();
         repaint();
     }
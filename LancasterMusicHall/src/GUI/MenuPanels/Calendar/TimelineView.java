@@ -0,0 +1,570 @@
+package GUI.MenuPanels.Calendar;
+
+import Database.CalendarEntries;
+import Database.rows.CalendarEventRow;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * A timeline of one or more days, painted as a single component, used by the calendar and diary day and week
+ * views.
+ * <p>
+ * Hours run down the left, days across, and each event is a block from its start to its end time, laid out side
+ * by side with the events it overlaps by {@link EventColumns}. Nothing is a Swing component of its own: the
+ * blocks are painted from the model, their wrapped text is measured once and kept until the block changes size,
+ * and hover and click are answered from an index of the blocks in each hour of each day rather than by mouse
+ * listeners on every block. Painting only touches the blocks that meet the clip, so hovering repaints one or two
+ * blocks, and {@link #setEvents} repaints only the blocks that moved, appeared or went away. While the events of
+ * other days are read, {@link #showLoading} paints grey placeholder blocks instead, and {@link #showFailed} a note
+ * that they could not be read.
+ * </p>
+ */
+public class TimelineView extends JComponent {
+
+    /** Width of the hour labels down the left. */
+    public static final int GUTTER = 50;
+
+    /** Space above the first hour line and below the last, so their labels are not cut. */
+    private static final int PAD = 8;
+
+    /** Preferred width of a day. */
+    private static final int DAY_WIDTH = 100;
+
+    /** The timeline ends at midnight. */
+    private static final int END_HOUR = 24;
+
+    private static final Font HOUR_FONT = new Font("Arial", Font.PLAIN, 10);
+    private static final Font EVENT_FONT = new Font("Arial", Font.PLAIN, 9);
+    private static final Color OPERATIONS = new Color(200, 230, 255);  // Light blue.
+    private static final Color MARKETING = new Color(255, 230, 200);   // Light orange.
+    private static final Color OTHER = new Color(230, 255, 200);       // Green.
+    private static final Color SKELETON = new Color(238, 238, 238);
+
+    private final int days;
+    private final int startHour;
+    private final int hourHeight;
+    private final Function<CalendarEventRow, String> title;
+    private final IntConsumer onEventClicked;
+
+    /** The blocks shown, in no particular order. */
+    private List<Block> blocks = new ArrayList<>();
+    /** For each day and hour, the indices in {@link #blocks} of the blocks painted over that hour. */
+    private int[][][] index;
+    /** The width the blocks' bounds were worked out for. */
+    private int laidOutWidth = -1;
+    /** The block under the mouse, or {@code null}. */
+    private Block hovered;
+    /** The first day of the events shown, or {@code null} before any are. */
+    private LocalDate shownDay;
+    /** Whether placeholder blocks are shown while the events of other days load. */
+    private boolean loading;
+    /** Whether the events of the days shown could not be read. */
+    private boolean failed;
+
+    /**
+     * Creates an empty timeline.
+     *
+     * @param days           the number of days shown side by side
+     * @param startHour      the first hour shown; the timeline runs to midnight
+     * @param hourHeight     the height of an hour in pixels
+     * @param title          the first line of text on an event's block
+     * @param onEventClicked called with the event ID when a block is clicked
+     */
+    public TimelineView(int days, int startHour, int hourHeight, Function<CalendarEventRow, String> title,
+                        IntConsumer onEventClicked) {
+        this.days = days;
+        this.startHour = startHour;
+        this.hourHeight = hourHeight;
+        this.title = title;
+        this.onEventClicked = onEventClicked;
+        this.index = new int[days][END_HOUR - startHour][];
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(GUTTER + days * DAY_WIDTH, 2 * PAD + (END_HOUR - startHour) * hourHeight));
+        ToolTipManager.sharedInstance().registerComponent(this);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                hover(eventAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                hover(null);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                Block block = eventAt(e.getX(), e.getY());
+                if (block != null) {
+                    onEventClicked.accept(block.row.eventId());
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    /**
+     * Shows the given events, each on every day it runs into, cut to the hours of the timeline. Must be called on
+     * the Event Dispatch Thread.
+     *
+     * @param firstDay the day shown first
+     * @param rows     the events; events outside the days shown are ignored
+     */
+    public void setEvents(LocalDate firstDay, List<CalendarEventRow> rows) {
+        LocalDate lastDay = firstDay.plusDays(days - 1);
+        List<List<Block>> byDay = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (CalendarEventRow row : rows) {
+            LocalDate first = row.startDate().isBefore(firstDay) ? firstDay : row.startDate();
+            LocalDate last = row.endDate().isAfter(lastDay) ? lastDay : row.endDate();
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                long[] span = EventColumns.clip(date, row.startDate(), row.startTime(), row.endDate(),
+                        row.endTime(), startHour * 60, EventColumns.MINUTES_PER_DAY, 1);
+                if (span != null) {
+                    int day = (int) (date.toEpochDay() - firstDay.toEpochDay());
+                    byDay.get(day).add(new Block(row, title.apply(row), day, span[0], span[1]));
+                }
+            }
+        }
+
+        List<Block> next = new ArrayList<>();
+        for (List<Block> dayBlocks : byDay) {
+            EventColumns.layout(dayBlocks);
+            next.addAll(dayBlocks);
+        }
+        int width = getWidth();
+        for (Block block : next) {
+            locate(block, width);
+        }
+
+        // Repaint only what changed: blocks that are new, gone, or drawn differently.
+        Map<Long, Block> previous = new HashMap<>();
+        for (Block block : blocks) {
+            previous.put(block.key(days), block);
+        }
+        Rectangle dirty = null;
+        Block stillHovered = null;
+        for (Block block : next) {
+            Block old = previous.remove(block.key(days));
+            if (old != null && old.sameAs(block)) {
+                block.lines = old.lines;
+                if (old == hovered) {
+                    stillHovered = block;
+                }
+            } else {
+                dirty = union(dirty, block.bounds);
+                dirty = old == null ? dirty : union(dirty, old.bounds);
+            }
+        }
+        for (Block gone : previous.values()) {
+            dirty = union(dirty, gone.bounds);
+        }
+        blocks = next;
+        hovered = stillHovered;
+        laidOutWidth = width;
+        shownDay = firstDay;
+        buildIndex();
+        if (loading || failed) {
+            loading = false;
+            failed = false;
+            repaint();
+        } else if (dirty != null) {
+            repaint(dirty);
+        }
+    }
+
+    /**
+     * Shows placeholder blocks while the events of the given days load, unless those days are already shown, in
+     * which case their events stay up until the fresh ones arrive. Must be called on the Event Dispatch Thread.
+     *
+     * @param firstDay the first day of the events being loaded
+     */
+    public void showLoading(LocalDate firstDay) {
+        if (loading || firstDay.equals(shownDay)) {
+            return;
+        }
+        clear();
+        loading = true;
+        repaint();
+    }
+
+    /**
+     * Takes down the placeholder blocks, or the events of other days, and notes that the events could not be
+     * read. The note stays until {@link #setEvents} or {@link #showLoading} is called. Must be called on the Event
+     * Dispatch Thread.
+     */
+    public void showFailed() {
+        clear();
+        loading = false;
+        failed = true;
+        repaint();
+    }
+
+    /**
+     * @return {@code true} while the note that the events could not be read is shown
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    private void clear() {
+        blocks = new ArrayList<>();
+        hovered = null;
+        shownDay = null;
+        failed = false;
+        buildIndex();
+    }
+
+    /**
+     * @return {@code true} while placeholder blocks are shown
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * @return the number of event blocks shown; an event shown on several days has a block on each
+     */
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Picks the text for the tooltip of the block under the mouse.
+     *
+     * @param e the mouse event
+     * @return the event's details, or {@code null} away from any event
+     */
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        Block block = eventAt(e.getX(), e.getY());
+        if (block == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder("<html>").append(escape(block.title));
+        if (block.row.venueName() != null) {
+            text.append("<br/>").append(escape(block.row.venueName()));
+        }
+        return text.append("<br/>").append(block.times()).append("</html>").toString();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        relayoutIfResized();
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            g2.setColor(getBackground());
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+            paintGrid(g2, clip);
+            if (loading) {
+                paintSkeleton(g2);
+            } else if (failed) {
+                paintNote(g2, "Events could not be loaded. Change the date to try again.");
+            }
+            for (Block block : blocks) {
+                if (block.bounds.intersects(clip)) {
+                    paintBlock(g2, block);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    /**
+     * Finds the block at a point, looking only at the blocks indexed under the point's day and hour.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the block at the point, or {@code null} if there is none
+     */
+    Block eventAt(int x, int y) {
+        relayoutIfResized();
+        if (x < GUTTER || y < PAD) {
+            return null;
+        }
+        int day = (int) ((x - GUTTER) / dayWidth(getWidth()));
+        int hour = (y - PAD) / hourHeight;
+        if (day >= days || hour >= index[day].length || index[day][hour] == null) {
+            return null;
+        }
+        for (int i : index[day][hour]) {
+            if (blocks.get(i).bounds.contains(x, y)) {
+                return blocks.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param bookedBy who booked the event
+     * @return the colour of an event's block
+     */
+    static Color colorFor(String bookedBy) {
+        return switch (CalendarEntries.colourCategory(bookedBy)) {
+            case "operations" -> OPERATIONS;
+            case "marketing" -> MARKETING;
+            default -> OTHER;
+        };
+    }
+
+    private void paintGrid(Graphics2D g2, Rectangle clip) {
+        int width = getWidth();
+        g2.setFont(HOUR_FONT);
+        FontMetrics metrics = g2.getFontMetrics();
+        for (int hour = startHour; hour <= END_HOUR; hour++) {
+            int y = PAD + (hour - startHour) * hourHeight;
+            if (y + metrics.getHeight() < clip.y || y - metrics.getHeight() > clip.y + clip.height) {
+                continue;
+            }
+            g2.setColor(Color.LIGHT_GRAY);
+            g2.drawLine(GUTTER, y, width, y);
+            String label = String.format("%02d:00", hour);
+            g2.setColor(Color.DARK_GRAY);
+            g2.drawString(label, GUTTER - 5 - metrics.stringWidth(label), y + metrics.getAscent() / 2);
+        }
+        g2.setColor(Color.LIGHT_GRAY);
+        int bottom = PAD + (END_HOUR - startHour) * hourHeight;
+        for (int day = 0; day <= days; day++) {
+            int x = GUTTER + (int) (day * dayWidth(width));
+            if (x >= clip.x && x <= clip.x + clip.width) {
+                g2.drawLine(x, PAD, x, bottom);
+            }
+        }
+    }
+
+    /** Paints a few grey blocks on each day and a note that the events are loading. */
+    private void paintSkeleton(Graphics2D g2) {
+        double dayWidth = dayWidth(getWidth());
+        int hours = END_HOUR - startHour;
+        g2.setColor(SKELETON);
+        for (int day = 0; day < days; day++) {
+            int x = GUTTER + (int) (day * dayWidth) + 4;
+            int width = (int) dayWidth - 8;
+            for (int hour = day % 3; hour + 2 <= hours; hour += 4) {
+                g2.fillRoundRect(x, PAD + hour * hourHeight + 4, width, hourHeight * (1 + (day + hour) % 2) - 8,
+                        6, 6);
+            }
+        }
+        paintNote(g2, "Loading events...");
+    }
+
+    /** Paints a line of grey text centred across the top of the days. */
+    private void paintNote(Graphics2D g2, String note) {
+        g2.setFont(HOUR_FONT);
+        g2.setColor(Color.GRAY);
+        g2.drawString(note, GUTTER + (getWidth() - GUTTER - g2.getFontMetrics().stringWidth(note)) / 2,
+                PAD + g2.getFontMetrics().getAscent() + 2);
+    }
+
+    private void paintBlock(Graphics2D g2, Block block) {
+        Rectangle r = block.bounds;
+        Color color = colorFor(block.row.bookedBy());
+        g2.setColor(block == hovered ? color.darker() : color);
+        g2.fillRect(r.x, r.y, r.width, r.height);
+        g2.setColor(Color.DARK_GRAY);
+        g2.drawRect(r.x, r.y, r.width - 1, r.height - 1);
+
+        Graphics2D text = (Graphics2D) g2.create();
+        try {
+            text.clipRect(r.x + 1, r.y + 1, r.width - 2, r.height - 2);
+            text.setColor(Color.BLACK);
+            float y = r.y + 2;
+            for (TextLayout line : lines(block, g2.getFontRenderContext())) {
+                y += line.getAscent();
+                line.draw(text, r.x + (r.width - line.getAdvance()) / 2, y);
+                y += line.getDescent() + line.getLeading();
+            }
+        } finally {
+            text.dispose();
+        }
+    }
+
+    /**
+     * Returns the block's text wrapped to its width, measuring it the first time the block is painted at its
+     * current size. Lines that do not fit the block's height are left out.
+     */
+    private TextLayout[] lines(Block block, FontRenderContext frc) {
+        if (block.lines == null) {
+            List<TextLayout> lines = new ArrayList<>();
+            float wrap = block.bounds.width - 4;
+            float height = 4;
+            String[] texts = {block.title, block.row.venueName(), block.times()};
+            fill:
+            for (String text : texts) {
+                if (wrap <= 0 || text == null || text.isEmpty()) {
+                    continue;
+                }
+                AttributedString styled = new AttributedString(text);
+                styled.addAttribute(TextAttribute.FONT, EVENT_FONT);
+                LineBreakMeasurer measurer = new LineBreakMeasurer(styled.getIterator(), frc);
+                while (measurer.getPosition() < text.length()) {
+                    TextLayout line = measurer.nextLayout(wrap);
+                    height += line.getAscent() + line.getDescent() + line.getLeading();
+                    if (height > block.bounds.height) {
+                        break fill;
+                    }
+                    lines.add(line);
+                }
+            }
+            block.lines = lines.toArray(new TextLayout[0]);
+        }
+        return block.lines;
+    }
+
+    private void hover(Block block) {
+        if (block == hovered) {
+            return;
+        }
+        if (hovered != null) {
+            repaint(hovered.bounds);
+        }
+        hovered = block;
+        if (block != null) {
+            repaint(block.bounds);
+        }
+        setCursor(block == null ? Cursor.getDefaultCursor() : Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+    }
+
+    /** Works the blocks' bounds out again if the width has changed since they were last placed. */
+    private void relayoutIfResized() {
+        int width = getWidth();
+        if (width != laidOutWidth) {
+            for (Block block : blocks) {
+                locate(block, width);
+                block.lines = null;
+            }
+            laidOutWidth = width;
+        }
+    }
+
+    /** Indexes each block under every hour its bounds reach into; the vertical bounds do not depend on width. */
+    private void buildIndex() {
+        List<List<List<Integer>>> lists = new ArrayList<>();
+        int hours = END_HOUR - startHour;
+        for (int day = 0; day < days; day++) {
+            List<List<Integer>> dayLists = new ArrayList<>();
+            for (int hour = 0; hour < hours; hour++) {
+                dayLists.add(new ArrayList<>());
+            }
+            lists.add(dayLists);
+        }
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            int first = Math.max(0, (block.bounds.y - PAD) / hourHeight);
+            int last = Math.min(hours - 1, (block.bounds.y + block.bounds.height - 1 - PAD) / hourHeight);
+            for (int hour = first; hour <= last; hour++) {
+                lists.get(block.day).get(hour).add(i);
+            }
+        }
+        index = new int[days][hours][];
+        for (int day = 0; day < days; day++) {
+            for (int hour = 0; hour < hours; hour++) {
+                List<Integer> list = lists.get(day).get(hour);
+                index[day][hour] = list.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    private void locate(Block block, int width) {
+        double dayWidth = dayWidth(width);
+        double columnWidth = dayWidth / block.columns;
+        int left = GUTTER + (int) (block.day * dayWidth + block.column * columnWidth) + 1;
+        int right = GUTTER + (int) (block.day * dayWidth + (block.column + 1) * columnWidth) - 1;
+        int top = PAD + (int) ((block.start - startHour * 60L) * hourHeight / 60);
+        int bottom = PAD + (int) ((block.end - startHour * 60L) * hourHeight / 60);
+        block.bounds = new Rectangle(left, top, Math.max(1, right - left), Math.max(3, bottom - top));
+    }
+
+    private double dayWidth(int width) {
+        return Math.max(1, width - GUTTER) / (double) days;
+    }
+
+    private static Rectangle union(Rectangle dirty, Rectangle bounds) {
+        return dirty == null ? new Rectangle(bounds) : dirty.union(bounds);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * One event's block on one day.
+     */
+    static final class Block implements EventColumns.Span {
+        final CalendarEventRow row;
+        final String title;
+        final int day;
+        final long start;
+        final long end;
+        int column;
+        int columns;
+        /** Where the block is painted. */
+        Rectangle bounds;
+        /** The block's text wrapped to its width, or {@code null} until it is next painted. */
+        TextLayout[] lines;
+
+        Block(CalendarEventRow row, String title, int day, long start, long end) {
+            this.row = row;
+            // Event names may be null; show "null" as the old labels did rather than fail when painting.
+            this.title = String.valueOf(title);
+            this.day = day;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public long start() {
+            return start;
+        }
+
+        @Override
+        public long end() {
+            return end;
+        }
+
+        @Override
+        public void place(int column, int columns) {
+            this.column = column;
+            this.columns = columns;
+        }
+
+        String times() {
+            return row.startTime() + " - " + row.endTime();
+        }
+
+        long key(int days) {
+            return (long) row.eventId() * days + day;
+        }
+
+        /** Whether the two blocks are painted identically. */
+        boolean sameAs(Block other) {
+            return row.equals(other.row) && title.equals(other.title) && bounds.equals(other.bounds);
+        }
+    }
+}
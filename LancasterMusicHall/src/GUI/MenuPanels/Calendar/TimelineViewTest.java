@@ -0,0 +1,197 @@
+package GUI.MenuPanels.Calendar;
+
+import Database.TestChecks;
+import Database.rows.CalendarEventRow;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static Database.TestChecks.check;
+
+/**
+ * The {@code TimelineViewTest} class is a test driver for {@link TimelineView}.
+ * <p>
+ * It shows events on a week timeline without a screen and checks where their blocks go, that a point finds the
+ * block under it, that setting the same events again repaints nothing while changing one event repaints only its
+ * old and new blocks, that hovering repaints just the block hovered and a click reports its event, that the
+ * painted blocks have their colours and text, and that an event without a name is still shown. It then times showing and painting a busy week. Run it with
+ * {@code -Djava.awt.headless=true}. The process exits with status 1 if a check fails.
+ * </p>
+ */
+public class TimelineViewTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 6, 3);
+
+    /**
+     * Constructs a new TimelineViewTest instance.
+     */
+    public TimelineViewTest() {
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args command-line arguments (not used)
+     */
+    public static void main(String[] args) {
+        List<Integer> clicked = new ArrayList<>();
+        List<Rectangle> repainted = new ArrayList<>();
+        TimelineView view = new TimelineView(7, 10, 40, CalendarEventRow::name, clicked::add) {
+            @Override
+            public void repaint(long tm, int x, int y, int width, int height) {
+                repainted.add(new Rectangle(x, y, width, height));
+            }
+        };
+        view.setSize(TimelineView.GUTTER + 7 * 100, 1000);
+
+        CalendarEventRow talk = row(1, "Talk", MONDAY, "10:30", MONDAY, "11:15", "operations");
+        CalendarEventRow concert = row(2, "Concert", MONDAY, "10:00", MONDAY, "12:00", "marketing");
+        CalendarEventRow overnight = row(3, "Overnight", MONDAY.plusDays(2), "22:00", MONDAY.plusDays(3), "11:00",
+                null);
+        CalendarEventRow morning = row(4, "Breakfast", MONDAY.plusDays(4), "08:00", MONDAY.plusDays(4), "09:30",
+                null);
+        CalendarEventRow lastWeek = row(5, "Earlier", MONDAY.minusDays(3), "10:00", MONDAY.minusDays(3), "12:00",
+                null);
+        List<CalendarEventRow> week = List.of(talk, concert, overnight, morning, lastWeek);
+        view.setEvents(MONDAY, week);
+
+        check("events are shown on each day they run into, within the hours shown", view.getBlockCount() == 4);
+        TimelineView.Block talkBlock = block(view, 1, 0);
+        TimelineView.Block concertBlock = block(view, 2, 0);
+        check("event block runs from its start to its end time",
+                talkBlock.bounds.y - concertBlock.bounds.y == 20 && talkBlock.bounds.height == 30
+                        && concertBlock.bounds.height == 80);
+        check("overlapping events are side by side",
+                talkBlock.columns == 2 && concertBlock.columns == 2 && talkBlock.column != concertBlock.column
+                        && !talkBlock.bounds.intersects(concertBlock.bounds));
+        TimelineView.Block lateBlock = block(view, 3, 2);
+        TimelineView.Block earlyBlock = block(view, 3, 3);
+        check("event crossing midnight is cut at midnight and starts again at the first hour",
+                lateBlock.bounds.height == 80 && earlyBlock.bounds.height == 40 && earlyBlock.columns == 1
+                        && earlyBlock.bounds.x > lateBlock.bounds.x);
+
+        check("point finds the block under it", view.eventAt(centreX(talkBlock), centreY(talkBlock)) == talkBlock
+                && view.eventAt(centreX(concertBlock), centreY(concertBlock)) == concertBlock);
+        check("point away from events finds nothing", view.eventAt(10, centreY(talkBlock)) == null
+                && view.eventAt(centreX(talkBlock), talkBlock.bounds.y + 200) == null);
+
+        // Painting measures each block's text once.
+        BufferedImage image = paint(view);
+        check("blocks are painted in their colours",
+                image.getRGB(concertBlock.bounds.x + 3, concertBlock.bounds.y + concertBlock.bounds.height - 3)
+                        == TimelineView.colorFor("marketing").getRGB());
+        check("block text is measured when painted", concertBlock.lines != null && concertBlock.lines.length > 0);
+
+        repainted.clear();
+        view.setEvents(MONDAY, week);
+        TimelineView.Block sameConcert = block(view, 2, 0);
+        check("the same events again repaint nothing", repainted.isEmpty());
+        check("unchanged blocks keep their measured text", sameConcert.lines == concertBlock.lines);
+
+        CalendarEventRow longerTalk = row(1, "Talk", MONDAY, "10:30", MONDAY, "11:45", "operations");
+        view.setEvents(MONDAY, List.of(longerTalk, concert, overnight, morning));
+        TimelineView.Block longerBlock = block(view, 1, 0);
+        check("changing one event repaints only its old and new blocks", repainted.size() == 1
+                && repainted.get(0).equals(talkBlock.bounds.union(longerBlock.bounds)));
+
+        repainted.clear();
+        move(view, MouseEvent.MOUSE_MOVED, longerBlock);
+        check("hovering repaints only the block hovered",
+                repainted.size() == 1 && repainted.get(0).equals(longerBlock.bounds));
+        repainted.clear();
+        move(view, MouseEvent.MOUSE_MOVED, sameConcert);
+        check("moving to another block repaints the two blocks",
+                repainted.equals(List.of(longerBlock.bounds, sameConcert.bounds)));
+        image = paint(view);
+        check("hovered block is painted darker", image.getRGB(sameConcert.bounds.x + 3,
+                sameConcert.bounds.y + sameConcert.bounds.height - 3)
+                == TimelineView.colorFor("marketing").darker().getRGB());
+        move(view, MouseEvent.MOUSE_CLICKED, sameConcert);
+        check("clicking a block reports its event", clicked.equals(List.of(2)));
+        check("tooltip shows the event", view.getToolTipText(mouse(view, MouseEvent.MOUSE_MOVED, sameConcert))
+                .equals("<html>Concert<br/>Main_Hall<br/>10:00 - 12:00</html>"));
+
+        CalendarEventRow unnamed = row(6, null, MONDAY.plusDays(5), "10:00", MONDAY.plusDays(5), "11:00", null);
+        view.setEvents(MONDAY, List.of(longerTalk, concert, overnight, morning, unnamed));
+        view.setEvents(MONDAY, List.of(longerTalk, concert, overnight, morning, unnamed));
+        paint(view);
+        check("event without a name is shown as null", view.getToolTipText(mouse(view, MouseEvent.MOUSE_MOVED,
+                block(view, 6, 5))).equals("<html>null<br/>Main_Hall<br/>10:00 - 11:00</html>"));
+        view.setEvents(MONDAY, List.of(longerTalk, concert, overnight, morning));
+
+        view.setSize(TimelineView.GUTTER + 7 * 150, 1000);
+        paint(view);
+        TimelineView.Block widened = block(view, 2, 0);
+        check("resizing places the blocks again", widened.bounds.width > 70 && view.eventAt(centreX(widened),
+                centreY(widened)) == widened);
+
+        // A busy week: showing it and painting it should take a few frames at most.
+        Random random = new Random(3);
+        List<CalendarEventRow> busy = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDate day = MONDAY.plusDays(random.nextInt(7));
+            LocalTime start = LocalTime.of(10 + random.nextInt(12), 15 * random.nextInt(4));
+            busy.add(row(100 + i, "Event " + i, day, start.toString(), day,
+                    start.plusMinutes(30 + random.nextInt(150)).toString(), i % 2 == 0 ? "operations" : null));
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            long began = System.nanoTime();
+            view.setEvents(MONDAY.plusWeeks(round % 2), round % 2 == 0 ? busy : week);
+            paint(view);
+            best = Math.min(best, System.nanoTime() - began);
+        }
+        System.out.printf("show and paint a week of %d events: %.1f ms%n", busy.size(), best / 1e6);
+
+        TestChecks.finish();
+    }
+
+    private static TimelineView.Block block(TimelineView view, int eventId, int day) {
+        for (int y = 0; y < view.getHeight(); y++) {
+            for (int x = TimelineView.GUTTER; x < view.getWidth(); x += 5) {
+                TimelineView.Block block = view.eventAt(x, y);
+                if (block != null && block.row.eventId() == eventId && block.day == day) {
+                    return block;
+                }
+            }
+        }
+        throw new AssertionError("no block for event " + eventId + " on day " + day);
+    }
+
+    private static BufferedImage paint(TimelineView view) {
+        BufferedImage image = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        view.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private static void move(TimelineView view, int id, TimelineView.Block block) {
+        view.dispatchEvent(mouse(view, id, block));
+    }
+
+    private static MouseEvent mouse(TimelineView view, int id, TimelineView.Block block) {
+        return new MouseEvent(view, id, System.currentTimeMillis(), 0, centreX(block), centreY(block), 1, false,
+                MouseEvent.BUTTON1);
+    }
+
+    private static int centreX(TimelineView.Block block) {
+        return block.bounds.x + block.bounds.width / 2;
+    }
+
+    private static int centreY(TimelineView.Block block) {
+        return block.bounds.y + block.bounds.height / 2;
+    }
+
+    private static CalendarEventRow row(int eventId, String name, LocalDate startDate, String start,
+                                        LocalDate endDate, String end, String bookedBy) {
+        return new CalendarEventRow(eventId, 1, name, startDate, endDate, LocalTime.parse(start),
+                LocalTime.parse(end), "Show", "", bookedBy, "", 8, "Main_Hall", "confirmed");
+    }
+}
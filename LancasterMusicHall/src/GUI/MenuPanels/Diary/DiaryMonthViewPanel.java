@@ -1,6 +1,8 @@
 package GUI.MenuPanels.Diary;
 
+import Database.CalendarEntries;
 import Database.SQLConnection;
+import Database.rows.CalendarEventRow;
 import GUI.MenuPanels.Calendar.CalendarViewPanel;
 import GUI.MenuPanels.Calendar.MonthViewListener;
 import operations.entities.Event;
@@ -10,10 +12,8 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.Period;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -72,6 +72,36 @@ public class DiaryMonthViewPanel extends CalendarViewPanel {
         return sqlCon;
     }
 
+    /**
+     * The view moves one month at a time.
+     *
+     * @return one month
+     */
+    @Override
+    protected Period getNavigationStep() {
+        return Period.ofMonths(1);
+    }
+
+    /**
+     * Returns the first day of the month in view.
+     *
+     * @return the LocalDate of the first day of the month.
+     */
+    @Override
+    public LocalDate getViewStartDate() {
+        return viewStartDate;
+    }
+
+    /**
+     * Returns the last day of the month in view.
+     *
+     * @return the LocalDate of the last day of the month.
+     */
+    @Override
+    public LocalDate getViewEndDate() {
+        return viewEndDate;
+    }
+
     /**
      * Sets the view date for the DiaryMonthViewPanel.
      * <p>
@@ -193,8 +223,11 @@ public class DiaryMonthViewPanel extends CalendarViewPanel {
     /**
      * Renders events on the month view.
      * <p>
-     * The method clears existing events from each day cell, queries the database for events within the
-     * current month's start and end dates, and adds event information to the corresponding day cells.
+     * The method clears existing events from each day cell, leaving the empty grid as a placeholder, loads the
+     * held events within the current month's start and end dates through the view's
+     * {@link GUI.MenuPanels.Calendar.CalendarLoader}, in the background if the shared
+     * {@link Database.CalendarStore} does not hold them, and adds event information to the corresponding day
+     * cells.
      * </p>
      *
      * @param ignored a placeholder parameter that is not used in this implementation.
@@ -210,42 +243,33 @@ public class DiaryMonthViewPanel extends CalendarViewPanel {
             }
         }
 
-        String query = "SELECT e.event_id, e.name, e.start_date, e.end_date, e.start_time, e.end_time, " +
-                "e.`event_type`, e.description, e.booked_by, v.venue_name, b.booking_id " +
-                "FROM Event e " +
-                "LEFT JOIN Venue v ON e.venue_id = v.venue_id " +
-                "JOIN Booking b ON e.booking_id = b.booking_id " +
-                "WHERE e.start_date BETWEEN ? AND ? " +
-                "AND b.booking_status = 'held' " +
-                "ORDER BY e.start_date, e.start_time";
-
-        try {
-            PreparedStatement ps = getSQLConnection().getConnection().prepareStatement(query);
-            ps.setDate(1, java.sql.Date.valueOf(viewStartDate));
-            ps.setDate(2, java.sql.Date.valueOf(viewEndDate));
-            ResultSet rs = ps.executeQuery();
-
-            while (rs.next()) {
-                String eventName = rs.getString("name");
-                String venueName = rs.getString("venue_name");
-                LocalDate eventDate = rs.getDate("start_date").toLocalDate();
-
-                int dayOfMonth = eventDate.getDayOfMonth();
-                LocalDate firstOfMonth = viewStartDate.withDayOfMonth(1);
-                int startDayOfWeek = firstOfMonth.getDayOfWeek().getValue() - 1;
-                int cellIndex = startDayOfWeek + dayOfMonth - 1;
-                int row = cellIndex / 7;
-                int col = cellIndex % 7;
-                if (dayCells[row][col] != null) {
-                    dayCells[row][col].addEvent(String.format("%s (%s)", eventName, venueName));
-                    dayCells[row][col].refresh();
+        LocalDate firstOfMonth = viewStartDate.withDayOfMonth(1);
+        LocalDate lastOfMonth = viewEndDate;
+        int startDayOfWeek = firstOfMonth.getDayOfWeek().getValue() - 1;
+        DayCellPanel[][] cells = dayCells;
+        getLoader().load(viewStartDate, viewEndDate, "held", null, events -> {
+            for (CalendarEventRow event : events) {
+                // An event spanning several days is listed on each of them within the month.
+                LocalDate first = event.startDate().isBefore(firstOfMonth) ? firstOfMonth : event.startDate();
+                LocalDate last = CalendarEntries.lastDay(event).isAfter(lastOfMonth)
+                        ? lastOfMonth : CalendarEntries.lastDay(event);
+                for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                    int cellIndex = startDayOfWeek + date.getDayOfMonth() - 1;
+                    DayCellPanel cell = cells[cellIndex / 7][cellIndex % 7];
+                    if (cell != null) {
+                        cell.addEvent(String.format("%s (%s)", event.name(), event.venueName()));
+                        cell.refresh();
+                    }
                 }
             }
-            rs.close();
-            ps.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
+            revalidate();
+            repaint();
+        }, ex -> {
+            JLabel monthHeader = (JLabel) getClientProperty("monthHeader");
+            if (monthHeader != null) {
+                monthHeader.setText(firstOfMonth.format(monthYearFormatter) + " (events could not be loaded)");
+            }
+        });
         revalidate();
         repaint();
     }
@@ -67,6 +67,13 @@ public class DiaryPanel extends JPanel {
         setLayout(new BorderLayout());
         switchToView(DiaryView.DAY);
         setupBottomPanel();
+
+        // Redraw the open view from fresh events whenever a booking or event changes.
+        sqlCon.getCalendarStore().addChangeListener(() -> {
+            if (currentViewPanel != null) {
+                currentViewPanel.refreshView();
+            }
+        });
     }
 
     /**
@@ -78,6 +85,7 @@ public class DiaryPanel extends JPanel {
         currentView = view;
 
         if (currentViewPanel != null) {
+            currentViewPanel.cancelLoading();
             remove(currentViewPanel);
         }
 
@@ -123,6 +131,10 @@ public class DiaryPanel extends JPanel {
         viewCombo.setPreferredSize(new Dimension(100, 25));
         viewCombo.addActionListener(e -> {
             String selected = (String) viewCombo.getSelectedItem();
+            // Ignore the combo box echoing a view set by switchToView.
+            if (DiaryView.valueOf(selected.toUpperCase()) == currentView) {
+                return;
+            }
             switch (selected) {
                 case "Day": switchToView(DiaryView.DAY); break;
                 case "Week": switchToView(DiaryView.WEEK); break;
@@ -176,13 +188,17 @@ public class DiaryPanel extends JPanel {
 
     /**
      * Navigates the current view by moving forward or backward.
+     * <p>
+     * The view loads its new dates in the background and drops any load still in flight, so clicking quickly
+     * never waits for weeks already skipped past.
+     * </p>
      *
      * @param direction an integer representing the navigation direction; negative values move backward,
      *                  positive values move forward.
      */
     private void navigate(int direction) {
         currentViewPanel.navigate(direction);
-        updateView();
+        updateHeaderText();
     }
 
     /**
@@ -196,6 +212,7 @@ public class DiaryPanel extends JPanel {
         currentDate = date; // Update the current date.
 
         if (currentViewPanel != null) {
+            currentViewPanel.cancelLoading();
             remove(currentViewPanel);
         }
 
@@ -220,15 +237,9 @@ public class DiaryPanel extends JPanel {
         }
 
         add(currentViewPanel, BorderLayout.CENTER);
-        updateView();
-    }
-
-    /**
-     * Updates the diary view by refreshing the current view panel and updating the header text.
-     */
-    private void updateView() {
-        currentViewPanel.refreshView();
         updateHeaderText();
+        revalidate();
+        repaint();
     }
 
     /**
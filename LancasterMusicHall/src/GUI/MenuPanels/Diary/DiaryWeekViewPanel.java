@@ -2,20 +2,14 @@ package GUI.MenuPanels.Diary;
 
 import Database.SQLConnection;
 import GUI.MenuPanels.Calendar.CalendarViewPanel;
+import GUI.MenuPanels.Calendar.TimelineView;
 import GUI.MenuPanels.Event.EventDetailForm;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.*;
 import java.util.List;
 
 /**
@@ -25,9 +19,9 @@ import java.util.List;
  * <p>Key features include:
  * <ul>
  *   <li>Visualization of events across a 7-day week</li>
- *   <li>Time slots from 10:00 to 24:00</li>
+ *   <li>A painted timeline from 10:00 to 24:00</li>
  *   <li>Color-coded event blocks with hover information</li>
- *   <li>Interactive time slot panels for potential event creation</li>
+ *   <li>Clicking a block opens the event's details</li>
  * </ul>
  *
  * @see CalendarViewPanel
@@ -42,24 +36,9 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
     /** Earliest hour displayed in the view (inclusive) */
     private final int startHour = 10;
 
-    /** Latest hour displayed in the view (inclusive) */
-    private final int endHour = 24;
-
-    /** Total number of time slots between startHour and endHour */
-    private final int numberOfSlots = endHour - startHour + 1;
-
     /** Database connection for event operations */
     private SQLConnection sqlCon;
 
-    /** Color mapping for different event types/categories */
-    private Map<Integer, Color> eventColors = new HashMap<>();
-
-    /**
-     * Mapping of event IDs to their display information
-     * Contains hover text, time details, and other visual properties
-     */
-    private Map<Integer, EventDisplayInfo> eventDisplayMap = new HashMap<>();
-
     // Header components
     /** Array of day labels (Monday through Sunday) */
     private JLabel[] dayLabels = new JLabel[7];
@@ -67,22 +46,8 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
     /** Panel containing the day labels header */
     private JPanel daysHeaderPanel;
 
-    // Grid components
-    /** Main container panel for the time grid */
-    private JPanel gridPanel;
-
-    /** Panel containing time labels (hour markers) */
-    private JPanel timeLabelPanel;
-
-    /** Panel containing the day columns and time slot grid */
-    private JPanel daysGridPanel;
-
-    /**
-     * 2D array of time slot panels
-     * First dimension: time slots (rows)
-     * Second dimension: days (columns)
-     */
-    private JPanel[][] timeSlotPanels;
+    /** The painted timeline of the week's days, with time running down the page */
+    private TimelineView timeline;
 
     /**
      * Constructs a new DiaryWeekViewPanel for a given date with the provided events and SQL connection.
@@ -108,7 +73,7 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
     }
 
     /**
-     * Initializes the user interface components of the week view including headers and time grid.
+     * Initializes the user interface components of the week view including headers and the timeline.
      */
     private void initializeUI() {
         setLayout(new BorderLayout());
@@ -131,7 +96,7 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
 
         // Add the small empty space panel (fixed width to match time column)
         JPanel emptySpacePanel = new JPanel();
-        emptySpacePanel.setPreferredSize(new Dimension(50, 10)); // Width matches time column
+        emptySpacePanel.setPreferredSize(new Dimension(TimelineView.GUTTER, 10)); // Width matches time column
         emptySpacePanel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
 
         // Add components to header content panel
@@ -141,48 +106,16 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
         headerPanel.add(headerContentPanel, BorderLayout.CENTER);
         add(headerPanel, BorderLayout.NORTH);
 
-        // --- Center Panel with Time Grid ---
-        gridPanel = new JPanel(new BorderLayout());
-        gridPanel.setPreferredSize(new Dimension(750, 800));
-
-        // Left column: Time labels (10:00 to 24:00)
-        timeLabelPanel = new JPanel(new GridLayout(numberOfSlots, 1));
-        timeLabelPanel.setPreferredSize(new Dimension(50, timeLabelPanel.getHeight())); // Fixed width
+        // --- Center Panel with the Timeline ---
+        timeline = new TimelineView(7, startHour, 50, row -> row.name(), this::openEvent);
 
-        for (int hour = startHour; hour <= endHour; hour++) {
-            JLabel timeLabel = new JLabel(String.format("%02d:00", hour), SwingConstants.RIGHT);
-            timeLabel.setFont(new Font("Arial", Font.PLAIN, 10));
-            timeLabel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-            timeLabelPanel.add(timeLabel);
-        }
-        gridPanel.add(timeLabelPanel, BorderLayout.WEST);
-
-        // Right side: Days grid for events
-        daysGridPanel = new JPanel(new GridLayout(numberOfSlots, 7));
-        timeSlotPanels = new JPanel[numberOfSlots][7];
-
-        // Calculate equal width for each day column
-        int dayWidth = (750 - 50) / 7; // Total width minus time column width, divided by 7 days
-
-        for (int row = 0; row < numberOfSlots; row++) {
-            for (int col = 0; col < 7; col++) {
-                JPanel timeSlotPanel = new JPanel(new BorderLayout());
-                timeSlotPanel.setPreferredSize(new Dimension(dayWidth, timeSlotPanel.getHeight()));
-                timeSlotPanel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-                timeSlotPanel.setBackground(Color.WHITE);
-                timeSlotPanels[row][col] = timeSlotPanel;
-                daysGridPanel.add(timeSlotPanel);
-            }
-        }
-
-        // Ensure the days header matches the grid columns
+        // Ensure the days header matches the timeline's day columns
+        int dayWidth = (timeline.getPreferredSize().width - TimelineView.GUTTER) / 7;
         for (int i = 0; i < 7; i++) {
             dayLabels[i].setPreferredSize(new Dimension(dayWidth, dayLabels[i].getHeight()));
         }
 
-        gridPanel.add(daysGridPanel, BorderLayout.CENTER);
-
-        add(new JScrollPane(gridPanel), BorderLayout.CENTER);
+        add(new JScrollPane(timeline), BorderLayout.CENTER);
     }
 
     /**
@@ -208,8 +141,7 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
     }
 
     /**
-     * Refreshes the view by updating header texts, clearing time slots, re-rendering events,
-     * and repainting the panel.
+     * Refreshes the view by updating header texts and re-rendering events.
      */
     @Override
     public void refreshView() {
@@ -218,24 +150,7 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
             LocalDate day = startOfWeek.plusDays(i);
             dayLabels[i].setText(day.format(headerFormatter));
         }
-        clearTimeSlots();
         renderEvents(null);
-        revalidate();
-        repaint();
-    }
-
-    /**
-     * Clears the content of all time slot panels and resets event display information.
-     */
-    private void clearTimeSlots() {
-        eventDisplayMap.clear();
-        for (int row = 0; row < numberOfSlots; row++) {
-            for (int col = 0; col < 7; col++) {
-                timeSlotPanels[row][col].removeAll();
-                timeSlotPanels[row][col].setLayout(new BorderLayout());
-                timeSlotPanels[row][col].setBackground(Color.WHITE);
-            }
-        }
     }
 
     /**
@@ -251,281 +166,33 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
     }
 
     /**
-     * Renders events on the grid between the start and end of the current week view.
-     * Queries the database to get events, processes overlaps and sets event panels.
+     * Renders events on the timeline between the start and end of the current week view.
+     * Loads the week's held events through the view's {@link GUI.MenuPanels.Calendar.CalendarLoader}, in the
+     * background with placeholder blocks shown if the shared {@link Database.CalendarStore} does not hold them;
+     * the timeline lays out overlaps and repaints only the blocks that changed.
      *
      * @param ignored an ignored parameter (not used)
      */
     @Override
     public void renderEvents(List ignored) {
+        // Only show unconfirmed bookings
         LocalDate weekStart = startOfWeek;
-        LocalDate weekEnd = startOfWeek.plusDays(6);
-
-        String query = "SELECT e.event_id, e.name, e.start_date, e.end_date, e.start_time, e.end_time, " +
-                "e.`event_type`, e.description, e.booked_by, v.venue_name, b.booking_id " +
-                "FROM Event e " +
-                "LEFT JOIN Venue v ON e.venue_id = v.venue_id " +
-                "JOIN Booking b ON e.booking_id = b.booking_id " +
-                "WHERE e.start_date BETWEEN ? AND ? " +
-                "AND b.booking_status = 'held' " +  // Only show unconfirmed bookings
-                "ORDER BY e.start_date, e.start_time";
-
-        try {
-            PreparedStatement ps = sqlCon.getConnection().prepareStatement(query);
-            ps.setDate(1, java.sql.Date.valueOf(weekStart));
-            ps.setDate(2, java.sql.Date.valueOf(weekEnd));
-            ResultSet rs = ps.executeQuery();
-
-            // Organize events by day
-            Map<Integer, List<EventInfo>> eventsByDay = new HashMap<>();
-            for (int i = 0; i < 7; i++) {
-                eventsByDay.put(i, new ArrayList<>());
-            }
-
-            while (rs.next()) {
-                int eventId = rs.getInt("event_id");
-                String eventName = rs.getString("name");
-                String venueName = rs.getString("venue_name");
-                String bookedBy = rs.getString("booked_by");
-                LocalTime startTime = rs.getTime("start_time").toLocalTime();
-                LocalTime endTime = rs.getTime("end_time").toLocalTime();
-                LocalDate eventDate = rs.getDate("start_date").toLocalDate();
-
-                int dayIndex = (int) (eventDate.toEpochDay() - weekStart.toEpochDay());
-                if (dayIndex < 0 || dayIndex > 6) continue;
-
-                int startSlot = startTime.getHour() - startHour + 1; // +1 to account for empty row
-                int endSlot = endTime.getHour() - startHour + 1;     // +1 to account for empty row
-
-                if (startSlot >= 0 && endSlot < numberOfSlots) {
-                    EventInfo event = new EventInfo(
-                            eventId, eventName, venueName, bookedBy,
-                            startTime, endTime, startSlot, endSlot, dayIndex
-                    );
-                    eventsByDay.get(dayIndex).add(event);
-                    eventColors.put(eventId, determineEventColor(bookedBy));
-                }
-            }
-            rs.close();
-            ps.close();
-
-            // Process each day separately
-            for (int dayIndex = 0; dayIndex < 7; dayIndex++) {
-                List<EventInfo> dayEvents = eventsByDay.get(dayIndex);
-                Collections.sort(dayEvents, Comparator.comparing(e -> e.startTime));
-
-                // Calculate maximum concurrent events for this day
-                int maxConcurrent = calculateMaxConcurrentEvents(dayEvents);
-
-                // Assign columns to events for this day
-                assignEventColumns(dayEvents, maxConcurrent);
-
-                // Store display information for each event
-                for (EventInfo event : dayEvents) {
-                    eventDisplayMap.put(event.eventId, new EventDisplayInfo(event.column, maxConcurrent));
-                }
-
-                // First pass: create container panels for each time slot
-                for (EventInfo event : dayEvents) {
-                    for (int slot = event.startSlot; slot <= event.endSlot; slot++) {
-                        JPanel timeSlotPanel = timeSlotPanels[slot][dayIndex];
-
-                        if (timeSlotPanel.getComponentCount() == 0) {
-                            // Create container panel with the correct number of columns
-                            JPanel containerPanel = new JPanel(new GridLayout(1, maxConcurrent, 1, 0)); // Added horizontal gap
-                            containerPanel.setBackground(Color.WHITE);
-                            containerPanel.setBorder(BorderFactory.createEmptyBorder());
-                            timeSlotPanel.add(containerPanel, BorderLayout.CENTER);
-                            timeSlotPanel.add(containerPanel, BorderLayout.CENTER);
-
-                            // Add empty panels for all columns
-                            for (int i = 0; i < maxConcurrent; i++) {
-                                JPanel emptyPanel = new JPanel();
-                                emptyPanel.setBackground(Color.WHITE);
-                                containerPanel.add(emptyPanel);
-                            }
-                        }
-                    }
-                }
-
-                // Second pass: add event panels to the containers
-                for (EventInfo event : dayEvents) {
-                    for (int slot = event.startSlot; slot <= event.endSlot; slot++) {
-                        JPanel timeSlotPanel = timeSlotPanels[slot][dayIndex];
-                        JPanel containerPanel = (JPanel) timeSlotPanel.getComponent(0);
-
-                        JPanel eventPanel = createEventPanel(event,
-                                slot == event.startSlot,
-                                slot == event.endSlot,
-                                event.column,
-                                maxConcurrent);
-
-                        containerPanel.remove(event.column);
-                        containerPanel.add(eventPanel, event.column);
-                    }
-                }
-            }
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-        revalidate();
-        repaint();
-    }
-
-    /**
-     * Determines the background color for an event based on the booking department.
-     *
-     * @param bookedBy the department or person who booked the event
-     * @return the Color associated with the event booking
-     */
-    private Color determineEventColor(String bookedBy) {
-        if (bookedBy != null) {
-            if (bookedBy.equalsIgnoreCase("operations")) {
-                return new Color(200, 230, 255);  // Light blue.
-            } else if (bookedBy.equalsIgnoreCase("marketing")) {
-                return new Color(255, 230, 200);  // Light orange.
-            }
-        }
-        return new Color(230, 255, 200);  // Default green.
+        getLoader().load(weekStart, weekStart.plusDays(6), "held", () -> timeline.showLoading(weekStart),
+                rows -> timeline.setEvents(weekStart, rows), ex -> timeline.showFailed());
     }
 
     /**
-     * Creates a panel representing an individual event to be displayed in the grid.
+     * Opens the details of an event clicked on the timeline.
      *
-     * @param event       the EventInfo object containing event details
-     * @param isFirstSlot true if this panel is in the first slot of the event duration
-     * @param isLastSlot  true if this panel is in the last slot of the event duration
-     * @param column      the column index assigned to the event
-     * @param maxColumns  the total number of columns in the time slot container
-     * @return a JPanel representing the event
-     */
-    private JPanel createEventPanel(EventInfo event, boolean isFirstSlot, boolean isLastSlot,
-                                    int column, int maxColumns) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(eventColors.get(event.eventId));
-
-        // Always show full border for each event
-        panel.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
-
-        if (isFirstSlot) {
-            JLabel label = new JLabel(
-                    String.format("<html><center>%s<br/>%s<br/>%s - %s</center></html>",
-                            event.eventName, event.venueName,
-                            event.startTime, event.endTime),
-                    SwingConstants.CENTER
-            );
-            label.setFont(new Font("Arial", Font.PLAIN, 9));
-            panel.add(label, BorderLayout.CENTER);
-        }
-
-        attachEventListeners(panel, event.eventId);
-        return panel;
-    }
-
-    /**
-     * Calculates the maximum number of concurrent events in the given list.
-     *
-     * @param events a list of events occurring in a specific day
-     * @return the maximum number of overlapping events for any time slot
-     */
-    private int calculateMaxConcurrentEvents(List<EventInfo> events) {
-        if (events.isEmpty()) return 0;
-
-        // Find the maximum number of overlapping events at any time slot
-        int[] concurrentCounts = new int[numberOfSlots];
-        for (EventInfo event : events) {
-            for (int slot = event.startSlot; slot <= event.endSlot; slot++) {
-                concurrentCounts[slot]++;
-            }
-        }
-
-        int maxConcurrent = 0;
-        for (int count : concurrentCounts) {
-            if (count > maxConcurrent) {
-                maxConcurrent = count;
-            }
-        }
-
-        return maxConcurrent;
-    }
-
-    /**
-     * Assigns a column index to each event such that overlapping events are shown side by side.
-     *
-     * @param events     the list of events for a given day
-     * @param maxColumns the maximum number of overlapping event columns in that day
-     */
-    private void assignEventColumns(List<EventInfo> events, int maxColumns) {
-        // Group events by their time slots
-        Map<Integer, List<EventInfo>> eventsBySlot = new HashMap<>();
-        for (EventInfo event : events) {
-            for (int slot = event.startSlot; slot <= event.endSlot; slot++) {
-                eventsBySlot.computeIfAbsent(slot, k -> new ArrayList<>()).add(event);
-            }
-        }
-
-        // Track which columns are available at each time slot
-        Map<Integer, Set<Integer>> availableColumnsBySlot = new HashMap<>();
-        for (int slot = 0; slot < numberOfSlots; slot++) {
-            availableColumnsBySlot.put(slot, new HashSet<>());
-            for (int col = 0; col < maxColumns; col++) {
-                availableColumnsBySlot.get(slot).add(col);
-            }
-        }
-
-        // Assign columns to events
-        for (EventInfo event : events) {
-            // Find the first column that's available in all slots this event occupies
-            for (int col = 0; col < maxColumns; col++) {
-                boolean columnAvailable = true;
-                for (int slot = event.startSlot; slot <= event.endSlot; slot++) {
-                    if (!availableColumnsBySlot.get(slot).contains(col)) {
-                        columnAvailable = false;
-                        break;
-                    }
-                }
-
-                if (columnAvailable) {
-                    event.column = col;
-                    // Mark this column as occupied for all slots this event covers
-                    for (int slot = event.startSlot; slot <= event.endSlot; slot++) {
-                        availableColumnsBySlot.get(slot).remove(col);
-                    }
-                    break;
-                }
-            }
-        }
-    }
-
-    /**
-     * Attaches mouse event listeners to the given panel for interactive behavior
-     * such as hover effects and clicking to show event details.
-     *
-     * @param panel   the JPanel representing the event
      * @param eventId the unique identifier of the event
      */
-    private void attachEventListeners(JPanel panel, int eventId) {
-        Color baseColor = panel.getBackground();
-        panel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                panel.setBackground(baseColor.darker());
-            }
-            @Override
-            public void mouseExited(MouseEvent e) {
-                panel.setBackground(baseColor);
-            }
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                EventDetailForm eventDetailForm = new EventDetailForm(
-                        (Frame) SwingUtilities.getWindowAncestor(panel),
-                        getSQLConnection(),
-                        String.valueOf(eventId)
-                );
-                eventDetailForm.setVisible(true);
-            }
-        });
+    private void openEvent(int eventId) {
+        EventDetailForm eventDetailForm = new EventDetailForm(
+                (Frame) SwingUtilities.getWindowAncestor(this),
+                getSQLConnection(),
+                String.valueOf(eventId)
+        );
+        eventDetailForm.setVisible(true);
     }
 
     /**
@@ -547,101 +214,4 @@ public class DiaryWeekViewPanel extends CalendarViewPanel {
     public LocalDate getViewEndDate() {
         return startOfWeek.plusDays(6);
     }
-
-    /**
-     * Private helper class representing a time point in an event with a flag indicating
-     * whether it is the start or end of an event.
-     */
-    private static class TimePoint implements Comparable<TimePoint> {
-        LocalTime time;
-        boolean isStart;
-
-        /**
-         * Constructs a TimePoint with the specified time and start flag.
-         *
-         * @param time    the LocalTime of the time point
-         * @param isStart true if this time point is the start of an event; false otherwise
-         */
-        TimePoint(LocalTime time, boolean isStart) {
-            this.time = time;
-            this.isStart = isStart;
-        }
-
-        /**
-         * Compares this TimePoint with another based on time and start/end flag.
-         *
-         * @param other the other TimePoint to compare
-         * @return a negative integer, zero, or a positive integer as this object is less than,
-         * equal to, or greater than the specified object
-         */
-        @Override
-        public int compareTo(TimePoint other) {
-            int timeCompare = this.time.compareTo(other.time);
-            if (timeCompare != 0) return timeCompare;
-            return Boolean.compare(!this.isStart, !other.isStart);
-        }
-    }
-
-    /**
-     * Private helper class representing an event's information necessary for display.
-     */
-    private static class EventInfo {
-        int eventId;
-        String eventName;
-        String venueName;
-        String bookedBy;
-        LocalTime startTime;
-        LocalTime endTime;
-        int startSlot;
-        int endSlot;
-        int dayIndex;
-        int column;
-
-        /**
-         * Constructs an EventInfo object with the provided event details.
-         *
-         * @param eventId   the unique identifier of the event
-         * @param eventName the event's name
-         * @param venueName the name of the venue hosting the event
-         * @param bookedBy  the department or person who booked the event
-         * @param startTime the starting time of the event
-         * @param endTime   the ending time of the event
-         * @param startSlot the starting time slot index in the grid
-         * @param endSlot   the ending time slot index in the grid
-         * @param dayIndex  the index of the day in the week (0 for Monday, etc.)
-         */
-        public EventInfo(int eventId, String eventName, String venueName,
-                         String bookedBy, LocalTime startTime, LocalTime endTime,
-                         int startSlot, int endSlot, int dayIndex) {
-            this.eventId = eventId;
-            this.eventName = eventName;
-            this.venueName = venueName;
-            this.bookedBy = bookedBy;
-            this.startTime = startTime;
-            this.endTime = endTime;
-            this.startSlot = startSlot;
-            this.endSlot = endSlot;
-            this.dayIndex = dayIndex;
-        }
-    }
-
-    /**
-     * Private helper class containing display information for an event, such as its
-     * assigned column and the total number of columns in the time slot container.
-     */
-    private static class EventDisplayInfo {
-        int column;
-        int totalColumns;
-
-        /**
-         * Constructs an EventDisplayInfo object with the specified column and total columns.
-         *
-         * @param column       the column index assigned to the event
-         * @param totalColumns the total number of columns in the container for the event's time slot
-         */
-        public EventDisplayInfo(int column, int totalColumns) {
-            this.column = column;
-            this.totalColumns = totalColumns;
-        }
-    }
 }
@@ -1,9 +1,11 @@
 package GUI.MenuPanels.Event;
 
 import Database.SQLConnection;
+import Database.rows.EventDetailsRow;
 import javax.swing.*;
 import java.awt.*;
-import java.sql.ResultSet;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * The EventDetailForm class displays a modal dialog containing details for a specific event.
@@ -180,19 +182,19 @@ public class EventDetailForm extends JDialog {
         try {
             // Assume you have a method in SQLConnection that gets event details by event_id.
             // The query should join with the Venue table to get the venue name.
-            ResultSet rsEvent = sqlCon.getEventDetailsByEventId(Integer.parseInt(eventId));
-            if (rsEvent.next()) {
-                eventNameField.setText(rsEvent.getString("name"));
-                startDateField.setText(rsEvent.getString("start_date"));
-                endDateField.setText(rsEvent.getString("end_date"));
-                startTimeField.setText(rsEvent.getString("start_time"));
-                endTimeField.setText(rsEvent.getString("end_time"));
-                eventTypeField.setText(rsEvent.getString("event_type"));
-                venueNameField.setText(rsEvent.getString("venue_name"));  // Venue name from join
-                descriptionField.setText(rsEvent.getString("description"));
-                bookedByField.setText(rsEvent.getString("booked_by"));
+            Optional<EventDetailsRow> details = sqlCon.getEventDetailsByEventId(Integer.parseInt(eventId));
+            if (details.isPresent()) {
+                EventDetailsRow event = details.get();
+                eventNameField.setText(event.name());
+                startDateField.setText(Objects.toString(event.startDate(), ""));
+                endDateField.setText(Objects.toString(event.endDate(), ""));
+                startTimeField.setText(Objects.toString(event.startTime(), ""));
+                endTimeField.setText(Objects.toString(event.endTime(), ""));
+                eventTypeField.setText(event.eventType());
+                venueNameField.setText(event.venueName());  // Venue name from join
+                descriptionField.setText(event.description());
+                bookedByField.setText(event.bookedBy());
             }
-            rsEvent.close();
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error loading event details: " + ex.getMessage());
         }
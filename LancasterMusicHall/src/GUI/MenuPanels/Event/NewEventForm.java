@@ -1,6 +1,7 @@
 package GUI.MenuPanels.Event;
 
 import Database.SQLConnection;
+import GUI.MenuPanels.PriceQuoter;
 import operations.entities.Event;
 import operations.entities.Venue;
 
@@ -37,6 +38,21 @@ public class NewEventForm extends JDialog {
      */
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+    /**
+     * Delay before an edited event panel is re-priced, in milliseconds.
+     * <p>
+     * <b>Behavior:</b> Each keystroke or selection change restarts the delay
+     */
+    private static final int QUOTE_DEBOUNCE_MILLIS = 400;
+
+    /**
+     * Background pricing for the event panels.
+     * <p>
+     * <b>Threading:</b> Quotes run off the EDT; results are applied on the EDT
+     * <b>Lifecycle:</b> Outstanding quotes are cancelled when the dialog is disposed
+     */
+    private PriceQuoter<EventDetailPanel> quoter;
+
 // --- Client Details Fields ---
 
     /**
@@ -224,6 +240,30 @@ public class NewEventForm extends JDialog {
         super(owner, "New event", true);
         this.sqlCon = sqlCon;
         eventPanels = new ArrayList<>();
+        quoter = new PriceQuoter<>(sqlCon, QUOTE_DEBOUNCE_MILLIS, EventDetailPanel::readQuoteRequest,
+                new PriceQuoter.Listener<>() {
+                    @Override
+                    public void started(EventDetailPanel panel) {
+                        panel.eventPriceLabel.setText("Calculating...");
+                        panel.eventPriceLabel.setToolTipText(null);
+                        updateCustomerBillTotal();
+                    }
+
+                    @Override
+                    public void quoted(EventDetailPanel panel, double price) {
+                        panel.price = price;
+                        panel.eventPriceLabel.setText(formatPrice(price));
+                        updateCustomerBillTotal();
+                    }
+
+                    @Override
+                    public void failed(EventDetailPanel panel, Throwable cause) {
+                        panel.price = 0.0;
+                        panel.eventPriceLabel.setText("Unavailable");
+                        panel.eventPriceLabel.setToolTipText(cause.getMessage());
+                        updateCustomerBillTotal();
+                    }
+                });
         initComponents();
         pack();
         setLocationRelativeTo(owner);
@@ -339,26 +379,48 @@ public class NewEventForm extends JDialog {
     }
 
     /**
-     * Updates the customer bill total based on the prices of the individual event panels.
+     * Cancels any outstanding price quotes before closing the dialog.
+     */
+    @Override
+    public void dispose() {
+        quoter.shutdown();
+        super.dispose();
+    }
+
+    /**
+     * Updates the customer bill total from the latest price of each event panel.
+     * The total is refreshed as each panel's quote lands.
      */
     private void updateCustomerBillTotal() {
         double totalBill = 0.0;
         for (EventDetailPanel panel : eventPanels) {
-            Event event = panel.getEvent();
-            if (event != null) {
-                totalBill += event.getPrice();
-            }
+            totalBill += panel.price;
         }
-        customerBillTotalLabel.setText("Customer Bill Total: £" + totalBill);
+        customerBillTotalLabel.setText("Customer Bill Total: " + formatPrice(totalBill)
+                + (quoter.isPending() ? " (calculating...)" : ""));
     }
 
     /**
-     * Creates and adds a new EventDetailPanel to the events container.
+     * Formats a price for display, e.g. "£120.00".
+     *
+     * @param price the price to format
+     * @return the formatted price
+     */
+    private static String formatPrice(double price) {
+        return String.format("£%.2f", price);
+    }
+
+    /**
+     * Creates and adds a new EventDetailPanel to the events container and starts pricing it.
      */
     private void addNewEventPanel() {
         EventDetailPanel eventPanel = new EventDetailPanel();
         eventPanels.add(eventPanel);
         eventsContainer.add(eventPanel);
+        quoter.watch(eventPanel, eventPanel.eventStartDateField, eventPanel.eventEndDateField,
+                eventPanel.eventStartTimeField, eventPanel.eventEndTimeField);
+        quoter.watch(eventPanel, eventPanel.locationCombo);
+        quoter.quoteNow(eventPanel);
     }
 
     /**
@@ -424,6 +486,8 @@ public class NewEventForm extends JDialog {
         private JComboBox<String> eventTypeCombo;
         private JButton calcPriceButton;
         private JLabel eventPriceLabel;
+        /** The latest quoted price of this event; 0 until a quote succeeds. */
+        private double price;
         // New fields for event description and layout:
         private JTextField descriptionField;
         private JTextField layoutField;
@@ -452,12 +516,7 @@ public class NewEventForm extends JDialog {
             descriptionField = new JTextField();
             layoutField = new JTextField();
 
-            calcPriceButton.addActionListener(e -> {
-                double price = calculateEventPrice();
-                eventPriceLabel.setText("£" + price);
-                // Optionally update the overall customer total here:
-                updateCustomerBillTotal();
-            });
+            calcPriceButton.addActionListener(e -> quoter.quoteNow(this));
 
             add(new JLabel("Event Start Date (dd/MM/yyyy):"));
             add(eventStartDateField);
@@ -531,122 +590,20 @@ public class NewEventForm extends JDialog {
         }
 
         /**
-         * Calculates the price of the event based on dates, times, location, and room rates.
+         * Reads the dates, times and location that determine the price of the event.
          *
-         * @return the calculated price as a double
+         * @return the quote request for this event
+         * @throws java.time.format.DateTimeParseException if a date or time cannot be parsed
          */
-        private double calculateEventPrice() {
-            double price = 0.0;
-            try {
-                LocalDate startDate = LocalDate.parse(eventStartDateField.getText().trim(), DATE_FORMATTER);
-                LocalDate endDate = LocalDate.parse(eventEndDateField.getText().trim(), DATE_FORMATTER);
-                LocalTime startTime = LocalTime.parse(eventStartTimeField.getText().trim());
-                LocalTime endTime = LocalTime.parse(eventEndTimeField.getText().trim());
-
-                long daysDiff = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate);
-                int totalDays = (daysDiff == 0) ? 1 : (int) daysDiff + 1;
-                long hours = java.time.Duration.between(startTime, endTime).toHours();
-
-                String locationRaw = (String) locationCombo.getSelectedItem();
-                String location = locationRaw.replace("Room ", "").trim();
-                int venueId = mapLocationToVenueId(locationRaw);
-                java.sql.Date sqlDate = java.sql.Date.valueOf(startDate);
-
-                switch (location) {
-                    case "Main_Hall":
-                        if (totalDays == 1) {
-                            if (startTime.getHour() >= 17) {
-                                price = sqlCon.calculateMainHallCost(sqlDate, "evening", 0);
-                            } else {
-                                price = sqlCon.calculateMainHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                            }
-                        } else {
-                            price = sqlCon.calculateMainHallCost(sqlDate, "daily", 0) * totalDays;
-                        }
-                        break;
-
-                    case "Small_Hall":
-                        if (totalDays == 1) {
-                            if (startTime.getHour() >= 17) {
-                                price = sqlCon.calculateSmallHallCost(sqlDate, "evening", 0);
-                            } else {
-                                price = sqlCon.calculateSmallHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                            }
-                        } else {
-                            price = sqlCon.calculateSmallHallCost(sqlDate, "daily", 0) * totalDays;
-                        }
-                        break;
-
-                    case "Rehearsal_Space":
-                        if (totalDays == 1) {
-                            price = sqlCon.calculateRehearsalCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                        } else if (totalDays == 7) {
-                            price = sqlCon.calculateRehearsalCost(sqlDate, "weekly_long", 0);
-                        } else {
-                            price = sqlCon.calculateRehearsalCost(sqlDate, "daily_long", 0) * totalDays;
-                        }
-                        break;
-
-                    case "Venue":
-                        if (totalDays == 1) {
-                            if (startTime.getHour() >= 17) {
-                                price = sqlCon.calculateVenueCost(sqlDate, "evening");
-                            } else {
-                                price = sqlCon.calculateVenueCost(sqlDate, "full_day");
-                            }
-                        } else {
-                            price = sqlCon.calculateVenueCost(sqlDate, "full_day") * totalDays;
-                        }
-                        break;
-
-                    case "The Green Room":
-                    case "Brontë Boardroom":
-                    case "Dickens Den":
-                    case "Poe Parlor":
-                    case "Globe Room":
-                    case "Chekhov Chamber":
-                        if (totalDays == 1) {
-                            String duration;
-                            if (hours <= 1) {
-                                duration = "1 Hour";
-                            } else if (hours <= 4) {
-                                duration = "Morning/Afternoon";
-                            } else {
-                                duration = "All Day";
-                            }
-                            price = sqlCon.calculateRoomCost(venueId, location, duration);
-                        } else if (totalDays == 7) {
-                            price = sqlCon.calculateRoomCost(venueId, location, "Week");
-                        } else {
-                            price = sqlCon.calculateRoomCost(venueId, location, "All Day") * totalDays;
-                        }
-                        break;
-
-                    default:
-                        // Fallback to main hall hourly
-                        price = sqlCon.calculateMainHallCost(sqlDate, "hourly", (int) Math.max(hours, 3));
-                        break;
-                }
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Error calculating event price: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
-            return price;
-        }
-
-        /**
-         * Updates the overall customer bill total based on the prices in each EventDetailPanel.
-         */
-        private void updateCustomerBillTotal() {
-            double totalBill = 0.0;
-            for (EventDetailPanel panel : eventPanels) {
-                try {
-                    String priceStr = panel.eventPriceLabel.getText().replaceAll("[£]", "").trim();
-                    totalBill += Double.parseDouble(priceStr);
-                } catch (NumberFormatException e) {
-                    // Ignore if parsing fails
-                }
-            }
-            customerBillTotalLabel.setText("Customer Bill Total: £" + totalBill);
+        private PriceQuoter.QuoteRequest readQuoteRequest() {
+            LocalDate startDate = LocalDate.parse(eventStartDateField.getText().trim(), DATE_FORMATTER);
+            LocalDate endDate = LocalDate.parse(eventEndDateField.getText().trim(), DATE_FORMATTER);
+            LocalTime startTime = LocalTime.parse(eventStartTimeField.getText().trim());
+            LocalTime endTime = LocalTime.parse(eventEndTimeField.getText().trim());
+
+            String locationRaw = (String) locationCombo.getSelectedItem();
+            int venueId = mapLocationToVenueId(locationRaw);
+            return new PriceQuoter.QuoteRequest(locationRaw, venueId, startDate, endDate, startTime, endTime);
         }
 
         /**
@@ -664,7 +621,6 @@ public class NewEventForm extends JDialog {
                 LocalTime endTime = LocalTime.parse(eventEndTimeField.getText().trim());
                 int venueId = mapLocationToVenueId(location);
                 Venue venue = new Venue(venueId, location, location, 0, "N/A", false, false, 0.0);
-                double price = Double.parseDouble(eventPriceLabel.getText().replaceAll("[£]", ""));
                 String description = descriptionField.getText().trim(); // new
                 String layout = layoutField.getText().trim();           // new
 
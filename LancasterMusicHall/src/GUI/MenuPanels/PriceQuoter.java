@@ -0,0 +1,248 @@
+package GUI.MenuPanels;
+
+import Database.SQLConnection;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Prices the event panels of a booking or event form in the background while the user edits them.
+ * <p>
+ * Every change to a panel restarts that panel's debounce timer; only when the user has paused for the
+ * debounce delay is a quote requested. Quotes run through {@link SQLConnection#getAsync()} against the
+ * shared {@link Database.TariffEngine}, so the quotes of different panels run in parallel and never block
+ * the Event Dispatch Thread. Requesting a new quote for a panel cancels the one still in flight, and the
+ * result of a superseded quote is never delivered.
+ * </p>
+ * <p>
+ * All methods must be called on the Event Dispatch Thread, and the {@link Listener} is always called there.
+ * </p>
+ *
+ * @param <K> the type identifying a priced panel
+ */
+public class PriceQuoter<K> {
+
+    /**
+     * The details of one event needed to price it.
+     *
+     * @param location  the location as shown in the forms (e.g. "Main_Hall", "Room Dickens Den")
+     * @param venueId   the venue ID of the location
+     * @param startDate the first day of the event
+     * @param endDate   the last day of the event
+     * @param startTime the daily start time
+     * @param endTime   the daily end time
+     */
+    public record QuoteRequest(String location, int venueId, LocalDate startDate, LocalDate endDate,
+                               LocalTime startTime, LocalTime endTime) {
+    }
+
+    /**
+     * Reads the current inputs of a panel.
+     *
+     * @param <K> the type identifying a priced panel
+     */
+    @FunctionalInterface
+    public interface RequestReader<K> {
+        /**
+         * Reads the panel's inputs.
+         *
+         * @param key the panel to read
+         * @return the quote request for the panel
+         * @throws RuntimeException if the inputs cannot be parsed; reported to {@link Listener#failed}
+         */
+        QuoteRequest read(K key);
+    }
+
+    /**
+     * Receives the progress of each panel's quote on the Event Dispatch Thread.
+     *
+     * @param <K> the type identifying a priced panel
+     */
+    public interface Listener<K> {
+        /**
+         * Called when a quote has been requested for a panel and is now running.
+         *
+         * @param key the panel being priced
+         */
+        void started(K key);
+
+        /**
+         * Called with the price of a panel's latest inputs.
+         *
+         * @param key   the panel that was priced
+         * @param price the price of the event
+         */
+        void quoted(K key, double price);
+
+        /**
+         * Called when a panel's inputs are invalid or its quote could not be calculated.
+         *
+         * @param key   the panel that could not be priced
+         * @param cause why the quote failed
+         */
+        void failed(K key, Throwable cause);
+    }
+
+    private final SQLConnection sqlCon;
+    private final int debounceMillis;
+    private final RequestReader<K> reader;
+    private final Listener<K> listener;
+
+    /** Debounce timer of each panel that has been changed. */
+    private final Map<K, Timer> timers = new HashMap<>();
+
+    /** The quote still in flight for each panel. */
+    private final Map<K, CompletableFuture<Double>> pending = new HashMap<>();
+
+    /**
+     * Creates a quoter.
+     *
+     * @param sqlCon         the connection whose tariff engine and asynchronous facade are used
+     * @param debounceMillis how long a panel must stay unchanged before it is priced
+     * @param reader         reads a panel's inputs when its quote is requested
+     * @param listener       receives the results
+     */
+    public PriceQuoter(SQLConnection sqlCon, int debounceMillis, RequestReader<K> reader, Listener<K> listener) {
+        this.sqlCon = sqlCon;
+        this.debounceMillis = debounceMillis;
+        this.reader = reader;
+        this.listener = listener;
+    }
+
+    /**
+     * Requests a quote for a panel once it has stayed unchanged for the debounce delay. Calling this again
+     * before then restarts the delay.
+     *
+     * @param key the panel that changed
+     */
+    public void schedule(K key) {
+        Timer timer = timers.computeIfAbsent(key, k -> {
+            Timer t = new Timer(debounceMillis, e -> quoteNow(k));
+            t.setRepeats(false);
+            return t;
+        });
+        timer.restart();
+    }
+
+    /**
+     * Requests a quote for a panel immediately, cancelling any pending or in-flight quote for it.
+     *
+     * @param key the panel to price
+     */
+    public void quoteNow(K key) {
+        Timer timer = timers.get(key);
+        if (timer != null) {
+            timer.stop();
+        }
+        cancelInFlight(key);
+
+        QuoteRequest request;
+        try {
+            request = reader.read(key);
+        } catch (RuntimeException ex) {
+            listener.failed(key, ex);
+            return;
+        }
+
+        CompletableFuture<Double> quote = sqlCon.getAsync().submit(sql -> sql.getTariffs().quote(
+                request.location(), request.venueId(), request.startDate(), request.endDate(),
+                request.startTime(), request.endTime()));
+        pending.put(key, quote);
+        listener.started(key);
+        quote.whenCompleteAsync((price, ex) -> {
+            if (pending.get(key) != quote) {
+                return; // superseded by a newer quote
+            }
+            pending.remove(key);
+            if (ex != null) {
+                listener.failed(key, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            } else {
+                listener.quoted(key, price);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * @return {@code true} if any panel has a quote waiting for its debounce delay or still in flight
+     */
+    public boolean isPending() {
+        if (!pending.isEmpty()) {
+            return true;
+        }
+        for (Timer timer : timers.values()) {
+            if (timer.isRunning()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancels every pending and in-flight quote. Call when the form is closed.
+     */
+    public void shutdown() {
+        for (Timer timer : timers.values()) {
+            timer.stop();
+        }
+        timers.clear();
+        for (CompletableFuture<Double> quote : pending.values()) {
+            quote.cancel(true);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Re-prices a panel whenever the text of one of the given fields changes.
+     *
+     * @param key    the panel the fields belong to
+     * @param fields the fields that affect the panel's price
+     */
+    public void watch(K key, JTextComponent... fields) {
+        DocumentListener listener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                schedule(key);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                schedule(key);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                schedule(key);
+            }
+        };
+        for (JTextComponent field : fields) {
+            field.getDocument().addDocumentListener(listener);
+        }
+    }
+
+    /**
+     * Re-prices a panel whenever the selection of one of the given combo boxes changes.
+     *
+     * @param key    the panel the combo boxes belong to
+     * @param combos the combo boxes that affect the panel's price
+     */
+    public void watch(K key, JComboBox<?>... combos) {
+        for (JComboBox<?> combo : combos) {
+            combo.addActionListener(e -> schedule(key));
+        }
+    }
+
+    private void cancelInFlight(K key) {
+        CompletableFuture<Double> quote = pending.remove(key);
+        if (quote != null) {
+            quote.cancel(true);
+        }
+    }
+}
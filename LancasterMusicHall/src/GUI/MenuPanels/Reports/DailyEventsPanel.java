@@ -1,15 +1,20 @@
 package GUI.MenuPanels.Reports;
 
+import Database.CalendarPrefetcher;
 import Database.SQLConnection;
+import Database.rows.CalendarEventRow;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Period;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The DailyEventsPanel class provides an interface for viewing and exporting
@@ -51,6 +56,12 @@ public class DailyEventsPanel extends JPanel {
     /** Progress bar for export operations */
     private JProgressBar progressBar;
 
+    /** The event query still in flight, cancelled when another date is requested */
+    private CompletableFuture<?> pendingLoad;
+
+    /** Reads ahead the days either side of the one shown, in the direction being paged */
+    private final CalendarPrefetcher.Cursor prefetch;
+
     /**
      * Constructs a new DailyEventsPanel with database connection.
      *
@@ -59,8 +70,11 @@ public class DailyEventsPanel extends JPanel {
     public DailyEventsPanel(SQLConnection sqlCon) {
         this.sqlCon = sqlCon;
         this.currentDate = LocalDate.now();
+        this.prefetch = sqlCon.getCalendarStore().getPrefetcher().cursor(Period.ofDays(1));
         initializeUI();
         loadDailyEvents();
+        // Show the day again whenever the store has merged in changed events.
+        sqlCon.getCalendarStore().addChangeListener(this::loadDailyEvents);
     }
 
     /**
@@ -216,7 +230,10 @@ public class DailyEventsPanel extends JPanel {
         });
 
         refreshButton = createNavButton("Refresh");
-        refreshButton.addActionListener(e -> loadDailyEvents());
+        refreshButton.addActionListener(e -> {
+            sqlCon.getChangeFeed().pollNow(); // picks up changes made by other clients
+            loadDailyEvents();
+        });
 
         // Add buttons to panel
         navPanel.add(prevDayButton);
@@ -327,51 +344,60 @@ public class DailyEventsPanel extends JPanel {
 
     /**
      * Loads events for the currently selected date from the database.
+     * <p>
+     * Every event starting on the date is read from the shared {@link Database.CalendarStore}, in the background
+     * if it is not cached, and the table is filled on the Event Dispatch Thread when it completes;
+     * a load still in flight is cancelled first so a slow response cannot overwrite a newer date. The next
+     * days in the direction being paged are then read ahead, so stepping through them does not wait.
+     * </p>
      */
     private void loadDailyEvents() {
         DefaultTableModel model = (DefaultTableModel) eventsTable.getModel();
         model.setRowCount(0); // Clear existing data
 
-        try {
-            String query = "SELECT e.event_id, e.name, e.event_type, " +
-                    "e.location, e.start_time, e.end_time, e.description " +
-                    "FROM Event e " +
-                    "WHERE DATE(e.start_date) = ? " +
-                    "ORDER BY e.start_time";
-
-            Date sqlDate = Date.valueOf(currentDate);
-
-            try (PreparedStatement ps = sqlCon.getConnection().prepareStatement(query)) {
-                ps.setDate(1, sqlDate);
-                ResultSet rs = ps.executeQuery();
-
-                while (rs.next()) {
-                    model.addRow(new Object[]{
-                            rs.getInt("event_id"),
-                            rs.getString("name"),
-                            rs.getString("event_type"),
-                            rs.getString("location"),
-                            formatTime(rs.getTime("start_time")),
-                            formatTime(rs.getTime("end_time")),
-                            rs.getString("description") != null ? rs.getString("description") : ""
-                    });
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                    "Error loading events: " + ex.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
         }
+        CompletableFuture<List<CalendarEventRow>> events = sqlCon.getCalendarStore()
+                .loadEvents(currentDate, currentDate, null, null);
+        prefetch.shown(currentDate, currentDate, events.isDone() && !events.isCompletedExceptionally());
+        CompletableFuture<List<Object[]>> load = events
+                .thenApply(dayEvents -> dayEvents.stream()
+                        .map(event -> new Object[]{
+                                event.eventId(),
+                                event.name(),
+                                event.eventType(),
+                                event.location(),
+                                formatTime(event.startTime()),
+                                formatTime(event.endTime()),
+                                event.description() != null ? event.description() : ""
+                        })
+                        .toList());
+        pendingLoad = load;
+        load.whenCompleteAsync((rows, ex) -> {
+            if (load != pendingLoad) {
+                return; // superseded by a newer load
+            }
+            if (ex != null) {
+                ex.printStackTrace();
+                JOptionPane.showMessageDialog(this,
+                        "Error loading events: " + ex.getMessage(),
+                        "Database Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            for (Object[] row : rows) {
+                model.addRow(row);
+            }
+        }, SwingUtilities::invokeLater);
     }
 
     /**
-     * Formats a Time object to display just hours and minutes.
+     * Formats a time to display just hours and minutes.
      *
      * @param time The time to format
      * @return Formatted time string (HH:MM) or empty string if null
      */
-    private String formatTime(Time time) {
+    private String formatTime(LocalTime time) {
         if (time == null) return "";
         return time.toString().substring(0, 5); // Show just HH:MM
     }
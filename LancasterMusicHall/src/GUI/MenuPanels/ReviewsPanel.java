@@ -1,15 +1,26 @@
 package GUI.MenuPanels;
 
+import Database.ChangeFeed;
+import Database.DatabaseEvent;
 import Database.SQLConnection;
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The ReviewsPanel class displays a list of reviews along with details for the selected review.
@@ -65,8 +76,8 @@ public class ReviewsPanel extends JPanel {
     private JButton replyButton;
 
     /**
-     * Button to reload reviews from the database.
-     * Updates the listModel and refreshes the UI display.
+     * Button to look for reviews changed in the database.
+     * Asks the change feed to poll now; changed reviews are then merged into the listModel.
      */
     private JButton refreshButton;
 
@@ -77,6 +88,17 @@ public class ReviewsPanel extends JPanel {
      */
     private Review selectedReview;
 
+    /**
+     * The review query still in flight.
+     * Cancelled, and its results ignored, once a newer refresh has started.
+     */
+    private CompletableFuture<List<Review>> pendingLoad;
+
+    /**
+     * Completed once the latest full load has been added to the list, so changes are merged after it.
+     */
+    private CompletableFuture<?> loadShown = CompletableFuture.completedFuture(null);
+
     /**
      * Constructs a ReviewsPanel with the specified SQLConnection.
      *
@@ -100,8 +122,13 @@ public class ReviewsPanel extends JPanel {
         add(splitPane, BorderLayout.CENTER);
         add(createButtonPanel(), BorderLayout.SOUTH);
 
-        // Load all reviews initially
+        // Load all reviews initially, then only those that change
         refreshReviews();
+        sqlCon.getEventBus().subscribeOnEdt(DatabaseEvent.RowsChanged.class, event -> {
+            if (event.table() == ChangeFeed.Table.REVIEW) {
+                reviewsChanged(event.changed(), event.deleted());
+            }
+        });
     }
 
     /**
@@ -125,7 +152,7 @@ public class ReviewsPanel extends JPanel {
         scrollPane.setPreferredSize(new Dimension(300, Integer.MAX_VALUE));
 
         refreshButton = new JButton("Refresh");
-        refreshButton.addActionListener(e -> refreshReviews());
+        refreshButton.addActionListener(e -> sqlCon.getChangeFeed().pollNow());
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         buttonPanel.add(refreshButton);
@@ -195,43 +222,158 @@ public class ReviewsPanel extends JPanel {
 
     /**
      * Refreshes the list of reviews by clearing the list model and reloading reviews from the database.
+     * <p>
+     * The reviews are fetched in the background and added to the list on the Event Dispatch Thread.
+     * </p>
      */
     private void refreshReviews() {
-        try {
-            listModel.clear();
-            List<Review> reviews = fetchAllReviews();
+        listModel.clear();
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+        }
+        CompletableFuture<List<Review>> load = sqlCon.getAsync().submit(sql -> fetchAllReviews());
+        pendingLoad = load;
+        loadShown = load.whenCompleteAsync((reviews, ex) -> {
+            if (load != pendingLoad) {
+                return; // superseded by a newer refresh
+            }
+            if (ex != null) {
+                ex.printStackTrace();
+                JOptionPane.showMessageDialog(this, "Error loading reviews: " + ex.getMessage(),
+                        "Database Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             for (Review review : reviews) {
                 listModel.addElement(review);
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading reviews: " + ex.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Merges changed reviews into the list without reading the others again. Changed reviews are read back and
+     * replace their old entries, or are inserted in date order; deleted ones are removed. The selected review
+     * stays selected. If the full list is still loading, the merge waits for it.
+     *
+     * @param changed the IDs of reviews inserted or updated
+     * @param deleted the IDs of reviews deleted
+     */
+    private void reviewsChanged(List<Integer> changed, List<Integer> deleted) {
+        loadShown.handle((reviews, ex) -> null).thenCompose(ignored -> changed.isEmpty()
+                        ? CompletableFuture.completedFuture(List.<Review>of())
+                        : sqlCon.getAsync().submit(sql -> fetchReviews(changed)))
+                .whenCompleteAsync((reviews, ex) -> {
+                    if (ex != null) {
+                        ex.printStackTrace();
+                        return;
+                    }
+                    mergeReviews(changed, deleted, reviews);
+                }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Applies changed reviews to the list model, keeping it in review_date order, newest first.
+     */
+    private void mergeReviews(List<Integer> changed, List<Integer> deleted, List<Review> reviews) {
+        Set<Integer> gone = new HashSet<>(deleted);
+        gone.addAll(changed); // changed reviews that were not read back have been deleted since
+        Review selected = selectedReview; // removing its entry below clears the selection
+        Map<Integer, Review> fresh = new HashMap<>();
+        for (Review review : reviews) {
+            fresh.put(review.getId(), review);
+            gone.remove(review.getId());
+        }
+        for (int i = listModel.size() - 1; i >= 0; i--) {
+            Review old = listModel.get(i);
+            Review review = fresh.get(old.getId());
+            if (gone.contains(old.getId())) {
+                listModel.remove(i);
+            } else if (review != null) {
+                if (Objects.equals(review.getDate(), old.getDate())) {
+                    listModel.set(i, review);
+                    fresh.remove(old.getId());
+                } else {
+                    listModel.remove(i);
+                }
+            }
+        }
+        for (Review review : fresh.values()) {
+            int at = 0;
+            while (at < listModel.size() && !isNewer(review, listModel.get(at))) {
+                at++;
+            }
+            listModel.add(at, review);
+        }
+
+        // Replaced entries keep the selection but are new objects; show the new one.
+        if (selected != null && gone.contains(selected.getId())) {
+            selectedReview = null;
+            reviewDisplayArea.setText("");
+        } else if (selected != null) {
+            Review current = fresh.getOrDefault(selected.getId(), reviewsList.getSelectedValue());
+            if (current != null && current.getId() == selected.getId()) {
+                selectedReview = current;
+                reviewsList.setSelectedValue(current, true);
+                reviewDisplayArea.setText(describe(current));
+            }
         }
     }
 
+    /**
+     * @return true if {@code review} sorts before {@code other} in review_date DESC order, where undated
+     *         reviews come last
+     */
+    private static boolean isNewer(Review review, Review other) {
+        if (review.getDate() == null) {
+            return false;
+        }
+        return other.getDate() == null || review.getDate().after(other.getDate());
+    }
+
     /**
      * Retrieves all reviews from the database.
      *
-     * @return a List of Review objects
+     * @return a List of Review objects, newest first
      * @throws SQLException if a database error occurs
      */
     private List<Review> fetchAllReviews() throws SQLException {
+        return fetchReviews("ORDER BY review_date DESC", List.of());
+    }
+
+    /**
+     * Retrieves the given reviews from the database.
+     *
+     * @param ids the review IDs
+     * @return the reviews that still exist
+     * @throws SQLException if a database error occurs
+     */
+    private List<Review> fetchReviews(Collection<Integer> ids) throws SQLException {
+        return fetchReviews("WHERE review_id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")",
+                ids);
+    }
+
+    private List<Review> fetchReviews(String clause, Collection<Integer> ids) throws SQLException {
         List<Review> reviews = new ArrayList<>();
-        String query = "SELECT review_id, review_text, review_date, source, event_id FROM Review ORDER BY review_date DESC";
-
-        try (PreparedStatement ps = sqlCon.getConnection().prepareStatement(query);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Review review = new Review(
-                        rs.getInt("review_id"),
-                        rs.getString("review_text"),
-                        rs.getDate("review_date"),
-                        rs.getString("source"),
-                        rs.getInt("event_id")
-                );
-                reviews.add(review);
+        String query = "SELECT review_id, review_text, review_date, source, event_id, reply_text FROM Review "
+                + clause;
+
+        try (Connection con = sqlCon.getConnection();
+             PreparedStatement ps = con.prepareStatement(query)) {
+            int index = 1;
+            for (Integer id : ids) {
+                ps.setInt(index++, id);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Review review = new Review(
+                            rs.getInt("review_id"),
+                            rs.getString("review_text"),
+                            rs.getDate("review_date"),
+                            rs.getString("source"),
+                            rs.getInt("event_id")
+                    );
+                    review.setReply(rs.getString("reply_text"));
+                    reviews.add(review);
+                }
             }
         }
         return reviews;
@@ -244,9 +386,14 @@ public class ReviewsPanel extends JPanel {
      */
     private void reviewSelected(ListSelectionEvent e) {
         if (!e.getValueIsAdjusting()) {
-            selectedReview = reviewsList.getSelectedValue();
-            if (selectedReview != null) {
-                displayReviewDetails(selectedReview);
+            Review review = reviewsList.getSelectedValue();
+            boolean same = review != null && selectedReview != null && review.getId() == selectedReview.getId();
+            selectedReview = review;
+            if (same) {
+                // The list moved around the selected review; keep the reply being written.
+                reviewDisplayArea.setText(describe(review));
+            } else if (review != null) {
+                displayReviewDetails(review);
             }
         }
     }
@@ -257,7 +404,18 @@ public class ReviewsPanel extends JPanel {
      * @param review the Review object to display
      */
     private void displayReviewDetails(Review review) {
-        String reviewText = String.format(
+        reviewDisplayArea.setText(describe(review));
+        replyArea.setText("");
+    }
+
+    /**
+     * Formats a review for the review display area.
+     *
+     * @param review the Review object to describe
+     * @return the review's details and text
+     */
+    private static String describe(Review review) {
+        return String.format(
                 "Review ID: %d\nEvent ID: %d\nDate: %s\nSource: %s\n\nReview:\n%s",
                 review.getId(),
                 review.getEventId(),
@@ -265,8 +423,6 @@ public class ReviewsPanel extends JPanel {
                 review.getSource() != null ? review.getSource() : "Not specified",
                 review.getText()
         );
-        reviewDisplayArea.setText(reviewText);
-        replyArea.setText("");
     }
 
     /**
@@ -315,7 +471,8 @@ public class ReviewsPanel extends JPanel {
         try {
             // Update the database
             String query = "UPDATE Review SET reply_text = ? WHERE review_id = ?";
-            try (PreparedStatement ps = sqlCon.getConnection().prepareStatement(query)) {
+            try (Connection con = sqlCon.getConnection();
+                 PreparedStatement ps = con.prepareStatement(query)) {
                 ps.setString(1, replyText);
                 ps.setInt(2, selectedReview.getId());
                 ps.executeUpdate();
@@ -327,8 +484,8 @@ public class ReviewsPanel extends JPanel {
             // Refresh the display
             displayReviewDetails(selectedReview);
 
-            // Refresh the list to show the updated reply status
-            refreshReviews();
+            // Repaint the list to show the updated reply status; other clients see it through the change feed
+            reviewsList.repaint();
 
             JOptionPane.showMessageDialog(this, "Reply submitted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
         } catch (SQLException ex) {
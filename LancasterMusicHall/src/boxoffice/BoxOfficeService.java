@@ -1,6 +1,13 @@
 package boxoffice;
 
+import Database.CalendarEntries;
+import Database.DatabaseEvent;
+import Database.RoomOccupancyIndex;
 import Database.SQLConnection;
+import Database.rows.DailySheetRow;
+import Database.rows.OccupancyRow;
+import Database.rows.RoomRow;
+import Database.rows.VenueRow;
 import operations.entities.Event;
 import operations.entities.Room;
 import operations.entities.Seat;
@@ -82,7 +89,9 @@ public class BoxOfficeService implements BoxOfficeInterface {
     /**
      * Updates the event details for a given event in the database.
      * <p>
-     * This internal method constructs and executes an UPDATE SQL statement to modify the event details.
+     * This internal method constructs and executes an UPDATE SQL statement to modify the event details, and
+     * rewrites the event's calendar entries in the same transaction. The update is rejected, and nothing is
+     * written, if the new times overlap another event in the event's venue.
      * </p>
      *
      * @param eventId        the ID of the event to update
@@ -91,21 +100,45 @@ public class BoxOfficeService implements BoxOfficeInterface {
      */
     public boolean updateEventDetails(int eventId, Event updatedDetails) {
         String updateQuery = "UPDATE Event SET name = ?, start_date = ?, end_date = ?, start_time = ?, end_time = ?, location = ?, description = ?, layout = ? WHERE event_id = ?";
-        try (Connection con = sqlCon.getConnection();
-             PreparedStatement ps = con.prepareStatement(updateQuery)) {
-            ps.setString(1, updatedDetails.getName());
-            ps.setDate(2, java.sql.Date.valueOf(updatedDetails.getStartDate()));
-            ps.setDate(3, java.sql.Date.valueOf(updatedDetails.getEndDate()));
-            ps.setTime(4, java.sql.Time.valueOf(updatedDetails.getStartTime()));
-            ps.setTime(5, java.sql.Time.valueOf(updatedDetails.getEndTime()));
-            ps.setString(6, updatedDetails.getRoom());
-            ps.setString(7, updatedDetails.getDescription());
-            ps.setString(8, updatedDetails.getLayout());
-            ps.setInt(9, eventId);
-            int rows = ps.executeUpdate();
-            if (rows > 0) {
-                System.out.println("Event updated successfully: " + eventId);
-                return true;
+        try (Connection con = sqlCon.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                // The event keeps its venue; its new times must not overlap another event there.
+                List<OccupancyRow> before = RoomOccupancyIndex.readEvents(con, List.of(eventId));
+                List<OccupancyRow> after = new ArrayList<>();
+                for (OccupancyRow current : before) {
+                    after.add(new OccupancyRow(eventId, current.venueId(), updatedDetails.getName(),
+                            updatedDetails.getStartDate(), updatedDetails.getStartTime(),
+                            updatedDetails.getEndDate(), updatedDetails.getEndTime()));
+                }
+                sqlCon.getRoomOccupancy().recheck(con, after);
+
+                int rows;
+                try (PreparedStatement ps = con.prepareStatement(updateQuery)) {
+                    ps.setString(1, updatedDetails.getName());
+                    ps.setDate(2, java.sql.Date.valueOf(updatedDetails.getStartDate()));
+                    ps.setDate(3, java.sql.Date.valueOf(updatedDetails.getEndDate()));
+                    ps.setTime(4, java.sql.Time.valueOf(updatedDetails.getStartTime()));
+                    ps.setTime(5, java.sql.Time.valueOf(updatedDetails.getEndTime()));
+                    ps.setString(6, updatedDetails.getRoom());
+                    ps.setString(7, updatedDetails.getDescription());
+                    ps.setString(8, updatedDetails.getLayout());
+                    ps.setInt(9, eventId);
+                    rows = ps.executeUpdate();
+                }
+                CalendarEntries.refreshEvent(con, eventId);
+                con.commit();
+                if (rows > 0) {
+                    sqlCon.getRoomOccupancy().update(before, after);
+                    System.out.println("Event updated successfully: " + eventId);
+                    sqlCon.getEventBus().publish(new DatabaseEvent.EventUpdated(eventId));
+                    return true;
+                }
+            } catch (SQLException ex) {
+                con.rollback();
+                throw ex;
+            } finally {
+                con.setAutoCommit(true);
             }
         } catch (SQLException ex) {
             ex.printStackTrace();
@@ -171,24 +204,13 @@ public class BoxOfficeService implements BoxOfficeInterface {
             System.err.println("No valid venue found for event: " + eventId);
             return Collections.emptyList();
         }
-        String query = "SELECT is_flexible_seating, is_accessible FROM Venue WHERE venue_id = ?";
-        try (Connection con = sqlCon.getConnection();
-             PreparedStatement ps = con.prepareStatement(query)) {
-            ps.setInt(1, venueId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                boolean flexible = rs.getBoolean("is_flexible_seating");
-                boolean accessible = rs.getBoolean("is_accessible");
-                if (accessible) {
-                    System.out.println("Venue " + getVenueName(venueId) + " is accessible.");
-                } else {
-                    System.out.println("Venue " + getVenueName(venueId) + " is not accessible. Updating seating plan...");
-                }
+        sqlCon.getReferenceData().getVenue(venueId).ifPresent(venue -> {
+            if (venue.accessible()) {
+                System.out.println("Venue " + venue.venueName() + " is accessible.");
+            } else {
+                System.out.println("Venue " + venue.venueName() + " is not accessible. Updating seating plan...");
             }
-            rs.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
+        });
         return Collections.emptyList();
     }
 
@@ -206,61 +228,34 @@ public class BoxOfficeService implements BoxOfficeInterface {
     /**
      * Helper method to retrieve the venue ID for a given event.
      * <p>
-     * This method queries the database for the venue associated with the event.
+     * The mapping is served from the shared reference-data cache ({@link SQLConnection#getReferenceData()}).
      * </p>
      *
      * @param eventId the ID of the event
      * @return the venue ID if found; otherwise, {@code 0}
      */
     private int getVenueIdForEvent(int eventId) {
-        String query = "SELECT venue_id FROM Event WHERE event_id = ?";
-        try (Connection con = sqlCon.getConnection();
-             PreparedStatement ps = con.prepareStatement(query)) {
-            ps.setInt(1, eventId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                int vId = rs.getInt("venue_id");
-                rs.close();
-                return vId;
-            }
-            rs.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-        return 0;
+        return sqlCon.getReferenceData().getVenueIdForEvent(eventId).orElse(0);
     }
 
     /**
      * Helper method to retrieve the venue name for a given venue ID.
      * <p>
-     * This method queries the database for the venue name from the {@code Venue} table.
+     * The venue is served from the shared reference-data cache ({@link SQLConnection#getReferenceData()}).
      * </p>
      *
      * @param venueId the ID of the venue
      * @return the venue name if found; otherwise, "Unknown Venue"
      */
     private String getVenueName(int venueId) {
-        String query = "SELECT venue_name FROM Venue WHERE venue_id = ?";
-        try (Connection con = sqlCon.getConnection();
-             PreparedStatement ps = con.prepareStatement(query)) {
-            ps.setInt(1, venueId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                String name = rs.getString("venue_name");
-                rs.close();
-                return name;
-            }
-            rs.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-        return "Unknown Venue";
+        return sqlCon.getReferenceData().getVenue(venueId).map(VenueRow::venueName).orElse("Unknown Venue");
     }
 
     /**
      * Helper method to retrieve room details for a given venue.
      * <p>
-     * The method executes a SQL query to get details for rooms associated with the specified venue.
+     * The rooms are served from the shared reference-data cache ({@link SQLConnection#getReferenceData()});
+     * each call returns new {@code Room} objects, so callers may change them freely.
      * </p>
      *
      * @param venueId the ID of the venue
@@ -268,27 +263,10 @@ public class BoxOfficeService implements BoxOfficeInterface {
      */
     public List<Room> getRoomDetailsForVenue(int venueId) {
         List<Room> roomList = new ArrayList<>();
-        String query = "SELECT room_name, venue_id, room_number, room_capacity, classroom_capacity, boardroom_capacity, presentation_capacity, seating_type " +
-                "FROM Room WHERE venue_id = ?";
-        try (Connection con = sqlCon.getConnection();
-             PreparedStatement ps = con.prepareStatement(query)) {
-            ps.setInt(1, venueId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String roomName = rs.getString("room_name");
-                int vId = rs.getInt("venue_id");
-                Integer roomNumber = rs.getObject("room_number") != null ? rs.getInt("room_number") : null;
-                Integer roomCapacity = rs.getObject("room_capacity") != null ? rs.getInt("room_capacity") : null;
-                int classroomCapacity = rs.getInt("classroom_capacity");
-                int boardroomCapacity = rs.getInt("boardroom_capacity");
-                int presentationCapacity = rs.getInt("presentation_capacity");
-                String seatingType = rs.getString("seating_type");
-                Room room = new Room(roomName, vId, roomNumber, roomCapacity, classroomCapacity, boardroomCapacity, presentationCapacity, seatingType);
-                roomList.add(room);
-            }
-            rs.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
+        for (RoomRow row : sqlCon.getReferenceData().getRooms(venueId)) {
+            roomList.add(new Room(row.roomName(), row.venueId(), row.roomNumber(), row.roomCapacity(),
+                    row.classroomCapacity(), row.boardroomCapacity(), row.presentationCapacity(),
+                    row.seatingType()));
         }
         return roomList;
     }
@@ -301,19 +279,11 @@ public class BoxOfficeService implements BoxOfficeInterface {
      * </p>
      *
      * @param date the date for which to fetch the daily sheet
-     * @return a {@code ResultSet} containing the query results; {@code null} if an error occurs
+     * @return the events starting on that date; an empty list if there are none or an error occurs
      */
-    public ResultSet fetchDailySheet(LocalDate date) {
+    public List<DailySheetRow> fetchDailySheet(LocalDate date) {
         String query = "SELECT event_id, name, start_time, end_time FROM Event WHERE start_date = ?";
-        try {
-            Connection con = sqlCon.getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setDate(1, java.sql.Date.valueOf(date));
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return sqlCon.queryForList(query, DailySheetRow.MAPPER, date);
     }
 
     /**
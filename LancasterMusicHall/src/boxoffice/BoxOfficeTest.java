@@ -1,10 +1,10 @@
 package boxoffice;
 
 import Database.SQLConnection;
+import Database.rows.DailySheetRow;
 import operations.entities.Event;
 import operations.entities.Room;
 
-import java.sql.ResultSet;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -88,17 +88,11 @@ public class BoxOfficeTest {
 
         // 6. Test fetchDailySheet: retrieve and print a summary of events for a specific day.
         System.out.println("\n=== Daily Sheet for 2025-04-15 ===");
-        try (ResultSet rs = boxOfficeService.fetchDailySheet(LocalDate.of(2025, 4, 15))) {
-            if (rs != null) {
-                while (rs.next()) {
-                    System.out.println("Event ID: " + rs.getInt("event_id") +
-                            ", Name: " + rs.getString("name") +
-                            ", Start Time: " + rs.getTime("start_time") +
-                            ", End Time: " + rs.getTime("end_time"));
-                }
-            }
-        } catch (Exception ex) {
-            ex.printStackTrace();
+        for (DailySheetRow row : boxOfficeService.fetchDailySheet(LocalDate.of(2025, 4, 15))) {
+            System.out.println("Event ID: " + row.eventId() +
+                    ", Name: " + row.name() +
+                    ", Start Time: " + row.startTime() +
+                    ", End Time: " + row.endTime());
         }
     }
 }
@@ -1,21 +1,23 @@
 package marketing;
 
 import Database.SQLConnection;
+import Database.rows.BookingDetailsRow;
+import Database.rows.BookingEventRow;
+import Database.rows.CalendarBookingRow;
+import Database.rows.ClientDetailsRow;
+import Database.rows.ContractRow;
+import Database.rows.DailySheetRow;
 import operations.entities.Event;
 import operations.entities.Venue;
 import operations.module.CalendarModule;
 import operations.module.IncomeTracker;
 import operations.module.RoomConfigurationSystem;
 
-import java.sql.*;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * The {@code MarketingService} class implements the {@code MarketingInterface} and provides
@@ -56,207 +58,91 @@ public class MarketingService implements MarketingInterface {
      *
      * @param startDate The start date of the booking range.
      * @param endDate   The end date of the booking range.
-     * @return A {@link ResultSet} containing booking_id, booking_DateStart, booking_DateEnd, and booking_status,
-     *         or {@code null} if an SQL exception occurs.
+     * @return The bookings in the range; an empty list if there are none or an SQL exception occurs.
      */
-    public ResultSet getCalendarBookings(LocalDate startDate, LocalDate endDate) {
+    public List<CalendarBookingRow> getCalendarBookings(LocalDate startDate, LocalDate endDate) {
         String query = "SELECT booking_id, booking_DateStart, booking_DateEnd, booking_status " +
                 "FROM Booking WHERE booking_DateStart >= ? AND booking_DateEnd <= ?";
-        try {
-            Connection con = sqlCon.getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setDate(1, java.sql.Date.valueOf(startDate));
-            ps.setDate(2, java.sql.Date.valueOf(endDate));
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return sqlCon.queryForList(query, CalendarBookingRow.MAPPER, startDate, endDate);
     }
 
     /**
      * Retrieves detailed booking information including client company name for a given booking ID.
      *
      * @param bookingId The booking ID for which the details are requested.
-     * @return A {@link ResultSet} containing booking details such as booking_DateStart, booking_DateEnd, booking_status,
-     *         total_cost, payment_status, client_id, and company_name; or {@code null} if an SQL exception occurs.
+     * @return The booking details such as start and end date, status, total cost, payment status, client ID
+     *         and company name; or an empty {@link Optional} if not found or an SQL exception occurs.
      */
-    public ResultSet getBookingDetails(int bookingId) {
+    public Optional<BookingDetailsRow> getBookingDetails(int bookingId) {
         String query = "SELECT b.booking_DateStart, b.booking_DateEnd, b.booking_status, b.total_cost, b.payment_status, " +
                 "b.client_id, c.`Company Name` AS company_name " +
                 "FROM Booking b JOIN Clients c ON b.client_id = c.client_id " +
                 "WHERE b.booking_id = ?";
-        try {
-            Connection con = sqlCon.getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return sqlCon.queryForObject(query, BookingDetailsRow.MAPPER, bookingId);
     }
 
     /**
      * Retrieves client contact details associated with a specific booking.
      *
      * @param bookingId The booking ID for which client details are requested.
-     * @return A {@link ResultSet} containing client contact information such as Contact Name, Phone Number,
-     *         and Contact Email, or {@code null} if an SQL exception occurs.
+     * @return The client contact information such as Contact Name, Phone Number and Contact Email,
+     *         or an empty {@link Optional} if not found or an SQL exception occurs.
      */
-    public ResultSet getClientDetails(int bookingId) {
-        String query = "SELECT c.`Contact Name`, c.`Phone Number`, c.`Contact Email` " +
-                "FROM Clients c JOIN Booking b ON c.client_id = b.client_id " +
-                "WHERE b.booking_id = ?";
-        try {
-            Connection con = sqlCon.getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+    public Optional<ClientDetailsRow> getClientDetails(int bookingId) {
+        return sqlCon.getClientDetails(bookingId);
     }
 
     /**
      * Retrieves event details associated with a specific booking, joined with venue details.
      *
      * @param bookingId The booking ID for which event details are requested.
-     * @return A {@link ResultSet} containing event details such as event_id, name, start_date, end_date,
-     *         start_time, end_time, event_type, and venue_name, or {@code null} if an SQL exception occurs.
+     * @return The events such as event_id, name, start_date, end_date, start_time, end_time, event_type,
+     *         and venue_name; an empty list if there are none or an SQL exception occurs.
      */
-    public ResultSet getEventDetails(int bookingId) {
+    public List<BookingEventRow> getEventDetails(int bookingId) {
         String query = "SELECT e.event_id, e.name, e.start_date, e.end_date, e.start_time, e.end_time, " +
                 "e.event_type, v.venue_name " +
                 "FROM Event e JOIN Venue v ON e.venue_id = v.venue_id " +
                 "WHERE e.booking_id = ?";
-        try {
-            Connection con = sqlCon.getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return sqlCon.queryForList(query, BookingEventRow.MAPPER, bookingId);
     }
 
     /**
      * Retrieves contract details for a given booking.
      *
      * @param bookingId The booking ID for which contract details are requested.
-     * @return A {@link ResultSet} containing contract_id, details, and file_data,
-     *         or {@code null} if an SQL exception occurs.
+     * @return The contract_id, details, and document size (the document itself is not loaded),
+     *         or an empty {@link Optional} if none exists or an SQL exception occurs.
      */
-    public ResultSet getContractDetails(int bookingId) {
-        String query = "SELECT contract_id, details, file_data FROM Contract WHERE booking_id = ?";
-        try {
-            Connection con = sqlCon.getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, bookingId);
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+    public Optional<ContractRow> getContractDetails(int bookingId) {
+        return sqlCon.getContractDetails(bookingId);
     }
 
     /**
-     * Retrieves film event details with available free time intervals for a specified date.
+     * Retrieves the free time of each venue on a specified date.
      * <p>
-     * This method calculates free time slots for each venue by comparing existing film events with
-     * assumed operating hours (08:00 to 22:00).
+     * The free time is read off the venues' occupancy bitmaps within the standard opening hours
+     * (08:00 to 22:00); every event holding a venue counts, not only films.
      * </p>
      *
-     * @param date The date for which film event availability is requested.
+     * @param date The date for which venue availability is requested.
      * @return A {@link Map} where keys are venue names and values are comma-separated strings representing free time intervals.
+     * @see SQLConnection#getFilmEventDetailsWithAvailability(LocalDate)
      */
     public Map<String, String> getFilmEventDetailsWithAvailability(LocalDate date) {
-        Map<String, List<Interval>> bookedSlotsByVenue = new HashMap<>();
-        Map<String, String> freeTimeByVenue = new HashMap<>();
-        String query = "SELECT location, start_time, end_time FROM Event " +
-                "WHERE event_type = 'Film' AND start_date = ?";
-        try (Connection con = sqlCon.getConnection();
-             PreparedStatement ps = con.prepareStatement(query)) {
-            ps.setDate(1, java.sql.Date.valueOf(date));
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()){
-                String venue = rs.getString("location");
-                Time sqlStartTime = rs.getTime("start_time");
-                Time sqlEndTime = rs.getTime("end_time");
-                LocalTime startTime = sqlStartTime.toLocalTime();
-                LocalTime endTime = sqlEndTime.toLocalTime();
-                bookedSlotsByVenue.computeIfAbsent(venue, k -> new ArrayList<>())
-                        .add(new Interval(startTime, endTime));
-            }
-            rs.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return freeTimeByVenue;
-        }
-        // Assume operating hours: 08:00 to 22:00.
-        LocalTime operatingStart = LocalTime.of(8, 0);
-        LocalTime operatingEnd = LocalTime.of(22, 0);
-        for (Map.Entry<String, List<Interval>> entry : bookedSlotsByVenue.entrySet()){
-            String venue = entry.getKey();
-            List<Interval> intervals = entry.getValue();
-            intervals.sort(Comparator.comparing(i -> i.start));
-            List<String> freeIntervals = new ArrayList<>();
-            LocalTime current = operatingStart;
-            for (Interval interval : intervals) {
-                if (current.isBefore(interval.start)) {
-                    freeIntervals.add(current + " to " + interval.start);
-                }
-                if (current.isBefore(interval.end)) {
-                    current = interval.end;
-                }
-            }
-            if (current.isBefore(operatingEnd)) {
-                freeIntervals.add(current + " to " + operatingEnd);
-            }
-            freeTimeByVenue.put(venue, String.join(", ", freeIntervals));
-        }
-        return freeTimeByVenue;
-    }
-
-    /**
-     * A helper class representing a time interval with a start and end time.
-     */
-    private static class Interval {
-        LocalTime start;
-        LocalTime end;
-
-        /**
-         * Constructs a new {@code Interval} with the specified start and end times.
-         *
-         * @param start The start time of the interval.
-         * @param end   The end time of the interval.
-         */
-        Interval(LocalTime start, LocalTime end) {
-            this.start = start;
-            this.end = end;
-        }
+        return sqlCon.getFilmEventDetailsWithAvailability(date);
     }
 
     /**
      * Fetches a daily sheet summary of events for the given date.
      *
      * @param date The date for which to fetch the daily sheet.
-     * @return A {@link ResultSet} containing event_id, name, start_time, and end_time,
-     *         or {@code null} if an SQL exception occurs.
+     * @return The event_id, name, start_time, and end_time of each event;
+     *         an empty list if there are none or an SQL exception occurs.
      */
-    public ResultSet fetchDailySheet(LocalDate date) {
+    public List<DailySheetRow> fetchDailySheet(LocalDate date) {
         String query = "SELECT event_id, name, start_time, end_time FROM Event WHERE start_date = ?";
-        try {
-            Connection con = sqlCon.getConnection();
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setDate(1, java.sql.Date.valueOf(date));
-            return ps.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            return null;
-        }
+        return sqlCon.queryForList(query, DailySheetRow.MAPPER, date);
     }
 
     // ------------------ Marketing Interface Methods ------------------
@@ -272,19 +158,16 @@ public class MarketingService implements MarketingInterface {
     @Override
     public String viewCalendar(LocalDate startDate, LocalDate endDate) {
         StringBuilder calendarData = new StringBuilder();
-        try (ResultSet rs = getCalendarBookings(startDate, endDate)) {
-            if (rs != null) {
-                while (rs.next()) {
-                    calendarData.append("Booking ID: ").append(rs.getInt("booking_id")).append(", ");
-                    calendarData.append("Start Date: ").append(rs.getDate("booking_DateStart")).append(", ");
-                    calendarData.append("End Date: ").append(rs.getDate("booking_DateEnd")).append(", ");
-                    calendarData.append("Status: ").append(rs.getString("booking_status")).append("\n");
-                }
-            } else {
-                return "Error retrieving calendar data.";
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String query = "SELECT booking_id, booking_DateStart, booking_DateEnd, booking_status " +
+                "FROM Booking WHERE booking_DateStart >= ? AND booking_DateEnd <= ?";
+        // Stream rows straight into the report instead of materialising the whole range.
+        int rows = sqlCon.queryForEach(query, CalendarBookingRow.MAPPER, booking -> {
+            calendarData.append("Booking ID: ").append(booking.bookingId()).append(", ");
+            calendarData.append("Start Date: ").append(booking.startDate()).append(", ");
+            calendarData.append("End Date: ").append(booking.endDate()).append(", ");
+            calendarData.append("Status: ").append(booking.status()).append("\n");
+        }, startDate, endDate);
+        if (rows < 0) {
             return "Error retrieving calendar data.";
         }
         return calendarData.toString();
@@ -332,22 +215,18 @@ public class MarketingService implements MarketingInterface {
      */
     @Override
     public String getConfigurationDetails(int bookingId) {
-        StringBuilder details = new StringBuilder();
-        try (ResultSet rsBooking = getBookingDetails(bookingId)) {
-            if (rsBooking.next()) {
-                details.append("Booking Start Date: ").append(rsBooking.getString("booking_DateStart")).append("\n");
-                details.append("Booking End Date: ").append(rsBooking.getString("booking_DateEnd")).append("\n");
-                details.append("Status: ").append(rsBooking.getString("booking_status")).append("\n");
-                details.append("Total Cost: ").append(rsBooking.getString("total_cost")).append("\n");
-                details.append("Payment Status: ").append(rsBooking.getString("payment_status")).append("\n");
-                details.append("Company Name: ").append(rsBooking.getString("company_name")).append("\n");
-            } else {
-                return "No booking found for ID: " + bookingId;
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return "Error retrieving booking configuration details.";
+        Optional<BookingDetailsRow> booking = getBookingDetails(bookingId);
+        if (booking.isEmpty()) {
+            return "No booking found for ID: " + bookingId;
         }
+        BookingDetailsRow b = booking.get();
+        StringBuilder details = new StringBuilder();
+        details.append("Booking Start Date: ").append(b.startDate()).append("\n");
+        details.append("Booking End Date: ").append(b.endDate()).append("\n");
+        details.append("Status: ").append(b.status()).append("\n");
+        details.append("Total Cost: ").append(b.totalCost()).append("\n");
+        details.append("Payment Status: ").append(b.paymentStatus()).append("\n");
+        details.append("Company Name: ").append(b.companyName()).append("\n");
         return details.toString();
     }
 
@@ -412,20 +291,11 @@ public class MarketingService implements MarketingInterface {
     @Override
     public String getDailySheet(LocalDate date) {
         StringBuilder sheet = new StringBuilder();
-        try (ResultSet rs = fetchDailySheet(date)) {
-            if (rs != null) {
-                while (rs.next()) {
-                    sheet.append("Event ID: ").append(rs.getInt("event_id")).append(", ");
-                    sheet.append("Name: ").append(rs.getString("name")).append(", ");
-                    sheet.append("Start Time: ").append(rs.getTime("start_time")).append(", ");
-                    sheet.append("End Time: ").append(rs.getTime("end_time")).append("\n");
-                }
-            } else {
-                return "Error retrieving daily sheet.";
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return "Error retrieving daily sheet.";
+        for (DailySheetRow row : fetchDailySheet(date)) {
+            sheet.append("Event ID: ").append(row.eventId()).append(", ");
+            sheet.append("Name: ").append(row.name()).append(", ");
+            sheet.append("Start Time: ").append(row.startTime()).append(", ");
+            sheet.append("End Time: ").append(row.endTime()).append("\n");
         }
         return sheet.toString();
     }
@@ -1,5 +1,6 @@
 package operations;
 
+import Database.SQLConnection;
 import operations.entities.*;
 import operations.module.CalendarModule;
 import operations.module.IncomeTracker;
@@ -38,9 +39,10 @@ public class LancasterMusicHallApp {
     public static void main(String[] args) {
         System.out.println("Lancaster Music Hall Desktop Application - Operations Team");
 
-        // Initialize core modules
+        // Initialize core modules; room availability is read from the venues' bookings.
+        SQLConnection sqlCon = new SQLConnection();
         CalendarModule calendarModule = new CalendarModule();
-        RoomConfigurationSystem roomConfig = new RoomConfigurationSystem();
+        RoomConfigurationSystem roomConfig = new RoomConfigurationSystem(sqlCon.getAvailability());
         IncomeTracker incomeTracker = new IncomeTracker();
         ReviewManager reviewManager = new ReviewManager();
     }
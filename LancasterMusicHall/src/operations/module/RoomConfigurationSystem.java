@@ -1,39 +1,79 @@
 package operations.module;
 
+import Database.AvailabilityEngine;
+import Database.rows.VenueRow;
 import operations.entities.Booking;
 import operations.entities.DailySheet;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * The RoomConfigurationSystem class provides methods for retrieving room availability,
  * seating plans, configuration details, held spaces, and generating daily sheets.
  * <p>
- * This is a sample implementation intended for demonstration purposes.
+ * Room availability is read from the venues' bookings when an {@link AvailabilityEngine} is given; the rest
+ * is a sample implementation intended for demonstration purposes.
  * </p>
  */
 public class RoomConfigurationSystem {
 
+    private final AvailabilityEngine availabilityEngine;
+
     /**
      * Initializes the room configuration system with default settings.
      * <p>
      * Subclasses should call this constructor to ensure proper initialization
-     * of common configuration components.
+     * of common configuration components. Room availability is sample data.
      * </p>
      */
     public RoomConfigurationSystem() {
-        // Base initialization logic
+        this(null);
+    }
+
+    /**
+     * Initializes the room configuration system with room availability read from the venues' bookings.
+     *
+     * @param availabilityEngine the engine that answers room availability, or {@code null} for sample data
+     */
+    public RoomConfigurationSystem(AvailabilityEngine availabilityEngine) {
+        this.availabilityEngine = availabilityEngine;
     }
 
     /**
-     * Returns a sample room availability map for a given date.
+     * Returns the room availability map for a given date.
+     * <p>
+     * With an {@link AvailabilityEngine}, each venue is "Available" if it is free for all of the opening hours,
+     * "Booked" if it is not free at any time, and otherwise lists its free time. Without one, sample values are
+     * returned.
+     * </p>
      *
      * @param date the {@link LocalDate} for which room availability is requested
      * @return a {@link Map} where the key is the room name and the value is its availability status
      */
     public Map<String, String> getRoomAvailability(LocalDate date) {
+        if (availabilityEngine != null) {
+            Map<String, String> availability = new LinkedHashMap<>();
+            long openMinutes = AvailabilityEngine.OPENING.until(AvailabilityEngine.CLOSING, ChronoUnit.MINUTES);
+            for (Map.Entry<VenueRow, List<AvailabilityEngine.Slot>> entry
+                    : availabilityEngine.freeSlotsByVenue(date).entrySet()) {
+                List<AvailabilityEngine.Slot> slots = entry.getValue();
+                String status;
+                if (slots.isEmpty()) {
+                    status = "Booked";
+                } else if (slots.size() == 1 && slots.get(0).minutes() == openMinutes) {
+                    status = "Available";
+                } else {
+                    status = "Free " + AvailabilityEngine.describe(slots);
+                }
+                availability.put(entry.getKey().venueName(), status);
+            }
+            return availability;
+        }
         Map<String, String> availability = new HashMap<>();
         availability.put("Main Hall", "Available");
         availability.put("Small Hall", "Booked");